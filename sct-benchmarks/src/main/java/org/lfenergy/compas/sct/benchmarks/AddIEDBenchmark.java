@@ -0,0 +1,67 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.benchmarks;
+
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.scl.SclService;
+import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SclService.addIED of an ICD in a generated SCD of iedCount IEDs. The ICD is imported by each invocation, so a
+ * fresh copy is unmarshalled before it and the added IED is removed after it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class AddIEDBenchmark {
+
+    private static final String IED_NAME = "BENCH_IED";
+
+    @Param({"10", "100", "500"})
+    private int iedCount;
+
+    private SCL scd;
+    private byte[] icdXml;
+    private SCL icd;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws Exception {
+        scd = ScdFixtures.generate(iedCount);
+        icdXml = ScdFixtures.readResource(ScdFixtures.ICD_1);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() throws Exception {
+        icd = ScdFixtures.copy(icdXml);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() {
+        scd.getIED().removeIf(tied -> IED_NAME.equals(tied.getName()));
+    }
+
+    @Benchmark
+    public IEDAdapter addIED() throws Exception {
+        return SclService.addIED(scd, IED_NAME, icd);
+    }
+}
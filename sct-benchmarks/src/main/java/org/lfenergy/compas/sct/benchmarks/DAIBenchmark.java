@@ -0,0 +1,88 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.benchmarks;
+
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.scl2007b4.model.TVal;
+import org.lfenergy.compas.sct.commons.dto.DaTypeName;
+import org.lfenergy.compas.sct.commons.dto.DoTypeName;
+import org.lfenergy.compas.sct.commons.dto.ResumedDataTemplate;
+import org.lfenergy.compas.sct.commons.scl.SclService;
+import org.lfenergy.compas.sct.commons.testhelpers.ScdGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DAI reading and update on SCDs of iedCount IEDs
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DAIBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class GetDAIState {
+        @Param({"10", "100", "500"})
+        private int iedCount;
+
+        private SCL scd;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            scd = ScdFixtures.generate(iedCount);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class UpdateDAIState {
+        @Param({"10", "100", "500"})
+        private int iedCount;
+
+        private SCL scd;
+        private ResumedDataTemplate rDtt;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            scd = ScdFixtures.withIEDCount(ScdFixtures.load(ScdFixtures.SCD_DAI), iedCount);
+            rDtt = new ResumedDataTemplate();
+            rDtt.setLnType("LNO1");
+            rDtt.setLnClass(TLLN0Enum.LLN_0.value());
+            rDtt.setDoName(new DoTypeName("Do.sdo1.d"));
+            rDtt.setDaName(new DaTypeName("antRef.bda1.bda2.bda3"));
+            TVal tVal = new TVal();
+            tVal.setValue("newValue");
+            rDtt.setDaiValues(List.of(tVal));
+        }
+    }
+
+    @Benchmark
+    public Set<ResumedDataTemplate> getDAI(GetDAIState state) throws Exception {
+        return SclService.getDAI(state.scd, ScdGenerator.iedName(0), ScdGenerator.ldInst(0),
+                new ResumedDataTemplate(), true);
+    }
+
+    @Benchmark
+    public SCL updateDAI(UpdateDAIState state) throws Exception {
+        SclService.updateDAI(state.scd, "IED_NAME", "LD_INS1", state.rDtt);
+        return state.scd;
+    }
+}
@@ -0,0 +1,58 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.benchmarks;
+
+import org.lfenergy.compas.sct.commons.dto.DaTypeName;
+import org.lfenergy.compas.sct.commons.dto.DoTypeName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing and copy of DO/DA names, done for every DAI and ExtRef handled
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class DataTypeNameBenchmark {
+
+    @Param({"Do", "Do11.sdo11", "Do.sdo1.sdo2.sdo3"})
+    private String doName;
+
+    @Param({"da", "da11.bda111.bda112.bda113"})
+    private String daName;
+
+    @Benchmark
+    public DoTypeName parseDoTypeName() {
+        return new DoTypeName(doName);
+    }
+
+    @Benchmark
+    public DaTypeName parseDaTypeName() {
+        return new DaTypeName(daName);
+    }
+
+    @Benchmark
+    public DoTypeName copyDoTypeName() {
+        return DoTypeName.from(new DoTypeName(doName));
+    }
+
+    @Benchmark
+    public DaTypeName copyDaTypeName() {
+        return DaTypeName.from(new DaTypeName(daName));
+    }
+}
@@ -0,0 +1,95 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.benchmarks;
+
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TExtRef;
+import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.scl2007b4.model.TServiceType;
+import org.lfenergy.compas.sct.commons.dto.ControlBlock;
+import org.lfenergy.compas.sct.commons.dto.ExtRefBindingInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.SclService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ExtRef binding queries on SCDs of iedCount IEDs
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ExtRefBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class BindersState {
+        @Param({"10", "100", "500"})
+        private int iedCount;
+
+        private SCL scd;
+        private ExtRefSignalInfo signalInfo;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            scd = ScdFixtures.withIEDCount(ScdFixtures.load(ScdFixtures.SCD_BINDERS), iedCount);
+            signalInfo = new ExtRefSignalInfo();
+            signalInfo.setDesc("DESC");
+            signalInfo.setPDO("Do11.sdo11");
+            signalInfo.setPDA("da11.bda111.bda112.bda113");
+            signalInfo.setPLN(TLLN0Enum.LLN_0.value());
+            signalInfo.setPServT(TServiceType.REPORT);
+            signalInfo.setIntAddr("INT_ADDR11");
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class SourceInfoState {
+        @Param({"10", "100", "500"})
+        private int iedCount;
+
+        private SCL scd;
+        private ExtRefInfo extRefInfo;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            scd = ScdFixtures.withIEDCount(ScdFixtures.load(ScdFixtures.SCD_CONTROL_BLOCKS), iedCount);
+            List<TExtRef> extRefs = new SclRootAdapter(scd).getIEDAdapterByName("IED_NAME2")
+                    .getLDeviceAdapterByLdInst("LD_INST21").orElseThrow()
+                    .getLN0Adapter().getExtRefs(null);
+            extRefInfo = new ExtRefInfo(extRefs.get(0));
+            extRefInfo.setHolderIEDName("IED_NAME2");
+            extRefInfo.setHolderLDInst("LD_INST21");
+            extRefInfo.setHolderLnClass(TLLN0Enum.LLN_0.value());
+        }
+    }
+
+    @Benchmark
+    public List<ExtRefBindingInfo> getExtRefBinders(BindersState state) throws Exception {
+        return SclService.getExtRefBinders(state.scd, "IED_NAME1", "LD_INST11",
+                TLLN0Enum.LLN_0.value(), "", "", state.signalInfo);
+    }
+
+    @Benchmark
+    public List<ControlBlock<?>> getExtRefSourceInfo(SourceInfoState state) throws Exception {
+        return SclService.getExtRefSourceInfo(state.scd, state.extRefInfo);
+    }
+}
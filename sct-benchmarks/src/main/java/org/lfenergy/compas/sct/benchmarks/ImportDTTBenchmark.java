@@ -0,0 +1,65 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.benchmarks;
+
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateAdapter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataTypeTemplates import of an ICD in the DataTypeTemplates of a generated SCD of iedCount IEDs. Both sides are
+ * modified by the import, so they are unmarshalled before each invocation. Only the DataTypeTemplates of the SCD are
+ * kept.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class ImportDTTBenchmark {
+
+    @Param({"10", "100", "500"})
+    private int iedCount;
+
+    private byte[] rcvXml;
+    private byte[] prvXml;
+    private DataTypeTemplateAdapter rcvDttAdapter;
+    private DataTypeTemplateAdapter prvDttAdapter;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws Exception {
+        SCL scd = ScdFixtures.generate(iedCount);
+        scd.getIED().clear();
+        rcvXml = ScdFixtures.toBytes(scd);
+        prvXml = ScdFixtures.readResource(ScdFixtures.ICD_3);
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() throws Exception {
+        rcvDttAdapter = new SclRootAdapter(ScdFixtures.copy(rcvXml)).getDataTypeTemplateAdapter();
+        prvDttAdapter = new SclRootAdapter(ScdFixtures.copy(prvXml)).getDataTypeTemplateAdapter();
+    }
+
+    @Benchmark
+    public Map<String, String> importDTT() throws Exception {
+        return rcvDttAdapter.importDTT("BENCH_IED", prvDttAdapter);
+    }
+}
@@ -0,0 +1,71 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.benchmarks;
+
+import org.apache.commons.io.IOUtils;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.io.SclMarshaller;
+import org.lfenergy.compas.sct.commons.testhelpers.ScdGenerator;
+
+import java.io.IOException;
+
+/**
+ * SCDs of the benchmarks, built from the SCL files of the sct-commons tests
+ */
+public final class ScdFixtures {
+
+    public static final String ICD_1 = "/scl-srv-import-ieds/ied_1_test.xml";
+    public static final String ICD_3 = "/scl-srv-import-ieds/ied_3_test.xml";
+    public static final String SCD_BINDERS = "/scl-srv-scd-extref-cb/scd_get_binders_test.xml";
+    public static final String SCD_CONTROL_BLOCKS = "/scl-srv-scd-extref-cb/scd_get_cbs_test.xml";
+    public static final String SCD_DAI = "/ied-test-schema-conf/ied_unit_test.xml";
+
+    private static final String FILLER_IED_NAME = "FILLER_";
+    private static final SclMarshaller SCL_MARSHALLER = new SclMarshaller();
+
+    private ScdFixtures() {
+        throw new IllegalStateException("ScdFixtures class");
+    }
+
+    public static byte[] readResource(String resource) throws IOException {
+        return IOUtils.resourceToByteArray(resource);
+    }
+
+    public static SCL load(String resource) throws IOException, ScdException {
+        return SCL_MARSHALLER.unmarshal(readResource(resource));
+    }
+
+    public static SCL copy(byte[] xml) throws ScdException {
+        return SCL_MARSHALLER.unmarshal(xml);
+    }
+
+    public static byte[] toBytes(SCL scl) throws ScdException {
+        return SCL_MARSHALLER.marshal(scl);
+    }
+
+    /**
+     * Grows an SCD up to iedCount IEDs with copies of the third test ICD
+     * @param scd SCD to grow
+     * @param iedCount expected number of IEDs
+     * @return the SCD
+     */
+    public static SCL withIEDCount(SCL scd, int iedCount) throws IOException, ScdException {
+        byte[] icd = readResource(ICD_3);
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        for(int i = scd.getIED().size(); i < iedCount; i++) {
+            sclRootAdapter.addIED(copy(icd), FILLER_IED_NAME + i);
+        }
+        return scd;
+    }
+
+    /**
+     * @return an SCD of iedCount IEDs built by {@link ScdGenerator} with its default settings
+     */
+    public static SCL generate(int iedCount) throws ScdException {
+        return ScdGenerator.builder().iedCount(iedCount).build().generate();
+    }
+}
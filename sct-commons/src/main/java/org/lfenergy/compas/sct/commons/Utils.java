@@ -15,41 +15,6 @@ public class Utils {
         throw new IllegalStateException("Utils class");
     }
 
-    public static String entering(){
-        return ">>> " +
-                "Entering: " +
-                "-::" +
-                getMethodName();
-    }
-
-    public static String leaving(Long startTime){
-        if(startTime == null || startTime <= 0){
-            return leaving();
-        }
-        return "<<< " +
-                "Leaving: " +
-                "-::" +
-                getMethodName() +
-                " - Timer duration: " +
-                (System.nanoTime() - startTime) / Math.pow(10, 9) +
-                " sec.";
-    }
-
-    public static String getMethodName() {
-        try {
-            return (new Throwable()).getStackTrace()[2].getMethodName();
-        } catch (Exception e){
-            return "-";
-        }
-    }
-
-    public static String leaving(){
-        return "<<< " +
-                "Leaving: " +
-                "::" +
-                getMethodName();
-    }
-
     /**
      * Returns the first {@link Field} in the hierarchy for the specified name
      */
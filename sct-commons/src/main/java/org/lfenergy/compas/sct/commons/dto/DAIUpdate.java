@@ -0,0 +1,23 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DAI value to set in an LDevice, see {@link org.lfenergy.compas.sct.commons.scl.SclService#updateDAIs}
+ */
+@Setter
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DAIUpdate {
+    private String iedName;
+    private String ldInst;
+    private ResumedDataTemplate rDtt;
+}
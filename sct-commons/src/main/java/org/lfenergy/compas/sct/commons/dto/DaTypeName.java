@@ -38,7 +38,8 @@ public class DaTypeName extends DataTypeName{
     }
 
     public static DaTypeName from(DaTypeName dataName){
-        DaTypeName daTypeName = new DaTypeName(dataName.toString());
+        DaTypeName daTypeName = new DaTypeName();
+        daTypeName.setPath(dataName.getPath());
         if(dataName.isDefined()) {
             daTypeName.setFc(dataName.getFc());
             daTypeName.setType(dataName.getType());
@@ -0,0 +1,23 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * OBJ_REF DAI value which no IED of the SCL resolves,
+ * see {@link org.lfenergy.compas.sct.commons.scl.SclService#findDanglingObjRefs}
+ */
+@Getter
+@AllArgsConstructor
+public class DanglingObjRef {
+    private final String iedName;
+    private final String ldInst;
+    // LN, DO and DA of the DAI, with its values
+    private final ResumedDataTemplate rDtt;
+    private final String objRef;
+    private final String errorMessage;
+}
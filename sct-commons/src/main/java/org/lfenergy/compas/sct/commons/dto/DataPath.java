@@ -0,0 +1,276 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.dto;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Immutable dotted name of a {@link DataTypeName} : the name followed by the struct names.
+ * <p>
+ * Paths are interned : a path is linked to its parent (the same path without its last struct name) and to the
+ * paths extending it by one struct name, so that the names built while walking the DataTypeTemplates share their
+ * prefixes, and a path computes its segments, string form and hash code once for all its users. The intern tables
+ * only hold weak references : a path stays interned as long as it or one of its extensions is used, and the entries
+ * of the collected paths are removed on the next interning. Paths with a null segment are simply not interned :
+ * equality never relies on identity.
+ */
+final class DataPath {
+
+    private static final ConcurrentMap<String, PathRef> ROOTS = new ConcurrentHashMap<>();
+    private static final ReferenceQueue<DataPath> COLLECTED = new ReferenceQueue<>();
+
+    static final DataPath EMPTY = of("");
+
+    private final DataPath parent;
+    private final String segment;
+    private final int size;
+    private final int nameHash;
+    private final int structNamesHash;
+    // created with the first child, most paths being leaves
+    private volatile ConcurrentMap<String, PathRef> children;
+    private volatile String[] segments;
+    private volatile String string;
+
+    private DataPath(DataPath parent, String segment) {
+        this.parent = parent;
+        this.segment = segment;
+        if(parent == null) {
+            size = 1;
+            nameHash = Objects.hashCode(segment);
+            structNamesHash = 1;
+        } else {
+            size = parent.size + 1;
+            nameHash = parent.nameHash;
+            structNamesHash = 31 * parent.structNamesHash + Objects.hashCode(segment);
+        }
+    }
+
+    static DataPath of(String name) {
+        if(name == null) {
+            return new DataPath(null, null);
+        }
+        return intern(ROOTS, null, name);
+    }
+
+    static DataPath of(String name, List<String> structNames) {
+        DataPath path = of(name);
+        for(String structName : structNames) {
+            path = path.child(structName);
+        }
+        return path;
+    }
+
+    /**
+     * Parses a dotted name, with the same rules as {@link String#split(String)} on dots
+     * @param dottedName name and struct names separated by dots
+     * @return the path
+     */
+    static DataPath parse(String dottedName) {
+        String[] tokens = split(dottedName);
+        DataPath path = of(tokens[0]);
+        for(int i = 1; i < tokens.length; i++) {
+            path = path.child(tokens[i]);
+        }
+        return path;
+    }
+
+    static String[] split(String dottedName) {
+        int from = 0;
+        int to = dottedName.indexOf('.');
+        if(to < 0) {
+            return new String[]{dottedName};
+        }
+        List<String> tokens = new ArrayList<>();
+        while(to >= 0) {
+            tokens.add(dottedName.substring(from, to));
+            from = to + 1;
+            to = dottedName.indexOf('.', from);
+        }
+        tokens.add(dottedName.substring(from));
+        int sz = tokens.size();
+        while(sz > 0 && tokens.get(sz - 1).isEmpty()) {
+            sz--;
+        }
+        return tokens.subList(0, sz).toArray(new String[0]);
+    }
+
+    /**
+     * @param structName struct name to append
+     * @return this path extended by one struct name
+     */
+    DataPath child(String structName) {
+        if(structName == null) {
+            return new DataPath(this, null);
+        }
+        ConcurrentMap<String, PathRef> table = children;
+        if(table == null) {
+            synchronized(this) {
+                table = children;
+                if(table == null) {
+                    table = new ConcurrentHashMap<>();
+                    children = table;
+                }
+            }
+        }
+        return intern(table, this, structName);
+    }
+
+    /**
+     * @param table intern table of the roots or of the children of parent
+     * @param parent parent of the path, null for a root
+     * @param segment last segment of the path
+     * @return the interned path
+     */
+    private static DataPath intern(ConcurrentMap<String, PathRef> table, DataPath parent, String segment) {
+        PathRef ref = table.get(segment);
+        DataPath path = ref == null ? null : ref.get();
+        if(path != null) {
+            return path;
+        }
+        expungeCollected();
+        DataPath newPath = new DataPath(parent, segment);
+        PathRef newRef = new PathRef(newPath, table, segment);
+        while(true) {
+            PathRef current = table.putIfAbsent(segment, newRef);
+            if(current == null) {
+                return newPath;
+            }
+            path = current.get();
+            if(path != null) {
+                return path;
+            }
+            if(table.replace(segment, current, newRef)) {
+                return newPath;
+            }
+        }
+    }
+
+    private static void expungeCollected() {
+        Reference<? extends DataPath> ref;
+        while((ref = COLLECTED.poll()) != null) {
+            PathRef pathRef = (PathRef) ref;
+            pathRef.table.remove(pathRef.segment, pathRef);
+        }
+    }
+
+    DataPath withName(String name) {
+        return replace(0, name);
+    }
+
+    DataPath withStructNames(List<String> structNames) {
+        return of(getName(), structNames);
+    }
+
+    DataPath replace(int index, String segment) {
+        String[] newSegments = segments().clone();
+        newSegments[index] = segment;
+        return of(newSegments);
+    }
+
+    DataPath insert(int index, String segment) {
+        if(index == size) {
+            return child(segment);
+        }
+        String[] oldSegments = segments();
+        String[] newSegments = new String[size + 1];
+        System.arraycopy(oldSegments, 0, newSegments, 0, index);
+        newSegments[index] = segment;
+        System.arraycopy(oldSegments, index, newSegments, index + 1, size - index);
+        return of(newSegments);
+    }
+
+    DataPath remove(int index) {
+        if(index == size - 1 && parent != null) {
+            return parent;
+        }
+        String[] oldSegments = segments();
+        String[] newSegments = new String[size - 1];
+        System.arraycopy(oldSegments, 0, newSegments, 0, index);
+        System.arraycopy(oldSegments, index + 1, newSegments, index, size - index - 1);
+        return of(newSegments);
+    }
+
+    private static DataPath of(String[] segments) {
+        return of(segments[0], Arrays.asList(segments).subList(1, segments.length));
+    }
+
+    int size() {
+        return size;
+    }
+
+    String get(int index) {
+        return segments()[index];
+    }
+
+    String getName() {
+        return parent == null ? segment : get(0);
+    }
+
+    String getLast() {
+        return segment;
+    }
+
+    private String[] segments() {
+        String[] result = segments;
+        if(result == null) {
+            result = new String[size];
+            DataPath path = this;
+            for(int i = size - 1; i >= 0; i--) {
+                result[i] = path.segment;
+                path = path.parent;
+            }
+            segments = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        String result = string;
+        if(result == null) {
+            result = parent == null ? String.valueOf(segment) : parent.toString() + '.' + segment;
+            string = result;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || o.getClass() != getClass()) return false;
+        DataPath that = (DataPath) o;
+        return size == that.size && hashCode() == that.hashCode() && Arrays.equals(segments(), that.segments());
+    }
+
+    /**
+     * Same hash code as Objects.hash(name, structNames) with structNames as a List
+     */
+    @Override
+    public int hashCode() {
+        return 31 * (31 + nameHash) + structNamesHash;
+    }
+
+    /**
+     * Entry of an intern table, removed from it once its path is collected
+     */
+    private static final class PathRef extends WeakReference<DataPath> {
+        private final ConcurrentMap<String, PathRef> table;
+        private final String segment;
+
+        private PathRef(DataPath path, ConcurrentMap<String, PathRef> table, String segment) {
+            super(path, COLLECTED);
+            this.table = table;
+            this.segment = segment;
+        }
+    }
+}
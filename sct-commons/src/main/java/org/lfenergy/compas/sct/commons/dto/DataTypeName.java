@@ -5,65 +5,72 @@
 package org.lfenergy.compas.sct.commons.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
-import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
-import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.AbstractList;
 import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
-
-@Getter
-@Setter
+/**
+ * Mutable facade over an immutable {@link DataPath} : the name and struct names are read from the shared path and
+ * every modification replaces the path, so copies of a DataTypeName share its path instead of re-parsing it.
+ */
 @Slf4j
 @NoArgsConstructor
 public class DataTypeName {
-    protected String name = ""; // dataName or DataAttributeName
-
-    private List<String> structNames = new ArrayList<>(); // [.DataName[…]] or [.DAComponentName[ ….]]
+    private DataPath path = DataPath.EMPTY; // dataName or DataAttributeName [.DataName[…]] or [.DAComponentName[ ….]]
 
     public DataTypeName(String dataName){
         if(dataName == null) return;
-
-        String[] tokens = dataName.split("\\.");
-        name = tokens[0];
-        if(tokens.length > 1){
-            int idx = dataName.indexOf(".");
-            tokens = dataName.substring(idx + 1).split("\\.");
-            structNames = Stream.of(tokens).collect(Collectors.toList());
-        }
+        path = DataPath.parse(dataName);
     }
 
     public static DataTypeName from(DataTypeName dataName){
-        return new DataTypeName(dataName.toString());
+        DataTypeName dataTypeName = new DataTypeName();
+        dataTypeName.path = dataName.path;
+        return dataTypeName;
     }
 
     public boolean isDefined(){
-        return !StringUtils.isBlank(name);
+        return !StringUtils.isBlank(getName());
     }
 
     public DataTypeName(String name, @NonNull String names){
-        this.name = name;
-        String[] tokens = names.split("\\.");
-        structNames = Stream.of(tokens).collect(Collectors.toList());
+        path = DataPath.of(name, List.of(DataPath.split(names)));
+    }
+
+    public String getName() {
+        return path.getName();
+    }
+
+    public void setName(String name) {
+        path = path.withName(name);
+    }
+
+    /**
+     * @return a live view of the struct names, which can be modified
+     */
+    public List<String> getStructNames() {
+        return new StructNames();
+    }
+
+    public void setStructNames(List<String> structNames) {
+        path = path.withStructNames(structNames);
+    }
+
+    DataPath getPath() {
+        return path;
+    }
+
+    void setPath(DataPath path) {
+        this.path = path;
     }
 
     @Override
     public String toString(){
-        StringBuilder stringBuilder = new StringBuilder();
-        stringBuilder.append(name);
-        for(String sName : structNames){
-            stringBuilder.append('.');
-            stringBuilder.append(sName);
-        }
-        return stringBuilder.toString();
+        return path.toString();
     }
 
     @Override
@@ -71,31 +78,82 @@ public class DataTypeName {
         if (this == o) return true;
         if (o==null || o.getClass() != getClass()) return false;
         DataTypeName that = (DataTypeName) o;
-        return Objects.equals(name, that.name) &&
-                Arrays.equals(structNames.toArray(new String[0]),
-                        that.structNames.toArray(new String[0]));
+        return path.equals(that.path);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(name, structNames);
+        return path.hashCode();
     }
 
     public void addStructName(String structName) {
-        structNames.add(structName);
+        path = path.child(structName);
     }
 
     @JsonIgnore
     public String getLast(){
-        int sz = structNames.size();
-        return sz == 0 ? name : structNames.get(sz -1);
+        return path.getLast();
     }
 
     public void addName(String name) {
         if(isDefined()){
-            structNames.add(name);
+            path = path.child(name);
         } else {
-            this.name = name;
+            setName(name);
+        }
+    }
+
+    /**
+     * Struct names of the current path, modifications replace the path
+     */
+    private class StructNames extends AbstractList<String> {
+        @Override
+        public String get(int index) {
+            checkIndex(index, size());
+            return path.get(index + 1);
+        }
+
+        @Override
+        public int size() {
+            return path.size() - 1;
+        }
+
+        @Override
+        public String set(int index, String structName) {
+            checkIndex(index, size());
+            String previous = path.get(index + 1);
+            path = path.replace(index + 1, structName);
+            return previous;
+        }
+
+        @Override
+        public void add(int index, String structName) {
+            checkIndex(index, size() + 1);
+            path = path.insert(index + 1, structName);
+            modCount++;
+        }
+
+        @Override
+        public String remove(int index) {
+            checkIndex(index, size());
+            String previous = path.get(index + 1);
+            path = path.remove(index + 1);
+            modCount++;
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            if(!isEmpty()) {
+                path = DataPath.of(path.getName());
+                modCount++;
+            }
+        }
+
+        private void checkIndex(int index, int bound) {
+            if(index < 0 || index >= bound) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
         }
     }
 }
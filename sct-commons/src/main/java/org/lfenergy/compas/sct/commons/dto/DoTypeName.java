@@ -28,7 +28,8 @@ public class DoTypeName extends DataTypeName {
     }
 
     public static DoTypeName from(DoTypeName dataName){
-        DoTypeName doTypeName = new DoTypeName(dataName.toString());
+        DoTypeName doTypeName = new DoTypeName();
+        doTypeName.setPath(dataName.getPath());
         if(doTypeName.isDefined()) {
             doTypeName.setCdc(dataName.getCdc());
         }
@@ -6,9 +6,6 @@ package org.lfenergy.compas.sct.commons.dto;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-
-import lombok.extern.slf4j.Slf4j;
-import org.lfenergy.compas.sct.commons.Utils;
 import org.lfenergy.compas.sct.commons.scl.ied.LDeviceAdapter;
 import org.lfenergy.compas.sct.commons.scl.ied.LNAdapter;
 
@@ -18,7 +15,6 @@ import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
-@Slf4j
 @Getter
 @NoArgsConstructor
 public class LDeviceDTO {
@@ -32,7 +28,6 @@ public class LDeviceDTO {
     }
 
     public static LDeviceDTO from(LDeviceAdapter lDeviceAdapter, LogicalNodeOptions options) {
-        log.info(Utils.entering());
         LDeviceDTO lDeviceDTO = new LDeviceDTO();
         if(lDeviceAdapter != null) {
             lDeviceDTO.ldInst = lDeviceAdapter.getInst();
@@ -43,7 +38,6 @@ public class LDeviceDTO {
                     .map(lnAdapter -> LNodeDTO.from(lnAdapter, options))
                     .collect(Collectors.toSet());
         }
-        log.info(Utils.leaving());
         return lDeviceDTO;
     }
 
@@ -6,10 +6,8 @@ package org.lfenergy.compas.sct.commons.dto;
 
 import lombok.Getter;
 import lombok.NoArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
 import org.lfenergy.compas.scl2007b4.model.TAnyLN;
 import org.lfenergy.compas.scl2007b4.model.TExtRef;
-import org.lfenergy.compas.sct.commons.Utils;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
 import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateAdapter;
@@ -24,7 +22,6 @@ import java.util.Set;
 import java.util.stream.Collectors;
 
 
-@Slf4j
 @Getter
 @NoArgsConstructor
 public class LNodeDTO {
@@ -47,7 +44,6 @@ public class LNodeDTO {
     }
 
     public static <T extends TAnyLN> LNodeDTO from(AbstractLNAdapter<T> nodeAdapter, LogicalNodeOptions options) {
-        log.info(Utils.entering());
         LNodeDTO lNodeDTO = new LNodeDTO();
         if(nodeAdapter == null) return lNodeDTO;
 
@@ -58,7 +54,6 @@ public class LNodeDTO {
         }
         lNodeDTO.inst = nodeAdapter.getLNInst();
         if(options == null) {
-            log.info(Utils.leaving());
             return lNodeDTO;
         }
 
@@ -104,7 +99,6 @@ public class LNodeDTO {
         if(options.isWithCB()) {
             //TODO
         }
-        log.info(Utils.leaving());
         return lNodeDTO;
     }
 
@@ -0,0 +1,32 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one item of a batch update: the item and, if it was rejected, the reason
+ * @param <T> type of the updated items
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class UpdateResult<T> {
+    private final T item;
+    private final String errorMessage;
+
+    public static <T> UpdateResult<T> success(T item) {
+        return new UpdateResult<>(item, null);
+    }
+
+    public static <T> UpdateResult<T> failure(T item, String errorMessage) {
+        return new UpdateResult<>(item, errorMessage);
+    }
+
+    public boolean isSuccess() {
+        return errorMessage == null;
+    }
+}
@@ -0,0 +1,21 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+
+/**
+ * Writes the metrics in the logs, one line per operation
+ */
+@Slf4j
+public class LogMetricsSink implements MetricsSink {
+
+    @Override
+    public void export(List<OperationSnapshot> snapshots) {
+        snapshots.forEach(snapshot -> log.info("{}", snapshot));
+    }
+}
@@ -0,0 +1,19 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.metrics;
+
+import java.util.List;
+
+/**
+ * Destination of the metrics exported by {@link SclMetrics#export(MetricsSink)}, to be implemented for the
+ * monitoring system in use (Micrometer registry, JMX, logs, ...)
+ */
+public interface MetricsSink {
+
+    /**
+     * @param snapshots values of the operations called at least once
+     */
+    void export(List<OperationSnapshot> snapshots);
+}
@@ -0,0 +1,89 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.metrics;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and latency histogram of one operation.
+ * <p>
+ * Recording only updates striped counters and one histogram bucket: no lock, no allocation. Latencies are counted
+ * in power of two buckets, bucket i holding the durations d such as 2^(i-1) &lt;= d &lt; 2^i nanoseconds, which
+ * gives the percentiles within a factor 2.
+ */
+public class OperationMetrics {
+    public static final int BUCKET_COUNT = 64;
+
+    @Getter
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder elements = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+    private final AtomicLongArray latencyBuckets = new AtomicLongArray(BUCKET_COUNT);
+
+    public OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records one call of the operation
+     * @param durationNanos duration of the call
+     * @param elementCount number of elements processed or returned by the call
+     * @param failed true if the call ended with an exception
+     */
+    public void record(long durationNanos, long elementCount, boolean failed) {
+        long duration = Math.max(durationNanos, 0L);
+        calls.increment();
+        if(failed) {
+            failures.increment();
+        }
+        if(elementCount > 0) {
+            elements.add(elementCount);
+        }
+        totalNanos.add(duration);
+        maxNanos.accumulate(duration);
+        latencyBuckets.incrementAndGet(bucketOf(duration));
+    }
+
+    /**
+     * @return the current values, which may miss the calls recorded concurrently
+     */
+    public OperationSnapshot snapshot() {
+        long[] buckets = new long[BUCKET_COUNT];
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            buckets[i] = latencyBuckets.get(i);
+        }
+        return new OperationSnapshot(name, calls.sum(), failures.sum(), elements.sum(), totalNanos.sum(),
+                maxNanos.get(), buckets);
+    }
+
+    public void reset() {
+        calls.reset();
+        failures.reset();
+        elements.reset();
+        totalNanos.reset();
+        maxNanos.reset();
+        for(int i = 0; i < BUCKET_COUNT; i++) {
+            latencyBuckets.set(i, 0L);
+        }
+    }
+
+    static int bucketOf(long durationNanos) {
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(durationNanos), BUCKET_COUNT - 1);
+    }
+
+    /**
+     * @return the upper bound (exclusive) of the durations counted in the bucket
+     */
+    static long bucketUpperBound(int bucket) {
+        return bucket >= BUCKET_COUNT - 1 ? Long.MAX_VALUE : 1L << bucket;
+    }
+}
@@ -0,0 +1,62 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.metrics;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Values of an {@link OperationMetrics} at a given time
+ */
+@Getter
+@AllArgsConstructor
+public class OperationSnapshot {
+    private final String name;
+    private final long calls;
+    private final long failures;
+    private final long elements;
+    private final long totalNanos;
+    private final long maxNanos;
+    private final long[] latencyBuckets;
+
+    public long getMeanNanos() {
+        return calls == 0 ? 0L : totalNanos / calls;
+    }
+
+    /**
+     * @param percentile percentile between 0 and 100
+     * @return the upper bound of the latency bucket holding the given percentile, 0 if no call was recorded
+     */
+    public long getPercentileNanos(double percentile) {
+        long total = 0L;
+        for(long count : latencyBuckets) {
+            total += count;
+        }
+        if(total == 0L) {
+            return 0L;
+        }
+        long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0.0), 100.0) / 100.0);
+        long cumulated = 0L;
+        for(int i = 0; i < latencyBuckets.length; i++) {
+            cumulated += latencyBuckets[i];
+            if(cumulated >= rank && cumulated > 0) {
+                return Math.min(OperationMetrics.bucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return name +
+                " calls=" + calls +
+                " failures=" + failures +
+                " elements=" + elements +
+                " meanNanos=" + getMeanNanos() +
+                " p50Nanos=" + getPercentileNanos(50) +
+                " p99Nanos=" + getPercentileNanos(99) +
+                " maxNanos=" + maxNanos;
+    }
+}
@@ -0,0 +1,121 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.metrics;
+
+import lombok.NonNull;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * Instrumentation of the {@link org.lfenergy.compas.sct.commons.scl.SclService} operations: call count, failure
+ * count, number of processed elements and latency histogram of each {@link SclOperation}.
+ * <p>
+ * Metrics are always recorded in memory, at the cost of two clock reads and a few counter increments per call, and
+ * are exported on demand through a {@link MetricsSink}. Recording can be turned off with {@link #setEnabled}.
+ */
+public final class SclMetrics {
+
+    private static final OperationMetrics[] OPERATION_METRICS = createOperationMetrics();
+    private static volatile boolean enabled = true;
+
+    private SclMetrics() {
+        throw new IllegalStateException("SclMetrics class");
+    }
+
+    @FunctionalInterface
+    public interface ScdCallable<T> {
+        T call() throws ScdException;
+    }
+
+    @FunctionalInterface
+    public interface ScdRunnable {
+        void run() throws ScdException;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        SclMetrics.enabled = enabled;
+    }
+
+    /**
+     * Runs and measures an operation
+     * @param operation measured operation
+     * @param body operation
+     * @param elementCounter number of elements processed, computed from the operation result
+     * @return the operation result
+     * @throws ScdException thrown by the operation
+     */
+    public static <T> T measure(@NonNull SclOperation operation, @NonNull ScdCallable<T> body,
+                                ToLongFunction<T> elementCounter) throws ScdException {
+        if(!enabled) {
+            return body.call();
+        }
+        long startTime = System.nanoTime();
+        boolean failed = true;
+        T result = null;
+        try {
+            result = body.call();
+            failed = false;
+            return result;
+        } finally {
+            long elementCount = result == null || elementCounter == null ? 0L : elementCounter.applyAsLong(result);
+            OPERATION_METRICS[operation.ordinal()].record(System.nanoTime() - startTime, elementCount, failed);
+        }
+    }
+
+    public static <T> T measure(SclOperation operation, ScdCallable<T> body) throws ScdException {
+        return measure(operation, body, null);
+    }
+
+    public static void measure(SclOperation operation, @NonNull ScdRunnable body) throws ScdException {
+        measure(operation, () -> {
+            body.run();
+            return null;
+        }, null);
+    }
+
+    public static OperationSnapshot getSnapshot(@NonNull SclOperation operation) {
+        return OPERATION_METRICS[operation.ordinal()].snapshot();
+    }
+
+    /**
+     * @return the snapshots of the operations called at least once, in {@link SclOperation} order
+     */
+    public static List<OperationSnapshot> getSnapshots() {
+        List<OperationSnapshot> snapshots = new ArrayList<>();
+        for(OperationMetrics operationMetrics : OPERATION_METRICS) {
+            OperationSnapshot snapshot = operationMetrics.snapshot();
+            if(snapshot.getCalls() > 0) {
+                snapshots.add(snapshot);
+            }
+        }
+        return snapshots;
+    }
+
+    public static void export(@NonNull MetricsSink sink) {
+        sink.export(getSnapshots());
+    }
+
+    public static void reset() {
+        for(OperationMetrics operationMetrics : OPERATION_METRICS) {
+            operationMetrics.reset();
+        }
+    }
+
+    private static OperationMetrics[] createOperationMetrics() {
+        SclOperation[] operations = SclOperation.values();
+        OperationMetrics[] operationMetrics = new OperationMetrics[operations.length];
+        for(SclOperation operation : operations) {
+            operationMetrics[operation.ordinal()] = new OperationMetrics(operation.getMetricName());
+        }
+        return operationMetrics;
+    }
+}
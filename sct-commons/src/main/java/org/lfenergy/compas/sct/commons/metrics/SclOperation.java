@@ -0,0 +1,38 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.metrics;
+
+import lombok.Getter;
+
+/**
+ * Operations of {@link org.lfenergy.compas.sct.commons.scl.SclService} measured by {@link SclMetrics}
+ */
+@Getter
+public enum SclOperation {
+    INIT_SCL("initScl"),
+    ADD_IED("addIED"),
+    ADD_IEDS("addIEDs"),
+    ADD_SUBNETWORKS("addSubnetworks"),
+    GET_SUBNETWORK("getSubnetwork"),
+    GET_EXT_REF_INFO("getExtRefInfo"),
+    GET_EXT_REF_BINDERS("getExtRefBinders"),
+    UPDATE_EXT_REF_BINDERS("updateExtRefBinders"),
+    UPDATE_EXT_REFS_BINDERS("updateExtRefsBinders"),
+    GET_EXT_REF_SOURCE_INFO("getExtRefSourceInfo"),
+    UPDATE_EXT_REF_SOURCE("updateExtRefSource"),
+    UPDATE_EXT_REFS_SOURCES("updateExtRefsSources"),
+    GET_DAI("getDAI"),
+    UPDATE_DAI("updateDAI"),
+    UPDATE_DAIS("updateDAIs"),
+    FIND_DANGLING_OBJ_REFS("findDanglingObjRefs"),
+    GET_ENUM_TYPE_ELEMENTS("getEnumTypeElements"),
+    ADD_SUBSTATION("addSubstation");
+
+    private final String metricName;
+
+    SclOperation(String operationName) {
+        this.metricName = "sclService." + operationName;
+    }
+}
@@ -18,12 +18,29 @@ public abstract class SclElementAdapter<P extends SclElementAdapter, T> {
     }
 
     protected SclElementAdapter(P parentAdapter, T currentElem) {
+        this(parentAdapter, currentElem, false);
+    }
+
+    /**
+     * Constructor for adapters whose relation to their parent is already known, typically adapters created by
+     * the parent adapter itself while walking through its own children. When trusted, the parent/child relation
+     * check (a linear scan of the parent's children in most adapters) is skipped, so wrapping all the children of
+     * an element stays linear.
+     * @param parentAdapter parent adapter
+     * @param currentElem SCL element to adapt
+     * @param trusted true if currentElem is known to be a child of the parent adapter's element
+     */
+    protected SclElementAdapter(P parentAdapter, T currentElem, boolean trusted) {
         if(currentElem == null){
             throw new IllegalArgumentException("The SCL element to adapt must be defined");
         }
         this.parentAdapter = parentAdapter;
         this.customInit();
-        setCurrentElem(currentElem);
+        if(trusted) {
+            this.currentElem = currentElem;
+        } else {
+            setCurrentElem(currentElem);
+        }
     }
 
 
@@ -0,0 +1,820 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import lombok.NonNull;
+import org.apache.commons.lang3.StringUtils;
+import org.lfenergy.compas.scl2007b4.model.LN0;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TAccessPoint;
+import org.lfenergy.compas.scl2007b4.model.TAnyLN;
+import org.lfenergy.compas.scl2007b4.model.TControl;
+import org.lfenergy.compas.scl2007b4.model.TDAI;
+import org.lfenergy.compas.scl2007b4.model.TDOI;
+import org.lfenergy.compas.scl2007b4.model.TDataSet;
+import org.lfenergy.compas.scl2007b4.model.TExtRef;
+import org.lfenergy.compas.scl2007b4.model.TFCDA;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.scl2007b4.model.TLDevice;
+import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.scl2007b4.model.TLN;
+import org.lfenergy.compas.scl2007b4.model.TSDI;
+import org.lfenergy.compas.scl2007b4.model.TServiceType;
+import org.lfenergy.compas.scl2007b4.model.TUnNaming;
+import org.lfenergy.compas.sct.commons.dto.ExtRefBindingInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Hash index over the IED / LDevice / LN / DOI hierarchy of an SCL file.
+ * <p>
+ * The index maps :
+ * <ul>
+ *     <li>IED name to TIED</li>
+ *     <li>(IED, LDevice inst) to TLDevice</li>
+ *     <li>(LDevice, prefix, lnClass, lnInst) to TAnyLN (LN0 is keyed as LLN0 with empty prefix and inst)</li>
+ *     <li>(LN, DOI name) to TDOI</li>
+ *     <li>(LN, DO/DA path) to TDAI, as a trie whose nodes are the DOIs and SDIs of the LN</li>
+ *     <li>(LN, DataSet name) to TDataSet</li>
+ *     <li>(LN, service type, DataSet name) to the control blocks using the DataSet</li>
+ *     <li>(LN, FCDA ldInst, lnClass, lnInst, prefix, doName, daName) to the DataSets holding the FCDA</li>
+ *     <li>(LN, ExtRef desc, pDO, pDA, intAddr, pServT) to the ExtRefs of the LN Inputs with this signal</li>
+ * </ul>
+ * Each level is built lazily the first time it is looked up and kept up to date by the adapters that
+ * modify the SCL (addIED, setIEDName, addDOI, addDataSet, addControlBlock). As the JAXB lists can still be
+ * modified directly, every hit is verified against the element's own key and a level is rebuilt when its size
+ * changed or when a hit's key was changed.
+ * <p>
+ * <b>A miss in a level whose size didn't change is trusted</b>, in every level, so that looking up an unknown key
+ * costs a single hash lookup. The index thus answers as a linear scan would as long as the keys of the indexed
+ * elements (IED name, LDevice inst, LN prefix, lnClass and inst, DOI, SDI and DAI names, DataSet name, control
+ * block datSet, FCDA attributes and ExtRef signal) are not changed in place, which the adapters of this library
+ * only do through setIEDName. An element whose key is changed directly in the JAXB tree may not be found under its
+ * new key until its level is rebuilt, e.g. when an element is added to it.
+ * <p>
+ * The nodes of the DAI trie are built the first time they are walked through and rebuilt when the size of their
+ * DOI or SDI/DAI list changed, which covers the elements appended by addDOI, addSDOI and addDAI, so that looking
+ * up the many DAIs an LN doesn't override stays a single walk.
+ * <p>
+ * The same goes for the control blocks of an LN : they are grouped by datSet once per service type, regrouped
+ * when the size of their list changed or when a hit's datSet was changed, and a DataSet no control block uses
+ * costs a single hash lookup, even if the datSet of a control block was changed to its name in the meantime.
+ * <p>
+ * The FCDAs of an LN are keyed by the attributes {@link ExtRefInfo#matchFCDA(TFCDA)} compares, an attribute it
+ * ignores being keyed as a wildcard. An ExtRef is looked up once per combination of wildcards used by the LN's
+ * FCDAs, each hit is checked with matchFCDA, and the FCDAs are rekeyed when the count of DataSets or FCDAs changed.
+ * <p>
+ * The ExtRefs are keyed by signal, which binding an ExtRef (updateExtRefBinders, updateExtRefSource) leaves
+ * unchanged : like the other levels, they are rekeyed when their count changed or when a hit's signal was changed.
+ * <p>
+ * A frozen index (see {@link #freeze()}) is fully built and only read afterwards, so that it can be shared by
+ * several threads over an SCL nobody modifies anymore.
+ */
+public class SclIndex {
+
+    private final SCL scl;
+    private final Bucket<TIED> ieds = new Bucket<>();
+    private final Map<TIED, Bucket<TLDevice>> lDevices = new IdentityHashMap<>();
+    private final Map<TLDevice, Bucket<TAnyLN>> lNodes = new IdentityHashMap<>();
+    private final Map<TAnyLN, Bucket<TDOI>> dois = new IdentityHashMap<>();
+    private final Map<Object, DataNode> dataNodes = new IdentityHashMap<>();
+    private final Map<TAnyLN, Bucket<TDataSet>> dataSets = new IdentityHashMap<>();
+    private final Map<TAnyLN, Map<TServiceType, ControlBlockNode>> controlBlocks = new IdentityHashMap<>();
+    private final Map<TAnyLN, FcdaNode> fcdas = new IdentityHashMap<>();
+    private final Map<TAnyLN, ExtRefNode> extRefs = new IdentityHashMap<>();
+    private boolean frozen;
+
+    public SclIndex(@NonNull SCL scl) {
+        this.scl = scl;
+    }
+
+    /**
+     * @param iedName IED name
+     * @return Optional of the first IED with this name. A miss is trusted while the IED count is unchanged
+     */
+    public Optional<TIED> findIED(String iedName) {
+        return ieds.find(iedName, scl.getIED().size(), scl::getIED, SclIndex::keysOf);
+    }
+
+    /**
+     * @param tied IED holding the LDevice
+     * @param ldInst LDevice inst
+     * @return Optional of the first LDevice of the IED with this inst. A miss is trusted while the IED's LDevice
+     * count is unchanged
+     */
+    public Optional<TLDevice> findLDevice(@NonNull TIED tied, String ldInst) {
+        return bucketOf(lDevices, tied)
+                .find(ldInst, countLDevices(tied), () -> listLDevices(tied), SclIndex::keysOf);
+    }
+
+    /**
+     * @param tlDevice LDevice holding the LN
+     * @param lnClass LN class, LLN0 for the LN0
+     * @param lnInst LN inst
+     * @param prefix LN prefix
+     * @return Optional of the first LN with this name. A miss is trusted while the LDevice's LN count is unchanged
+     */
+    public Optional<TAnyLN> findLN(@NonNull TLDevice tlDevice, String lnClass, String lnInst, String prefix) {
+        return bucketOf(lNodes, tlDevice)
+                .find(lnKey(prefix, lnClass, lnInst), countLNodes(tlDevice), () -> listLNodes(tlDevice),
+                        SclIndex::keysOf);
+    }
+
+    /**
+     * @param tAnyLN LN holding the DOI
+     * @param doiName DOI name
+     * @return Optional of the first DOI with this name. A miss is trusted while the LN's DOI count is unchanged
+     */
+    public Optional<TDOI> findDOI(@NonNull TAnyLN tAnyLN, String doiName) {
+        return bucketOf(dois, tAnyLN)
+                .find(doiName, tAnyLN.getDOI().size(), tAnyLN::getDOI, SclIndex::keysOf);
+    }
+
+    /**
+     * Walks the DAI trie of an LN, with the same first-match rules as the DOI, SDI and DAI adapters
+     * @param tAnyLN LN holding the DAI
+     * @param path DO name, SDO names, DA name then BDA names
+     * @return Optional of the DAI at the end of the path. A miss is trusted while the size of the DOI, SDI/DAI
+     * lists walked through is unchanged
+     */
+    public Optional<TDAI> findDAI(@NonNull TAnyLN tAnyLN, @NonNull List<String> path) {
+        if(path.size() < 2) {
+            return Optional.empty();
+        }
+        Object node = tAnyLN;
+        for(int i = 0; i < path.size() - 1 && node != null; i++) {
+            node = dataNodeOf(node).findParent(path.get(i));
+        }
+        return node == null ? Optional.empty() :
+                Optional.ofNullable(dataNodeOf(node).findDAI(path.get(path.size() - 1)));
+    }
+
+    /**
+     * @param tAnyLN LN holding the DataSet
+     * @param dataSetName DataSet name
+     * @return Optional of the first DataSet with this name. A miss is trusted while the LN's DataSet count is
+     * unchanged
+     */
+    public Optional<TDataSet> findDataSet(@NonNull TAnyLN tAnyLN, String dataSetName) {
+        return bucketOf(dataSets, tAnyLN)
+                .find(dataSetName, tAnyLN.getDataSet().size(), tAnyLN::getDataSet, SclIndex::keysOf);
+    }
+
+    /**
+     * Gives the control blocks of a service type using a DataSet, as a filter on their datSet would
+     * @param tAnyLN LN holding the control blocks
+     * @param serviceType GOOSE, SMV or REPORT. The other types have no control block
+     * @param datSet DataSet name
+     * @return the control blocks using datSet, in SCL order. An empty answer is trusted while the count of control
+     * blocks of this type is unchanged
+     */
+    public List<TControl> findControlBlocks(@NonNull TAnyLN tAnyLN, @NonNull TServiceType serviceType,
+                                            @NonNull String datSet) {
+        return controlBlockNodeOf(tAnyLN, serviceType).find(datSet);
+    }
+
+    /**
+     * Gives the DataSets of an LN having an FCDA an ExtRef matches, as a filter on
+     * {@link ExtRefInfo#matchFCDA(TFCDA)} would
+     * @param tAnyLN LN holding the DataSets
+     * @param filter ExtRef, with its signal and binding
+     * @return the matching DataSets, in SCL order. A DataSet is missed only if an FCDA was changed in place while
+     * the count of DataSets and FCDAs is unchanged
+     */
+    public List<TDataSet> findDataSets(@NonNull TAnyLN tAnyLN, @NonNull ExtRefInfo filter) {
+        return fcdaNodeOf(tAnyLN).find(filter);
+    }
+
+    /**
+     * Gives the ExtRefs of the Inputs of an LN with a signal. An empty desc is matched by a null one
+     * @param tAnyLN LN holding the ExtRefs
+     * @param signalInfo signal : desc, pDO, pDA, intAddr and pServT
+     * @param withPDA false to ignore the pDA of the signal
+     * @return the ExtRefs with this signal, in Inputs order. An empty answer is trusted while the ExtRef count is
+     * unchanged
+     */
+    public List<TExtRef> findExtRefs(@NonNull TAnyLN tAnyLN, @NonNull ExtRefSignalInfo signalInfo, boolean withPDA) {
+        return extRefNodeOf(tAnyLN).find(
+                ExtRefNode.signalKey(signalInfo.getDesc(), signalInfo.getPDO(), signalInfo.getPDA(),
+                        signalInfo.getIntAddr(), signalInfo.getPServT(), withPDA),
+                withPDA
+        );
+    }
+
+    /**
+     * Builds every level of the index at once and stops tracking the changes of the SCL : lookups then only read
+     * the maps built here, and registering a change throws. Once safely published (e.g. through a final field),
+     * a frozen index can be used concurrently by several threads, as long as the SCL isn't modified anymore.
+     */
+    public void freeze() {
+        if(frozen) {
+            return;
+        }
+        findIED(null);
+        for(TIED tied : scl.getIED()) {
+            findLDevice(tied, null);
+            for(TLDevice tlDevice : listLDevices(tied)) {
+                findLN(tlDevice, null, null, null);
+                for(TAnyLN tAnyLN : listLNodes(tlDevice)) {
+                    findDOI(tAnyLN, null);
+                    buildDataNodes(tAnyLN);
+                    findDataSet(tAnyLN, null);
+                    for(TServiceType serviceType : TServiceType.values()) {
+                        controlBlockNodeOf(tAnyLN, serviceType);
+                    }
+                    fcdaNodeOf(tAnyLN);
+                    extRefNodeOf(tAnyLN);
+                }
+            }
+        }
+        ieds.frozen = true;
+        lDevices.values().forEach(bucket -> bucket.frozen = true);
+        lNodes.values().forEach(bucket -> bucket.frozen = true);
+        dois.values().forEach(bucket -> bucket.frozen = true);
+        dataNodes.values().forEach(dataNode -> dataNode.frozen = true);
+        dataSets.values().forEach(bucket -> bucket.frozen = true);
+        controlBlocks.values().forEach(nodes -> nodes.values().forEach(node -> node.frozen = true));
+        fcdas.values().forEach(node -> node.frozen = true);
+        extRefs.values().forEach(node -> node.frozen = true);
+        frozen = true;
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Registers an IED that has just been appended to the SCL
+     * @param tied added IED
+     */
+    public void registerIED(@NonNull TIED tied) {
+        checkNotFrozen();
+        ieds.append(tied.getName(), tied, scl.getIED().size());
+    }
+
+    /**
+     * Moves an IED under its new name
+     * @param tied renamed IED
+     * @param oldName IED name before renaming
+     */
+    public void renameIED(@NonNull TIED tied, String oldName) {
+        checkNotFrozen();
+        ieds.rename(oldName, tied.getName(), tied);
+    }
+
+    /**
+     * Registers a DOI that has just been appended to the LN
+     * @param tAnyLN LN holding the DOI
+     * @param tdoi added DOI
+     */
+    public void registerDOI(@NonNull TAnyLN tAnyLN, @NonNull TDOI tdoi) {
+        checkNotFrozen();
+        Bucket<TDOI> bucket = dois.get(tAnyLN);
+        if(bucket != null) {
+            bucket.append(tdoi.getName(), tdoi, tAnyLN.getDOI().size());
+        }
+    }
+
+    /**
+     * Registers a DataSet that has just been appended to the LN
+     * @param tAnyLN LN holding the DataSet
+     * @param tDataSet added DataSet
+     */
+    public void registerDataSet(@NonNull TAnyLN tAnyLN, @NonNull TDataSet tDataSet) {
+        checkNotFrozen();
+        Bucket<TDataSet> bucket = dataSets.get(tAnyLN);
+        if(bucket != null) {
+            bucket.append(tDataSet.getName(), tDataSet, tAnyLN.getDataSet().size());
+        }
+    }
+
+    /**
+     * Registers a control block that has just been appended to the LN
+     * @param tAnyLN LN holding the control block
+     * @param serviceType service type of the control block
+     * @param tControl added control block
+     */
+    public void registerControlBlock(@NonNull TAnyLN tAnyLN, @NonNull TServiceType serviceType,
+                                     @NonNull TControl tControl) {
+        checkNotFrozen();
+        Map<TServiceType, ControlBlockNode> nodes = controlBlocks.get(tAnyLN);
+        ControlBlockNode node = nodes == null ? null : nodes.get(serviceType);
+        if(node != null) {
+            node.append(tControl);
+        }
+    }
+
+    private void checkNotFrozen() {
+        if(frozen) {
+            throw new UnsupportedOperationException("The SCL index is frozen : its SCL is read-only");
+        }
+    }
+
+    /**
+     * Gives the bucket of an element. Once frozen, an element unknown to the index (not part of its SCL) gets a
+     * throwaway bucket instead of a new entry
+     */
+    private <K, V> Bucket<V> bucketOf(Map<K, Bucket<V>> buckets, K owner) {
+        Bucket<V> bucket = buckets.get(owner);
+        if(bucket == null) {
+            bucket = new Bucket<>();
+            if(!frozen) {
+                buckets.put(owner, bucket);
+            }
+        }
+        return bucket;
+    }
+
+    private DataNode dataNodeOf(Object node) {
+        DataNode dataNode = dataNodes.get(node);
+        if(dataNode != null && dataNode.frozen) {
+            return dataNode;
+        }
+        List<?> children = childrenOf(node);
+        if(dataNode == null || dataNode.stamp != children.size()) {
+            dataNode = new DataNode(children);
+            if(!frozen) {
+                dataNodes.put(node, dataNode);
+            }
+        }
+        return dataNode;
+    }
+
+    private ControlBlockNode controlBlockNodeOf(TAnyLN tAnyLN, TServiceType serviceType) {
+        Map<TServiceType, ControlBlockNode> nodes = controlBlocks.get(tAnyLN);
+        ControlBlockNode node = nodes == null ? null : nodes.get(serviceType);
+        if(node == null) {
+            node = new ControlBlockNode(controlsOf(tAnyLN, serviceType));
+            if(!frozen) {
+                controlBlocks.computeIfAbsent(tAnyLN, k -> new EnumMap<>(TServiceType.class)).put(serviceType, node);
+            }
+        }
+        return node;
+    }
+
+    private FcdaNode fcdaNodeOf(TAnyLN tAnyLN) {
+        FcdaNode node = fcdas.get(tAnyLN);
+        if(node != null && node.frozen) {
+            return node;
+        }
+        int stamp = FcdaNode.countOf(tAnyLN.getDataSet());
+        if(node == null || node.stamp != stamp) {
+            node = new FcdaNode(tAnyLN.getDataSet(), stamp);
+            if(!frozen) {
+                fcdas.put(tAnyLN, node);
+            }
+        }
+        return node;
+    }
+
+    private ExtRefNode extRefNodeOf(TAnyLN tAnyLN) {
+        ExtRefNode node = extRefs.get(tAnyLN);
+        if(node != null && node.frozen) {
+            return node;
+        }
+        List<TExtRef> tExtRefs = tAnyLN.getInputs() == null ? Collections.emptyList() :
+                tAnyLN.getInputs().getExtRef();
+        if(node == null || node.tExtRefs != tExtRefs || node.stamp != tExtRefs.size()) {
+            node = new ExtRefNode(tExtRefs);
+            if(!frozen) {
+                extRefs.put(tAnyLN, node);
+            }
+        }
+        return node;
+    }
+
+    private void buildDataNodes(Object node) {
+        for(Object parent : dataNodeOf(node).parents.values()) {
+            buildDataNodes(parent);
+        }
+    }
+
+    private static List<?> childrenOf(Object node) {
+        if(node instanceof TAnyLN) {
+            return ((TAnyLN) node).getDOI();
+        }
+        if(node instanceof TDOI) {
+            return ((TDOI) node).getSDIOrDAI();
+        }
+        return ((TSDI) node).getSDIOrDAI();
+    }
+
+    private static List<? extends TControl> controlsOf(TAnyLN tAnyLN, TServiceType serviceType) {
+        switch (serviceType) {
+            case REPORT:
+                return tAnyLN.getReportControl();
+            case GOOSE:
+                return tAnyLN instanceof LN0 ? ((LN0) tAnyLN).getGSEControl() : List.of();
+            case SMV:
+                return tAnyLN instanceof LN0 ? ((LN0) tAnyLN).getSampledValueControl() : List.of();
+            default:
+                return List.of();
+        }
+    }
+
+    private static String lnKey(String prefix, String lnClass, String lnInst) {
+        return (prefix == null ? "" : prefix) + "/" + lnClass + "/" + lnInst;
+    }
+
+    private static Collection<String> keysOf(TIED tied) {
+        return List.of(String.valueOf(tied.getName()));
+    }
+
+    private static Collection<String> keysOf(TLDevice tlDevice) {
+        return List.of(String.valueOf(tlDevice.getInst()));
+    }
+
+    private static Collection<String> keysOf(TDOI tdoi) {
+        return List.of(String.valueOf(tdoi.getName()));
+    }
+
+    private static Collection<String> keysOf(TDataSet tDataSet) {
+        return List.of(String.valueOf(tDataSet.getName()));
+    }
+
+    private static Collection<String> keysOf(TAnyLN tAnyLN) {
+        if(!(tAnyLN instanceof TLN)) {
+            return List.of(lnKey("", TLLN0Enum.LLN_0.value(), ""));
+        }
+        TLN tln = (TLN) tAnyLN;
+        List<String> keys = new ArrayList<>();
+        for(String lnClass : tln.getLnClass()){
+            keys.add(lnKey(tln.getPrefix(), lnClass, tln.getInst()));
+        }
+        return keys;
+    }
+
+    private static int countLDevices(TIED tied) {
+        int count = 0;
+        for(TAccessPoint tAccessPoint : tied.getAccessPoint()){
+            if(tAccessPoint.getServer() != null) {
+                count += tAccessPoint.getServer().getLDevice().size();
+            }
+        }
+        return count;
+    }
+
+    private static List<TLDevice> listLDevices(TIED tied) {
+        List<TLDevice> tlDevices = new ArrayList<>();
+        for(TAccessPoint tAccessPoint : tied.getAccessPoint()){
+            if(tAccessPoint.getServer() != null) {
+                tlDevices.addAll(tAccessPoint.getServer().getLDevice());
+            }
+        }
+        return tlDevices;
+    }
+
+    private static int countLNodes(TLDevice tlDevice) {
+        return tlDevice.getLN().size() + (tlDevice.getLN0() == null ? 0 : 1);
+    }
+
+    private static List<TAnyLN> listLNodes(TLDevice tlDevice) {
+        List<TAnyLN> tAnyLNs = new ArrayList<>();
+        if(tlDevice.getLN0() != null){
+            tAnyLNs.add(tlDevice.getLN0());
+        }
+        tAnyLNs.addAll(tlDevice.getLN());
+        return tAnyLNs;
+    }
+
+    /**
+     * One level of the index. The first element holding a key wins, as with a findFirst on the JAXB list.
+     * @param <V> indexed JAXB type
+     */
+    private static final class Bucket<V> {
+        private final Map<String, V> entries = new HashMap<>();
+        private int stamp = -1;
+        private boolean frozen;
+
+        private Optional<V> find(String key, int size, Supplier<? extends Collection<? extends V>> source,
+                                 Function<V, Collection<String>> keysOf) {
+            String k = String.valueOf(key);
+            if(frozen) {
+                return Optional.ofNullable(entries.get(k));
+            }
+            if(stamp == size) {
+                V v = entries.get(k);
+                if(v == null) {
+                    // unchanged size : trust the miss
+                    return Optional.empty();
+                }
+                if(keysOf.apply(v).contains(k)) {
+                    return Optional.of(v);
+                }
+            }
+            // stale or renamed behind our back : rebuild before answering
+            entries.clear();
+            for(V v : source.get()){
+                for(String vKey : keysOf.apply(v)) {
+                    entries.putIfAbsent(vKey, v);
+                }
+            }
+            stamp = size;
+            return Optional.ofNullable(entries.get(k));
+        }
+
+        private void append(String key, V v, int newSize) {
+            if(stamp == newSize - 1) {
+                entries.putIfAbsent(String.valueOf(key), v);
+                stamp = newSize;
+            }
+        }
+
+        private void rename(String oldKey, String newKey, V v) {
+            if(stamp < 0) {
+                return;
+            }
+            entries.remove(String.valueOf(oldKey), v);
+            entries.putIfAbsent(String.valueOf(newKey), v);
+        }
+    }
+
+    /**
+     * Node of the DAI trie : the DOIs of an LN, or the SDIs and DAIs of a DOI or SDI, by name
+     */
+    private static final class DataNode {
+        private final Map<String, TUnNaming> parents = new HashMap<>();
+        private final Map<String, TDAI> dais = new HashMap<>();
+        private final List<?> children;
+        private int stamp;
+        private boolean frozen;
+
+        private DataNode(List<?> children) {
+            this.children = children;
+            build();
+        }
+
+        private Object findParent(String name) {
+            TUnNaming parent = parents.get(name);
+            if(!frozen && parent != null && !Objects.equals(nameOf(parent), name)) {
+                // renamed behind our back
+                build();
+                parent = parents.get(name);
+            }
+            return parent;
+        }
+
+        private TDAI findDAI(String name) {
+            TDAI tdai = dais.get(name);
+            if(!frozen && tdai != null && !Objects.equals(tdai.getName(), name)) {
+                build();
+                tdai = dais.get(name);
+            }
+            return tdai;
+        }
+
+        private void build() {
+            parents.clear();
+            dais.clear();
+            for(Object child : children) {
+                if(child.getClass().equals(TDOI.class) || child.getClass().equals(TSDI.class)) {
+                    parents.putIfAbsent(nameOf((TUnNaming) child), (TUnNaming) child);
+                } else if(child.getClass().equals(TDAI.class)) {
+                    dais.putIfAbsent(((TDAI) child).getName(), (TDAI) child);
+                }
+            }
+            stamp = children.size();
+        }
+
+        private static String nameOf(TUnNaming tUnNaming) {
+            return tUnNaming instanceof TDOI ? ((TDOI) tUnNaming).getName() : ((TSDI) tUnNaming).getName();
+        }
+    }
+
+    /**
+     * Control blocks of one service type of an LN, by datSet
+     */
+    private static final class ControlBlockNode {
+        private final Map<String, List<TControl>> controlsByDatSet = new HashMap<>();
+        private final List<? extends TControl> controls;
+        private int stamp;
+        private boolean frozen;
+
+        private ControlBlockNode(List<? extends TControl> controls) {
+            this.controls = controls;
+            build();
+        }
+
+        private List<TControl> find(String datSet) {
+            if(!frozen && stamp != controls.size()) {
+                build();
+            }
+            List<TControl> hits = controlsByDatSet.getOrDefault(datSet, List.of());
+            if(!frozen && hits.stream().anyMatch(tControl -> !datSet.equals(tControl.getDatSet()))) {
+                // datSet changed behind our back
+                build();
+                hits = controlsByDatSet.getOrDefault(datSet, List.of());
+            }
+            return new ArrayList<>(hits);
+        }
+
+        private void append(TControl tControl) {
+            if(stamp == controls.size() - 1) {
+                add(tControl);
+                stamp = controls.size();
+            }
+        }
+
+        private void build() {
+            controlsByDatSet.clear();
+            for(TControl tControl : controls) {
+                add(tControl);
+            }
+            stamp = controls.size();
+        }
+
+        private void add(TControl tControl) {
+            if(tControl.getDatSet() != null) {
+                controlsByDatSet.computeIfAbsent(tControl.getDatSet(), k -> new ArrayList<>()).add(tControl);
+            }
+        }
+    }
+
+    /**
+     * FCDAs of the DataSets of an LN, keyed by ldInst, lnClass, lnInst, prefix, doName and daName. A null part of a
+     * key is a wildcard, as is the FCDA attribute for matchFCDA
+     */
+    private static final class FcdaNode {
+        private final Map<List<String>, List<FcdaEntry>> entries = new HashMap<>();
+        // wildcard combinations used by the keys, as bit sets of the key parts
+        private final Set<Integer> wildcards = new TreeSet<>();
+        private final List<TDataSet> tDataSets;
+        private final int stamp;
+        private boolean frozen;
+
+        private FcdaNode(List<TDataSet> tDataSets, int stamp) {
+            this.tDataSets = tDataSets;
+            this.stamp = stamp;
+            for(int i = 0; i < tDataSets.size(); i++) {
+                for(TFCDA tfcda : tDataSets.get(i).getFCDA()) {
+                    add(i, tfcda);
+                }
+            }
+        }
+
+        private static int countOf(List<TDataSet> tDataSets) {
+            int count = tDataSets.size();
+            for(TDataSet tDataSet : tDataSets) {
+                count += tDataSet.getFCDA().size();
+            }
+            return count;
+        }
+
+        private void add(int dataSetIndex, TFCDA tfcda) {
+            if(tfcda.getLdInst() == null && tfcda.getLnClass().isEmpty() && tfcda.getFc() == null) {
+                // matches nothing, see AbstractLNAdapter.isNull
+                return;
+            }
+            boolean isLN0 = tfcda.getLnClass().contains(TLLN0Enum.LLN_0.value());
+            List<String> lnClasses = tfcda.getLnClass().isEmpty() ? Collections.singletonList(null) :
+                    tfcda.getLnClass();
+            for(String lnClass : lnClasses) {
+                String[] key = {
+                        tfcda.getLdInst(),
+                        lnClass,
+                        isLN0 ? null : tfcda.getLnInst(),
+                        isLN0 || StringUtils.isBlank(tfcda.getPrefix()) ? null : tfcda.getPrefix(),
+                        StringUtils.isBlank(tfcda.getDoName()) ? null : tfcda.getDoName(),
+                        StringUtils.isBlank(tfcda.getDaName()) ? null : tfcda.getDaName()
+                };
+                int wildcard = 0;
+                for(int i = 0; i < key.length; i++) {
+                    if(key[i] == null) {
+                        wildcard |= 1 << i;
+                    }
+                }
+                wildcards.add(wildcard);
+                entries.computeIfAbsent(Arrays.asList(key), k -> new ArrayList<>())
+                        .add(new FcdaEntry(dataSetIndex, tfcda));
+            }
+        }
+
+        private List<TDataSet> find(ExtRefInfo filter) {
+            ExtRefBindingInfo bindingInfo = filter.getBindingInfo();
+            ExtRefSignalInfo signalInfo = filter.getSignalInfo();
+            String[] values = {
+                    bindingInfo == null ? null : bindingInfo.getLdInst(),
+                    bindingInfo == null ? null : bindingInfo.getLnClass(),
+                    bindingInfo == null ? null : bindingInfo.getLnInst(),
+                    bindingInfo == null ? null : bindingInfo.getPrefix(),
+                    signalInfo == null ? null : signalInfo.getPDO(),
+                    signalInfo == null ? null : signalInfo.getPDA()
+            };
+            BitSet matched = new BitSet(tDataSets.size());
+            for(int wildcard : wildcards) {
+                List<String> key = keyOf(values, wildcard);
+                List<FcdaEntry> hits = key == null ? null : entries.get(key);
+                if(hits == null) {
+                    continue;
+                }
+                for(FcdaEntry hit : hits) {
+                    // checked unless frozen : the FCDA may have been modified behind our back
+                    if(!matched.get(hit.dataSetIndex) && (frozen || filter.matchFCDA(hit.tfcda))) {
+                        matched.set(hit.dataSetIndex);
+                    }
+                }
+            }
+            List<TDataSet> result = new ArrayList<>();
+            for(int i = matched.nextSetBit(0); i >= 0; i = matched.nextSetBit(i + 1)) {
+                result.add(tDataSets.get(i));
+            }
+            return result;
+        }
+
+        /**
+         * @return the key of the FCDAs matching values with the given wildcards, null if a value they require is
+         * missing
+         */
+        private static List<String> keyOf(String[] values, int wildcard) {
+            String[] key = new String[values.length];
+            for(int i = 0; i < values.length; i++) {
+                if((wildcard & (1 << i)) == 0) {
+                    if(values[i] == null) {
+                        return null;
+                    }
+                    key[i] = values[i];
+                }
+            }
+            return Arrays.asList(key);
+        }
+    }
+
+    private static final class FcdaEntry {
+        private final int dataSetIndex;
+        private final TFCDA tfcda;
+
+        private FcdaEntry(int dataSetIndex, TFCDA tfcda) {
+            this.dataSetIndex = dataSetIndex;
+            this.tfcda = tfcda;
+        }
+    }
+
+    /**
+     * ExtRefs of the Inputs of an LN, by signal with and without pDA
+     */
+    private static final class ExtRefNode {
+        private final Map<List<String>, List<TExtRef>> extRefsBySignal = new HashMap<>();
+        private final Map<List<String>, List<TExtRef>> extRefsBySignalWithoutPDA = new HashMap<>();
+        private final List<TExtRef> tExtRefs;
+        private int stamp;
+        private boolean frozen;
+
+        private ExtRefNode(List<TExtRef> tExtRefs) {
+            this.tExtRefs = tExtRefs;
+            build();
+        }
+
+        private List<TExtRef> find(List<String> key, boolean withPDA) {
+            List<TExtRef> hits = (withPDA ? extRefsBySignal : extRefsBySignalWithoutPDA).getOrDefault(key, List.of());
+            if(!frozen && hits.stream().anyMatch(tExtRef -> !key.equals(signalKey(tExtRef, withPDA)))) {
+                // signal changed behind our back
+                build();
+                hits = (withPDA ? extRefsBySignal : extRefsBySignalWithoutPDA).getOrDefault(key, List.of());
+            }
+            return new ArrayList<>(hits);
+        }
+
+        private void build() {
+            extRefsBySignal.clear();
+            extRefsBySignalWithoutPDA.clear();
+            for(TExtRef tExtRef : tExtRefs) {
+                extRefsBySignal.computeIfAbsent(signalKey(tExtRef, true), k -> new ArrayList<>()).add(tExtRef);
+                extRefsBySignalWithoutPDA.computeIfAbsent(signalKey(tExtRef, false), k -> new ArrayList<>())
+                        .add(tExtRef);
+            }
+            stamp = tExtRefs.size();
+        }
+
+        private static List<String> signalKey(TExtRef tExtRef, boolean withPDA) {
+            return signalKey(tExtRef.getDesc(), tExtRef.getPDO(), tExtRef.getPDA(), tExtRef.getIntAddr(),
+                    tExtRef.getPServT(), withPDA);
+        }
+
+        private static List<String> signalKey(String desc, String pDO, String pDA, String intAddr,
+                                              TServiceType pServT, boolean withPDA) {
+            String serviceType = pServT == null ? null : pServT.value();
+            return withPDA ?
+                    Arrays.asList(desc == null ? "" : desc, pDO, pDA, intAddr, serviceType) :
+                    Arrays.asList(desc == null ? "" : desc, pDO, intAddr, serviceType);
+        }
+    }
+}
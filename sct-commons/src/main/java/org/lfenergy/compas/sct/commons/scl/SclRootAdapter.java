@@ -5,6 +5,7 @@
 package org.lfenergy.compas.sct.commons.scl;
 
 
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
 import lombok.Setter;
@@ -14,10 +15,24 @@ import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.com.CommunicationAdapter;
 import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateAdapter;
 import org.lfenergy.compas.sct.commons.scl.header.HeaderAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.ExtRefBinderIndex;
 import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.LDeviceAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.ObjectReferenceIndex;
 import org.lfenergy.compas.sct.commons.scl.sstation.SubstationAdapter;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 @Getter
@@ -29,6 +44,18 @@ public class SclRootAdapter extends SclElementAdapter<SclRootAdapter, SCL> {
     public static final String REVISION = "B";
     public static final String VERSION = "2007";
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private SclIndex sclIndex;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private DataTypeTemplateAdapter dataTypeTemplateAdapter;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ExtRefBinderIndex extRefBinderIndex;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private ObjectReferenceIndex objectReferenceIndex;
 
     public SclRootAdapter(String hId, String hVersion, String hRevision) throws ScdException {
         super(null);
@@ -47,6 +74,16 @@ public class SclRootAdapter extends SclElementAdapter<SclRootAdapter, SCL> {
         }
     }
 
+    /**
+     * Adapts an SCL with an index built beforehand, e.g. the frozen index shared by the adapters of a snapshot
+     * @param scd adapted SCL
+     * @param sclIndex index of scd
+     */
+    SclRootAdapter(SCL scd, @NonNull SclIndex sclIndex) {
+        this(scd);
+        this.sclIndex = sclIndex;
+    }
+
 
     @Override
     protected boolean amChildElementRef() {
@@ -89,6 +126,49 @@ public class SclRootAdapter extends SclElementAdapter<SclRootAdapter, SCL> {
     }
 
     public IEDAdapter addIED(SCL icd, String iedName) throws ScdException {
+        checkNewIED(icd, iedName);
+        return mergeIED(prepareIED(icd, iedName));
+    }
+
+    /**
+     * Adds several IEDs at once. The ICDs are prepared in parallel (IED renaming, LDevice ldName update, DTT
+     * fingerprints), as this only touches each ICD. They are then merged one by one, in IED name order, into this SCL,
+     * so the result does not depend on thread scheduling. Nothing is merged into this SCL if one of the ICDs is
+     * invalid.
+     * <p>
+     * As {@link #addIED(SCL, String)} does, this modifies the given ICDs, even when the import fails : the IED of each
+     * ICD is renamed and its LDevice ldNames updated, then, on merge, its LN lnTypes are remapped and the IED element
+     * itself is added to this SCL.
+     * @param icdsByIedName ICDs to import, by name of the IED to create
+     * @return adapters of the added IEDs, in IED name order
+     * @throws ScdException if an IED already exists or an ICD can't be imported
+     */
+    public List<IEDAdapter> addIEDs(Map<String, SCL> icdsByIedName) throws ScdException {
+        SortedMap<String, SCL> sortedIcds = new TreeMap<>(icdsByIedName);
+        Set<SCL> icds = Collections.newSetFromMap(new IdentityHashMap<>());
+        for(Map.Entry<String, SCL> entry : sortedIcds.entrySet()){
+            checkNewIED(entry.getValue(), entry.getKey());
+            if(!icds.add(entry.getValue())){
+                throw new ScdException("Same ICD given for more than one IED: " + entry.getKey());
+            }
+        }
+
+        List<Callable<PreparedIED>> tasks = sortedIcds.entrySet().stream()
+                .map(entry -> (Callable<PreparedIED>) () -> prepareIED(entry.getValue(), entry.getKey()))
+                .collect(Collectors.toList());
+        List<PreparedIED> preparedIEDs = new ArrayList<>();
+        for(Future<PreparedIED> future : ForkJoinPool.commonPool().invokeAll(tasks)){
+            preparedIEDs.add(getPreparedIED(future));
+        }
+
+        List<IEDAdapter> iedAdapters = new ArrayList<>();
+        for(PreparedIED preparedIED : preparedIEDs){
+            iedAdapters.add(mergeIED(preparedIED));
+        }
+        return iedAdapters;
+    }
+
+    private void checkNewIED(SCL icd, String iedName) throws ScdException {
         if(icd.getIED().isEmpty()){
             throw new ScdException("No IED to import from ICD file");
         }
@@ -98,36 +178,127 @@ public class SclRootAdapter extends SclElementAdapter<SclRootAdapter, SCL> {
             log.error(msg);
             throw new ScdException(msg);
         }
+    }
 
-        // import DTT
-        DataTypeTemplateAdapter rcvDttAdapter = getDataTypeTemplateAdapter();
+    /**
+     * Does on the ICD alone all that doesn't depend on this SCL
+     */
+    private static PreparedIED prepareIED(SCL icd, String iedName) throws ScdException {
         SclRootAdapter prvSclRootAdapter = new SclRootAdapter(icd);
         DataTypeTemplateAdapter prvDttAdapter = prvSclRootAdapter.getDataTypeTemplateAdapter();
-        var pairOldNewId = rcvDttAdapter.importDTT(iedName,prvDttAdapter);
+        prvDttAdapter.getRegistry().computeFingerprints();
 
         IEDAdapter prvIEDAdapter = new IEDAdapter(prvSclRootAdapter, icd.getIED().get(0));
         prvIEDAdapter.setIEDName(iedName);
-        prvIEDAdapter.updateLDeviceNodesType(pairOldNewId);
+        for(LDeviceAdapter lDeviceAdapter : prvIEDAdapter.getLDeviceAdapters()){
+            lDeviceAdapter.updateLDName();
+        }
+        return new PreparedIED(iedName, prvIEDAdapter, prvDttAdapter);
+    }
+
+    private static PreparedIED getPreparedIED(Future<PreparedIED> future) throws ScdException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScdException("Interrupted while preparing ICDs", e);
+        } catch (ExecutionException e) {
+            if(e.getCause() instanceof ScdException){
+                throw (ScdException) e.getCause();
+            }
+            throw new ScdException("Unable to prepare ICD: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private IEDAdapter mergeIED(PreparedIED preparedIED) throws ScdException {
+        // import DTT
+        DataTypeTemplateAdapter rcvDttAdapter = getDataTypeTemplateAdapter();
+        var pairOldNewId = rcvDttAdapter.importDTT(preparedIED.iedName,preparedIED.prvDttAdapter);
+
+        IEDAdapter prvIEDAdapter = preparedIED.prvIEDAdapter;
+        // ldNames were updated by prepareIED
+        prvIEDAdapter.updateLNodeTypes(pairOldNewId);
         //add IED
         currentElem.getIED().add(prvIEDAdapter.currentElem);
-        return getIEDAdapterByName(iedName);
+        getSclIndex().registerIED(prvIEDAdapter.currentElem);
+        return getIEDAdapterByName(preparedIED.iedName);
     }
 
     private boolean hasIED(String iedName) {
-        return currentElem.getIED()
-                .stream()
-                .anyMatch(tied -> tied.getName().equals(iedName));
+        return getSclIndex().findIED(iedName).isPresent();
+    }
+
+    /**
+     * Gives the lookup index of this SCL. The index is built lazily, level by level, on first use
+     * @return IED/LDevice/LN index of the adapted SCL
+     */
+    public SclIndex getSclIndex() {
+        if(sclIndex == null){
+            sclIndex = new SclIndex(currentElem);
+        }
+        return sclIndex;
+    }
+
+    /**
+     * Gives the ExtRef binder index of this SCL, built lazily and reused by all the binder queries made through
+     * this adapter (not by those of {@link SclService}, which create a new adapter on each call)
+     * @return (pDO, pDA) to binders index
+     */
+    public ExtRefBinderIndex getExtRefBinderIndex() {
+        if(extRefBinderIndex == null){
+            extRefBinderIndex = new ExtRefBinderIndex(this);
+        }
+        return extRefBinderIndex;
+    }
+
+    /**
+     * Gives the object reference index of this SCL, built lazily and reused by all the ObjRef checks made through
+     * this adapter
+     * @return LD name / LN name to data attributes index
+     */
+    public ObjectReferenceIndex getObjectReferenceIndex() {
+        if(objectReferenceIndex == null){
+            objectReferenceIndex = new ObjectReferenceIndex(this);
+        }
+        return objectReferenceIndex;
+    }
+
+    /**
+     * Drops the object reference index, if any, after a change its staleness check doesn't see (IED renaming)
+     */
+    public void invalidateObjectReferenceIndex() {
+        if(objectReferenceIndex != null){
+            objectReferenceIndex.invalidate();
+        }
+    }
+
+    /**
+     * Drops the ExtRef binder index, if any, after a change its staleness check doesn't see (IED renaming)
+     */
+    public void invalidateExtRefBinderIndex() {
+        if(extRefBinderIndex != null){
+            extRefBinderIndex.invalidate();
+        }
     }
 
     public HeaderAdapter getHeaderAdapter() {
         return new HeaderAdapter(this,currentElem.getHeader());
     }
 
+    /**
+     * Gives the DataTypeTemplates adapter, created once (with its id registry) as long as the DataTypeTemplates
+     * element isn't replaced
+     * @return DataTypeTemplates adapter
+     */
     public DataTypeTemplateAdapter getDataTypeTemplateAdapter(){
         if(currentElem.getDataTypeTemplates() == null){
             currentElem.setDataTypeTemplates(new TDataTypeTemplates());
         }
-        return new DataTypeTemplateAdapter(this, currentElem.getDataTypeTemplates());
+        if(dataTypeTemplateAdapter == null
+                || dataTypeTemplateAdapter.getCurrentElem() != currentElem.getDataTypeTemplates()){
+            dataTypeTemplateAdapter = new DataTypeTemplateAdapter(this, currentElem.getDataTypeTemplates());
+        }
+        return dataTypeTemplateAdapter;
     }
 
     public IEDAdapter getIEDAdapterByName(String iedName) throws ScdException {
@@ -145,19 +316,27 @@ public class SclRootAdapter extends SclElementAdapter<SclRootAdapter, SCL> {
     }
 
     public List<IEDAdapter> getIEDAdapters() {
-        return currentElem.getIED().stream()
-                .map(tied -> new IEDAdapter(this,tied))
-                .collect(Collectors.toList());
+        return IEDAdapter.listOf(this);
     }
 
     public IEDAdapter checkObjRef(String val) throws ScdException {
         ObjectReference objRef = new ObjectReference(val);
-        for(TIED tied : currentElem.getIED()){
-            IEDAdapter iedAdapter = new IEDAdapter(this,tied);
-            if(iedAdapter.matches(objRef)){
-                return iedAdapter;
-            }
+        return getObjectReferenceIndex().findIED(objRef)
+                .orElseThrow(() -> new ScdException("Invalid ObjRef: " + val));
+    }
+
+    /**
+     * An ICD ready to be merged
+     */
+    private static final class PreparedIED {
+        private final String iedName;
+        private final IEDAdapter prvIEDAdapter;
+        private final DataTypeTemplateAdapter prvDttAdapter;
+
+        private PreparedIED(String iedName, IEDAdapter prvIEDAdapter, DataTypeTemplateAdapter prvDttAdapter) {
+            this.iedName = iedName;
+            this.prvIEDAdapter = prvIEDAdapter;
+            this.prvDttAdapter = prvDttAdapter;
         }
-        throw new ScdException("Invalid ObjRef: " + val);
     }
 }
@@ -5,12 +5,12 @@
 package org.lfenergy.compas.sct.commons.scl;
 
 import lombok.NonNull;
-import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 import org.lfenergy.compas.scl2007b4.model.*;
-import org.lfenergy.compas.sct.commons.Utils;
 import org.lfenergy.compas.sct.commons.dto.*;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.metrics.SclMetrics;
+import org.lfenergy.compas.sct.commons.metrics.SclOperation;
 import org.lfenergy.compas.sct.commons.scl.com.CommunicationAdapter;
 import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateAdapter;
 import org.lfenergy.compas.sct.commons.scl.dtt.EnumTypeAdapter;
@@ -18,15 +18,16 @@ import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
 import org.lfenergy.compas.sct.commons.scl.header.HeaderAdapter;
 import org.lfenergy.compas.sct.commons.scl.ied.AbstractLNAdapter;
 import org.lfenergy.compas.sct.commons.scl.ied.DAITracker;
+import org.lfenergy.compas.sct.commons.scl.ied.ExtRefUpdater;
 import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
 import org.lfenergy.compas.sct.commons.scl.ied.LDeviceAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.ObjRefScanner;
 import org.lfenergy.compas.sct.commons.scl.sstation.SubstationAdapter;
 import org.lfenergy.compas.sct.commons.scl.sstation.VoltageLevelAdapter;
 
 import java.util.*;
 import java.util.stream.Collectors;
 
-@Slf4j
 public class SclService {
 
     public static final String UNKNOWN_LDEVICE_S_IN_IED_S = "Unknown LDevice (%s) in IED (%s)";
@@ -35,6 +36,11 @@ public class SclService {
     private SclService(){ throw new IllegalStateException("SclService class"); }
 
     public static SclRootAdapter initScl(Optional<UUID> hId, String hVersion, String hRevision) throws ScdException {
+        return SclMetrics.measure(SclOperation.INIT_SCL, () -> doInitScl(hId, hVersion, hRevision));
+    }
+
+    private static SclRootAdapter doInitScl(Optional<UUID> hId, String hVersion, String hRevision)
+            throws ScdException {
         UUID headerId = hId.orElseGet(UUID::randomUUID);
         return new SclRootAdapter(headerId.toString(), hVersion, hRevision);
     }
@@ -76,11 +82,36 @@ public class SclService {
 
 
     public static IEDAdapter addIED(SCL scd, String iedName, SCL icd) throws ScdException {
+        return SclMetrics.measure(SclOperation.ADD_IED, () -> doAddIED(scd, iedName, icd));
+    }
+
+    private static IEDAdapter doAddIED(SCL scd, String iedName, SCL icd) throws ScdException {
         SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
         return sclRootAdapter.addIED(icd,iedName);
     }
 
+    /**
+     * Imports several ICDs at once, see {@link SclRootAdapter#addIEDs(Map)}
+     * @param scd SCD to complete
+     * @param icdsByIedName ICDs to import, by name of the IED to create
+     * @return adapters of the added IEDs, in IED name order
+     * @throws ScdException if an IED already exists or an ICD can't be imported
+     */
+    public static List<IEDAdapter> addIEDs(SCL scd, Map<String, SCL> icdsByIedName) throws ScdException {
+        return SclMetrics.measure(SclOperation.ADD_IEDS, () -> doAddIEDs(scd, icdsByIedName), List::size);
+    }
+
+    private static List<IEDAdapter> doAddIEDs(SCL scd, Map<String, SCL> icdsByIedName) throws ScdException {
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        return sclRootAdapter.addIEDs(icdsByIedName);
+    }
+
     public static Optional<CommunicationAdapter> addSubnetworks(SCL scd, Set<SubNetworkDTO> subNetworks) throws ScdException {
+        return SclMetrics.measure(SclOperation.ADD_SUBNETWORKS, () -> doAddSubnetworks(scd, subNetworks));
+    }
+
+    private static Optional<CommunicationAdapter> doAddSubnetworks(SCL scd, Set<SubNetworkDTO> subNetworks)
+            throws ScdException {
         SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
         CommunicationAdapter communicationAdapter = null;
         if(!subNetworks.isEmpty()) {
@@ -100,7 +131,11 @@ public class SclService {
     }
 
     public static List<SubNetworkDTO> getSubnetwork(SCL scd) throws ScdException {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        return SclMetrics.measure(SclOperation.GET_SUBNETWORK,
+                () -> getSubnetwork(new SclRootAdapter(scd)), List::size);
+    }
+
+    static List<SubNetworkDTO> getSubnetwork(SclRootAdapter sclRootAdapter) throws ScdException {
         CommunicationAdapter communicationAdapter = sclRootAdapter.getCommunicationAdapter(false);
         return communicationAdapter.getSubNetworkAdapters()
                 .stream()
@@ -109,8 +144,12 @@ public class SclService {
     }
 
     public static List<ExtRefInfo> getExtRefInfo(SCL scd, String iedName, String ldInst) throws ScdException {
+        return SclMetrics.measure(SclOperation.GET_EXT_REF_INFO,
+                () -> getExtRefInfo(new SclRootAdapter(scd), iedName, ldInst), List::size);
+    }
 
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+    static List<ExtRefInfo> getExtRefInfo(SclRootAdapter sclRootAdapter, String iedName, String ldInst)
+            throws ScdException {
         IEDAdapter iedAdapter = sclRootAdapter.getIEDAdapterByName(iedName);
         LDeviceAdapter lDeviceAdapter = iedAdapter.getLDeviceAdapterByLdInst(ldInst)
                 .orElseThrow(
@@ -122,7 +161,13 @@ public class SclService {
 
     public static List<ExtRefBindingInfo> getExtRefBinders(SCL scd, String iedName, String ldInst,
                                    String lnClass, String lnInst, String prefix, ExtRefSignalInfo signalInfo) throws ScdException {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        return SclMetrics.measure(SclOperation.GET_EXT_REF_BINDERS,
+                () -> getExtRefBinders(new SclRootAdapter(scd), iedName, ldInst, lnClass, lnInst, prefix, signalInfo),
+                List::size);
+    }
+
+    static List<ExtRefBindingInfo> getExtRefBinders(SclRootAdapter sclRootAdapter, String iedName, String ldInst,
+                                   String lnClass, String lnInst, String prefix, ExtRefSignalInfo signalInfo) throws ScdException {
         IEDAdapter iedAdapter = sclRootAdapter.getIEDAdapterByName(iedName);
         LDeviceAdapter lDeviceAdapter = iedAdapter.getLDeviceAdapterByLdInst(ldInst)
                 .orElseThrow(
@@ -140,14 +185,17 @@ public class SclService {
         abstractLNAdapter.getExtRefsBySignalInfo(signalInfo);
 
         // find potential binders for the signalInfo
-        List<ExtRefBindingInfo> potentialBinders = new ArrayList<>();
-        for(IEDAdapter iedA : sclRootAdapter.getIEDAdapters()){
-            potentialBinders.addAll(iedA.getExtRefBinders(signalInfo));
+        if(!signalInfo.isValid()){
+            throw new ScdException("Invalid ExtRef signal (pDO,pDA or intAddr))");
         }
-        return potentialBinders;
+        return sclRootAdapter.getExtRefBinderIndex().getExtRefBinders(signalInfo);
     }
 
     public static void updateExtRefBinders(SCL scd, ExtRefInfo extRefInfo) throws ScdException {
+        SclMetrics.measure(SclOperation.UPDATE_EXT_REF_BINDERS, () -> doUpdateExtRefBinders(scd, extRefInfo));
+    }
+
+    private static void doUpdateExtRefBinders(SCL scd, ExtRefInfo extRefInfo) throws ScdException {
         if(extRefInfo.getBindingInfo() == null || extRefInfo.getSignalInfo() == null){
             throw new ScdException("ExtRef Signal and/or Binding information are missing");
         }
@@ -176,8 +224,11 @@ public class SclService {
 
 
     public static List<ControlBlock<?>> getExtRefSourceInfo(SCL scd, ExtRefInfo extRefInfo) throws ScdException {
+        return SclMetrics.measure(SclOperation.GET_EXT_REF_SOURCE_INFO,
+                () -> doGetExtRefSourceInfo(scd, extRefInfo), List::size);
+    }
 
-
+    private static List<ControlBlock<?>> doGetExtRefSourceInfo(SCL scd, ExtRefInfo extRefInfo) throws ScdException {
         ExtRefSignalInfo signalInfo = extRefInfo.getSignalInfo();
         if(!signalInfo.isValid()){
             throw new ScdException("Invalid or missing attributes in ExtRef signal info");
@@ -227,6 +278,10 @@ public class SclService {
     }
 
     public static TExtRef updateExtRefSource(SCL scd, ExtRefInfo extRefInfo) throws ScdException {
+        return SclMetrics.measure(SclOperation.UPDATE_EXT_REF_SOURCE, () -> doUpdateExtRefSource(scd, extRefInfo));
+    }
+
+    private static TExtRef doUpdateExtRefSource(SCL scd, ExtRefInfo extRefInfo) throws ScdException {
         String iedName = extRefInfo.getHolderIEDName();
         String ldInst = extRefInfo.getHolderLDInst();
         String lnClass = extRefInfo.getHolderLnClass();
@@ -264,9 +319,76 @@ public class SclService {
         return anLNAdapter.updateExtRefSource(extRefInfo);
     }
 
+    /**
+     * Updates the binding of many ExtRefs, with the same checks as {@link #updateExtRefBinders(SCL, ExtRefInfo)}.
+     * Holder LNs and their ExtRefs are looked up once for the whole batch and a failing ExtRef doesn't stop the
+     * update of the next ones.
+     * @param scd SCL file
+     * @param extRefInfos ExtRefs to bind, updated in the collection order
+     * @return one result per ExtRef, in the collection order
+     */
+    public static List<UpdateResult<ExtRefInfo>> updateExtRefsBinders(SCL scd,
+                                                                     @NonNull Collection<ExtRefInfo> extRefInfos)
+            throws ScdException {
+        return SclMetrics.measure(SclOperation.UPDATE_EXT_REFS_BINDERS,
+                () -> doUpdateExtRefsBinders(scd, extRefInfos), List::size);
+    }
+
+    private static List<UpdateResult<ExtRefInfo>> doUpdateExtRefsBinders(SCL scd,
+                                                                        Collection<ExtRefInfo> extRefInfos)
+            throws ScdException {
+        ExtRefUpdater extRefUpdater = new ExtRefUpdater(new SclRootAdapter(scd));
+        List<UpdateResult<ExtRefInfo>> results = new ArrayList<>(extRefInfos.size());
+        for(ExtRefInfo extRefInfo : extRefInfos) {
+            try {
+                extRefUpdater.updateExtRefBinders(extRefInfo);
+                results.add(UpdateResult.success(extRefInfo));
+            } catch (ScdException | RuntimeException e) {
+                results.add(UpdateResult.failure(extRefInfo, e.getMessage() != null ? e.getMessage() : e.toString()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Updates the binding and source of many ExtRefs, with the same checks as
+     * {@link #updateExtRefSource(SCL, ExtRefInfo)}. Holder LNs, binder LNs and the control blocks of the binder LNs
+     * are looked up once for the whole batch and a failing ExtRef doesn't stop the update of the next ones.
+     * @param scd SCL file
+     * @param extRefInfos ExtRefs to update, in the collection order
+     * @return one result per ExtRef, in the collection order
+     */
+    public static List<UpdateResult<ExtRefInfo>> updateExtRefsSources(SCL scd,
+                                                                     @NonNull Collection<ExtRefInfo> extRefInfos)
+            throws ScdException {
+        return SclMetrics.measure(SclOperation.UPDATE_EXT_REFS_SOURCES,
+                () -> doUpdateExtRefsSources(scd, extRefInfos), List::size);
+    }
+
+    private static List<UpdateResult<ExtRefInfo>> doUpdateExtRefsSources(SCL scd,
+                                                                        Collection<ExtRefInfo> extRefInfos)
+            throws ScdException {
+        ExtRefUpdater extRefUpdater = new ExtRefUpdater(new SclRootAdapter(scd));
+        List<UpdateResult<ExtRefInfo>> results = new ArrayList<>(extRefInfos.size());
+        for(ExtRefInfo extRefInfo : extRefInfos) {
+            try {
+                extRefUpdater.updateExtRefSource(extRefInfo);
+                results.add(UpdateResult.success(extRefInfo));
+            } catch (ScdException | RuntimeException e) {
+                results.add(UpdateResult.failure(extRefInfo, e.getMessage() != null ? e.getMessage() : e.toString()));
+            }
+        }
+        return results;
+    }
+
     public static Set<ResumedDataTemplate> getDAI(SCL scd, String iedName, String ldInst,
                                 ResumedDataTemplate rDtt, boolean updatable) throws ScdException {
-        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        return SclMetrics.measure(SclOperation.GET_DAI,
+                () -> getDAI(new SclRootAdapter(scd), iedName, ldInst, rDtt, updatable), Set::size);
+    }
+
+    static Set<ResumedDataTemplate> getDAI(SclRootAdapter sclRootAdapter, String iedName, String ldInst,
+                                ResumedDataTemplate rDtt, boolean updatable) throws ScdException {
         IEDAdapter iedAdapter = new IEDAdapter(sclRootAdapter,iedName);
         LDeviceAdapter lDeviceAdapter = iedAdapter.getLDeviceAdapterByLdInst(ldInst)
                 .orElseThrow(
@@ -274,12 +396,14 @@ public class SclService {
                 );
 
         return lDeviceAdapter.getDAI(rDtt, updatable);
-
     }
 
     public static void updateDAI(SCL scd, String iedName, String ldInst, ResumedDataTemplate rDtt) throws ScdException {
-        long startTime = System.nanoTime();
-        log.info(Utils.entering());
+        SclMetrics.measure(SclOperation.UPDATE_DAI, () -> doUpdateDAI(scd, iedName, ldInst, rDtt));
+    }
+
+    private static void doUpdateDAI(SCL scd, String iedName, String ldInst, ResumedDataTemplate rDtt)
+            throws ScdException {
         SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
         DataTypeTemplateAdapter dttAdapter = sclRootAdapter.getDataTypeTemplateAdapter();
         LNodeTypeAdapter lNodeTypeAdapter = dttAdapter.getLNodeTypeAdapterById(rDtt.getLnType())
@@ -311,11 +435,129 @@ public class SclService {
             daiTracker.validateBoundedDAI();
         }
         lnAdapter.updateDAI(rDtt);
-        log.info(Utils.leaving(startTime));
     }
 
-    public static Set<Pair<Integer, String>> getEnumTypeElements(SCL scd, String idEnum) throws ScdException {
+    /**
+     * Updates DAIs in batch. Each update is checked and applied as by {@link #updateDAI}, in the given order, but the
+     * SCL adapters, the LNodeTypes, the IED/LDevice/LN of each (IED, LDevice, LN) group and the minVal/maxVal/stepSize
+     * of bounded DOs are looked up once for the whole batch. A rejected update doesn't stop the batch.
+     * @param scd SCD to update
+     * @param daiUpdates DAIs to update
+     * @return the result of each update, in the updates order
+     * @throws ScdException if the SCD has no DataTypeTemplates
+     */
+    public static List<UpdateResult<DAIUpdate>> updateDAIs(SCL scd, @NonNull Collection<DAIUpdate> daiUpdates)
+            throws ScdException {
+        return SclMetrics.measure(SclOperation.UPDATE_DAIS, () -> doUpdateDAIs(scd, daiUpdates), List::size);
+    }
+
+    private static List<UpdateResult<DAIUpdate>> doUpdateDAIs(SCL scd, Collection<DAIUpdate> daiUpdates)
+            throws ScdException {
         SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        DataTypeTemplateAdapter dttAdapter = sclRootAdapter.getDataTypeTemplateAdapter();
+        Map<String, Optional<LNodeTypeAdapter>> lNodeTypeAdapters = new HashMap<>();
+        Map<List<String>, DAIUpdateGroup> groups = new HashMap<>();
+        List<UpdateResult<DAIUpdate>> results = new ArrayList<>(daiUpdates.size());
+        for(DAIUpdate daiUpdate : daiUpdates) {
+            try {
+                ResumedDataTemplate rDtt = daiUpdate.getRDtt();
+                LNodeTypeAdapter lNodeTypeAdapter = lNodeTypeAdapters
+                        .computeIfAbsent(rDtt.getLnType(), dttAdapter::getLNodeTypeAdapterById)
+                        .orElseThrow(() -> new ScdException("Unknown LNodeType : " + rDtt.getLnType()));
+                lNodeTypeAdapter.check(rDtt.getDoName(),rDtt.getDaName());
+
+                if(TPredefinedBasicTypeEnum.OBJ_REF == rDtt.getBType()){
+                    Long sGroup = rDtt.getDaName().getDaiValues().keySet().stream().findFirst().orElse(-1L);
+                    String val = sGroup < 0 ? null : rDtt.getDaName().getDaiValues().get(sGroup);
+                    sclRootAdapter.checkObjRef(val);
+                }
+
+                List<String> groupKey = Arrays.asList(daiUpdate.getIedName(), daiUpdate.getLdInst(),
+                        rDtt.getLnClass(), rDtt.getLnInst(), rDtt.getPrefix());
+                DAIUpdateGroup group = groups.computeIfAbsent(groupKey,
+                        key -> new DAIUpdateGroup(sclRootAdapter, daiUpdate));
+                group.update(rDtt);
+                results.add(UpdateResult.success(daiUpdate));
+            } catch (ScdException | RuntimeException e) {
+                results.add(UpdateResult.failure(daiUpdate, e.getMessage() != null ? e.getMessage() : e.toString()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * LN shared by the updates of a batch, resolved once, and bounds of its DOs
+     */
+    private static class DAIUpdateGroup {
+        private static final Set<String> BOUND_DA_NAMES = Set.of("minVal", "maxVal", "stepSize");
+
+        private AbstractLNAdapter<?> lnAdapter;
+        private Exception resolutionError;
+        private final Map<String, DAITracker.Bounds> boundsByDoName = new HashMap<>();
+
+        DAIUpdateGroup(SclRootAdapter sclRootAdapter, DAIUpdate daiUpdate) {
+            String iedName = daiUpdate.getIedName();
+            String ldInst = daiUpdate.getLdInst();
+            ResumedDataTemplate rDtt = daiUpdate.getRDtt();
+            try {
+                IEDAdapter iedAdapter = sclRootAdapter.getIEDAdapterByName(iedName);
+                LDeviceAdapter lDeviceAdapter = iedAdapter.getLDeviceAdapterByLdInst(ldInst)
+                        .orElseThrow(
+                                () -> new ScdException(String.format(UNKNOWN_LDEVICE_S_IN_IED_S, ldInst, iedName))
+                        );
+                lnAdapter = AbstractLNAdapter.builder()
+                        .withLDeviceAdapter(lDeviceAdapter)
+                        .withLnClass(rDtt.getLnClass())
+                        .withLnInst(rDtt.getLnInst())
+                        .withLnPrefix(rDtt.getPrefix())
+                        .build();
+            } catch (ScdException | RuntimeException e) {
+                resolutionError = e;
+            }
+        }
+
+        void update(ResumedDataTemplate rDtt) throws ScdException {
+            if(resolutionError instanceof ScdException) {
+                throw new ScdException(resolutionError.getMessage(), resolutionError);
+            } else if(resolutionError != null) {
+                throw (RuntimeException) resolutionError;
+            }
+            if(TPredefinedCDCEnum.ING == rDtt.getCdc() || TPredefinedCDCEnum.ASG == rDtt.getCdc() ){
+                DAITracker daiTracker = new DAITracker(lnAdapter,rDtt.getDoName(),rDtt.getDaName());
+                String doName = rDtt.getDoName().toString();
+                DAITracker.Bounds bounds = boundsByDoName.get(doName);
+                if(bounds == null) {
+                    bounds = daiTracker.getBounds();
+                    boundsByDoName.put(doName, bounds);
+                }
+                daiTracker.validateBoundedDAI(bounds);
+            }
+            lnAdapter.updateDAI(rDtt);
+            if(BOUND_DA_NAMES.contains(rDtt.getDaName().getName())) {
+                // the next values of this DO are checked against the updated bound
+                boundsByDoName.remove(rDtt.getDoName().toString());
+            }
+        }
+    }
+
+    /**
+     * Checks every OBJ_REF DAI value of the SCD, as {@link #updateDAI} checks the value it sets, see
+     * {@link ObjRefScanner}
+     * @param scd SCD to check
+     * @return the values no IED of the SCD resolves, in SCD order
+     */
+    public static List<DanglingObjRef> findDanglingObjRefs(SCL scd) throws ScdException {
+        return SclMetrics.measure(SclOperation.FIND_DANGLING_OBJ_REFS,
+                () -> new ObjRefScanner(new SclRootAdapter(scd)).findDanglingObjRefs(), List::size);
+    }
+
+    public static Set<Pair<Integer, String>> getEnumTypeElements(SCL scd, String idEnum) throws ScdException {
+        return SclMetrics.measure(SclOperation.GET_ENUM_TYPE_ELEMENTS,
+                () -> getEnumTypeElements(new SclRootAdapter(scd), idEnum), Set::size);
+    }
+
+    static Set<Pair<Integer, String>> getEnumTypeElements(SclRootAdapter sclRootAdapter, String idEnum)
+            throws ScdException {
         DataTypeTemplateAdapter dataTypeTemplateAdapter =  sclRootAdapter.getDataTypeTemplateAdapter();
         EnumTypeAdapter enumTypeAdapter = dataTypeTemplateAdapter.getEnumTypeAdapterById(idEnum)
                 .orElseThrow(() -> new ScdException("Unknown EnumType Id: " +  idEnum));
@@ -325,6 +567,10 @@ public class SclService {
     }
 
     public static SclRootAdapter addSubstation(@NonNull SCL scd, @NonNull SCL ssd) throws ScdException {
+        return SclMetrics.measure(SclOperation.ADD_SUBSTATION, () -> doAddSubstation(scd, ssd));
+    }
+
+    private static SclRootAdapter doAddSubstation(SCL scd, SCL ssd) throws ScdException {
         SclRootAdapter scdRootAdapter = new SclRootAdapter(scd);
         SclRootAdapter ssdRootAdapter = new SclRootAdapter(ssd);
         if(scdRootAdapter.getCurrentElem().getSubstation().size() > 1
@@ -0,0 +1,314 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TControlWithIEDName;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.scl2007b4.model.TPredefinedBasicTypeEnum;
+import org.lfenergy.compas.sct.commons.dto.ConnectedApDTO;
+import org.lfenergy.compas.sct.commons.dto.ControlBlock;
+import org.lfenergy.compas.sct.commons.dto.DaTypeName;
+import org.lfenergy.compas.sct.commons.dto.DataSetInfo;
+import org.lfenergy.compas.sct.commons.dto.DoTypeName;
+import org.lfenergy.compas.sct.commons.dto.ExtRefInfo;
+import org.lfenergy.compas.sct.commons.dto.ResumedDataTemplate;
+import org.lfenergy.compas.sct.commons.dto.SubNetworkDTO;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.metrics.SclMetrics.ScdCallable;
+import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Editing session of an SCD shared by several threads.
+ * <p>
+ * Each IED subtree is guarded by its own lock, and the Communication and Substation sections by their own
+ * read/write lock, so that operations on different IEDs run in parallel. An operation locks every IED it reads or
+ * modifies (e.g. the holder and the source IED of an ExtRef, or the destination IEDs of a control block), always
+ * in the same order : the IEDs by name, then the Communication, then the Substation. Two operations therefore
+ * never wait for each other in a cycle.
+ * <p>
+ * The operations changing the IED list, the IED names or the DataTypeTemplates (addIED) lock the whole SCD. The
+ * other operations only read the DataTypeTemplates, whose lazily created lists are all created when the session
+ * starts and after each of these operations, so that they need no lock of their own.
+ * <p>
+ * Each operation works through a new {@link SclRootAdapter}, as the {@link SclService} methods do : the adapters'
+ * lookup caches are never shared between threads. While a session is open, the SCD must only be modified through
+ * it : the session hands out DTOs, never adapters.
+ */
+public class SclSession {
+
+    private final SCL scd;
+    private final ReadWriteLock scdLock = new ReentrantReadWriteLock();
+    private final ReadWriteLock communicationLock = new ReentrantReadWriteLock();
+    private final ReadWriteLock substationLock = new ReentrantReadWriteLock();
+    // replaced under the SCD write lock only
+    private Map<String, Lock> iedLocks;
+
+    public SclSession(@NonNull SCL scd) {
+        this.scd = scd;
+        onStructureChanged();
+    }
+
+    public void addIED(String iedName, SCL icd) throws ScdException {
+        exclusive(() -> SclService.addIED(scd, iedName, icd));
+    }
+
+    public void addIEDs(Map<String, SCL> icdsByIedName) throws ScdException {
+        exclusive(() -> SclService.addIEDs(scd, icdsByIedName));
+    }
+
+    public void addSubnetworks(@NonNull Set<SubNetworkDTO> subNetworks) throws ScdException {
+        List<String> iedNames = new ArrayList<>();
+        for(SubNetworkDTO subNetworkDTO : subNetworks) {
+            for(ConnectedApDTO connectedApDTO : subNetworkDTO.getConnectedAPs()) {
+                iedNames.add(connectedApDTO.getIedName());
+            }
+        }
+        locked(iedNames, List.of(communicationLock.writeLock()), () -> SclService.addSubnetworks(scd, subNetworks));
+    }
+
+    public List<SubNetworkDTO> getSubnetwork() throws ScdException {
+        return locked(List.of(), List.of(communicationLock.readLock()), () -> SclService.getSubnetwork(scd));
+    }
+
+    public void addSubstation(@NonNull SCL ssd) throws ScdException {
+        locked(List.of(), List.of(substationLock.writeLock()), () -> SclService.addSubstation(scd, ssd));
+    }
+
+    public List<ExtRefInfo> getExtRefInfo(String iedName, String ldInst) throws ScdException {
+        return locked(Collections.singletonList(iedName), () -> SclService.getExtRefInfo(scd, iedName, ldInst));
+    }
+
+    public void updateExtRefBinders(@NonNull ExtRefInfo extRefInfo) throws ScdException {
+        locked(iedNamesOf(extRefInfo), () -> {
+            SclService.updateExtRefBinders(scd, extRefInfo);
+            return null;
+        });
+    }
+
+    public List<ControlBlock<?>> getExtRefSourceInfo(@NonNull ExtRefInfo extRefInfo) throws ScdException {
+        return locked(iedNamesOf(extRefInfo), () -> SclService.getExtRefSourceInfo(scd, extRefInfo));
+    }
+
+    /**
+     * Updates the source of an ExtRef, see {@link SclService#updateExtRefSource(SCL, ExtRefInfo)}
+     * @param extRefInfo ExtRef and its new source
+     * @return a copy of the updated ExtRef
+     * @throws ScdException when the ExtRef or its source is unknown
+     */
+    public ExtRefInfo updateExtRefSource(@NonNull ExtRefInfo extRefInfo) throws ScdException {
+        return locked(iedNamesOf(extRefInfo),
+                () -> new ExtRefInfo(SclService.updateExtRefSource(scd, extRefInfo)));
+    }
+
+    public Set<ResumedDataTemplate> getDAI(String iedName, String ldInst, ResumedDataTemplate rDtt,
+                                           boolean updatable) throws ScdException {
+        return locked(Collections.singletonList(iedName),
+                () -> SclService.getDAI(scd, iedName, ldInst, rDtt, updatable));
+    }
+
+    /**
+     * Updates a DAI, see {@link SclService#updateDAI(SCL, String, String, ResumedDataTemplate)}. An OBJ_REF value
+     * is checked against all the IEDs of the SCD, which are then all locked. As SclService does, the bType is taken
+     * from the DataTypeTemplates, whatever the bType given in rDtt
+     * @param iedName IED name
+     * @param ldInst LDevice inst
+     * @param rDtt DAI and its value
+     * @throws ScdException when the DAI can't be updated
+     */
+    public void updateDAI(String iedName, String ldInst, @NonNull ResumedDataTemplate rDtt) throws ScdException {
+        ScdCallable<Void> body = () -> {
+            SclService.updateDAI(scd, iedName, ldInst, rDtt);
+            return null;
+        };
+        Lock scdReadLock = scdLock.readLock();
+        scdReadLock.lock();
+        try {
+            // the DataTypeTemplates can't change before the IED locks are taken
+            if(isObjRef(rDtt)) {
+                lockedAllIEDs(body);
+            } else {
+                locked(Collections.singletonList(iedName), body);
+            }
+        } finally {
+            scdReadLock.unlock();
+        }
+    }
+
+    /**
+     * Tells if the DataTypeTemplates give the OBJ_REF bType to a DAI. Works on copies of the DO and DA names, as
+     * checking them completes them
+     * @param rDtt DAI
+     * @return true if the DAI is OBJ_REF, false if not or if it is unknown : the update then fails before reading
+     * the other IEDs
+     */
+    private boolean isObjRef(ResumedDataTemplate rDtt) {
+        if(rDtt.getLnType() == null || rDtt.getDoName() == null || rDtt.getDaName() == null) {
+            return false;
+        }
+        Optional<LNodeTypeAdapter> opLNodeTypeAdapter = new SclRootAdapter(scd).getDataTypeTemplateAdapter()
+                .getLNodeTypeAdapterById(rDtt.getLnType());
+        if(opLNodeTypeAdapter.isEmpty()) {
+            return false;
+        }
+        DaTypeName daName = DaTypeName.from(rDtt.getDaName());
+        try {
+            opLNodeTypeAdapter.get().check(DoTypeName.from(rDtt.getDoName()), daName);
+        } catch (ScdException e) {
+            return false;
+        }
+        return TPredefinedBasicTypeEnum.OBJ_REF == daName.getBType();
+    }
+
+    public void createDataSet(String iedName, @NonNull DataSetInfo dataSetInfo) throws ScdException {
+        locked(Collections.singletonList(iedName), () -> {
+            new SclRootAdapter(scd).getIEDAdapterByName(iedName).createDataSet(dataSetInfo);
+            return null;
+        });
+    }
+
+    /**
+     * Creates a control block, see {@link IEDAdapter#createControlBlock(ControlBlock)}. The destination IEDs are
+     * locked along with the holder IED, as the destinations are checked
+     * @param iedName holder IED name
+     * @param controlBlock control block to create
+     * @return the created control block
+     * @throws ScdException when the control block can't be created
+     */
+    public ControlBlock<? extends ControlBlock> createControlBlock(
+            String iedName, @NonNull ControlBlock<? extends ControlBlock> controlBlock) throws ScdException {
+        List<String> iedNames = new ArrayList<>();
+        iedNames.add(iedName);
+        for(TControlWithIEDName.IEDName destination : controlBlock.getIedNames()) {
+            if(destination != null) {
+                iedNames.add(destination.getValue());
+            }
+        }
+        return locked(iedNames,
+                () -> new SclRootAdapter(scd).getIEDAdapterByName(iedName).createControlBlock(controlBlock));
+    }
+
+    private static List<String> iedNamesOf(ExtRefInfo extRefInfo) {
+        List<String> iedNames = new ArrayList<>();
+        iedNames.add(extRefInfo.getHolderIEDName());
+        if(extRefInfo.getBindingInfo() != null) {
+            iedNames.add(extRefInfo.getBindingInfo().getIedName());
+        }
+        return iedNames;
+    }
+
+    private <T> T locked(Collection<String> iedNames, ScdCallable<T> body) throws ScdException {
+        return locked(iedNames, List.of(), body);
+    }
+
+    /**
+     * Runs an operation holding the locks of some IEDs and sections, taken in the session order
+     * @param iedNames names of the IEDs read or modified by the operation. Unknown names are ignored : as the IED
+     *                 list can't change during the operation, the operation fails on them by itself
+     * @param sectionLocks locks of the other sections, in Communication then Substation order
+     * @param body operation
+     * @return the operation result
+     * @throws ScdException thrown by the operation
+     */
+    private <T> T locked(Collection<String> iedNames, List<Lock> sectionLocks, ScdCallable<T> body)
+            throws ScdException {
+        Lock scdReadLock = scdLock.readLock();
+        scdReadLock.lock();
+        try {
+            Set<String> sortedIedNames = new TreeSet<>();
+            for(String iedName : iedNames) {
+                if(iedName != null) {
+                    sortedIedNames.add(iedName);
+                }
+            }
+            List<Lock> locks = new ArrayList<>();
+            for(String iedName : sortedIedNames) {
+                Lock iedLock = iedLocks.get(iedName);
+                if(iedLock != null) {
+                    locks.add(iedLock);
+                }
+            }
+            locks.addAll(sectionLocks);
+            return callLocked(locks, body);
+        } finally {
+            scdReadLock.unlock();
+        }
+    }
+
+    /**
+     * Runs an operation reading all the IEDs, holding all their locks in the session order
+     * @param body operation
+     * @return the operation result
+     * @throws ScdException thrown by the operation
+     */
+    private <T> T lockedAllIEDs(ScdCallable<T> body) throws ScdException {
+        Lock scdReadLock = scdLock.readLock();
+        scdReadLock.lock();
+        try {
+            // the IED names are read under the SCD lock, as addIED replaces them
+            return callLocked(new ArrayList<>(new TreeMap<>(iedLocks).values()), body);
+        } finally {
+            scdReadLock.unlock();
+        }
+    }
+
+    private static <T> T callLocked(List<Lock> locks, ScdCallable<T> body) throws ScdException {
+        int locked = 0;
+        try {
+            for(Lock lock : locks) {
+                lock.lock();
+                locked++;
+            }
+            return body.call();
+        } finally {
+            for(int i = locked - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    private <T> T exclusive(ScdCallable<T> body) throws ScdException {
+        Lock scdWriteLock = scdLock.writeLock();
+        scdWriteLock.lock();
+        try {
+            return body.call();
+        } finally {
+            onStructureChanged();
+            scdWriteLock.unlock();
+        }
+    }
+
+    /**
+     * Creates a lock per IED name and the lazily created lists of the DataTypeTemplates, which all the operations
+     * read without lock
+     */
+    private void onStructureChanged() {
+        Map<String, Lock> locks = new HashMap<>();
+        for(TIED tied : scd.getIED()) {
+            locks.computeIfAbsent(tied.getName(), name -> new ReentrantLock());
+        }
+        iedLocks = Collections.unmodifiableMap(locks);
+        // creates the DataTypeTemplates, as the first call to getDataTypeTemplateAdapter does when they are missing
+        new SclRootAdapter(scd).getDataTypeTemplateAdapter();
+        SclSnapshot.materialize(scd.getDataTypeTemplates());
+    }
+}
@@ -0,0 +1,193 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import lombok.NonNull;
+import org.apache.commons.lang3.tuple.Pair;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.dto.ExtRefBindingInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo;
+import org.lfenergy.compas.sct.commons.dto.ResumedDataTemplate;
+import org.lfenergy.compas.sct.commons.dto.SubNetworkDTO;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.metrics.SclMetrics;
+import org.lfenergy.compas.sct.commons.metrics.SclOperation;
+import org.lfenergy.compas.sct.commons.scl.io.SclMarshaller;
+
+import javax.xml.bind.JAXBElement;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Read-only copy of an SCL, whose queries can run concurrently from several threads.
+ * <p>
+ * The adapters cache their lookups and the JAXB getters create the missing lists when first read, so that even
+ * the queries of {@link SclService} modify the SCL they are given. A snapshot works on a deep copy of the SCL
+ * that nothing else can reach : the lazy lists of the copy are all created and its {@link SclIndex} is built and
+ * frozen once, when the snapshot is taken. Each query then borrows an idle {@link SclRootAdapter} of the
+ * snapshot, or creates one when all are in use, and gives it back when done : an adapter serves one query at a time
+ * and its DataTypeTemplates registry and ExtRef binder index, built by its first queries, are reused by the next
+ * ones. The adapters are held by the snapshot only, not by the threads that used them, and are released with it.
+ * <p>
+ * The snapshot only offers queries returning DTOs, and the frozen index throws on the registrations made by the
+ * adapters modifying the SCL. To modify the SCL, take a copy with {@link #copyScl()}.
+ */
+public final class SclSnapshot {
+
+    private static final Package MODEL_PACKAGE = SCL.class.getPackage();
+    private static final SclMarshaller SCL_MARSHALLER = new SclMarshaller();
+
+    private final SCL scl;
+    private final SclIndex sclIndex;
+    private final Queue<SclRootAdapter> idleSclRootAdapters = new ConcurrentLinkedQueue<>();
+
+    private SclSnapshot(SCL scl) {
+        // creates the DataTypeTemplates, as the first call to getDataTypeTemplateAdapter does when they are missing
+        new SclRootAdapter(scl).getDataTypeTemplateAdapter();
+        materialize(scl);
+        this.scl = scl;
+        this.sclIndex = new SclIndex(scl);
+        sclIndex.freeze();
+    }
+
+    /**
+     * Takes a snapshot of an SCL. The SCL is copied : it can be modified afterwards without affecting the snapshot
+     * @param scd SCL to copy
+     * @return snapshot of scd
+     * @throws ScdException when scd can't be copied
+     */
+    public static SclSnapshot of(@NonNull SCL scd) throws ScdException {
+        return new SclSnapshot(SCL_MARSHALLER.unmarshal(SCL_MARSHALLER.marshal(scd)));
+    }
+
+    /**
+     * @return a new, modifiable, copy of the snapshot SCL
+     * @throws ScdException when the SCL can't be copied
+     */
+    public SCL copyScl() throws ScdException {
+        return SCL_MARSHALLER.unmarshal(SCL_MARSHALLER.marshal(scl));
+    }
+
+    public List<SubNetworkDTO> getSubnetwork() throws ScdException {
+        return SclMetrics.measure(SclOperation.GET_SUBNETWORK,
+                () -> query(sclRootAdapter -> SclService.getSubnetwork(sclRootAdapter)), List::size);
+    }
+
+    public List<ExtRefInfo> getExtRefInfo(String iedName, String ldInst) throws ScdException {
+        return SclMetrics.measure(SclOperation.GET_EXT_REF_INFO,
+                () -> query(sclRootAdapter -> SclService.getExtRefInfo(sclRootAdapter, iedName, ldInst)),
+                List::size);
+    }
+
+    public List<ExtRefBindingInfo> getExtRefBinders(String iedName, String ldInst, String lnClass, String lnInst,
+                                                    String prefix, ExtRefSignalInfo signalInfo) throws ScdException {
+        return SclMetrics.measure(SclOperation.GET_EXT_REF_BINDERS,
+                () -> query(sclRootAdapter -> SclService.getExtRefBinders(sclRootAdapter, iedName, ldInst,
+                        lnClass, lnInst, prefix, signalInfo)),
+                List::size);
+    }
+
+    public Set<ResumedDataTemplate> getDAI(String iedName, String ldInst, ResumedDataTemplate rDtt,
+                                           boolean updatable) throws ScdException {
+        return SclMetrics.measure(SclOperation.GET_DAI,
+                () -> query(sclRootAdapter -> SclService.getDAI(sclRootAdapter, iedName, ldInst, rDtt, updatable)),
+                Set::size);
+    }
+
+    public Set<Pair<Integer, String>> getEnumTypeElements(String idEnum) throws ScdException {
+        return SclMetrics.measure(SclOperation.GET_ENUM_TYPE_ELEMENTS,
+                () -> query(sclRootAdapter -> SclService.getEnumTypeElements(sclRootAdapter, idEnum)),
+                Set::size);
+    }
+
+    /**
+     * Runs a query with an adapter no other query is using
+     * @param body query
+     * @return query result
+     * @throws ScdException when the query fails
+     */
+    private <T> T query(SclQuery<T> body) throws ScdException {
+        SclRootAdapter sclRootAdapter = idleSclRootAdapters.poll();
+        if(sclRootAdapter == null) {
+            sclRootAdapter = new SclRootAdapter(scl, sclIndex);
+        }
+        try {
+            return body.apply(sclRootAdapter);
+        } finally {
+            idleSclRootAdapters.offer(sclRootAdapter);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SclQuery<T> {
+        T apply(SclRootAdapter sclRootAdapter) throws ScdException;
+    }
+
+    /**
+     * Calls once every getter of a JAXB tree, so that the lists created on first read exist before several threads
+     * start reading the tree
+     * @param root root of the JAXB tree
+     */
+    static void materialize(Object root) {
+        Map<Class<?>, List<Method>> gettersByClass = new HashMap<>();
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> elements = new ArrayDeque<>();
+        elements.push(root);
+        while(!elements.isEmpty()) {
+            Object element = elements.pop();
+            if(element instanceof JAXBElement) {
+                element = ((JAXBElement<?>) element).getValue();
+            }
+            if(element == null || element.getClass().getPackage() != MODEL_PACKAGE || !visited.add(element)) {
+                continue;
+            }
+            for(Method getter : gettersByClass.computeIfAbsent(element.getClass(), SclSnapshot::gettersOf)) {
+                Object value = invoke(getter, element);
+                if(value instanceof List) {
+                    for(Object child : (List<?>) value) {
+                        if(child != null) {
+                            elements.push(child);
+                        }
+                    }
+                } else if(value != null) {
+                    elements.push(value);
+                }
+            }
+        }
+    }
+
+    private static List<Method> gettersOf(Class<?> type) {
+        List<Method> getters = new ArrayList<>();
+        for(Method method : type.getMethods()) {
+            Class<?> returnType = method.getReturnType();
+            if(method.getParameterCount() == 0 && method.getName().startsWith("get")
+                    && (List.class.isAssignableFrom(returnType) || returnType == Object.class
+                    || returnType.getPackage() == MODEL_PACKAGE)) {
+                getters.add(method);
+            }
+        }
+        return getters;
+    }
+
+    private static Object invoke(Method getter, Object element) {
+        try {
+            return getter.invoke(element);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot read " + getter, e);
+        }
+    }
+}
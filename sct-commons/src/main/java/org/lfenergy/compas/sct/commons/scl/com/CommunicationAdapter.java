@@ -52,7 +52,7 @@ public class CommunicationAdapter extends SclElementAdapter<SclRootAdapter, TCom
             subNetwork.setName(snName);
             subNetwork.setType(snType);
             currentElem.getSubNetwork().add(subNetwork);
-            opSubNetworkAdapter = Optional.of(new SubNetworkAdapter(this,subNetwork));
+            opSubNetworkAdapter = Optional.of(new SubNetworkAdapter(this,subNetwork,true));
         }
 
         opSubNetworkAdapter.get().addConnectedAP(iedName,apName);
@@ -65,13 +65,13 @@ public class CommunicationAdapter extends SclElementAdapter<SclRootAdapter, TCom
                 .stream()
                 .filter(tSubNetwork -> tSubNetwork.getName().equals(snName))
                 .findFirst()
-                .map(tSubNetwork -> new SubNetworkAdapter(this,tSubNetwork));
+                .map(tSubNetwork -> new SubNetworkAdapter(this,tSubNetwork,true));
     }
 
     public List<SubNetworkAdapter> getSubNetworkAdapters() {
         return currentElem.getSubNetwork()
                 .stream()
-                .map(tSubNetwork -> new SubNetworkAdapter(this,tSubNetwork))
+                .map(tSubNetwork -> new SubNetworkAdapter(this,tSubNetwork,true))
                 .collect(Collectors.toList());
 
     }
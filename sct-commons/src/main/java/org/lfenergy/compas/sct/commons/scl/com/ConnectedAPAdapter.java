@@ -14,6 +14,10 @@ public class ConnectedAPAdapter extends SclElementAdapter<SubNetworkAdapter, TCo
         super(parentAdapter, currentElem);
     }
 
+    ConnectedAPAdapter(SubNetworkAdapter parentAdapter, TConnectedAP currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
+
     @Override
     protected boolean amChildElementRef() {
         return parentAdapter.getCurrentElem().getConnectedAP().contains(currentElem);
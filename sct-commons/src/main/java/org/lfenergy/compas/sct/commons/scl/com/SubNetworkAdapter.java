@@ -21,6 +21,10 @@ public class SubNetworkAdapter extends SclElementAdapter<CommunicationAdapter, T
         super(parentAdapter, currentElem);
     }
 
+    SubNetworkAdapter(CommunicationAdapter parentAdapter, @NonNull TSubNetwork currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
+
     @Override
     protected boolean amChildElementRef() {
         return parentAdapter.getCurrentElem().getSubNetwork().contains(currentElem);
@@ -51,7 +55,7 @@ public class SubNetworkAdapter extends SclElementAdapter<CommunicationAdapter, T
             tConnectedAP.setIedName(iedName);
             currentElem.getConnectedAP().add(tConnectedAP);
         }
-        return new ConnectedAPAdapter(this,tConnectedAP);
+        return new ConnectedAPAdapter(this,tConnectedAP,true);
     }
 
     public String getName() {
@@ -65,7 +69,7 @@ public class SubNetworkAdapter extends SclElementAdapter<CommunicationAdapter, T
     public List<ConnectedAPAdapter> getConnectedAPAdapters() {
         return currentElem.getConnectedAP()
                 .stream()
-                .map(ap -> new ConnectedAPAdapter(this,ap))
+                .map(ap -> new ConnectedAPAdapter(this,ap,true))
                 .collect(Collectors.toList());
     }
 
@@ -73,7 +77,7 @@ public class SubNetworkAdapter extends SclElementAdapter<CommunicationAdapter, T
         return currentElem.getConnectedAP()
                 .stream()
                 .filter(ap -> ap.getIedName().equals(iedName) && ap.getApName().equals(apName))
-                .map(ap -> new ConnectedAPAdapter(this,ap))
+                .map(ap -> new ConnectedAPAdapter(this,ap,true))
                 .findFirst()
                 .orElseThrow(
                     () -> new ScdException(
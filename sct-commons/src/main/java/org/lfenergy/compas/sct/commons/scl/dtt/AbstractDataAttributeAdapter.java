@@ -25,7 +25,11 @@ public abstract class AbstractDataAttributeAdapter<P extends SclElementAdapter,T
     protected final boolean tail;
 
     protected AbstractDataAttributeAdapter(P parentAdapter, T currentElem) {
-        super(parentAdapter, currentElem);
+        this(parentAdapter, currentElem, false);
+    }
+
+    protected AbstractDataAttributeAdapter(P parentAdapter, T currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
         tail = getBType() != TPredefinedBasicTypeEnum.STRUCT;
     }
 
@@ -13,4 +13,8 @@ public abstract class AbstractDataTypeAdapter<T>
         super(parentAdapter, currentElem);
     }
 
+    protected AbstractDataTypeAdapter(DataTypeTemplateAdapter parentAdapter, T currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
+
 }
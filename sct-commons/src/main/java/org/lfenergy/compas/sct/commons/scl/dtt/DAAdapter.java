@@ -16,6 +16,10 @@ public class DAAdapter extends AbstractDataAttributeAdapter<DOTypeAdapter, TDA>
         super(parentAdapter, currentElem);
     }
 
+    protected DAAdapter(DOTypeAdapter parentAdapter, TDA currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
+
 
 
     @Override
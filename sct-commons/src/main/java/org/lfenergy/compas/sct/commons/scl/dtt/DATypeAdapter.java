@@ -22,6 +22,10 @@ public class DATypeAdapter extends AbstractDataTypeAdapter<TDAType>{
         super(parentAdapter, currentElem);
     }
 
+    DATypeAdapter(DataTypeTemplateAdapter parentAdapter, TDAType currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
+
     public List<ResumedDataTemplate> completeResumedDTT(ResumedDataTemplate rDtt) {
         List<ResumedDataTemplate> result = new ArrayList<>();
         for(BDAAdapter bdaAdapter : getBdaAdapters()){
@@ -107,7 +111,7 @@ public class DATypeAdapter extends AbstractDataTypeAdapter<TDAType>{
     public List<BDAAdapter> getBdaAdapters(){
         return currentElem.getBDA()
                 .stream()
-                .map(tbda -> new BDAAdapter(this,tbda))
+                .map(tbda -> new BDAAdapter(this,tbda,true))
                 .collect(Collectors.toList());
     }
 
@@ -151,7 +155,7 @@ public class DATypeAdapter extends AbstractDataTypeAdapter<TDAType>{
 
         for(int i = 0; i < thisBDAs.size(); i++){
             // The order in which BDAs appear matters
-            BDAAdapter bdaAdapter = new BDAAdapter(this,thisBDAs.get(i));
+            BDAAdapter bdaAdapter = new BDAAdapter(this,thisBDAs.get(i),true);
             if (!bdaAdapter.hasSameContentAs(inputBDAs.get(i))){
                 return false;
             }
@@ -260,7 +264,7 @@ public class DATypeAdapter extends AbstractDataTypeAdapter<TDAType>{
     public Optional<BDAAdapter> getBdaAdapterByName(String name) {
         Optional<TBDA> opBda = getBDAByName(name);
         if(opBda.isPresent()){
-            return Optional.of(new BDAAdapter(this,opBda.get()));
+            return Optional.of(new BDAAdapter(this,opBda.get(),true));
         }
         return Optional.empty();
     }
@@ -274,6 +278,10 @@ public class DATypeAdapter extends AbstractDataTypeAdapter<TDAType>{
             super(parentAdapter, currentElem);
         }
 
+        protected BDAAdapter(DATypeAdapter parentAdapter, TBDA currentElem, boolean trusted) {
+            super(parentAdapter, currentElem, trusted);
+        }
+
         @Override
         protected boolean amChildElementRef() {
             return parentAdapter.getCurrentElem().getBDA().contains(currentElem);
@@ -15,6 +15,10 @@ public class DOAdapter extends SclElementAdapter<LNodeTypeAdapter, TDO> implemen
         super(parentAdapter,currElement);
     }
 
+    protected DOAdapter(LNodeTypeAdapter parentAdapter, TDO currElement, boolean trusted) {
+        super(parentAdapter,currElement,trusted);
+    }
+
     @Override
     protected boolean amChildElementRef() {
         return parentAdapter.getCurrentElem().getDO().contains(currentElem);
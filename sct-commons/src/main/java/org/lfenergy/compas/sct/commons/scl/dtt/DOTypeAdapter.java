@@ -23,6 +23,10 @@ public class DOTypeAdapter extends AbstractDataTypeAdapter<TDOType> {
         super(parentAdapter, currentElem);
     }
 
+    DOTypeAdapter(DataTypeTemplateAdapter parentAdapter, TDOType currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
+
     public List<ResumedDataTemplate> getResumedDTTByDoName(DoTypeName doTypeName, int idx, ResumedDataTemplate rDtt) {
 
         int sz = doTypeName.getStructNames().size();
@@ -46,7 +50,7 @@ public class DOTypeAdapter extends AbstractDataTypeAdapter<TDOType> {
         } else {
             for(TDA tda : getSdoOrDAs(TDA.class)){
                 ResumedDataTemplate copyRDtt = ResumedDataTemplate.copyFrom(rDtt);
-                DAAdapter daAdapter = new DAAdapter(this,tda);
+                DAAdapter daAdapter = new DAAdapter(this,tda,true);
                 copyRDtt.getDaName().setName(daAdapter.getName());
                 copyRDtt.getDaName().setType(daAdapter.getType());
                 copyRDtt.getDaName().setBType(daAdapter.getBType());
@@ -158,10 +162,23 @@ public class DOTypeAdapter extends AbstractDataTypeAdapter<TDOType> {
      *                     DataTypeTemplate (unknown reference for example). Which should normally not happens.
      */
     Pair<String,DOTypeAdapter> findPathDoType2DA(String daName) throws ScdException {
+        return searchPathDoType2DA(daName).orElseThrow(
+                () -> new ScdException(
+                    String.format("No coherence or path between DOType(%s) and DA(%s)", currentElem.getId(),daName)
+                )
+        );
+    }
+
+    /**
+     * Same as findPathDoType2DA, empty when there is no path instead of throwing
+     * @param daName DA name to reach
+     * @return Optional of the pair (SDO name, DOType holding the DA)
+     */
+    Optional<Pair<String,DOTypeAdapter>> searchPathDoType2DA(String daName) {
         if(containsDAWithDAName(daName)){
             // Attention : Do this check before calling this function
             // It is not interesting to no have the DO/SDO that references this DoType
-            return Pair.of("",this);
+            return Optional.of(Pair.of("",this));
         }
         DOTypeAdapter doTypeAdapter = this;
         List<TSDO> sdoTypes = doTypeAdapter.getSdoOrDAs(TSDO.class);
@@ -181,11 +198,9 @@ public class DOTypeAdapter extends AbstractDataTypeAdapter<TDOType> {
             }
         }
         if(currSDO == null || doTypeAdapter == null){
-            throw new ScdException(
-                    String.format("No coherence or path between DOType(%s) and DA(%s)", currentElem.getId(),daName)
-            );
+            return Optional.empty();
         }
-        return Pair.of(currSDO.getName(),doTypeAdapter);
+        return Optional.of(Pair.of(currSDO.getName(),doTypeAdapter));
     }
 
 
@@ -255,7 +270,7 @@ public class DOTypeAdapter extends AbstractDataTypeAdapter<TDOType> {
     }
 
     protected boolean hasSameContent(TDA thisTDA, TDA inTDA) {
-        DAAdapter daAdapter = new DAAdapter(this,thisTDA);
+        DAAdapter daAdapter = new DAAdapter(this,thisTDA,true);
         return daAdapter.hasSameContentAs(inTDA);
     }
 
@@ -388,7 +403,7 @@ public class DOTypeAdapter extends AbstractDataTypeAdapter<TDOType> {
     public Optional<DAAdapter> getDAAdapterByName(String name){
         for(TUnNaming tUnNaming : currentElem.getSDOOrDA()){
             if(tUnNaming.getClass() == TDA.class && ((TDA)tUnNaming).getName().equals(name)){
-                return Optional.of(new DAAdapter(this,(TDA)tUnNaming));
+                return Optional.of(new DAAdapter(this,(TDA)tUnNaming,true));
             }
         }
         return  Optional.empty();
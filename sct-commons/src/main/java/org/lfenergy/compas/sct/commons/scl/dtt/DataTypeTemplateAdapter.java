@@ -5,6 +5,7 @@
 package org.lfenergy.compas.sct.commons.scl.dtt;
 
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.tuple.Pair;
 import org.lfenergy.compas.scl2007b4.model.*;
 import org.lfenergy.compas.sct.commons.dto.DaTypeName;
 import org.lfenergy.compas.sct.commons.dto.DoTypeName;
@@ -15,15 +16,19 @@ import org.lfenergy.compas.sct.commons.scl.SclElementAdapter;
 import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
 
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 
 @Slf4j
 public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, TDataTypeTemplates> {
 
+    private final DataTypeTemplateRegistry registry;
 
     public DataTypeTemplateAdapter(SclRootAdapter parentAdapter, TDataTypeTemplates dataTypeTemplate) {
         super(parentAdapter,dataTypeTemplate);
+        registry = new DataTypeTemplateRegistry(dataTypeTemplate);
     }
 
     @Override
@@ -36,68 +41,59 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
         throw new IllegalArgumentException("Private is not Allowed here");
     }
 
-    public Optional<LNodeTypeAdapter> getLNodeTypeAdapterById(String id) {
-        for(TLNodeType tlNodeType : currentElem.getLNodeType()){
-            if(tlNodeType.getId().equals(id)) {
-                return Optional.of(new LNodeTypeAdapter(this, tlNodeType));
-            }
-        }
-       return Optional.empty();
+    /**
+     * Gives the id-keyed registry of this DataTypeTemplates
+     * @return registry of the types of this DataTypeTemplates
+     */
+    public DataTypeTemplateRegistry getRegistry() {
+        return registry;
+    }
 
+    public Optional<LNodeTypeAdapter> getLNodeTypeAdapterById(String id) {
+        return registry.findLNodeType(id)
+                .map(tlNodeType -> new LNodeTypeAdapter(this,tlNodeType,true));
     }
 
     public List<LNodeTypeAdapter> getLNodeTypeAdapters(){
 
         return currentElem.getLNodeType()
                 .stream()
-                .map(tlNodeType -> new LNodeTypeAdapter(this,tlNodeType))
+                .map(tlNodeType -> new LNodeTypeAdapter(this,tlNodeType,true))
                 .collect(Collectors.toList());
     }
 
     public Optional<DOTypeAdapter> getDOTypeAdapterById(String id)  {
-        for(TDOType tdoType : currentElem.getDOType()){
-            if(tdoType.getId().equals(id)) {
-                return Optional.of(new DOTypeAdapter(this, tdoType));
-            }
-        }
-        return Optional.empty();
+        return registry.findDOType(id)
+                .map(tdoType -> new DOTypeAdapter(this,tdoType,true));
     }
 
     public List<DOTypeAdapter> getDOTypeAdapters(){
         return currentElem.getDOType()
                 .stream()
-                .map(tdoType -> new DOTypeAdapter(this,tdoType))
+                .map(tdoType -> new DOTypeAdapter(this,tdoType,true))
                 .collect(Collectors.toList());
     }
 
     public Optional<DATypeAdapter> getDATypeAdapterById(String id) {
-        for(TDAType tdaType : currentElem.getDAType()){
-            if(tdaType.getId().equals(id)) {
-                return Optional.of(new DATypeAdapter(this,tdaType));
-            }
-        }
-        return Optional.empty();
+        return registry.findDAType(id)
+                .map(tdaType -> new DATypeAdapter(this,tdaType,true));
     }
 
     public List<DATypeAdapter> getDATypeAdapters(){
         return currentElem.getDAType()
                 .stream()
-                .map(tdaType -> new DATypeAdapter(this,tdaType))
+                .map(tdaType -> new DATypeAdapter(this,tdaType,true))
                 .collect(Collectors.toList());
     }
 
     public Optional<EnumTypeAdapter> getEnumTypeAdapterById(String id)  {
-        for(TEnumType tEnumType : currentElem.getEnumType()){
-            if(tEnumType.getId().equals(id)) {
-                return Optional.of(new EnumTypeAdapter(this, tEnumType));
-            }
-        }
-        return Optional.empty();
+        return registry.findEnumType(id)
+                .map(tEnumType -> new EnumTypeAdapter(this,tEnumType,true));
     }
     public List<EnumTypeAdapter> getEnumTypeAdapters(){
         return currentElem.getEnumType()
                 .stream()
-                .map(enumType -> new EnumTypeAdapter(this,enumType))
+                .map(enumType -> new EnumTypeAdapter(this,enumType,true))
                 .collect(Collectors.toList());
     }
 
@@ -108,60 +104,17 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
      */
     public void importEnumType(String thisIEDName, DataTypeTemplateAdapter prvDttAdapter){
 
-        Map<String,String> pairOldAndNewEnumId = new HashMap<>();
-        List<EnumTypeAdapter> prvEnumTypeAdapters = prvDttAdapter.getEnumTypeAdapters();
-
-        for(EnumTypeAdapter prvEnumTypeAdapter : prvEnumTypeAdapters){
-
-            TEnumType prvEnumType = prvEnumTypeAdapter.getCurrentElem();
-            String oldEnumId = prvEnumType.getId();
-            String newEnumId = prvEnumType.getId();
-            Optional<EnumTypeAdapter> opRcvEnumTypeAdapter = this.getEnumTypeAdapterById(oldEnumId);
-
-            boolean isImportable = false;
-            if(!opRcvEnumTypeAdapter.isPresent() || !opRcvEnumTypeAdapter.get().hasSameContentAs(prvEnumType)) {
-                isImportable = true;
-            }
-
-            if(isImportable && opRcvEnumTypeAdapter.isPresent()){
-                // same ID, different content
-                // rename enumType Id
-                newEnumId = generateDttId(thisIEDName,prvEnumType.getId());
-                prvEnumType.setId(newEnumId);
-            }
-
-            if(isImportable) {
-                //import this enumType
-                currentElem.getEnumType().add(prvEnumType);
-                if(!Objects.equals(oldEnumId,newEnumId)) {
-                    pairOldAndNewEnumId.put(oldEnumId,newEnumId);
-                }
-            }
-        }
+        Map<String,String> pairOldAndNewEnumId = importTypes(thisIEDName, prvDttAdapter,
+                prvDttAdapter.getCurrentElem().getEnumType(), currentElem.getEnumType(), TEnumType.class,
+                registry::findEnumType);
 
-        // escalate on this DTT
-        pairOldAndNewEnumId.forEach((oldId, newId) -> {
-            List<DATypeAdapter> daTypeAdapters = prvDttAdapter.findDATypesWhichBdaContainsEnumTypeId(oldId);
-            var bdas = daTypeAdapters.stream()
-                    .map(DATypeAdapter::getBdaAdapters)
-                    .flatMap(Collection::stream)
-                    .map(DATypeAdapter.BDAAdapter::getCurrentElem)
-                    .filter(bda -> TPredefinedBasicTypeEnum.ENUM == bda.getBType()
-                            && Objects.equals(bda.getType(),oldId))
-                    .collect(Collectors.toList());
-            bdas.forEach(tbda -> tbda.setType(newId));
-            List<DOTypeAdapter> doTypeAdapters = prvDttAdapter.findDOTypesWhichDAContainsEnumTypeId(oldId);
-            var tdas = doTypeAdapters.stream()
-                    .map(doTypeAdapter -> retrieveSdoOrDA(doTypeAdapter.getCurrentElem().getSDOOrDA(), TDA.class))
-                    .flatMap(Collection::stream)
-                    .filter(tda -> TPredefinedBasicTypeEnum.ENUM == tda.getBType()
-                            && Objects.equals(tda.getType(),oldId))
-                    .collect(Collectors.toList());
-            tdas.forEach(tda -> tda.setType(newId));
-        });
+        // escalate on provider DTT : BDAs and DAs referencing the renamed or already present enumTypes
+        prvDttAdapter.getRegistry().updateReferences(DataTypeTemplateRegistry.RefKind.ENUM_TYPE, pairOldAndNewEnumId);
     }
 
     public Map<String,String> importDTT(String thisIEDName, DataTypeTemplateAdapter rcvDttAdapter) {
+        // fingerprints must be computed before the provider references are rewritten
+        rcvDttAdapter.getRegistry().computeFingerprints();
 
         this.importEnumType(thisIEDName,rcvDttAdapter);
 
@@ -169,147 +122,84 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
 
         this.importDOType(thisIEDName,rcvDttAdapter);
 
-        return importLNodeType(thisIEDName,rcvDttAdapter);
+        Map<String,String> pairOldNewId = importLNodeType(thisIEDName,rcvDttAdapter);
+        // imported types may have been updated after their registration
+        registry.invalidateReferences();
+        return pairOldNewId;
     }
 
     protected Map<String, String> importLNodeType(String thisIEDName, DataTypeTemplateAdapter prvDttAdapter) {
-        Map<String,String> pairOldAndNewId = new HashMap<>();
-        List<LNodeTypeAdapter> prvLNodeTypeAdapters = prvDttAdapter.getLNodeTypeAdapters();
-        for(LNodeTypeAdapter prvLNodeTypeAdapter : prvLNodeTypeAdapters){
-
-            TLNodeType prvLNodeType = prvLNodeTypeAdapter.getCurrentElem();
-            String oldId = prvLNodeType.getId();
-            String newId = prvLNodeType.getId();
-            Optional<LNodeTypeAdapter> opRcvLNodeTypeAdapter = this.getLNodeTypeAdapterById(oldId);
-
-            boolean isImportable = false;
-            if(!opRcvLNodeTypeAdapter.isPresent() || !opRcvLNodeTypeAdapter.get().hasSameContentAs(prvLNodeType)) {
-                isImportable = true;
-            }
-
-            if(isImportable && opRcvLNodeTypeAdapter.isPresent()){
-                // same ID, different content
-                // rename enumType Id
-                newId = generateDttId(thisIEDName,prvLNodeType.getId());
-                prvLNodeType.setId(newId);
-            }
-
-            if(isImportable) {
-                //import this enumType
-                currentElem.getLNodeType().add(prvLNodeType);
-                if(!Objects.equals(oldId,newId)) {
-                    pairOldAndNewId.put(oldId,newId);
-                }
-            }
-        }
-        return pairOldAndNewId;
+        return importTypes(thisIEDName, prvDttAdapter,
+                prvDttAdapter.getCurrentElem().getLNodeType(), currentElem.getLNodeType(), TLNodeType.class,
+                registry::findLNodeType);
     }
 
     protected void importDOType(String thisIEDName, DataTypeTemplateAdapter prvDttAdapter) {
-        Map<String,String> pairOldAndNewDOTyYpeId = new HashMap<>();
-        List<DOTypeAdapter> prvDOTypeAdapters = prvDttAdapter.getDOTypeAdapters();
-
-        for(DOTypeAdapter prvDOTypeAdapter : prvDOTypeAdapters){
-
-            TDOType prvDOType = prvDOTypeAdapter.getCurrentElem();
-            String oldId = prvDOType.getId();
-            String newId = prvDOType.getId();
-            Optional<DOTypeAdapter> opRcvDOTypeAdapter = this.getDOTypeAdapterById(oldId);
-
-            boolean isImportable = false;
-            if(!opRcvDOTypeAdapter.isPresent() || !opRcvDOTypeAdapter.get().hasSameContentAs(prvDOType)) {
-                isImportable = true;
-            }
-
-            if(isImportable && opRcvDOTypeAdapter.isPresent()){
-                // same ID, different content
-                // rename enumType Id
-                newId = generateDttId(thisIEDName,prvDOType.getId());
-                prvDOType.setId(newId);
-            }
-
-            if(isImportable) {
-                //import this enumType
-                currentElem.getDOType().add(prvDOType);
-                if(!Objects.equals(oldId,newId)) {
-                    pairOldAndNewDOTyYpeId.put(oldId,newId);
-                }
-            }
-        }
+        Map<String,String> pairOldAndNewDOTyYpeId = importTypes(thisIEDName, prvDttAdapter,
+                prvDttAdapter.getCurrentElem().getDOType(), currentElem.getDOType(), TDOType.class,
+                registry::findDOType);
 
-        // escalate on provider DTT
-        pairOldAndNewDOTyYpeId.forEach((oldId, newId) -> {
-            List<DOTypeAdapter> doTypeAdapters = prvDttAdapter.findDOTypesFromSDOWithDOTypeId(oldId);
-            var tsdos = doTypeAdapters.stream()
-                    .map(doTypeAdapter -> retrieveSdoOrDA(doTypeAdapter.getCurrentElem().getSDOOrDA(),TSDO.class) )
-                    .flatMap(Collection::stream)
-                    .filter(bda ->  Objects.equals(bda.getType(),oldId))
-                    .collect(Collectors.toList());
-            tsdos.forEach(tbda -> tbda.setType(newId));
-            List<LNodeTypeAdapter> lNodeTypeAdapters = prvDttAdapter.findLNodeTypesFromDoWithDoTypeId(oldId);
-            var tdos = lNodeTypeAdapters.stream()
-                    .map(lNodeTypeAdapter ->  lNodeTypeAdapter.getCurrentElem().getDO())
-                    .flatMap(Collection::stream)
-                    .filter(tda -> Objects.equals(tda.getType(),oldId))
-                    .collect(Collectors.toList());
-            tdos.forEach(tda -> tda.setType(newId));
-        });
+        // escalate on provider DTT : SDOs and DOs referencing the renamed or already present DOTypes
+        prvDttAdapter.getRegistry().updateReferences(DataTypeTemplateRegistry.RefKind.DO_TYPE, pairOldAndNewDOTyYpeId);
     }
 
     protected void importDAType(String thisIEDName, DataTypeTemplateAdapter prvDttAdapter) {
+        Map<String,String> pairOldAndNewDATypeId = importTypes(thisIEDName, prvDttAdapter,
+                prvDttAdapter.getCurrentElem().getDAType(), currentElem.getDAType(), TDAType.class,
+                registry::findDAType);
 
-        Map<String,String> pairOldAndNewEnumId = new HashMap<>();
-        List<DATypeAdapter> prvDATypeAdapters = prvDttAdapter.getDATypeAdapters();
-
-        for(DATypeAdapter prvDATypeAdapter : prvDATypeAdapters){
-
-            TDAType prvDAType = prvDATypeAdapter.getCurrentElem();
-            String oldId = prvDAType.getId();
-            String newId = prvDAType.getId();
-            Optional<DATypeAdapter> opRcvDATypeAdapter = this.getDATypeAdapterById(oldId);
+        // escalate on provider DTT : struct BDAs and DAs referencing the renamed or already present DATypes
+        prvDttAdapter.getRegistry().updateReferences(DataTypeTemplateRegistry.RefKind.DA_TYPE, pairOldAndNewDATypeId);
+    }
 
-            boolean isImportable = false;
-            if(!opRcvDATypeAdapter.isPresent() || !opRcvDATypeAdapter.get().hasSameContentAs(prvDAType)) {
-                isImportable = true;
-            }
+    /**
+     * Imports the provider types of one kind. A provider type whose content fingerprint is already known here is not
+     * imported : it is mapped to the existing type, whatever its id. Otherwise it is imported, renamed first if its id
+     * is already used by a type with a different content.
+     * @param thisIEDName name of the imported IED, used to generate new ids
+     * @param prvDttAdapter provider DTT adapter
+     * @param prvTypes provider types of one kind
+     * @param rcvTypes receiver types of the same kind
+     * @param typeClass class of the types
+     * @param rcvFinder id lookup in the receiver DTT
+     * @param <T> LNodeType, DOType, DAType or EnumType
+     * @return map of (provider id, id in this DTT) for the types whose id changed
+     */
+    private <T extends TIDNaming> Map<String,String> importTypes(String thisIEDName,
+                                                                 DataTypeTemplateAdapter prvDttAdapter,
+                                                                 List<T> prvTypes, List<T> rcvTypes,
+                                                                 Class<T> typeClass,
+                                                                 Function<String,Optional<T>> rcvFinder) {
+        DataTypeTemplateRegistry prvRegistry = prvDttAdapter.getRegistry();
+        prvRegistry.computeFingerprints();
 
-            if(isImportable && opRcvDATypeAdapter.isPresent()){
-                // same ID, different content
-                // rename enumType Id
-                newId = generateDttId(thisIEDName,prvDAType.getId());
-                prvDAType.setId(newId);
+        Map<String,String> pairOldAndNewId = new HashMap<>();
+        for(T prvType : new ArrayList<>(prvTypes)){
+            String oldId = prvType.getId();
+            String fingerprint = prvRegistry.getFingerprint(prvType);
+
+            Optional<T> opSameContentType = registry.findByFingerprint(fingerprint, typeClass);
+            if(opSameContentType.isPresent()) {
+                // same content (possibly under another id) : reuse it
+                String existingId = opSameContentType.get().getId();
+                if(!Objects.equals(oldId, existingId)) {
+                    pairOldAndNewId.put(oldId, existingId);
+                }
+                continue;
             }
 
-            if(isImportable) {
-                //import this enumType
-                currentElem.getDAType().add(prvDAType);
-                if(!Objects.equals(oldId,newId)) {
-                    pairOldAndNewEnumId.put(oldId,newId);
-                }
+            if(rcvFinder.apply(oldId).isPresent()){
+                // same ID, different content : rename type Id
+                String newId = generateDttId(thisIEDName,oldId);
+                prvType.setId(newId);
+                prvRegistry.rename(prvType,oldId);
+                pairOldAndNewId.put(oldId,newId);
             }
+            //import this type
+            rcvTypes.add(prvType);
+            registry.register(prvType, fingerprint);
         }
-
-        // escalate on this DTT
-        pairOldAndNewEnumId.forEach((oldId, newId) -> {
-            List<DATypeAdapter> daTypeAdapters = prvDttAdapter.findDATypesFromStructBdaWithDATypeId(oldId);
-            var tbdas = daTypeAdapters.stream()
-                    .map(DATypeAdapter::getBdaAdapters)
-                    .flatMap(Collection::stream)
-                    .map(DATypeAdapter.BDAAdapter::getCurrentElem)
-                    .filter(bda -> TPredefinedBasicTypeEnum.STRUCT == bda.getBType()
-                            && Objects.equals(bda.getType(),oldId))
-                    .collect(Collectors.toList());
-            tbdas.forEach(tbda -> tbda.setType(newId));
-            List<DOTypeAdapter> doTypeAdapters = prvDttAdapter.findDOTypesWhichDAContainsStructWithDATypeId(oldId);
-            var tdas = doTypeAdapters.stream()
-                    .map(doTypeAdapter -> retrieveSdoOrDA(doTypeAdapter.getCurrentElem().getSDOOrDA(), TDA.class))
-                    .flatMap(Collection::stream)
-                    .filter(tda -> TPredefinedBasicTypeEnum.STRUCT == tda.getBType()
-                            && Objects.equals(tda.getType(),oldId))
-                    .collect(Collectors.toList());
-            tdas.forEach(tda -> tda.setType(newId));
-        });
-
+        return pairOldAndNewId;
     }
 
     public static <T extends TIDNaming> boolean hasSameID(T rcv, T prd){
@@ -335,42 +225,37 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
     }
 
     protected List<DATypeAdapter> findDATypesWhichBdaContainsEnumTypeId(String enumTypeId){
-
-        List<DATypeAdapter> result = new ArrayList<>();
-        for(DATypeAdapter daTypeAdapter : getDATypeAdapters()){
-            if(daTypeAdapter.containsBDAWithEnumTypeID(enumTypeId)) {
-                result.add(daTypeAdapter);
-            }
-        }
-        return result;
+        return registry.findReferencingTypes(DataTypeTemplateRegistry.RefKind.ENUM_TYPE, enumTypeId, TDAType.class)
+                .stream()
+                .map(tdaType -> new DATypeAdapter(this,tdaType,true))
+                .collect(Collectors.toList());
     }
 
     protected List<DOTypeAdapter> findDOTypesWhichDAContainsEnumTypeId(String enumTypeId){
-
-        List<DOTypeAdapter> result = new ArrayList<>();
-        for(DOTypeAdapter doTypeAdapter : getDOTypeAdapters()){
-            if(doTypeAdapter.containsDAWithEnumTypeId(enumTypeId)) {
-                result.add(doTypeAdapter);
-            }
-        }
-        return result;
+        return registry.findReferencingTypes(DataTypeTemplateRegistry.RefKind.ENUM_TYPE, enumTypeId, TDOType.class)
+                .stream()
+                .map(tdoType -> new DOTypeAdapter(this,tdoType,true))
+                .collect(Collectors.toList());
     }
 
     protected List<DATypeAdapter> findDATypesFromStructBdaWithDATypeId(String daTypeId){
-        return getDATypeAdapters().stream()
-                .filter(daTypeAdapter -> daTypeAdapter.containsStructBdaWithDATypeId(daTypeId))
+        return registry.findReferencingTypes(DataTypeTemplateRegistry.RefKind.DA_TYPE, daTypeId, TDAType.class)
+                .stream()
+                .map(tdaType -> new DATypeAdapter(this,tdaType,true))
                 .collect(Collectors.toList());
     }
 
     protected List<DOTypeAdapter> findDOTypesWhichDAContainsStructWithDATypeId(String daTypeId){
-        return  getDOTypeAdapters().stream()
-                .filter(doTypeAdapter -> doTypeAdapter.containsDAStructWithDATypeId(daTypeId))
+        return registry.findReferencingTypes(DataTypeTemplateRegistry.RefKind.DA_TYPE, daTypeId, TDOType.class)
+                .stream()
+                .map(tdoType -> new DOTypeAdapter(this,tdoType,true))
                 .collect(Collectors.toList());
     }
 
     protected List<DOTypeAdapter> findDOTypesFromSDOWithDOTypeId(String doTypeId){
-        return getDOTypeAdapters().stream()
-                .filter(doTypeAdapter -> doTypeAdapter.containsSDOWithDOTypeId(doTypeId))
+        return registry.findReferencingTypes(DataTypeTemplateRegistry.RefKind.DO_TYPE, doTypeId, TDOType.class)
+                .stream()
+                .map(tdoType -> new DOTypeAdapter(this,tdoType,true))
                 .collect(Collectors.toList());
     }
 
@@ -382,8 +267,9 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
     }
 
     protected List<LNodeTypeAdapter> findLNodeTypesFromDoWithDoTypeId(String doTypeId){
-        return getLNodeTypeAdapters().stream()
-                .filter(lNodeTypeAdapter -> lNodeTypeAdapter.containsDOWithDOTypeId(doTypeId))
+        return registry.findReferencingTypes(DataTypeTemplateRegistry.RefKind.DO_TYPE, doTypeId, TLNodeType.class)
+                .stream()
+                .map(tlNodeType -> new LNodeTypeAdapter(this,tlNodeType,true))
                 .collect(Collectors.toList());
     }
 
@@ -396,12 +282,37 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
     }
 
     public ExtRefBindingInfo getBinderResumedDTT(String lnType, ExtRefSignalInfo signalInfo) throws ScdException {
+        return resolveBinder(lnType, signalInfo, true).orElseThrow();
+    }
+
+    /**
+     * Same as {@link #getBinderResumedDTT(String, ExtRefSignalInfo)}, without building an exception when the LNodeType
+     * can't provide the signal
+     * @param lnType LNodeType id
+     * @param signalInfo ExtRef signal
+     * @return binding information, empty if the LNodeType can't provide the signal
+     */
+    public Optional<ExtRefBindingInfo> findBinderResumedDTT(String lnType, ExtRefSignalInfo signalInfo) {
+        try {
+            return resolveBinder(lnType, signalInfo, false);
+        } catch (ScdException e) {
+            // only raised by the deep DA checks, when the LNodeType otherwise matches the signal
+            log.debug("ExRef filtered out: {}", e.getLocalizedMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Optional<ExtRefBindingInfo> resolveBinder(String lnType, ExtRefSignalInfo signalInfo,
+                                                      boolean throwIfAbsent) throws ScdException {
 
         ExtRefBindingInfo binder = new ExtRefBindingInfo();
 
         // LNodeType check
-        LNodeTypeAdapter lNodeTypeAdapter = getLNodeTypeAdapterById(lnType)
-                .orElseThrow(()-> new ScdException("Unknown LNodeType:" + lnType));
+        Optional<LNodeTypeAdapter> opLNodeTypeAdapter = getLNodeTypeAdapterById(lnType);
+        if(opLNodeTypeAdapter.isEmpty()){
+            return absent(throwIfAbsent, () -> "Unknown LNodeType:" + lnType);
+        }
+        LNodeTypeAdapter lNodeTypeAdapter = opLNodeTypeAdapter.get();
         if(lNodeTypeAdapter.getLNClass() == null){
             log.error("Mandatory lnClass is missing in DTT. This should not happen for valid SCD");
             throw new IllegalArgumentException("lnClass is mandatory for LNodeType in DataTemplate:" + lnType);
@@ -411,13 +322,16 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
         binder.setLnClass(lNodeTypeAdapter.getLNClass());
 
         if(signalInfo.getPDO() == null) {
-            return binder;
+            return Optional.of(binder);
         }
         // DoType check
         DoTypeName doName = new DoTypeName(signalInfo.getPDO());
         String extDoName = doName.getName();
-        String doTypeId = lNodeTypeAdapter.getDOTypeId(extDoName)
-                .orElseThrow(() ->new ScdException("Unknown doName :" + signalInfo.getPDO()));
+        Optional<String> opDoTypeId = lNodeTypeAdapter.getDOTypeId(extDoName);
+        if(opDoTypeId.isEmpty()){
+            return absent(throwIfAbsent, () -> "Unknown doName :" + signalInfo.getPDO());
+        }
+        String doTypeId = opDoTypeId.get();
 
         DOTypeAdapter doTypeAdapter = getDOTypeAdapterById(doTypeId)
             .orElseThrow(
@@ -426,12 +340,21 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
                 )
             );
 
-        //doTypeAdapter.completeStructuredData(doName);
-        doTypeAdapter.checkAndCompleteStructData(doName);
+        // SDO chain check (see DOTypeAdapter.checkAndCompleteStructData)
+        DOTypeAdapter sdoTypeAdapter = doTypeAdapter;
+        for(String sdoName : doName.getStructNames()){
+            Optional<DOTypeAdapter> opSdoTypeAdapter = sdoTypeAdapter.getDOTypeAdapterBySdoName(sdoName);
+            if(opSdoTypeAdapter.isEmpty()){
+                return absent(throwIfAbsent,
+                        () -> String.format("Invalid SDO(%s) in the SDO's chain (%s)", sdoName, doName));
+            }
+            sdoTypeAdapter = opSdoTypeAdapter.get();
+            doName.setCdc(sdoTypeAdapter.getCdc());
+        }
         binder.setDoName(doName);
 
         if(signalInfo.getPDA() == null){
-            return binder;
+            return Optional.of(binder);
         }
 
         // DaType check
@@ -439,23 +362,25 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
         String extDaName = daName.getName();
         DOTypeAdapter lastDoTypeAdapter = doTypeAdapter;
         if(!doTypeAdapter.containsDAWithDAName(extDaName)){
-            var pair = doTypeAdapter.findPathDoType2DA(extDaName);
-            lastDoTypeAdapter = pair.getValue();
+            Optional<Pair<String,DOTypeAdapter>> opPair = doTypeAdapter.searchPathDoType2DA(extDaName);
+            if(opPair.isEmpty()){
+                return absent(throwIfAbsent, () -> String.format(
+                        "No coherence or path between DOType(%s) and DA(%s)", doTypeId, extDaName));
+            }
+            lastDoTypeAdapter = opPair.get().getValue();
         }
 
-        TDA da = lastDoTypeAdapter.getDAByName(extDaName)
-                .orElseThrow(
-                        ()-> new ScdException(
-                                String.format("%s: Unknown DA (%s) in DOType (%s) ", doName, extDaName, doTypeId)
-                        )
-                );
+        Optional<TDA> opDa = lastDoTypeAdapter.getDAByName(extDaName);
+        if(opDa.isEmpty()){
+            return absent(throwIfAbsent,
+                    () -> String.format("%s: Unknown DA (%s) in DOType (%s) ", doName, extDaName, doTypeId));
+        }
+        TDA da = opDa.get();
         if(da.getBType() != TPredefinedBasicTypeEnum.STRUCT && !daName.getStructNames().isEmpty() ){
-            throw new ScdException(
-                    String.format(
-                            "Invalid ExtRef signal: no coherence between pDO(%s) and pDA(%s)",
-                        signalInfo.getPDO(),signalInfo.getPDA()
-                    )
-            );
+            return absent(throwIfAbsent, () -> String.format(
+                    "Invalid ExtRef signal: no coherence between pDO(%s) and pDA(%s)",
+                    signalInfo.getPDO(),signalInfo.getPDA()
+            ));
         }
 
         if(da.getBType() == TPredefinedBasicTypeEnum.STRUCT && !daName.getStructNames().isEmpty()){
@@ -470,6 +395,13 @@ public class DataTypeTemplateAdapter extends SclElementAdapter<SclRootAdapter, T
             daName.setFc(da.getFc());
             binder.setDaName(daName);
         }
-        return binder;
+        return Optional.of(binder);
+    }
+
+    private static <T> Optional<T> absent(boolean throwIfAbsent, Supplier<String> message) throws ScdException {
+        if(throwIfAbsent){
+            throw new ScdException(message.get());
+        }
+        return Optional.empty();
     }
 }
@@ -0,0 +1,612 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.dtt;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.TAbstractDataAttribute;
+import org.lfenergy.compas.scl2007b4.model.TBDA;
+import org.lfenergy.compas.scl2007b4.model.TDA;
+import org.lfenergy.compas.scl2007b4.model.TDAType;
+import org.lfenergy.compas.scl2007b4.model.TDO;
+import org.lfenergy.compas.scl2007b4.model.TDOType;
+import org.lfenergy.compas.scl2007b4.model.TDataTypeTemplates;
+import org.lfenergy.compas.scl2007b4.model.TEnumType;
+import org.lfenergy.compas.scl2007b4.model.TIDNaming;
+import org.lfenergy.compas.scl2007b4.model.TLNodeType;
+import org.lfenergy.compas.scl2007b4.model.TPredefinedBasicTypeEnum;
+import org.lfenergy.compas.scl2007b4.model.TSDO;
+import org.lfenergy.compas.scl2007b4.model.TUnNaming;
+import org.lfenergy.compas.sct.commons.Utils;
+import org.lfenergy.compas.sct.commons.dto.ResumedDataTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Id-keyed registry of a DataTypeTemplates section.
+ * <p>
+ * It maintains :
+ * <ul>
+ *     <li>one id to type map per kind of type (LNodeType, DOType, DAType, EnumType)</li>
+ *     <li>reverse maps telling, for an EnumType, DAType or DOType id, which BDA/DA/SDO/DO reference it and in which
+ *     type they are declared</li>
+ *     <li>a content fingerprint per type and the reverse fingerprint to type map, used to import a type only once
+ *     whatever its id in the provider</li>
+ *     <li>the memoized ResumedDataTemplate expansions of the LNodeTypes, dropped on any registration, renaming or
+ *     reference update</li>
+ * </ul>
+ * The id maps are updated on import ({@link #register(TIDNaming)}) and renaming ({@link #rename(TIDNaming, String)});
+ * a map is rebuilt if the size of its JAXB list changed behind our back and every hit is checked against the
+ * type's id. The reverse maps are built lazily, rewritten by {@link #updateReferences(RefKind, Map)} and dropped when
+ * types are added, as the references held by imported types may still change afterwards.
+ */
+public class DataTypeTemplateRegistry {
+
+    public enum RefKind {
+        ENUM_TYPE,
+        DA_TYPE,
+        DO_TYPE
+    }
+
+    private final TDataTypeTemplates dataTypeTemplates;
+
+    private final IdMap<TLNodeType> lNodeTypes = new IdMap<>();
+    private final IdMap<TDOType> doTypes = new IdMap<>();
+    private final IdMap<TDAType> daTypes = new IdMap<>();
+    private final IdMap<TEnumType> enumTypes = new IdMap<>();
+
+    private final Map<RefKind, Map<String, List<TypeRef>>> references = new EnumMap<>(RefKind.class);
+    private long referencesStamp = -1;
+
+    private final Map<TIDNaming, String> fingerprints = new IdentityHashMap<>();
+    private final Map<String, TIDNaming> byFingerprint = new HashMap<>();
+    private long fingerprintsStamp = -1;
+
+    private final Map<String, List<ResumedDataTemplate>> resumedDTTs = new HashMap<>();
+    private long resumedDTTsStamp = -1;
+
+    public DataTypeTemplateRegistry(@NonNull TDataTypeTemplates dataTypeTemplates) {
+        this.dataTypeTemplates = dataTypeTemplates;
+    }
+
+    public Optional<TLNodeType> findLNodeType(String id) {
+        return lNodeTypes.find(dataTypeTemplates.getLNodeType(), id);
+    }
+
+    public Optional<TDOType> findDOType(String id) {
+        return doTypes.find(dataTypeTemplates.getDOType(), id);
+    }
+
+    public Optional<TDAType> findDAType(String id) {
+        return daTypes.find(dataTypeTemplates.getDAType(), id);
+    }
+
+    public Optional<TEnumType> findEnumType(String id) {
+        return enumTypes.find(dataTypeTemplates.getEnumType(), id);
+    }
+
+    /**
+     * Registers a type that has just been appended to the DataTypeTemplates
+     * @param type added LNodeType, DOType, DAType or EnumType
+     */
+    public void register(@NonNull TIDNaming type) {
+        if(type instanceof TLNodeType) {
+            lNodeTypes.register(dataTypeTemplates.getLNodeType(), (TLNodeType) type);
+        } else if(type instanceof TDOType) {
+            doTypes.register(dataTypeTemplates.getDOType(), (TDOType) type);
+        } else if(type instanceof TDAType) {
+            daTypes.register(dataTypeTemplates.getDAType(), (TDAType) type);
+        } else if(type instanceof TEnumType) {
+            enumTypes.register(dataTypeTemplates.getEnumType(), (TEnumType) type);
+        }
+        invalidateReferences();
+        invalidateResumedDTTs();
+    }
+
+    /**
+     * Moves a type under its new id (the type's id must already be updated)
+     * @param type renamed LNodeType, DOType, DAType or EnumType
+     * @param oldId id before renaming
+     */
+    public void rename(@NonNull TIDNaming type, String oldId) {
+        if(type instanceof TLNodeType) {
+            lNodeTypes.rename((TLNodeType) type, oldId);
+        } else if(type instanceof TDOType) {
+            doTypes.rename((TDOType) type, oldId);
+        } else if(type instanceof TDAType) {
+            daTypes.rename((TDAType) type, oldId);
+        } else if(type instanceof TEnumType) {
+            enumTypes.rename((TEnumType) type, oldId);
+        }
+        invalidateResumedDTTs();
+    }
+
+    /**
+     * Gives the types declaring a reference (BDA, DA, SDO or DO) to the given id
+     * @param kind kind of the referenced type
+     * @param id referenced id
+     * @param ownerClass class of the referencing types to retrieve
+     * @param <T> type of the referencing types
+     * @return referencing types, in their DataTypeTemplates order
+     */
+    public <T extends TIDNaming> List<T> findReferencingTypes(RefKind kind, String id, Class<T> ownerClass) {
+        Set<T> owners = new LinkedHashSet<>();
+        for(TypeRef typeRef : getReferences(kind).getOrDefault(id, List.of())) {
+            if(ownerClass.isInstance(typeRef.owner) && typeRef.refersTo(kind, id)) {
+                owners.add(ownerClass.cast(typeRef.owner));
+            }
+        }
+        return new ArrayList<>(owners);
+    }
+
+    /**
+     * Rewrites all the references to renamed ids. All the references are collected before any of them is rewritten,
+     * so a new id may be equal to another old id.
+     * @param kind kind of the renamed types
+     * @param pairOldNewId map of (old id, new id)
+     */
+    public void updateReferences(RefKind kind, Map<String, String> pairOldNewId) {
+        if(pairOldNewId.isEmpty()) {
+            return;
+        }
+        invalidateResumedDTTs();
+        Map<String, List<TypeRef>> refsById = getReferences(kind);
+        Map<String, List<TypeRef>> toRewrite = new HashMap<>();
+        pairOldNewId.forEach((oldId, newId) -> {
+            List<TypeRef> typeRefs = refsById.remove(oldId);
+            if(typeRefs != null) {
+                toRewrite.put(oldId, typeRefs);
+            }
+        });
+        toRewrite.forEach((oldId, typeRefs) -> {
+            String newId = pairOldNewId.get(oldId);
+            for(TypeRef typeRef : typeRefs) {
+                if(typeRef.refersTo(kind, oldId)) {
+                    typeRef.setType(newId);
+                    refsById.computeIfAbsent(newId, k -> new ArrayList<>()).add(typeRef);
+                }
+            }
+        });
+    }
+
+    /**
+     * Drops the reverse maps, they will be rebuilt on next use
+     */
+    public void invalidateReferences() {
+        referencesStamp = -1;
+    }
+
+    /**
+     * Gives the content fingerprint of a type of this DataTypeTemplates. The fingerprint ignores the type's own id
+     * and replaces every reference (enum, struct, SDO, DO) by the fingerprint of the referenced type, resolved in this
+     * DataTypeTemplates : two types have the same fingerprint when their whole structure is the same, whatever their
+     * ids and the ids of the types they use. It is cached per type instance.
+     * @param type LNodeType, DOType, DAType or EnumType
+     * @return SHA-256 of the canonical form of the type, in hexadecimal
+     */
+    public String getFingerprint(@NonNull TIDNaming type) {
+        return fingerprint(type, Collections.newSetFromMap(new IdentityHashMap<>()));
+    }
+
+    /**
+     * Computes and caches the fingerprints of all the types of this DataTypeTemplates. To be called before references
+     * are rewritten, while every id still resolves to the type it was written for.
+     */
+    public void computeFingerprints() {
+        dataTypeTemplates.getEnumType().forEach(this::getFingerprint);
+        dataTypeTemplates.getDAType().forEach(this::getFingerprint);
+        dataTypeTemplates.getDOType().forEach(this::getFingerprint);
+        dataTypeTemplates.getLNodeType().forEach(this::getFingerprint);
+    }
+
+    /**
+     * Finds a type by content fingerprint. The first type in DataTypeTemplates order wins.
+     * @param fingerprint fingerprint, as given by {@link #getFingerprint(TIDNaming)}
+     * @param typeClass class of the type to retrieve
+     * @param <T> LNodeType, DOType, DAType or EnumType
+     * @return type with the same content, if any
+     */
+    public <T extends TIDNaming> Optional<T> findByFingerprint(String fingerprint, Class<T> typeClass) {
+        long stamp = typesCount();
+        if(fingerprintsStamp != stamp) {
+            byFingerprint.clear();
+            computeFingerprints();
+            dataTypeTemplates.getEnumType().forEach(t -> byFingerprint.putIfAbsent(fingerprints.get(t), t));
+            dataTypeTemplates.getDAType().forEach(t -> byFingerprint.putIfAbsent(fingerprints.get(t), t));
+            dataTypeTemplates.getDOType().forEach(t -> byFingerprint.putIfAbsent(fingerprints.get(t), t));
+            dataTypeTemplates.getLNodeType().forEach(t -> byFingerprint.putIfAbsent(fingerprints.get(t), t));
+            fingerprintsStamp = stamp;
+        }
+        return Optional.ofNullable(byFingerprint.get(fingerprint))
+                .filter(typeClass::isInstance)
+                .map(typeClass::cast);
+    }
+
+    /**
+     * Registers a type that has just been appended to the DataTypeTemplates with its already known fingerprint. The
+     * fingerprint of an imported type must be computed in its provider DataTypeTemplates, as its references may not
+     * resolve here yet.
+     * @param type added LNodeType, DOType, DAType or EnumType
+     * @param fingerprint fingerprint of the type
+     */
+    public void register(@NonNull TIDNaming type, @NonNull String fingerprint) {
+        fingerprints.put(type, fingerprint);
+        if(fingerprintsStamp == typesCount() - 1) {
+            byFingerprint.putIfAbsent(fingerprint, type);
+            fingerprintsStamp = typesCount();
+        }
+        register(type);
+    }
+
+    /**
+     * Drops all the cached fingerprints, to be called when the content of registered types has been modified
+     */
+    public void invalidateFingerprints() {
+        fingerprints.clear();
+        byFingerprint.clear();
+        fingerprintsStamp = -1;
+        invalidateResumedDTTs();
+    }
+
+    /**
+     * Gives the types used by LNodeTypes: the LNodeTypes themselves and all the DOTypes, DATypes and EnumTypes they
+     * transitively reference. Unknown ids are ignored.
+     * @param lNodeTypeIds LNodeType ids
+     * @return identity set of the reachable types
+     */
+    public Set<TIDNaming> findReachableTypes(@NonNull Collection<String> lNodeTypeIds) {
+        Set<TIDNaming> reachable = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<TIDNaming> toVisit = new ArrayDeque<>();
+        lNodeTypeIds.forEach(id -> findLNodeType(id).ifPresent(toVisit::push));
+        while(!toVisit.isEmpty()) {
+            TIDNaming type = toVisit.pop();
+            if(!reachable.add(type)) {
+                continue;
+            }
+            if(type instanceof TLNodeType) {
+                ((TLNodeType) type).getDO().forEach(tdo -> findDOType(tdo.getType()).ifPresent(toVisit::push));
+            } else if(type instanceof TDOType) {
+                for(TUnNaming tUnNaming : ((TDOType) type).getSDOOrDA()) {
+                    if(tUnNaming instanceof TSDO) {
+                        findDOType(((TSDO) tUnNaming).getType()).ifPresent(toVisit::push);
+                    } else {
+                        pushReferencedType((TDA) tUnNaming, toVisit);
+                    }
+                }
+            } else if(type instanceof TDAType) {
+                ((TDAType) type).getBDA().forEach(tbda -> pushReferencedType(tbda, toVisit));
+            }
+        }
+        return reachable;
+    }
+
+    /**
+     * Drops the memoized ResumedDataTemplate expansions
+     */
+    public void invalidateResumedDTTs() {
+        resumedDTTs.clear();
+        resumedDTTsStamp = -1;
+    }
+
+    /**
+     * Gives a memoized LNodeType expansion. The returned templates are shared and must not be modified.
+     * @param key LNodeType id and DO/DA filter
+     * @return memoized expansion, null if unknown
+     */
+    List<ResumedDataTemplate> findResumedDTTs(String key) {
+        if(resumedDTTsStamp != typesCount()) {
+            resumedDTTs.clear();
+            resumedDTTsStamp = typesCount();
+        }
+        return resumedDTTs.get(key);
+    }
+
+    void putResumedDTTs(String key, List<ResumedDataTemplate> leaves) {
+        if(resumedDTTsStamp == typesCount()) {
+            resumedDTTs.put(key, List.copyOf(leaves));
+        }
+    }
+
+    private String fingerprint(TIDNaming type, Set<TIDNaming> visiting) {
+        String fingerprint = fingerprints.get(type);
+        if(fingerprint != null) {
+            return fingerprint;
+        }
+        if(!visiting.add(type)) {
+            // invalid recursive type : break the cycle on the id
+            return "cycle:" + type.getId();
+        }
+        Fingerprint fp = new Fingerprint(type.getClass().getSimpleName());
+        fp.addSorted(type.getPrivate().stream()
+                .map(tPrivate -> Fingerprint.tuple(tPrivate.getType(), tPrivate.getSource()))
+                .collect(Collectors.toList()));
+        if(type instanceof TEnumType) {
+            fp.addSorted(((TEnumType) type).getEnumVal().stream()
+                    .map(tEnumVal -> Fingerprint.tuple(tEnumVal.getOrd(), tEnumVal.getValue()))
+                    .collect(Collectors.toList()));
+        } else if(type instanceof TDAType) {
+            TDAType tdaType = (TDAType) type;
+            fp.add(tdaType.getIedType());
+            tdaType.getProtNs().forEach(tProtNs -> fp.add(Fingerprint.tuple(tProtNs.getType(), tProtNs.getValue())));
+            tdaType.getBDA().forEach(tbda -> addAttribute(fp, tbda, visiting));
+        } else if(type instanceof TDOType) {
+            TDOType tdoType = (TDOType) type;
+            fp.add(tdoType.getCdc()).add(tdoType.getIedType());
+            for(TUnNaming tUnNaming : tdoType.getSDOOrDA()) {
+                if(tUnNaming instanceof TSDO) {
+                    TSDO tsdo = (TSDO) tUnNaming;
+                    fp.add("SDO").add(tsdo.getName()).add(countOf(tsdo, tsdo.getCount()))
+                            .add(referenceFingerprint(RefKind.DO_TYPE, tsdo.getType(), visiting));
+                } else {
+                    addAttribute(fp, (TDA) tUnNaming, visiting);
+                }
+            }
+        } else if(type instanceof TLNodeType) {
+            TLNodeType tlNodeType = (TLNodeType) type;
+            fp.add(tlNodeType.getLnClass()).add(tlNodeType.getIedType());
+            for(TDO tdo : tlNodeType.getDO()) {
+                fp.add(tdo.getName()).add(tdo.isTransient()).add(tdo.getAccessControl())
+                        .add(referenceFingerprint(RefKind.DO_TYPE, tdo.getType(), visiting));
+            }
+        }
+        visiting.remove(type);
+        fingerprint = fp.build();
+        fingerprints.put(type, fingerprint);
+        return fingerprint;
+    }
+
+    private void addAttribute(Fingerprint fp, TAbstractDataAttribute attribute, Set<TIDNaming> visiting) {
+        fp.add(attribute.getClass().getSimpleName()).add(attribute.getName()).add(attribute.getBType())
+                .add(attribute.getSAddr()).add(attribute.getValKind()).add(attribute.isValImport())
+                .add(countOf(attribute, attribute.getCount()));
+        if(TPredefinedBasicTypeEnum.ENUM == attribute.getBType()) {
+            fp.add(referenceFingerprint(RefKind.ENUM_TYPE, attribute.getType(), visiting));
+        } else if(TPredefinedBasicTypeEnum.STRUCT == attribute.getBType()) {
+            fp.add(referenceFingerprint(RefKind.DA_TYPE, attribute.getType(), visiting));
+        } else {
+            fp.add(attribute.getType());
+        }
+        fp.addSorted(attribute.getVal().stream()
+                .map(tVal -> Fingerprint.tuple(tVal.getSGroup(), tVal.getValue()))
+                .collect(Collectors.toList()));
+        if(attribute instanceof TDA) {
+            TDA tda = (TDA) attribute;
+            fp.add(tda.getFc()).add(tda.isDchg()).add(tda.isDupd()).add(tda.isQchg());
+            fp.addSorted(tda.getProtNs().stream()
+                    .map(tProtNs -> Fingerprint.tuple(tProtNs.getType(), tProtNs.getValue()))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * The JAXB getter creates the count list : reset it when empty, so that computing a fingerprint does not write
+     * count="" on marshalling (as {@link AbstractDataAttributeAdapter#hasSameContentAs} does)
+     */
+    private static List<?> countOf(Object element, List<?> count) {
+        if(count.isEmpty()) {
+            Utils.setField(element, "count", null);
+        }
+        return count;
+    }
+
+    private void pushReferencedType(TAbstractDataAttribute attribute, Deque<TIDNaming> toVisit) {
+        if(TPredefinedBasicTypeEnum.ENUM == attribute.getBType()) {
+            findEnumType(attribute.getType()).ifPresent(toVisit::push);
+        } else if(TPredefinedBasicTypeEnum.STRUCT == attribute.getBType()) {
+            findDAType(attribute.getType()).ifPresent(toVisit::push);
+        }
+    }
+
+    private String referenceFingerprint(RefKind kind, String id, Set<TIDNaming> visiting) {
+        Optional<? extends TIDNaming> referenced;
+        if(kind == RefKind.ENUM_TYPE) {
+            referenced = findEnumType(id);
+        } else if(kind == RefKind.DA_TYPE) {
+            referenced = findDAType(id);
+        } else {
+            referenced = findDOType(id);
+        }
+        // an unresolved reference can only be equal to the same unresolved id
+        return referenced.map(t -> fingerprint(t, visiting)).orElse("unresolved:" + id);
+    }
+
+    private Map<String, List<TypeRef>> getReferences(RefKind kind) {
+        long stamp = typesCount();
+        if(referencesStamp != stamp) {
+            buildReferences();
+            referencesStamp = stamp;
+        }
+        return references.get(kind);
+    }
+
+    private long typesCount() {
+        return (long) dataTypeTemplates.getLNodeType().size() + dataTypeTemplates.getDOType().size()
+                + dataTypeTemplates.getDAType().size() + dataTypeTemplates.getEnumType().size();
+    }
+
+    private void buildReferences() {
+        for(RefKind kind : RefKind.values()) {
+            references.put(kind, new HashMap<>());
+        }
+        for(TDAType tdaType : dataTypeTemplates.getDAType()) {
+            for(TBDA tbda : tdaType.getBDA()) {
+                addAttributeReference(tdaType, tbda);
+            }
+        }
+        for(TDOType tdoType : dataTypeTemplates.getDOType()) {
+            for(TUnNaming tUnNaming : tdoType.getSDOOrDA()) {
+                if(tUnNaming instanceof TDA) {
+                    addAttributeReference(tdoType, (TDA) tUnNaming);
+                } else if(tUnNaming instanceof TSDO) {
+                    addReference(RefKind.DO_TYPE, ((TSDO) tUnNaming).getType(), tdoType, tUnNaming);
+                }
+            }
+        }
+        for(TLNodeType tlNodeType : dataTypeTemplates.getLNodeType()) {
+            for(TDO tdo : tlNodeType.getDO()) {
+                addReference(RefKind.DO_TYPE, tdo.getType(), tlNodeType, tdo);
+            }
+        }
+    }
+
+    private void addAttributeReference(TIDNaming owner, TAbstractDataAttribute attribute) {
+        if(TPredefinedBasicTypeEnum.ENUM == attribute.getBType()) {
+            addReference(RefKind.ENUM_TYPE, attribute.getType(), owner, attribute);
+        } else if(TPredefinedBasicTypeEnum.STRUCT == attribute.getBType()) {
+            addReference(RefKind.DA_TYPE, attribute.getType(), owner, attribute);
+        }
+    }
+
+    private void addReference(RefKind kind, String id, TIDNaming owner, Object element) {
+        if(id != null) {
+            references.get(kind).computeIfAbsent(id, k -> new ArrayList<>()).add(new TypeRef(owner, element));
+        }
+    }
+
+    /**
+     * A reference to a type id, held by a BDA, DA, SDO or DO, together with the type declaring it
+     */
+    private static final class TypeRef {
+        private final TIDNaming owner;
+        private final Object element;
+
+        private TypeRef(TIDNaming owner, Object element) {
+            this.owner = owner;
+            this.element = element;
+        }
+
+        private boolean refersTo(RefKind kind, String id) {
+            if(element instanceof TAbstractDataAttribute) {
+                TAbstractDataAttribute attribute = (TAbstractDataAttribute) element;
+                TPredefinedBasicTypeEnum bType = kind == RefKind.ENUM_TYPE ?
+                        TPredefinedBasicTypeEnum.ENUM : TPredefinedBasicTypeEnum.STRUCT;
+                return kind != RefKind.DO_TYPE && bType == attribute.getBType()
+                        && Objects.equals(id, attribute.getType());
+            }
+            if(element instanceof TSDO) {
+                return kind == RefKind.DO_TYPE && Objects.equals(id, ((TSDO) element).getType());
+            }
+            return kind == RefKind.DO_TYPE && Objects.equals(id, ((TDO) element).getType());
+        }
+
+        private void setType(String id) {
+            if(element instanceof TAbstractDataAttribute) {
+                ((TAbstractDataAttribute) element).setType(id);
+            } else if(element instanceof TSDO) {
+                ((TSDO) element).setType(id);
+            } else {
+                ((TDO) element).setType(id);
+            }
+        }
+    }
+
+    /**
+     * Builder of a fingerprint : every value is written with its length so that the canonical form is unambiguous
+     */
+    private static final class Fingerprint {
+        private final MessageDigest digest;
+
+        private Fingerprint(String kind) {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e);
+            }
+            add(kind);
+        }
+
+        private static String tuple(Object... values) {
+            StringBuilder stringBuilder = new StringBuilder();
+            for(Object value : values) {
+                String str = value == null ? null : value.toString();
+                stringBuilder.append(str == null ? -1 : str.length()).append(':').append(str == null ? "" : str);
+            }
+            return stringBuilder.toString();
+        }
+
+        private Fingerprint add(Object value) {
+            byte[] bytes = tuple(value).getBytes(StandardCharsets.UTF_8);
+            digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+            digest.update(bytes);
+            return this;
+        }
+
+        private Fingerprint addSorted(List<String> values) {
+            List<String> sorted = new ArrayList<>(values);
+            Collections.sort(sorted);
+            add(sorted.size());
+            sorted.forEach(this::add);
+            return this;
+        }
+
+        private String build() {
+            StringBuilder stringBuilder = new StringBuilder();
+            for(byte b : digest.digest()) {
+                stringBuilder.append(String.format("%02x", b));
+            }
+            return stringBuilder.toString();
+        }
+    }
+
+    /**
+     * Id to type map of one kind of type. The first type holding an id wins, as with a scan of the JAXB list.
+     * @param <T> LNodeType, DOType, DAType or EnumType
+     */
+    private static final class IdMap<T extends TIDNaming> {
+        private final Map<String, T> byId = new HashMap<>();
+        private int stamp = -1;
+
+        private Optional<T> find(List<T> types, String id) {
+            if(stamp != types.size()) {
+                rebuild(types);
+            }
+            T type = byId.get(id);
+            if(type != null && !Objects.equals(id, type.getId())) {
+                // renamed without telling us
+                rebuild(types);
+                type = byId.get(id);
+            }
+            return Optional.ofNullable(type);
+        }
+
+        private void rebuild(List<T> types) {
+            byId.clear();
+            for(T type : types) {
+                byId.putIfAbsent(type.getId(), type);
+            }
+            stamp = types.size();
+        }
+
+        private void register(List<T> types, T type) {
+            if(stamp == types.size() - 1) {
+                byId.putIfAbsent(type.getId(), type);
+                stamp = types.size();
+            }
+        }
+
+        private void rename(T type, String oldId) {
+            if(stamp >= 0 && byId.remove(oldId, type)) {
+                byId.putIfAbsent(type.getId(), type);
+            }
+        }
+    }
+}
@@ -18,6 +18,10 @@ public class EnumTypeAdapter extends AbstractDataTypeAdapter<TEnumType>{
         super(parentAdapter, currentElem);
     }
 
+    EnumTypeAdapter(DataTypeTemplateAdapter parentAdapter, TEnumType currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
+
     @Override
     protected boolean amChildElementRef() {
         return parentAdapter.getCurrentElem().getEnumType().contains(currentElem);
@@ -18,6 +18,7 @@ import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.SclElementAdapter;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 public class LNodeTypeAdapter
@@ -28,6 +29,10 @@ public class LNodeTypeAdapter
         super(parentAdapter, currentElem);
     }
 
+    LNodeTypeAdapter(DataTypeTemplateAdapter parentAdapter, TLNodeType currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
+
     @Override
     protected boolean amChildElementRef() {
         return parentAdapter.getCurrentElem().getLNodeType().contains(currentElem);
@@ -40,10 +45,8 @@ public class LNodeTypeAdapter
             return false;
         }
 
-        if(Objects.equals(
-                currentElem.getLnClass().toArray(new String[0]),
-                tlNodeType.getLnClass().toArray(new String[0])
-            ) || !Objects.equals(currentElem.getIedType(),tlNodeType.getIedType())){
+        if(!Objects.equals(currentElem.getLnClass(),tlNodeType.getLnClass())
+                || !Objects.equals(currentElem.getIedType(),tlNodeType.getIedType())){
             return false;
         }
 
@@ -90,22 +93,70 @@ public class LNodeTypeAdapter
                 .findFirst();
     }
 
+    /**
+     * Gives the leaves of this LNodeType matching the filter's DO and DA names, stamped with the filter's prefix,
+     * lnClass and lnInst. The expansion itself doesn't depend on the LN, so it is memoized per (lnType, DO, DA) in the
+     * DTT registry ; every call gets its own copies, which the caller may modify.
+     * @param filter LN and DO/DA filter
+     * @return list of Resumed Data Type Templates
+     */
     public List<ResumedDataTemplate> getResumedDTTs(@NonNull ResumedDataTemplate filter)  {
+        List<ResumedDataTemplate> leaves = findLeaves(filter);
+        List<ResumedDataTemplate> resumedDataTemplates = new ArrayList<>(leaves.size());
+        for(ResumedDataTemplate leaf : leaves) {
+            ResumedDataTemplate resumedDataTemplate = ResumedDataTemplate.copyFrom(leaf);
+            resumedDataTemplate.setLnClass(filter.getLnClass());
+            resumedDataTemplate.setLnInst(filter.getLnInst());
+            resumedDataTemplate.setPrefix(filter.getPrefix());
+            resumedDataTemplates.add(resumedDataTemplate);
+        }
+        return resumedDataTemplates;
+    }
+
+    /**
+     * Gives the data attributes (DO[.SDO].DA[.BDA]) of the leaves of this LNodeType matching the filter's DO and DA
+     * names. Read-only counterpart of {@link #getResumedDTTs(ResumedDataTemplate)} : it reads the memoized leaves
+     * without copying them.
+     * @param filter DO/DA filter
+     * @return unmodifiable list of data attributes
+     */
+    public List<String> getDataAttributes(@NonNull ResumedDataTemplate filter)  {
+        return findLeaves(filter).stream()
+                .map(ResumedDataTemplate::getDataAttributes)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    /**
+     * @param filter DO/DA filter
+     * @return memoized leaves matching the filter, shared with the next calls : never hand them out uncopied
+     */
+    private List<ResumedDataTemplate> findLeaves(ResumedDataTemplate filter)  {
 
-        List<ResumedDataTemplate> resumedDataTemplates = new ArrayList<>();
         if(filter.isDaNameDefined()) {
             try {
                 check(filter.getDoName(),filter.getDaName());
             } catch (ScdException e){
                 log.error(e.getMessage());
-                return resumedDataTemplates;
+                return Collections.emptyList();
+            }
+        }
+
+        DataTypeTemplateRegistry registry = parentAdapter.getRegistry();
+        String key = currentElem.getId() + '/' + filter.getDoRef() + '/' + filter.getDaRef();
+        List<ResumedDataTemplate> leaves = registry == null ? null : registry.findResumedDTTs(key);
+        if(leaves == null) {
+            leaves = List.copyOf(expandResumedDTTs(filter));
+            if(registry != null) {
+                registry.putResumedDTTs(key, leaves);
             }
         }
+        return leaves;
+    }
+
+    private List<ResumedDataTemplate> expandResumedDTTs(ResumedDataTemplate filter) {
+        List<ResumedDataTemplate> resumedDataTemplates = new ArrayList<>();
         ResumedDataTemplate rootResumedRTT = new ResumedDataTemplate();
         rootResumedRTT.setLnType(currentElem.getId());
-        rootResumedRTT.setLnClass(filter.getLnClass());
-        rootResumedRTT.setLnInst(filter.getLnInst());
-        rootResumedRTT.setPrefix(filter.getPrefix());
 
         for(TDO tdo : currentElem.getDO()){
             if(filter.isDoNameDefined() &&
@@ -136,7 +187,7 @@ public class LNodeTypeAdapter
     public Optional<DOAdapter> getDOAdapterByName(String name) {
         for(TDO tdo : currentElem.getDO()){
             if(tdo.getName().equals(name)){
-                return Optional.of(new DOAdapter(this,tdo));
+                return Optional.of(new DOAdapter(this,tdo,true));
             }
         }
         return Optional.empty();
@@ -215,7 +266,7 @@ public class LNodeTypeAdapter
         Optional<ResumedDataTemplate> opRDtt;
         List<ResumedDataTemplate> rDtts = new ArrayList<>();
         for(TDO tdo : currentElem.getDO()){
-            DOAdapter doAdapter = new DOAdapter(this,tdo);
+            DOAdapter doAdapter = new DOAdapter(this,tdo,true);
             DOTypeAdapter doTypeAdapter = doAdapter.getDoTypeAdapter().orElseThrow();
             ResumedDataTemplate rDtt = new ResumedDataTemplate();
             rDtt.setLnType(currentElem.getId());
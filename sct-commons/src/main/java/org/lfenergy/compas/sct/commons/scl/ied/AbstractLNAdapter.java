@@ -10,6 +10,7 @@ import org.apache.commons.lang3.StringUtils;
 import org.lfenergy.compas.scl2007b4.model.LN0;
 import org.lfenergy.compas.scl2007b4.model.TAnyLN;
 import org.lfenergy.compas.scl2007b4.model.TControl;
+import org.lfenergy.compas.scl2007b4.model.TDAI;
 import org.lfenergy.compas.scl2007b4.model.TDOI;
 import org.lfenergy.compas.scl2007b4.model.TDataSet;
 import org.lfenergy.compas.scl2007b4.model.TExtRef;
@@ -20,7 +21,6 @@ import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
 import org.lfenergy.compas.scl2007b4.model.TReportControl;
 import org.lfenergy.compas.scl2007b4.model.TSampledValueControl;
 import org.lfenergy.compas.scl2007b4.model.TServiceType;
-import org.lfenergy.compas.scl2007b4.model.TVal;
 import org.lfenergy.compas.sct.commons.dto.ControlBlock;
 import org.lfenergy.compas.sct.commons.dto.DaTypeName;
 import org.lfenergy.compas.sct.commons.dto.DataSetInfo;
@@ -38,6 +38,7 @@ import org.lfenergy.compas.sct.commons.dto.SMVControlBlock;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.ObjectReference;
 import org.lfenergy.compas.sct.commons.scl.SclElementAdapter;
+import org.lfenergy.compas.sct.commons.scl.SclIndex;
 import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
 import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateAdapter;
 import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
@@ -61,6 +62,10 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
     protected AbstractLNAdapter(LDeviceAdapter parentAdapter, T currentElem) {
         super(parentAdapter, currentElem);
     }
+
+    protected AbstractLNAdapter(LDeviceAdapter parentAdapter, T currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
     public static LNAdapterBuilder builder(){
         return new LNAdapterBuilder();
     }
@@ -72,27 +77,43 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
 
     protected void addControlBlock(ControlBlock<?> controlBlock) throws ScdException {
 
+        TControl tControl = null;
         switch (controlBlock.getServiceType() ) {
             case REPORT:
-                currentElem.getReportControl().add(controlBlock.createControlBlock());
+                TReportControl tReportControl = controlBlock.createControlBlock();
+                currentElem.getReportControl().add(tReportControl);
+                tControl = tReportControl;
                 break;
             case GOOSE:
                 if(isLN0()) {
-                    ((LN0)currentElem).getGSEControl().add(controlBlock.createControlBlock());
+                    TGSEControl tgseControl = controlBlock.createControlBlock();
+                    ((LN0)currentElem).getGSEControl().add(tgseControl);
+                    tControl = tgseControl;
                 }
                 break;
             case SMV:
                 if(isLN0()) {
-                    ((LN0)currentElem).getSampledValueControl().add(controlBlock.createControlBlock());
+                    TSampledValueControl tSampledValueControl = controlBlock.createControlBlock();
+                    ((LN0)currentElem).getSampledValueControl().add(tSampledValueControl);
+                    tControl = tSampledValueControl;
                 }
                 break;
             default:
                 throw new ScdException("Unknown control block type : " + controlBlock.getServiceType());
 
         }
+        if(tControl != null) {
+            TControl addedControl = tControl;
+            findSclIndex().ifPresent(sclIndex ->
+                    sclIndex.registerControlBlock(currentElem, controlBlock.getServiceType(), addedControl));
+        }
     }
 
     public Optional<TDataSet> findDataSetByRef(String dataSetRef)  {
+        Optional<SclIndex> sclIndex = findSclIndex();
+        if(sclIndex.isPresent()) {
+            return sclIndex.get().findDataSet(currentElem, dataSetRef);
+        }
         return currentElem.getDataSet()
                 .stream()
                 .filter(tDataSet -> Objects.equals(tDataSet.getName(),dataSetRef))
@@ -100,25 +121,30 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
     }
 
     public DOIAdapter getDOIAdapterByName(String doiName) throws ScdException {
-        String iedName = parentAdapter.getParentAdapter().getName();
-        String ldInst = parentAdapter.getInst();
-        return currentElem.getDOI()
-                .stream()
-                .filter(tdoi -> tdoi.getName().equals(doiName))
-                .findFirst()
-                .map(tdoi -> new DOIAdapter(this,tdoi))
+        return findDOIAdapterByName(doiName)
                 .orElseThrow(
                         () -> new ScdException(
                                 String.format( "Unknown DOI(%s) in %s%s/%s%s%s",
-                                        doiName, iedName, ldInst, getPrefix(), getLNClass(), getLNInst()
+                                        doiName, parentAdapter.getParentAdapter().getName(), parentAdapter.getInst(),
+                                        getPrefix(), getLNClass(), getLNInst()
                                 )
                         )
                 );
     }
+
+    public Optional<DOIAdapter> findDOIAdapterByName(String doiName) {
+        Optional<SclIndex> sclIndex = findSclIndex();
+        Optional<TDOI> opTdoi = sclIndex.isPresent() ? sclIndex.get().findDOI(currentElem, doiName) :
+                currentElem.getDOI()
+                    .stream()
+                    .filter(tdoi -> tdoi.getName().equals(doiName))
+                    .findFirst();
+        return opTdoi.map(tdoi -> new DOIAdapter(this,tdoi,true));
+    }
     public List<DOIAdapter> getDOIAdapters() {
         return currentElem.getDOI()
                 .stream()
-                .map(tdoi -> new DOIAdapter(this,tdoi))
+                .map(tdoi -> new DOIAdapter(this,tdoi,true))
                 .collect(Collectors.toList());
     }
 
@@ -138,7 +164,10 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
         if (filter == null) {
             return currentElem.getInputs().getExtRef();
         }
-        return currentElem.getInputs().getExtRef()
+        Optional<SclIndex> sclIndex = findSclIndex();
+        List<TExtRef> tExtRefs = sclIndex.isPresent() ? sclIndex.get().findExtRefs(currentElem, filter, true) :
+                currentElem.getInputs().getExtRef();
+        return tExtRefs
                 .stream()
                 .filter(tExtRef ->
                         ((filter.getDesc() == null && tExtRef.getDesc().isEmpty())
@@ -165,7 +194,10 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
         if(!signalInfo.isValid()){
             throw new IllegalArgumentException("Invalid or missing attributes in ExtRef signal info");
         }
-        return currentElem.getInputs().getExtRef()
+        Optional<SclIndex> sclIndex = findSclIndex();
+        List<TExtRef> tExtRefs = sclIndex.isPresent() ? sclIndex.get().findExtRefs(currentElem, signalInfo, false) :
+                currentElem.getInputs().getExtRef();
+        return tExtRefs
                 .stream()
                 .filter(tExtRef ->  Objects.equals(signalInfo.getDesc(), tExtRef.getDesc()) &&
                             Objects.equals(tExtRef.getPDO(), signalInfo.getPDO()) &&
@@ -311,6 +343,19 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
     }
 
     protected <T> List<? extends TControl> lookUpControlBlocksByDataSetRef(@NonNull String dataSetRef, Class<T> cls){
+        Optional<SclIndex> sclIndex = findSclIndex();
+        if(sclIndex.isPresent()) {
+            TServiceType serviceType = null;
+            if (TGSEControl.class.equals(cls)) {
+                serviceType = TServiceType.GOOSE;
+            } else if(TSampledValueControl.class.equals(cls)){
+                serviceType = TServiceType.SMV;
+            } else if(TReportControl.class.equals(cls)){
+                serviceType = TServiceType.REPORT;
+            }
+            return serviceType == null ? new ArrayList<>() :
+                    sclIndex.get().findControlBlocks(currentElem, serviceType, dataSetRef);
+        }
         List<? extends TControl> ls = new ArrayList<>();
         if (TGSEControl.class.equals(cls) && isLN0()) {
             ls = ((LN0) currentElem).getGSEControl();
@@ -354,6 +399,10 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
         if (filter == null || filter.getSignalInfo() == null || filter.getBindingInfo() == null) {
             return currentElem.getDataSet();
         }
+        Optional<SclIndex> sclIndex = findSclIndex();
+        if(sclIndex.isPresent()) {
+            return sclIndex.get().findDataSets(currentElem, filter);
+        }
 
         return currentElem.getDataSet()
                 .stream()
@@ -501,15 +550,15 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
     }
 
     protected ResumedDataTemplate completeResumedDTTFromDAI(ResumedDataTemplate rDtt, boolean updatable){
-        Optional<?> opDaiAdapter = findMatch(rDtt.getDoName(), rDtt.getDaName());
-        if(opDaiAdapter.isPresent()) {
-            AbstractDAIAdapter<?> daiAdapter = (AbstractDAIAdapter<?>) opDaiAdapter.get();
-            if(daiAdapter.isValImport() != null) {
-                rDtt.setValImport(daiAdapter.isValImport());
+        Optional<TDAI> opTdai = findDAI(rDtt.getDoName(), rDtt.getDaName());
+        if(opTdai.isPresent()) {
+            TDAI tdai = opTdai.get();
+            if(tdai.isValImport() != null) {
+                rDtt.setValImport(tdai.isValImport());
             }
-            rDtt.setDaiValues(daiAdapter.getCurrentElem().getVal());
-            if (updatable && (daiAdapter.isValImport() == null || daiAdapter.isValImport())) {
-                boolean isSg = daiAdapter.getCurrentElem().getVal().stream()
+            rDtt.setDaiValues(tdai.getVal());
+            if (updatable && (tdai.isValImport() == null || tdai.isValImport())) {
+                boolean isSg = tdai.getVal().stream()
                         .anyMatch(tVal -> tVal.getSGroup() != null && tVal.getSGroup().intValue() > 0);
 
                 if (isSg) {
@@ -540,6 +589,26 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
         return Optional.of((AbstractDAIAdapter) daiTracker.getBdaiOrDaiAdapter());
     }
 
+    /**
+     * Search for the DAI that matches the given defined-DO and defined-DA, as {@link #findMatch} does, but without
+     * creating any adapter : the DOI/SDI/DAI trie of the SCL index is walked when this LNode belongs to an SCL
+     * @param doTypeName defined-DO (do.sdo1[.sdo2 ...sdo_n])
+     * @param daTypeName defined-DA (da.bda1[.bda2...bda_n])
+     * @return Optional of the matched DAI
+     */
+    protected Optional<TDAI> findDAI(DoTypeName doTypeName, DaTypeName daTypeName){
+        Optional<SclIndex> sclIndex = findSclIndex();
+        if(sclIndex.isEmpty()){
+            return findMatch(doTypeName, daTypeName).map(daiAdapter -> (TDAI) daiAdapter.getCurrentElem());
+        }
+        List<String> path = new ArrayList<>();
+        path.add(doTypeName.getName());
+        path.addAll(doTypeName.getStructNames());
+        path.add(daTypeName.getName());
+        path.addAll(daTypeName.getStructNames());
+        return sclIndex.get().findDAI(currentElem, path);
+    }
+
     public void updateDAI(@NonNull ResumedDataTemplate rDtt) throws ScdException {
 
         if(!rDtt.isDoNameDefined() || !rDtt.isDaNameDefined()){
@@ -611,8 +680,21 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
         TDOI tdoi = new TDOI();
         tdoi.setName(name);
         currentElem.getDOI().add(tdoi);
+        findSclIndex().ifPresent(sclIndex -> sclIndex.registerDOI(currentElem, tdoi));
 
-        return new DOIAdapter(this,tdoi);
+        return new DOIAdapter(this,tdoi,true);
+    }
+
+    /**
+     * Gives the lookup index of the SCL holding this LNode, if any (standalone or mocked parents have none)
+     * @return Optional of the SCL index
+     */
+    protected Optional<SclIndex> findSclIndex() {
+        IEDAdapter iedAdapter = parentAdapter.getParentAdapter();
+        if(iedAdapter == null){
+            return Optional.empty();
+        }
+        return iedAdapter.findSclIndex();
     }
 
     public String getLNodeName() {
@@ -642,10 +724,10 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
         filter.setLnInst(getLNInst());
         filter.setLnClass(getLNClass());
         filter.setLnType(currentElem.getLnType());
-        List<ResumedDataTemplate> rDtts = lNodeTypeAdapter.getResumedDTTs(filter);
+        List<String> dataAttributes = lNodeTypeAdapter.getDataAttributes(filter);
 
         return matchesDataAttributes(dataAttribute) ||
-                rDtts.stream().anyMatch(rDtt -> rDtt.getDataAttributes().startsWith(dataAttribute));
+                dataAttributes.stream().anyMatch(da -> da.startsWith(dataAttribute));
     }
 
     protected  boolean matchesDataAttributes(String dataAttribute){
@@ -654,6 +736,10 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
     }
 
     public Optional<DataSetInfo> getDataSetByRef(String dataSetRef) {
+        Optional<SclIndex> sclIndex = findSclIndex();
+        if(sclIndex.isPresent()) {
+            return sclIndex.get().findDataSet(currentElem, dataSetRef).map(DataSetInfo::from);
+        }
         return currentElem.getDataSet()
                 .stream()
                 .filter(tDataSet -> tDataSet.getName().equals(dataSetRef))
@@ -668,6 +754,7 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
                 dataSetInfo.getFCDAInfos().stream().map(FCDAInfo::getFCDA).collect(Collectors.toList())
         );
         currentElem.getDataSet().add(tDataSet);
+        findSclIndex().ifPresent(sclIndex -> sclIndex.registerDataSet(currentElem, tDataSet));
 
     }
 
@@ -676,23 +763,13 @@ public abstract class AbstractLNAdapter<T extends TAnyLN> extends SclElementAdap
     }
 
     public Map<Long, String> getDAIValues(ResumedDataTemplate rDtt) {
-        DAITracker daiTracker = new DAITracker(this,rDtt.getDoName(),rDtt.getDaName());
-        DAITracker.MatchResult matchResult = daiTracker.search();
-        if(matchResult != DAITracker.MatchResult.FULL_MATCH){
+        Optional<TDAI> opTdai = findDAI(rDtt.getDoName(),rDtt.getDaName());
+        if(opTdai.isEmpty()){
             return new HashMap<>();
         }
-        List<TVal> tVals;
-        IDataAdapter daiAdapter = daiTracker.getBdaiOrDaiAdapter();
-        if(daiAdapter.getClass().equals(SDIAdapter.DAIAdapter.class)){
-            tVals =  ((RootSDIAdapter.DAIAdapter)daiAdapter).getCurrentElem().getVal();
-        } else if(daiAdapter.getClass().equals(RootSDIAdapter.DAIAdapter.class)){
-            tVals =  ((RootSDIAdapter.DAIAdapter)daiAdapter).getCurrentElem().getVal();
-        } else {
-            tVals =  ((DOIAdapter.DAIAdapter)daiAdapter).getCurrentElem().getVal();
-        }
 
         Map<Long,String> res = new HashMap<>();
-        tVals.forEach( tVal -> res.put(tVal.getSGroup(),tVal.getValue()));
+        opTdai.get().getVal().forEach( tVal -> res.put(tVal.getSGroup(),tVal.getValue()));
 
         return res;
     }
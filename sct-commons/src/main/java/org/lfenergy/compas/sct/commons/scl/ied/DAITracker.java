@@ -4,6 +4,7 @@
 
 package org.lfenergy.compas.sct.commons.scl.ied;
 
+import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NonNull;
 import org.apache.commons.lang3.tuple.Pair;
@@ -17,6 +18,7 @@ import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @Getter
 public class DAITracker {
@@ -42,13 +44,13 @@ public class DAITracker {
         Pair<? extends IDataAdapter,Integer> matchResult;
         String doiName = doTypeName.getName();
         List<String> sdoiNames = doTypeName.getStructNames();
-        try {
-            doiOrSdoiAdapter = lnAdapter.getDOIAdapterByName(doiName);
-            indexDoType = -1;
-        } catch (ScdException e) {
+        Optional<DOIAdapter> opDOIAdapter = lnAdapter.findDOIAdapterByName(doiName);
+        if(opDOIAdapter.isEmpty()) {
             doiOrSdoiAdapter = null;
             return MatchResult.FAILED;
         }
+        doiOrSdoiAdapter = opDOIAdapter.get();
+        indexDoType = -1;
         if(!sdoiNames.isEmpty()){
             matchResult = doiOrSdoiAdapter.findDeepestMatch(
                     sdoiNames,0,false
@@ -64,13 +66,13 @@ public class DAITracker {
         }
 
         if (!daTypeName.getStructNames().isEmpty()) {
-            IDataParentAdapter firstDAIAdapter;
-            try {
-                firstDAIAdapter = doiOrSdoiAdapter.getStructuredDataAdapterByName(daTypeName.getName());
-                indexDaType = -1;
-            } catch (ScdException e) {
+            Optional<? extends IDataParentAdapter> opFirstDAIAdapter =
+                    doiOrSdoiAdapter.findStructuredDataAdapterByName(daTypeName.getName());
+            if(opFirstDAIAdapter.isEmpty()) {
                 return MatchResult.PARTIAL_MATCH;
             }
+            IDataParentAdapter firstDAIAdapter = opFirstDAIAdapter.get();
+            indexDaType = -1;
             matchResult = firstDAIAdapter.findDeepestMatch(
                     daTypeName.getStructNames(), 0, true
             );
@@ -81,84 +83,106 @@ public class DAITracker {
                 return MatchResult.PARTIAL_MATCH;
             }
         } else {
-            try {
-                bdaiOrDaiAdapter = doiOrSdoiAdapter.getDataAdapterByName(daTypeName.getName());
-                indexDaType = -1;
-            } catch (ScdException e) {
+            Optional<? extends AbstractDAIAdapter<?>> opDAIAdapter =
+                    doiOrSdoiAdapter.findDataAdapterByName(daTypeName.getName());
+            if(opDAIAdapter.isEmpty()) {
                 return MatchResult.PARTIAL_MATCH;
             }
+            bdaiOrDaiAdapter = opDAIAdapter.get();
+            indexDaType = -1;
         }
         return MatchResult.FULL_MATCH;
     }
 
     public void validateBoundedDAI() throws ScdException {
-        if(TPredefinedCDCEnum.ING != doTypeName.getCdc() && TPredefinedCDCEnum.ASG != doTypeName.getCdc() ){
+        if(!isBounded()){
             return;
         }
-        Long sGroup = daTypeName.getDaiValues().keySet().stream().findFirst().orElse(-1L);
-        String value = sGroup < 0 ? null : daTypeName.getDaiValues().get(sGroup);
-        double val;
-        try {
-            val = Double.parseDouble(value);
-        }  catch (NumberFormatException | NullPointerException e){
-            throw new ScdException("Invalid DAI value :" + e.getMessage());
+        parseValue();
+        validateBoundedDAI(getBounds());
+    }
+
+    /**
+     * Checks the DAI value against bounds computed beforehand, so that several values of the same DO can be checked
+     * with one bounds lookup
+     * @param bounds bounds of the DO, see {@link #getBounds()}
+     * @throws ScdException if the value is not a number or is out of the bounds
+     */
+    public void validateBoundedDAI(@NonNull Bounds bounds) throws ScdException {
+        if(!isBounded()){
+            return;
         }
+        double val = parseValue();
+        if (bounds.getMin() != null && val < bounds.getMin()) {
+            throw new ScdException(
+                    String.format("The DA(%s) value(%f) must be greater than(%f)",daTypeName, val,bounds.getMin())
+            );
+        }
+        if (bounds.getMax() != null && val > bounds.getMax()) {
+            throw new ScdException(
+                    String.format("The DA(%s) value(%f) must be less than(%f)",daTypeName, val,bounds.getMax())
+            );
+        }
+        if(bounds.getStep() != null) {
+            double step = bounds.getStep().isNaN() ? val : bounds.getStep();
+            if (Math.abs((int)val)% Math.abs((int)step) > Math.pow(10,-9)) {
+                throw new ScdException(
+                        String.format("The DA(%s) value(%f) divisible by (%f)",daTypeName,val,step)
+                );
+            }
+        }
+    }
+
+    /**
+     * Reads the minVal, maxVal and stepSize of the DO, from the DAIs of the LN or else from the DataTypeTemplates
+     * @return the bounds of the DO
+     * @throws ScdException if the LNodeType of the LN is unknown or a bound is not a number
+     */
+    public Bounds getBounds() throws ScdException {
         DataTypeTemplateAdapter dttAdapter = lnAdapter.getDataTypeTemplateAdapter();
         LNodeTypeAdapter lNodeTypeAdapter = dttAdapter.getLNodeTypeAdapterById(lnAdapter.getLnType())
                 .orElseThrow(() -> new ScdException("Unknown LNodeType : " + lnAdapter.getLnType()));
 
         List<ResumedDataTemplate> rDtts =  lNodeTypeAdapter.getResumedDTTByDoName(doTypeName);
         try{
-            ResumedDataTemplate tempRDtt =  rDtts.stream()
-                    .filter(rData -> rData.getDaName().getName().equals("minVal")).findFirst().orElse(null);
-            if(tempRDtt != null) {
-                Map<Long, String> daiValues = lnAdapter.getDAIValues(tempRDtt);
-                if (!daiValues.isEmpty()) {
-                    tempRDtt.getDaName().setDaiValues(daiValues);
-                }
-
-                double min = getDaiNumericValue(tempRDtt.getDaName(), Double.MIN_VALUE);
-                if (val < min) {
-                    throw new ScdException(
-                            String.format("The DA(%s) value(%f) must be greater than(%f)",daTypeName, val,min)
-                    );
-                }
-            }
-
-            tempRDtt =  rDtts.stream()
-                    .filter(rData -> rData.getDaName().getName().equals("maxVal")).findFirst().orElse(null);
-            if(tempRDtt != null) {
-                Map<Long, String> daiValues = lnAdapter.getDAIValues(tempRDtt);
-                if (!daiValues.isEmpty()) {
-                    tempRDtt.getDaName().setDaiValues(daiValues);
-                }
+            Optional<DaTypeName> minVal = findBoundDaName(rDtts, "minVal");
+            Optional<DaTypeName> maxVal = findBoundDaName(rDtts, "maxVal");
+            Optional<DaTypeName> stepSize = findBoundDaName(rDtts, "stepSize");
+            return new Bounds(
+                    minVal.isPresent() ? getDaiNumericValue(minVal.get(), Double.MIN_VALUE) : null,
+                    maxVal.isPresent() ? getDaiNumericValue(maxVal.get(), Double.MAX_VALUE) : null,
+                    stepSize.isPresent() ? getDaiNumericValue(stepSize.get(), Double.NaN) : null
+            );
+        } catch (NumberFormatException e){
+            throw new ScdException("Invalid DO(minVal or maxVal or stepSize) :" + e.getMessage());
+        }
+    }
 
-                double max = getDaiNumericValue(tempRDtt.getDaName(), Double.MAX_VALUE);
-                if (val > max) {
-                    throw new ScdException(
-                            String.format("The DA(%s) value(%f) must be less than(%f)",daTypeName, val,max)
-                    );
-                }
-            }
+    private boolean isBounded() {
+        return TPredefinedCDCEnum.ING == doTypeName.getCdc() || TPredefinedCDCEnum.ASG == doTypeName.getCdc();
+    }
 
-            tempRDtt =  rDtts.stream()
-                    .filter(rData -> rData.getDaName().getName().equals("stepSize")).findFirst().orElse(null);
-            if(tempRDtt != null) {
-                Map<Long, String> daiValues = lnAdapter.getDAIValues(tempRDtt);
-                if (!daiValues.isEmpty()) {
-                    tempRDtt.getDaName().setDaiValues(daiValues);
-                }
+    private double parseValue() throws ScdException {
+        Long sGroup = daTypeName.getDaiValues().keySet().stream().findFirst().orElse(-1L);
+        String value = sGroup < 0 ? null : daTypeName.getDaiValues().get(sGroup);
+        try {
+            return Double.parseDouble(value);
+        }  catch (NumberFormatException | NullPointerException e){
+            throw new ScdException("Invalid DAI value :" + e.getMessage());
+        }
+    }
 
-                double step =  getDaiNumericValue(tempRDtt.getDaName(),val);
-                if (Math.abs((int)val)% Math.abs((int)step) > Math.pow(10,-9)) {
-                    throw new ScdException(
-                            String.format("The DA(%s) value(%f) divisible by (%f)",daTypeName,val,step)
-                    );
-                }
-            }
-        } catch (NumberFormatException e){
-            throw new ScdException("Invalid DO(minVal or maxVal or stepSize) :" + e.getMessage());
+    private Optional<DaTypeName> findBoundDaName(List<ResumedDataTemplate> rDtts, String daName) {
+        ResumedDataTemplate tempRDtt =  rDtts.stream()
+                .filter(rData -> rData.getDaName().getName().equals(daName)).findFirst().orElse(null);
+        if(tempRDtt == null) {
+            return Optional.empty();
+        }
+        Map<Long, String> daiValues = lnAdapter.getDAIValues(tempRDtt);
+        if (!daiValues.isEmpty()) {
+            tempRDtt.getDaName().setDaiValues(daiValues);
         }
+        return Optional.of(tempRDtt.getDaName());
     }
 
     protected double getDaiNumericValue(DaTypeName daTypeName, double defaultValue) {
@@ -188,6 +212,18 @@ public class DAITracker {
     }
 
 
+    /**
+     * Bounds of a DO of CDC ING or ASG: null when the DO has no such DA, NaN step when stepSize has no value (the
+     * value is then its own step)
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Bounds {
+        private final Double min;
+        private final Double max;
+        private final Double step;
+    }
+
     public enum MatchResult {
         FAILED("FAILED"),
         PARTIAL_MATCH("PARTIAL_MATCH"),
@@ -8,6 +8,8 @@ import org.lfenergy.compas.scl2007b4.model.*;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.SclElementAdapter;
 
+import java.util.Optional;
+
 
 public class DOIAdapter extends SclElementAdapter<AbstractLNAdapter<? extends TAnyLN>, TDOI> implements IDataParentAdapter {
 
@@ -15,6 +17,10 @@ public class DOIAdapter extends SclElementAdapter<AbstractLNAdapter<? extends TA
         super(parentAdapter, currentElem);
     }
 
+    protected DOIAdapter(AbstractLNAdapter<? extends TAnyLN> parentAdapter, TDOI currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
+
     @Override
     protected boolean amChildElementRef() {
         return parentAdapter.getCurrentElem().getDOI().contains(currentElem);
@@ -22,18 +28,23 @@ public class DOIAdapter extends SclElementAdapter<AbstractLNAdapter<? extends TA
 
     @Override
     public RootSDIAdapter getStructuredDataAdapterByName(String sName) throws ScdException {
+        return findStructuredDataAdapterByName(sName)
+                .orElseThrow(
+                    ()-> new ScdException(
+                            String.format("Unknown SDI (%s) in DOI (%s)", sName, currentElem.getName())
+                    )
+                );
+    }
+
+    @Override
+    public Optional<RootSDIAdapter> findStructuredDataAdapterByName(String sName) {
         return currentElem.getSDIOrDAI()
                 .stream()
                 .filter(tUnNaming -> tUnNaming.getClass().equals(TSDI.class))
                 .map(TSDI.class::cast)
                 .filter(tsdi -> tsdi.getName().equals(sName))
                 .map(tsdi -> new RootSDIAdapter(this,tsdi))
-                .findFirst()
-                .orElseThrow(
-                    ()-> new ScdException(
-                            String.format("Unknown SDI (%s) in DOI (%s)", sName, currentElem.getName())
-                    )
-                );
+                .findFirst();
     }
 
     @Override
@@ -43,13 +54,7 @@ public class DOIAdapter extends SclElementAdapter<AbstractLNAdapter<? extends TA
 
     @Override
     public DAIAdapter getDataAdapterByName(String daName) throws ScdException {
-        return  currentElem.getSDIOrDAI()
-                .stream()
-                .filter(tUnNaming -> tUnNaming.getClass().equals(TDAI.class))
-                .map(TDAI.class::cast)
-                .filter(tdai -> tdai.getName().equals(daName))
-                .map(tdai -> new DAIAdapter(this,tdai))
-                .findFirst()
+        return findDataAdapterByName(daName)
                 .orElseThrow(
                     ()-> new ScdException(
                             String.format("Unknown DAI (%s) in DOI (%s)", daName, currentElem.getName())
@@ -57,6 +62,17 @@ public class DOIAdapter extends SclElementAdapter<AbstractLNAdapter<? extends TA
                 );
     }
 
+    @Override
+    public Optional<DAIAdapter> findDataAdapterByName(String daName) {
+        return currentElem.getSDIOrDAI()
+                .stream()
+                .filter(tUnNaming -> tUnNaming.getClass().equals(TDAI.class))
+                .map(TDAI.class::cast)
+                .filter(tdai -> tdai.getName().equals(daName))
+                .map(tdai -> new DAIAdapter(this,tdai))
+                .findFirst();
+    }
+
     @Override
     public DAIAdapter addDAI(String name, boolean isUpdatable) {
         TDAI tdai = new TDAI();
@@ -0,0 +1,192 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.ied;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TAccessPoint;
+import org.lfenergy.compas.scl2007b4.model.TDataTypeTemplates;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.scl2007b4.model.TLDevice;
+import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.scl2007b4.model.TLN;
+import org.lfenergy.compas.sct.commons.dto.DaTypeName;
+import org.lfenergy.compas.sct.commons.dto.DoTypeName;
+import org.lfenergy.compas.sct.commons.dto.ExtRefBindingInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateAdapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Inverted index from an ExtRef signal (pDO, pDA) to the LNs of the SCL which can bind it.
+ * <p>
+ * Whether an LN can provide a signal only depends on its lnType, so the DataTypeTemplates are resolved once per
+ * (pDO, pDA, lnType) instead of once per LN. The LNs of the SCL are listed once, in SCL order (IED, LDevice, LN0
+ * then LNs), and the binders of a signal are computed on its first query and kept for the next ones. The index is
+ * dropped when the number of IEDs, LDevices, LNs or DataTypeTemplates types changes, or on {@link #invalidate()},
+ * which renaming an IED through {@link IEDAdapter#setIEDName(String)} calls.
+ * <p>
+ * The index belongs to an {@link SclRootAdapter} : it is only reused by the queries made through the same adapter,
+ * e.g. those of an {@link org.lfenergy.compas.sct.commons.scl.SclSnapshot}. The {@code SclService} methods work
+ * through a new adapter on each call, and so build a new index.
+ */
+public class ExtRefBinderIndex {
+
+    private final SclRootAdapter sclRootAdapter;
+    private final List<LNLocation> lnLocations = new ArrayList<>();
+    private final Map<String, List<ExtRefBindingInfo>> bindersBySignal = new HashMap<>();
+    private long[] stamp;
+
+    public ExtRefBinderIndex(@NonNull SclRootAdapter sclRootAdapter) {
+        this.sclRootAdapter = sclRootAdapter;
+    }
+
+    /**
+     * Gives the potential binders of a signal, in SCL order
+     * @param signalInfo ExtRef signal
+     * @return new binders, which can be freely modified
+     */
+    public List<ExtRefBindingInfo> getExtRefBinders(@NonNull ExtRefSignalInfo signalInfo) {
+        long[] currentStamp = computeStamp();
+        if(!Arrays.equals(stamp, currentStamp)) {
+            invalidate();
+            buildLNLocations();
+            stamp = currentStamp;
+        }
+        String key = signalInfo.getPDO() + "/" + signalInfo.getPDA();
+        List<ExtRefBindingInfo> binders = bindersBySignal.get(key);
+        if(binders == null) {
+            binders = computeBinders(signalInfo);
+            bindersBySignal.put(key, binders);
+        }
+        List<ExtRefBindingInfo> result = new ArrayList<>(binders.size());
+        for(ExtRefBindingInfo binder : binders) {
+            result.add(copyOf(binder));
+        }
+        return result;
+    }
+
+    /**
+     * Drops the index, it will be rebuilt on next query
+     */
+    public void invalidate() {
+        lnLocations.clear();
+        bindersBySignal.clear();
+        stamp = null;
+    }
+
+    /**
+     * @return counts of the DataTypeTemplates types, IEDs, LDevices and LNs (LN0 included) of the SCL
+     */
+    private long[] computeStamp() {
+        SCL scl = sclRootAdapter.getCurrentElem();
+        TDataTypeTemplates dtt = scl.getDataTypeTemplates();
+        long typesCount = dtt == null ? 0 : (long) dtt.getLNodeType().size() + dtt.getDOType().size()
+                + dtt.getDAType().size() + dtt.getEnumType().size();
+        long lDeviceCount = 0;
+        long lnCount = 0;
+        for(TIED tied : scl.getIED()) {
+            for(TAccessPoint tAccessPoint : tied.getAccessPoint()) {
+                if(tAccessPoint.getServer() == null) {
+                    continue;
+                }
+                for(TLDevice tlDevice : tAccessPoint.getServer().getLDevice()) {
+                    lDeviceCount++;
+                    lnCount += tlDevice.getLN().size() + (tlDevice.getLN0() != null ? 1 : 0);
+                }
+            }
+        }
+        return new long[]{typesCount, scl.getIED().size(), lDeviceCount, lnCount};
+    }
+
+    private void buildLNLocations() {
+        for(TIED tied : sclRootAdapter.getCurrentElem().getIED()) {
+            for(TAccessPoint tAccessPoint : tied.getAccessPoint()) {
+                if(tAccessPoint.getServer() == null) {
+                    continue;
+                }
+                for(TLDevice tlDevice : tAccessPoint.getServer().getLDevice()) {
+                    if(tlDevice.getLN0() != null) {
+                        lnLocations.add(new LNLocation(tied.getName(), tlDevice.getInst(), TLLN0Enum.LLN_0.value(),
+                                "", "", tlDevice.getLN0().getLnType()));
+                    }
+                    for(TLN tln : tlDevice.getLN()) {
+                        String lnClass = tln.getLnClass().isEmpty() ? null : tln.getLnClass().get(0);
+                        lnLocations.add(new LNLocation(tied.getName(), tlDevice.getInst(), lnClass,
+                                tln.getInst(), tln.getPrefix(), tln.getLnType()));
+                    }
+                }
+            }
+        }
+    }
+
+    private List<ExtRefBindingInfo> computeBinders(ExtRefSignalInfo signalInfo) {
+        DataTypeTemplateAdapter dttAdapter = sclRootAdapter.getDataTypeTemplateAdapter();
+        Map<String, Optional<ExtRefBindingInfo>> bindersByLnType = new HashMap<>();
+        List<ExtRefBindingInfo> binders = new ArrayList<>();
+        for(LNLocation lnLocation : lnLocations) {
+            Optional<ExtRefBindingInfo> opLnTypeBinder = bindersByLnType.computeIfAbsent(
+                    lnLocation.lnType, lnType -> dttAdapter.findBinderResumedDTT(lnType, signalInfo)
+            );
+            if(opLnTypeBinder.isPresent()) {
+                ExtRefBindingInfo binder = copyOf(opLnTypeBinder.get());
+                binder.setIedName(lnLocation.iedName);
+                binder.setLdInst(lnLocation.ldInst);
+                binder.setLnClass(lnLocation.lnClass);
+                binder.setLnInst(lnLocation.lnInst);
+                binder.setPrefix(lnLocation.prefix);
+                binders.add(binder);
+            }
+        }
+        return binders;
+    }
+
+    private static ExtRefBindingInfo copyOf(ExtRefBindingInfo binder) {
+        ExtRefBindingInfo copy = new ExtRefBindingInfo();
+        copy.setIedName(binder.getIedName());
+        copy.setLdInst(binder.getLdInst());
+        copy.setPrefix(binder.getPrefix());
+        copy.setLnClass(binder.getLnClass());
+        copy.setLnInst(binder.getLnInst());
+        copy.setLnType(binder.getLnType());
+        copy.setServiceType(binder.getServiceType());
+        if(binder.getDoName() != null) {
+            copy.setDoName(DoTypeName.from(binder.getDoName()));
+        }
+        if(binder.getDaName() != null) {
+            copy.setDaName(DaTypeName.from(binder.getDaName()));
+        }
+        return copy;
+    }
+
+    /**
+     * An LN of the SCL and its lnType
+     */
+    private static final class LNLocation {
+        private final String iedName;
+        private final String ldInst;
+        private final String lnClass;
+        private final String lnInst;
+        private final String prefix;
+        private final String lnType;
+
+        private LNLocation(String iedName, String ldInst, String lnClass, String lnInst, String prefix,
+                           String lnType) {
+            this.iedName = iedName;
+            this.ldInst = ldInst;
+            this.lnClass = lnClass;
+            this.lnInst = lnInst;
+            this.prefix = prefix;
+            this.lnType = lnType;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.ied;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.lfenergy.compas.scl2007b4.model.TExtRef;
+import org.lfenergy.compas.sct.commons.dto.ControlBlock;
+import org.lfenergy.compas.sct.commons.dto.ExtRefBindingInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSourceInfo;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.SclService;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Updates many ExtRefs of an SCL with the same checks as {@link AbstractLNAdapter#updateExtRefBinders(ExtRefInfo)}
+ * and {@link AbstractLNAdapter#updateExtRefSource(ExtRefInfo)}.
+ * <p>
+ * The holder and binder LNs are resolved once per (IED, LDevice, prefix, lnClass, lnInst), the ExtRefs of a holder
+ * LN are found through the ExtRef index of the {@link org.lfenergy.compas.sct.commons.scl.SclIndex} and the control
+ * block names of a binder LN are computed once per (pDO, pDA, serviceType). The updates only change the binding and
+ * source attributes of the ExtRefs, which are not part of these keys, so the caches stay valid for the whole life of
+ * the updater; an updater must not be kept across other modifications of the SCL.
+ */
+@Slf4j
+public class ExtRefUpdater {
+
+    private final SclRootAdapter sclRootAdapter;
+    private final Map<List<String>, HolderLN> holderLNs = new HashMap<>();
+    private final Map<List<String>, BinderLN> binderLNs = new HashMap<>();
+
+    public ExtRefUpdater(@NonNull SclRootAdapter sclRootAdapter) {
+        this.sclRootAdapter = sclRootAdapter;
+    }
+
+    /**
+     * Updates the binding of the holder ExtRef matching the signal, see {@link AbstractLNAdapter#updateExtRefBinders}
+     * @param extRefInfo ExtRef information (holder, signal and binding info)
+     * @throws ScdException if the holder LN or the ExtRef is unknown or if the binding info is invalid
+     */
+    public void updateExtRefBinders(@NonNull ExtRefInfo extRefInfo) throws ScdException {
+        ExtRefSignalInfo signalInfo = extRefInfo.getSignalInfo();
+        if(extRefInfo.getBindingInfo() == null || signalInfo == null){
+            throw new ScdException("ExtRef Signal and/or Binding information are missing");
+        }
+        HolderLN holderLN = getHolderLN(extRefInfo);
+        if(!extRefInfo.getBindingInfo().isValid()){
+            throw new ScdException("ExtRef mandatory binding data are missing");
+        }
+        List<TExtRef> tExtRefs = holderLN.getExtRefs(signalInfo);
+        if(tExtRefs.isEmpty()){
+            String msg = String.format("Unknown ExtRef [pDO(%s),intAddr(%s)] in %s/%s.%s",
+                    signalInfo.getPDO(), signalInfo.getIntAddr(), extRefInfo.getHolderIEDName(),
+                    extRefInfo.getHolderLDInst(), holderLN.lnAdapter.getLNClass());
+            throw new ScdException(msg);
+        }
+        if(tExtRefs.size() != 1){
+            log.warn("More the one desc for ExtRef [pDO({}),intAddr({})] in {}{}/{}",
+                    signalInfo.getPDO(), signalInfo.getIntAddr(), extRefInfo.getHolderIEDName(),
+                    extRefInfo.getHolderLDInst(), holderLN.lnAdapter.getLNClass());
+        }
+        holderLN.lnAdapter.updateExtRefBindingInfo(tExtRefs.get(0), extRefInfo);
+    }
+
+    /**
+     * Updates the binding and source of the holder ExtRef matching the signal after checking them, see
+     * {@link AbstractLNAdapter#checkExtRefInfoCoherence(ExtRefInfo)}
+     * @param extRefInfo ExtRef information (holder, signal, binding and source info)
+     * @return the updated TExtRef
+     * @throws ScdException if an information is missing or incoherent with the SCL
+     */
+    public TExtRef updateExtRefSource(@NonNull ExtRefInfo extRefInfo) throws ScdException {
+        ExtRefSignalInfo signalInfo = extRefInfo.getSignalInfo();
+        if(signalInfo == null || !signalInfo.isValid()){
+            throw new ScdException("Invalid or missing attributes in ExtRef signal info");
+        }
+        ExtRefBindingInfo bindingInfo = extRefInfo.getBindingInfo();
+        if(bindingInfo == null || !bindingInfo.isValid()){
+            throw new ScdException(SclService.INVALID_OR_MISSING_ATTRIBUTES_IN_EXT_REF_BINDING_INFO);
+        }
+        if(bindingInfo.getIedName().equals(extRefInfo.getHolderIEDName())){
+            throw new ScdException("Internal binding can't have control block");
+        }
+        ExtRefSourceInfo sourceInfo = extRefInfo.getSourceInfo();
+        if(sourceInfo == null || !sourceInfo.isValid()){
+            throw new ScdException(SclService.INVALID_OR_MISSING_ATTRIBUTES_IN_EXT_REF_BINDING_INFO);
+        }
+
+        HolderLN holderLN = getHolderLN(extRefInfo);
+        List<TExtRef> tExtRefs = holderLN.getExtRefs(signalInfo);
+        if(tExtRefs.isEmpty()){
+            AbstractLNAdapter<?> lnAdapter = holderLN.lnAdapter;
+            String msg = String.format("Unknown TExtRef with signal info [pDO(%s),intAddr(%s)] in %s%s/%s%s%s",
+                    signalInfo.getPDO(), signalInfo.getIntAddr(), extRefInfo.getHolderIEDName(),
+                    extRefInfo.getHolderLDInst(), lnAdapter.getPrefix(), lnAdapter.getLNClass(),
+                    lnAdapter.getLNInst());
+            throw new ScdException(msg);
+        }
+        TExtRef extRef = tExtRefs.get(0);
+        if(!bindingInfo.isWrappedIn(extRef)){
+            throw new ScdException("No relation between binding info and the matched TExtRef");
+        }
+
+        BinderLN binderLN = getBinderLN(bindingInfo);
+        if(!sourceInfo.isNull() && !binderLN.getControlBlockNames(extRefInfo).contains(sourceInfo.getSrcCBName())){
+            String msg = String.format("Unknown control block %s in %s%s/%s%s%s",
+                    sourceInfo.getSrcCBName(), bindingInfo.getIedName(), bindingInfo.getLdInst(),
+                    bindingInfo.getPrefix(), bindingInfo.getLnClass(), bindingInfo.getLnInst());
+            throw new ScdException(msg);
+        }
+        holderLN.lnAdapter.updateExtRefBindingInfo(extRef, extRefInfo);
+        return extRef;
+    }
+
+    private HolderLN getHolderLN(ExtRefInfo extRefInfo) throws ScdException {
+        List<String> key = Arrays.asList(extRefInfo.getHolderIEDName(), extRefInfo.getHolderLDInst(),
+                extRefInfo.getHolderLnPrefix(), extRefInfo.getHolderLnClass(), extRefInfo.getHolderLnInst());
+        HolderLN holderLN = holderLNs.computeIfAbsent(key, k -> new HolderLN(resolve(
+                extRefInfo.getHolderIEDName(), extRefInfo.getHolderLDInst(), extRefInfo.getHolderLnClass(),
+                extRefInfo.getHolderLnInst(), extRefInfo.getHolderLnPrefix())));
+        holderLN.resolution.rethrow();
+        return holderLN;
+    }
+
+    private BinderLN getBinderLN(ExtRefBindingInfo bindingInfo) throws ScdException {
+        List<String> key = Arrays.asList(bindingInfo.getIedName(), bindingInfo.getLdInst(), bindingInfo.getPrefix(),
+                bindingInfo.getLnClass(), bindingInfo.getLnInst());
+        BinderLN binderLN = binderLNs.computeIfAbsent(key, k -> new BinderLN(resolve(
+                bindingInfo.getIedName(), bindingInfo.getLdInst(), bindingInfo.getLnClass(),
+                bindingInfo.getLnInst(), bindingInfo.getPrefix())));
+        binderLN.resolution.rethrow();
+        return binderLN;
+    }
+
+    private Resolution resolve(String iedName, String ldInst, String lnClass, String lnInst, String prefix) {
+        try {
+            IEDAdapter iedAdapter = sclRootAdapter.getIEDAdapterByName(iedName);
+            LDeviceAdapter lDeviceAdapter = iedAdapter.getLDeviceAdapterByLdInst(ldInst)
+                    .orElseThrow(
+                            () -> new ScdException(
+                                    String.format(SclService.UNKNOWN_LDEVICE_S_IN_IED_S, ldInst, iedName)
+                            )
+                    );
+            return new Resolution(AbstractLNAdapter.builder()
+                    .withLDeviceAdapter(lDeviceAdapter)
+                    .withLnClass(lnClass)
+                    .withLnInst(lnInst)
+                    .withLnPrefix(prefix)
+                    .build(), null);
+        } catch (ScdException | RuntimeException e) {
+            return new Resolution(null, e);
+        }
+    }
+
+    /**
+     * An LN lookup, remembered with its failure so that every ExtRef of an unknown LN fails the same way
+     */
+    private static final class Resolution {
+        private final AbstractLNAdapter<?> lnAdapter;
+        private final Exception error;
+
+        private Resolution(AbstractLNAdapter<?> lnAdapter, Exception error) {
+            this.lnAdapter = lnAdapter;
+            this.error = error;
+        }
+
+        private void rethrow() throws ScdException {
+            if(error instanceof ScdException) {
+                throw new ScdException(error.getMessage(), error);
+            } else if(error != null) {
+                throw (RuntimeException) error;
+            }
+        }
+    }
+
+    /**
+     * LN holding ExtRefs
+     */
+    private static final class HolderLN {
+        private final Resolution resolution;
+        private final AbstractLNAdapter<?> lnAdapter;
+
+        private HolderLN(Resolution resolution) {
+            this.resolution = resolution;
+            this.lnAdapter = resolution.lnAdapter;
+        }
+
+        private List<TExtRef> getExtRefs(ExtRefSignalInfo signalInfo) {
+            return lnAdapter.getExtRefs(signalInfo);
+        }
+    }
+
+    /**
+     * LN bound by ExtRefs, with the names of its control blocks by signal and service type
+     */
+    private static final class BinderLN {
+        private final Resolution resolution;
+        private final Map<List<String>, Set<String>> controlBlockNames = new HashMap<>();
+
+        private BinderLN(Resolution resolution) {
+            this.resolution = resolution;
+        }
+
+        private Set<String> getControlBlockNames(ExtRefInfo extRefInfo) {
+            ExtRefBindingInfo bindingInfo = extRefInfo.getBindingInfo();
+            List<String> key = Arrays.asList(extRefInfo.getSignalInfo().getPDO(),
+                    extRefInfo.getSignalInfo().getPDA(), Objects.toString(bindingInfo.getServiceType(), null));
+            return controlBlockNames.computeIfAbsent(key, k ->
+                    resolution.lnAdapter.getControlSetByExtRefInfo(extRefInfo).stream()
+                            .map(ControlBlock::getName)
+                            .collect(Collectors.toSet())
+            );
+        }
+    }
+}
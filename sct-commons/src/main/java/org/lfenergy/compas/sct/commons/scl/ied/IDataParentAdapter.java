@@ -8,10 +8,13 @@ import org.apache.commons.lang3.tuple.Pair;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface IDataParentAdapter extends IDataAdapter {
     <S extends IDataParentAdapter> S getStructuredDataAdapterByName(String sName) throws ScdException;
     <S extends AbstractDAIAdapter> S getDataAdapterByName(String sName) throws ScdException;
+    Optional<? extends IDataParentAdapter> findStructuredDataAdapterByName(String sName);
+    Optional<? extends AbstractDAIAdapter<?>> findDataAdapterByName(String sName);
     <S extends AbstractDAIAdapter> S addDAI(String name,boolean isUpdatable);
     <S extends IDataParentAdapter> S addSDOI(String sdoNme) ;
 
@@ -28,22 +31,19 @@ public interface IDataParentAdapter extends IDataAdapter {
         IDataAdapter diAdapter = null;
         IDataAdapter currSdiAdapter = this;
         for(int currIndex = fromIndex; currIndex < sz; currIndex++){
-            try {
-                if(currIndex == sz-1 && isBdaNames){
-                    currSdiAdapter = ((IDataParentAdapter) currSdiAdapter).getDataAdapterByName(
-                            sNames.get(currIndex)
-                    );
-                } else {
-                    currSdiAdapter = ((IDataParentAdapter) currSdiAdapter).getStructuredDataAdapterByName(
-                            sNames.get(currIndex)
-                    );
-                }
-                diAdapter = currSdiAdapter;
-                index = currIndex;
-            } catch (ScdException e) {
+            Optional<? extends IDataAdapter> opAdapter;
+            if(currIndex == sz-1 && isBdaNames){
+                opAdapter = ((IDataParentAdapter) currSdiAdapter).findDataAdapterByName(sNames.get(currIndex));
+            } else {
+                opAdapter = ((IDataParentAdapter) currSdiAdapter).findStructuredDataAdapterByName(sNames.get(currIndex));
+            }
+            if(opAdapter.isEmpty()) {
                 // partial match was found if index >= 0 or unknown data object names
                 break;
             }
+            currSdiAdapter = opAdapter.get();
+            diAdapter = currSdiAdapter;
+            index = currIndex;
         }
         return Pair.of(diAdapter,index);
     }
@@ -14,6 +14,7 @@ import org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.ObjectReference;
 import org.lfenergy.compas.sct.commons.scl.SclElementAdapter;
+import org.lfenergy.compas.sct.commons.scl.SclIndex;
 import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
 
 import java.util.*;
@@ -30,14 +31,28 @@ public class IEDAdapter extends SclElementAdapter<SclRootAdapter, TIED> {
     public IEDAdapter(SclRootAdapter parentAdapter, TIED currentElem) {
         super(parentAdapter, currentElem);
     }
+
+    IEDAdapter(SclRootAdapter parentAdapter, TIED currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
+
+    /**
+     * Gives an adapter per IED of an SCL. The IEDs being read from the parent's own list, the parent/child
+     * relation isn't checked again
+     * @param parentAdapter SCL adapter
+     * @return the IED adapters, in SCL order
+     */
+    public static List<IEDAdapter> listOf(@NonNull SclRootAdapter parentAdapter) {
+        return parentAdapter.getCurrentElem().getIED().stream()
+                .map(tied -> new IEDAdapter(parentAdapter, tied, true))
+                .collect(Collectors.toList());
+    }
     public IEDAdapter(SclRootAdapter parentAdapter, String iedName) throws ScdException {
         super(parentAdapter);
-        TIED ied = parentAdapter.getCurrentElem().getIED()
-                .stream()
-                .filter(tied -> tied.getName().equals(iedName))
-                .findFirst()
+        TIED ied = parentAdapter.getSclIndex().findIED(iedName)
                 .orElseThrow(() -> new ScdException("Unknown IED name :" + iedName));
-        setCurrentElem(ied);
+        // found among the parent's IEDs, no need to check the relation again
+        this.currentElem = ied;
     }
 
     @Override
@@ -46,7 +61,13 @@ public class IEDAdapter extends SclElementAdapter<SclRootAdapter, TIED> {
     }
 
     public void setIEDName(String iedName) {
+        String oldName = currentElem.getName();
         currentElem.setName(iedName);
+        findSclIndex().ifPresent(sclIndex -> sclIndex.renameIED(currentElem, oldName));
+        if(parentAdapter != null) {
+            parentAdapter.invalidateObjectReferenceIndex();
+            parentAdapter.invalidateExtRefBinderIndex();
+        }
     }
 
     public List<LDeviceAdapter> getLDeviceAdapters(){
@@ -55,25 +76,49 @@ public class IEDAdapter extends SclElementAdapter<SclRootAdapter, TIED> {
                 .filter(tAccessPoint -> tAccessPoint.getServer() != null)
                 .map(tAccessPoint -> tAccessPoint.getServer().getLDevice())
                 .flatMap(Collection::stream)
-                .map(tlDevice -> new LDeviceAdapter(this,tlDevice))
+                .map(tlDevice -> new LDeviceAdapter(this,tlDevice,true))
                 .collect(Collectors.toList());
     }
 
     public Optional<LDeviceAdapter> getLDeviceAdapterByLdInst(String ldInst){
+        Optional<SclIndex> sclIndex = findSclIndex();
+        if(sclIndex.isPresent()){
+            return sclIndex.get().findLDevice(currentElem, ldInst)
+                    .map(tlDevice -> new LDeviceAdapter(this,tlDevice,true));
+        }
         return currentElem.getAccessPoint()
                 .stream()
                 .filter(tAccessPoint -> tAccessPoint.getServer() != null)
                 .map(tAccessPoint -> tAccessPoint.getServer().getLDevice())
                 .flatMap(Collection::stream)
                 .filter(tlDevice -> Objects.equals(ldInst,tlDevice.getInst()))
-                .map(tlDevice -> new LDeviceAdapter(this,tlDevice))
+                .map(tlDevice -> new LDeviceAdapter(this,tlDevice,true))
                 .findFirst();
     }
 
+    /**
+     * Gives the lookup index of the SCL holding this IED, if any (standalone or mocked parents have none)
+     * @return Optional of the SCL index
+     */
+    Optional<SclIndex> findSclIndex() {
+        return parentAdapter == null ? Optional.empty() : Optional.ofNullable(parentAdapter.getSclIndex());
+    }
+
     public void updateLDeviceNodesType(Map<String, String> pairOldNewId) throws ScdException {
         // renaming ldName
         for(LDeviceAdapter lDeviceAdapter : getLDeviceAdapters()) {
             lDeviceAdapter.updateLDName();
+        }
+        updateLNodeTypes(pairOldNewId);
+    }
+
+    /**
+     * Replaces the lnType of the LN0 and LNs of this IED, without updating the LDevice ldNames as
+     * {@link #updateLDeviceNodesType(Map)} does
+     * @param pairOldNewId new LNodeType id by old LNodeType id
+     */
+    public void updateLNodeTypes(Map<String, String> pairOldNewId) {
+        for(LDeviceAdapter lDeviceAdapter : getLDeviceAdapters()) {
             String lnType = lDeviceAdapter.getCurrentElem().getLN0().getLnType();
             if(pairOldNewId.containsKey(lnType)){
                 lDeviceAdapter.getCurrentElem().getLN0().setLnType(pairOldNewId.get(lnType));
@@ -111,7 +156,7 @@ public class IEDAdapter extends SclElementAdapter<SclRootAdapter, TIED> {
         if(opLD.isEmpty()) {
             return false;
         }
-        LDeviceAdapter lDeviceAdapter = new LDeviceAdapter(this,opLD.get());
+        LDeviceAdapter lDeviceAdapter = new LDeviceAdapter(this,opLD.get(),true);
         if(TLLN0Enum.LLN_0.value().equals(objRef.getLNodeName())) {
             return lDeviceAdapter.getLN0Adapter().matches(objRef);
         }
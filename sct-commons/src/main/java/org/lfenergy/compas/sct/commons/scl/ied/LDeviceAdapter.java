@@ -9,10 +9,12 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.lfenergy.compas.scl2007b4.model.TLDevice;
 import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.scl2007b4.model.TLN;
 import org.lfenergy.compas.scl2007b4.model.TPrivate;
 import org.lfenergy.compas.sct.commons.dto.*;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.SclElementAdapter;
+import org.lfenergy.compas.sct.commons.scl.SclIndex;
 import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateAdapter;
 
 import java.util.*;
@@ -25,6 +27,10 @@ public class LDeviceAdapter extends SclElementAdapter<IEDAdapter, TLDevice> {
         super(parentAdapter, currentElem);
     }
 
+    LDeviceAdapter(IEDAdapter parentAdapter, TLDevice currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
+
     @Override
     protected boolean amChildElementRef() {
         return parentAdapter.getCurrentElem().getAccessPoint()
@@ -59,11 +65,23 @@ public class LDeviceAdapter extends SclElementAdapter<IEDAdapter, TLDevice> {
     public List<LNAdapter> getLNAdapters(){
         return currentElem.getLN()
                 .stream()
-                .map(tln -> new LNAdapter(this,tln))
+                .map(tln -> new LNAdapter(this,tln,true))
                 .collect(Collectors.toList());
     }
 
     public LNAdapter getLNAdapter(String lnClass, String lnInst, String prefix) throws ScdException {
+        Optional<SclIndex> sclIndex = parentAdapter.findSclIndex();
+        if(sclIndex.isPresent()){
+            return sclIndex.get().findLN(currentElem, lnClass, lnInst, prefix)
+                    .filter(TLN.class::isInstance)
+                    .map(tAnyLN -> new LNAdapter(this,(TLN) tAnyLN,true))
+                    .orElseThrow(
+                            ()-> new ScdException(
+                                String.format(
+                                    "LDevice [%s] has no LN [%s,%s,%s]", currentElem.getInst(),lnClass,lnInst,prefix)
+                                )
+                            );
+        }
         return currentElem.getLN()
                 .stream()
                 .filter(tln -> tln.getLnClass().contains(lnClass) &&
@@ -71,7 +89,7 @@ public class LDeviceAdapter extends SclElementAdapter<IEDAdapter, TLDevice> {
                         ( (prefix == null && tln.getPrefix().isEmpty()) ||
                                 prefix.equals(tln.getPrefix()))
                 )
-                .map(tln -> new LNAdapter(this,tln))
+                .map(tln -> new LNAdapter(this,tln,true))
                 .findFirst()
                 .orElseThrow(
                         ()-> new ScdException(
@@ -91,8 +109,7 @@ public class LDeviceAdapter extends SclElementAdapter<IEDAdapter, TLDevice> {
         lnAdapters.addAll(getLNAdapters());
         for(AbstractLNAdapter<?> lnAdapter : lnAdapters) {
             String lnType = lnAdapter.getLnType();
-            try {
-                ExtRefBindingInfo extRefBindingInfo = dttAdapter.getBinderResumedDTT(lnType,signalInfo);
+            dttAdapter.findBinderResumedDTT(lnType,signalInfo).ifPresent(extRefBindingInfo -> {
                 extRefBindingInfo.setIedName(parentAdapter.getName());
                 extRefBindingInfo.setLdInst(currentElem.getInst());
                 extRefBindingInfo.setLnClass(lnAdapter.getLNClass());
@@ -100,9 +117,7 @@ public class LDeviceAdapter extends SclElementAdapter<IEDAdapter, TLDevice> {
                 extRefBindingInfo.setPrefix(lnAdapter.getPrefix());
 
                 potentialBinders.add(extRefBindingInfo);
-            } catch (ScdException e) {
-                log.debug("ExRef filtered out: {}", e.getLocalizedMessage());
-            }
+            });
         }
         return potentialBinders;
     }
@@ -13,6 +13,10 @@ public class LNAdapter extends AbstractLNAdapter<TLN>{
         super(parentAdapter, currentElem);
     }
 
+    LNAdapter(LDeviceAdapter parentAdapter, TLN currentElem, boolean trusted) {
+        super(parentAdapter, currentElem, trusted);
+    }
+
     @Override
     protected Class<TLN> getElementClassType() {
         return TLN.class;
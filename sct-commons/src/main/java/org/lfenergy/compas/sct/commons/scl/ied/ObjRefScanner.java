@@ -0,0 +1,151 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.ied;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.TDAI;
+import org.lfenergy.compas.scl2007b4.model.TPredefinedBasicTypeEnum;
+import org.lfenergy.compas.scl2007b4.model.TVal;
+import org.lfenergy.compas.sct.commons.dto.DanglingObjRef;
+import org.lfenergy.compas.sct.commons.dto.ResumedDataTemplate;
+import org.lfenergy.compas.sct.commons.scl.ObjectReference;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Checks all the OBJ_REF DAI values of an SCL at once, as {@link SclRootAdapter#checkObjRef(String)} checks one.
+ * <p>
+ * The OBJ_REF data attributes of an LN are given by the bType of its LNodeType leaves, listed once per lnType. The
+ * DAIs are collected in a single pass over the IEDs, the {@link ObjectReferenceIndex} of the SCL is fully built,
+ * then the distinct values are resolved in parallel : lookups on the built index only read it. The adapters and
+ * their caches are only used by the calling thread.
+ */
+public class ObjRefScanner {
+
+    private final SclRootAdapter sclRootAdapter;
+    private final Map<String, List<ResumedDataTemplate>> objRefLeavesByLnType = new HashMap<>();
+
+    public ObjRefScanner(@NonNull SclRootAdapter sclRootAdapter) {
+        this.sclRootAdapter = sclRootAdapter;
+    }
+
+    /**
+     * @return the OBJ_REF DAI values no IED resolves, in SCL order, one per value
+     */
+    public List<DanglingObjRef> findDanglingObjRefs() {
+        List<Candidate> candidates = new ArrayList<>();
+        for(IEDAdapter iedAdapter : sclRootAdapter.getIEDAdapters()) {
+            for(LDeviceAdapter lDeviceAdapter : iedAdapter.getLDeviceAdapters()) {
+                List<AbstractLNAdapter<?>> lnAdapters = new ArrayList<>();
+                if(lDeviceAdapter.getCurrentElem().getLN0() != null) {
+                    lnAdapters.add(lDeviceAdapter.getLN0Adapter());
+                }
+                lnAdapters.addAll(lDeviceAdapter.getLNAdapters());
+                for(AbstractLNAdapter<?> lnAdapter : lnAdapters) {
+                    collect(iedAdapter.getName(), lDeviceAdapter.getInst(), lnAdapter, candidates);
+                }
+            }
+        }
+        if(candidates.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        ObjectReferenceIndex objectReferenceIndex = sclRootAdapter.getObjectReferenceIndex();
+        objectReferenceIndex.buildAll();
+        Set<String> values = new LinkedHashSet<>();
+        for(Candidate candidate : candidates) {
+            values.add(candidate.value);
+        }
+        // each part of the parallel stream fills its own map, as values may hold null
+        Map<String, String> errorsByValue = values.parallelStream().collect(
+                HashMap::new,
+                (errors, value) -> resolve(objectReferenceIndex, value).ifPresent(error -> errors.put(value, error)),
+                Map::putAll
+        );
+
+        return candidates.stream()
+                .filter(candidate -> errorsByValue.containsKey(candidate.value))
+                .map(candidate -> new DanglingObjRef(candidate.iedName, candidate.ldInst, candidate.rDtt,
+                        candidate.value, errorsByValue.get(candidate.value)))
+                .collect(Collectors.toList());
+    }
+
+    private void collect(String iedName, String ldInst, AbstractLNAdapter<?> lnAdapter, List<Candidate> candidates) {
+        for(ResumedDataTemplate leaf : objRefLeavesOf(lnAdapter.getLnType())) {
+            Optional<TDAI> opTdai = lnAdapter.findDAI(leaf.getDoName(), leaf.getDaName());
+            if(opTdai.isEmpty() || opTdai.get().getVal().isEmpty()) {
+                continue;
+            }
+            ResumedDataTemplate rDtt = ResumedDataTemplate.copyFrom(leaf);
+            rDtt.setLnClass(lnAdapter.getLNClass());
+            rDtt.setLnInst(lnAdapter.getLNInst());
+            rDtt.setPrefix(lnAdapter.getPrefix());
+            rDtt.setDaiValues(opTdai.get().getVal());
+            for(TVal tVal : opTdai.get().getVal()) {
+                candidates.add(new Candidate(iedName, ldInst, rDtt, tVal.getValue()));
+            }
+        }
+    }
+
+    private List<ResumedDataTemplate> objRefLeavesOf(String lnType) {
+        if(lnType == null) {
+            return Collections.emptyList();
+        }
+        return objRefLeavesByLnType.computeIfAbsent(lnType, k -> sclRootAdapter.getDataTypeTemplateAdapter()
+                .getLNodeTypeAdapterById(lnType)
+                .map(this::objRefLeavesOf)
+                .orElse(Collections.emptyList())
+        );
+    }
+
+    private List<ResumedDataTemplate> objRefLeavesOf(LNodeTypeAdapter lNodeTypeAdapter) {
+        return lNodeTypeAdapter.getResumedDTTs(new ResumedDataTemplate()).stream()
+                .filter(leaf -> TPredefinedBasicTypeEnum.OBJ_REF == leaf.getBType())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @param objectReferenceIndex fully built index
+     * @param value OBJ_REF value
+     * @return Optional of the reason why value is dangling, empty if an IED resolves it
+     */
+    private static Optional<String> resolve(ObjectReferenceIndex objectReferenceIndex, String value) {
+        if(value == null) {
+            return Optional.of("Malformed ObjRef : null");
+        }
+        try {
+            if(objectReferenceIndex.findIED(new ObjectReference(value)).isPresent()) {
+                return Optional.empty();
+            }
+            return Optional.of("Invalid ObjRef: " + value);
+        } catch (IllegalArgumentException | AssertionError e) {
+            return Optional.of(e.getMessage());
+        }
+    }
+
+    private static final class Candidate {
+        private final String iedName;
+        private final String ldInst;
+        private final ResumedDataTemplate rDtt;
+        private final String value;
+
+        private Candidate(String iedName, String ldInst, ResumedDataTemplate rDtt, String value) {
+            this.iedName = iedName;
+            this.ldInst = ldInst;
+            this.rDtt = rDtt;
+            this.value = value;
+        }
+    }
+}
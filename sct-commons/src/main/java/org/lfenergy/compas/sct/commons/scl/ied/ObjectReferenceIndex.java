@@ -0,0 +1,285 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.ied;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.LN0;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TAccessPoint;
+import org.lfenergy.compas.scl2007b4.model.TAnyLN;
+import org.lfenergy.compas.scl2007b4.model.TControl;
+import org.lfenergy.compas.scl2007b4.model.TDataSet;
+import org.lfenergy.compas.scl2007b4.model.TDataTypeTemplates;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.scl2007b4.model.TLDevice;
+import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.sct.commons.dto.ResumedDataTemplate;
+import org.lfenergy.compas.sct.commons.scl.ObjectReference;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.dtt.LNodeTypeAdapter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Index of the object references (LDName/LNName.dataAttributes) the IEDs of an SCL can resolve, answering as
+ * {@link IEDAdapter#matches(ObjectReference)} does for each IED in SCL order.
+ * <p>
+ * The LDevices are indexed by LD name (IED name followed by LDevice inst) and their LNs by LN name, both built on
+ * first use, the LNs of an LDevice being listed again whenever their count changed. The data attributes of an LN (DO[.SDO].DA[.BDA] names) only depend on its lnType : they are expanded
+ * once per lnType and sorted, so that checking a reference is a binary search for the first data attribute it
+ * prefixes. The DataSet and control block names of an LN are indexed the first time the LN is looked up, and again
+ * whenever their count changed. The whole index is dropped when the number of IEDs or of DataTypeTemplates types
+ * changes, or on {@link #invalidate()}, which renaming an IED through {@link IEDAdapter#setIEDName(String)} calls.
+ * <p>
+ * The index isn't thread-safe, except once fully built by {@link #buildAll()} : as long as the SCL isn't modified,
+ * lookups then only read it.
+ */
+public class ObjectReferenceIndex {
+
+    private final SclRootAdapter sclRootAdapter;
+    private final Map<String, List<LDeviceEntry>> lDevicesByLdName = new HashMap<>();
+    private final Map<String, String[]> dataAttributesByLnType = new HashMap<>();
+    private final Set<String> unknownLnTypes = new HashSet<>();
+    private long stamp = -1;
+
+    public ObjectReferenceIndex(@NonNull SclRootAdapter sclRootAdapter) {
+        this.sclRootAdapter = sclRootAdapter;
+    }
+
+    /**
+     * Gives the first IED of the SCL which resolves an object reference
+     * @param objRef object reference
+     * @return Optional of the IED adapter, empty if no IED resolves objRef
+     */
+    public Optional<IEDAdapter> findIED(@NonNull ObjectReference objRef) {
+        refresh();
+        for(LDeviceEntry lDeviceEntry : lDevicesByLdName.getOrDefault(objRef.getLdName(), List.of())) {
+            if(lDeviceEntry.matches(objRef)) {
+                return Optional.of(lDeviceEntry.iedAdapter);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Builds at once all the levels of the index that lookups would otherwise build on first use
+     */
+    public void buildAll() {
+        refresh();
+        for(List<LDeviceEntry> lDeviceEntries : lDevicesByLdName.values()) {
+            for(LDeviceEntry lDeviceEntry : lDeviceEntries) {
+                for(LNEntry lnEntry : lDeviceEntry.lnEntries()) {
+                    lnEntry.names();
+                    try {
+                        dataAttributesOf(lnEntry.lnAdapter);
+                    } catch (AssertionError e) {
+                        // reported again by the lookups reaching this LN
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the index, it will be rebuilt on next query
+     */
+    public void invalidate() {
+        lDevicesByLdName.clear();
+        dataAttributesByLnType.clear();
+        unknownLnTypes.clear();
+        stamp = -1;
+    }
+
+    private void refresh() {
+        long currentStamp = computeStamp();
+        if(stamp != currentStamp) {
+            invalidate();
+            buildLDevices();
+            stamp = currentStamp;
+        }
+    }
+
+    private long computeStamp() {
+        SCL scl = sclRootAdapter.getCurrentElem();
+        TDataTypeTemplates dtt = scl.getDataTypeTemplates();
+        long typesCount = dtt == null ? 0 : (long) dtt.getLNodeType().size() + dtt.getDOType().size()
+                + dtt.getDAType().size() + dtt.getEnumType().size();
+        return (typesCount << 32) + scl.getIED().size();
+    }
+
+    private void buildLDevices() {
+        for(TIED tied : sclRootAdapter.getCurrentElem().getIED()) {
+            if(tied.getName() == null) {
+                continue;
+            }
+            IEDAdapter iedAdapter = new IEDAdapter(sclRootAdapter, tied, true);
+            // only the first LDevice of an IED with a given LD name is looked at
+            Set<String> iedLdNames = new HashSet<>();
+            for(TAccessPoint tAccessPoint : tied.getAccessPoint()) {
+                if(tAccessPoint.getServer() == null) {
+                    continue;
+                }
+                for(TLDevice tlDevice : tAccessPoint.getServer().getLDevice()) {
+                    String ldName = tied.getName() + tlDevice.getInst();
+                    if(iedLdNames.add(ldName)) {
+                        lDevicesByLdName.computeIfAbsent(ldName, k -> new ArrayList<>())
+                                .add(new LDeviceEntry(new LDeviceAdapter(iedAdapter, tlDevice, true)));
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param lnEntry LN
+     * @param dataAttribute data attributes of an object reference
+     * @return true if dataAttribute names a DataSet or control block of the LN, or prefixes one of its data
+     * attributes
+     */
+    private boolean matches(LNEntry lnEntry, String dataAttribute) {
+        // the lnType is resolved first, so that a corrupted lnType is reported even if a DataSet name matches
+        String[] dataAttributes = dataAttributesOf(lnEntry.lnAdapter);
+        if(lnEntry.names().contains(dataAttribute)) {
+            return true;
+        }
+        int index = Arrays.binarySearch(dataAttributes, dataAttribute);
+        if(index >= 0) {
+            return true;
+        }
+        int insertionPoint = -index - 1;
+        return insertionPoint < dataAttributes.length && dataAttributes[insertionPoint].startsWith(dataAttribute);
+    }
+
+    private String[] dataAttributesOf(AbstractLNAdapter<?> lnAdapter) {
+        String lnType = lnAdapter.getLnType();
+        String[] dataAttributes = dataAttributesByLnType.get(lnType);
+        if(dataAttributes == null) {
+            // unknown lnTypes are remembered, so that once the index is built a lookup never writes to it
+            Optional<LNodeTypeAdapter> opLNodeTypeAdapter = unknownLnTypes.contains(lnType) ? Optional.empty() :
+                    sclRootAdapter.getDataTypeTemplateAdapter().getLNodeTypeAdapterById(lnType);
+            if(opLNodeTypeAdapter.isEmpty()) {
+                if(!unknownLnTypes.contains(lnType)) {
+                    unknownLnTypes.add(lnType);
+                }
+                throw new AssertionError(
+                        String.format("Corrupted  SCD file: Reference to unknown LNodeType(%s)", lnType)
+                );
+            }
+            LNodeTypeAdapter lNodeTypeAdapter = opLNodeTypeAdapter.get();
+            ResumedDataTemplate filter = new ResumedDataTemplate();
+            filter.setLnInst(lnAdapter.getLNInst());
+            filter.setLnClass(lnAdapter.getLNClass());
+            filter.setLnType(lnType);
+            dataAttributes = lNodeTypeAdapter.getDataAttributes(filter).stream()
+                    .sorted()
+                    .toArray(String[]::new);
+            dataAttributesByLnType.put(lnType, dataAttributes);
+        }
+        return dataAttributes;
+    }
+
+    /**
+     * An LDevice and its LNs by LN name, listed on first use and again when the LN count changed
+     */
+    private final class LDeviceEntry {
+        private final IEDAdapter iedAdapter;
+        private final LDeviceAdapter lDeviceAdapter;
+        private final Map<String, List<LNEntry>> lnEntriesByName = new HashMap<>();
+        private LNEntry ln0Entry;
+        private int stamp = -1;
+
+        private LDeviceEntry(LDeviceAdapter lDeviceAdapter) {
+            this.iedAdapter = lDeviceAdapter.getParentAdapter();
+            this.lDeviceAdapter = lDeviceAdapter;
+        }
+
+        private void buildLNEntries() {
+            TLDevice tlDevice = lDeviceAdapter.getCurrentElem();
+            int count = (tlDevice.getLN().size() << 1) + (tlDevice.getLN0() == null ? 0 : 1);
+            if(count != stamp) {
+                lnEntriesByName.clear();
+                ln0Entry = null;
+                if(tlDevice.getLN0() != null) {
+                    ln0Entry = new LNEntry(lDeviceAdapter.getLN0Adapter());
+                }
+                for(LNAdapter lnAdapter : lDeviceAdapter.getLNAdapters()) {
+                    lnEntriesByName.computeIfAbsent(lnAdapter.getLNodeName(), k -> new ArrayList<>())
+                            .add(new LNEntry(lnAdapter));
+                }
+                stamp = count;
+            }
+        }
+
+        private List<LNEntry> lnEntries() {
+            buildLNEntries();
+            List<LNEntry> lnEntries = new ArrayList<>();
+            if(ln0Entry != null) {
+                lnEntries.add(ln0Entry);
+            }
+            lnEntriesByName.values().forEach(lnEntries::addAll);
+            return lnEntries;
+        }
+
+        private boolean matches(ObjectReference objRef) {
+            buildLNEntries();
+            if(TLLN0Enum.LLN_0.value().equals(objRef.getLNodeName())) {
+                return ln0Entry != null && ObjectReferenceIndex.this.matches(ln0Entry, objRef.getDataAttributes());
+            }
+            for(LNEntry lnEntry : lnEntriesByName.getOrDefault(objRef.getLNodeName(), List.of())) {
+                if(ObjectReferenceIndex.this.matches(lnEntry, objRef.getDataAttributes())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * An LN and the names of its DataSets and control blocks
+     */
+    private static final class LNEntry {
+        private final AbstractLNAdapter<?> lnAdapter;
+        private final Set<String> names = new HashSet<>();
+        private int stamp = -1;
+
+        private LNEntry(AbstractLNAdapter<?> lnAdapter) {
+            this.lnAdapter = lnAdapter;
+        }
+
+        private Set<String> names() {
+            TAnyLN tAnyLN = lnAdapter.getCurrentElem();
+            List<List<? extends TControl>> controls = new ArrayList<>();
+            controls.add(tAnyLN.getReportControl());
+            if(tAnyLN instanceof LN0) {
+                controls.add(((LN0) tAnyLN).getSampledValueControl());
+                controls.add(((LN0) tAnyLN).getGSEControl());
+            }
+            int count = tAnyLN.getDataSet().size();
+            for(List<? extends TControl> tControls : controls) {
+                count += tControls.size();
+            }
+            if(count != stamp) {
+                names.clear();
+                for(TDataSet tDataSet : tAnyLN.getDataSet()) {
+                    names.add(tDataSet.getName());
+                }
+                for(List<? extends TControl> tControls : controls) {
+                    for(TControl tControl : tControls) {
+                        names.add(tControl.getName());
+                    }
+                }
+                stamp = count;
+            }
+            return names;
+        }
+    }
+}
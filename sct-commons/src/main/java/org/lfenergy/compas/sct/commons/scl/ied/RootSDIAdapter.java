@@ -10,6 +10,8 @@ import org.lfenergy.compas.scl2007b4.model.TSDI;
 import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.SclElementAdapter;
 
+import java.util.Optional;
+
 
 public class RootSDIAdapter extends SclElementAdapter<DOIAdapter, TSDI> implements IDataParentAdapter{
 
@@ -23,30 +25,40 @@ public class RootSDIAdapter extends SclElementAdapter<DOIAdapter, TSDI> implemen
     }
 
     public SDIAdapter getStructuredDataAdapterByName(String name) throws ScdException {
+        return findStructuredDataAdapterByName(name)
+                .orElseThrow(() -> new ScdException(
+                        String.format("Unknown DAI (%s) in Root SDI (%s)", name, currentElem.getName())
+                ));
+    }
+
+    @Override
+    public Optional<SDIAdapter> findStructuredDataAdapterByName(String name) {
         return currentElem.getSDIOrDAI()
                 .stream()
                 .filter(tUnNaming -> tUnNaming.getClass().equals(TSDI.class))
                 .map(TSDI.class::cast)
                 .filter(tsdi -> tsdi.getName().equals(name))
                 .map(tsdi -> new SDIAdapter(this,tsdi))
-                .findFirst()
+                .findFirst();
+    }
+
+    @Override
+    public DAIAdapter getDataAdapterByName(String sName) throws ScdException {
+        return findDataAdapterByName(sName)
                 .orElseThrow(() -> new ScdException(
-                        String.format("Unknown DAI (%s) in Root SDI (%s)", name, currentElem.getName())
+                        String.format("Unknown DAI (%s) in Root SDI (%s)", sName, currentElem.getName())
                 ));
     }
 
     @Override
-    public DAIAdapter getDataAdapterByName(String sName) throws ScdException {
+    public Optional<DAIAdapter> findDataAdapterByName(String sName) {
         return currentElem.getSDIOrDAI()
                 .stream()
                 .filter(tUnNaming -> tUnNaming.getClass().equals(TDAI.class))
                 .map(TDAI.class::cast)
                 .filter(tdai -> tdai.getName().equals(sName))
                 .map(tdai -> new DAIAdapter(this,tdai))
-                .findFirst()
-                .orElseThrow(() -> new ScdException(
-                        String.format("Unknown DAI (%s) in Root SDI (%s)", sName, currentElem.getName())
-                ));
+                .findFirst();
     }
 
     @Override
@@ -11,6 +11,7 @@ import org.lfenergy.compas.sct.commons.exception.ScdException;
 import org.lfenergy.compas.sct.commons.scl.SclElementAdapter;
 
 import java.util.Objects;
+import java.util.Optional;
 
 public class SDIAdapter extends SclElementAdapter<SclElementAdapter, TSDI> implements IDataParentAdapter {
 
@@ -28,35 +29,45 @@ public class SDIAdapter extends SclElementAdapter<SclElementAdapter, TSDI> imple
 
     @Override
     public SDIAdapter getStructuredDataAdapterByName(String sName) throws ScdException {
+        return findStructuredDataAdapterByName(sName)
+                .orElseThrow(
+                        () -> new ScdException(
+                                String.format("Unknown SDI (%s) in SDI (%s)", sName, currentElem.getName())
+                        )
+                );
+    }
+
+    @Override
+    public Optional<SDIAdapter> findStructuredDataAdapterByName(String sName) {
         return currentElem.getSDIOrDAI()
                 .stream()
                 .filter(tUnNaming -> tUnNaming.getClass().equals(TSDI.class))
                 .map(TSDI.class::cast)
                 .filter(tsdi -> Objects.equals(tsdi.getName(),sName))
                 .map(tsdi -> new SDIAdapter(this,tsdi))
-                .findFirst()
-                .orElseThrow(
-                        () -> new ScdException(
-                                String.format("Unknown SDI (%s) in SDI (%s)", sName, currentElem.getName())
-                        )
-                );
+                .findFirst();
     }
 
 
     @Override
     public DAIAdapter getDataAdapterByName(String sName) throws ScdException {
+        return findDataAdapterByName(sName)
+            .orElseThrow(
+                    () -> new ScdException(
+                            String.format("Unknown DAI (%s) in SDI (%s)",sName, currentElem.getName())
+                    )
+            );
+    }
+
+    @Override
+    public Optional<DAIAdapter> findDataAdapterByName(String sName) {
         return currentElem.getSDIOrDAI()
             .stream()
             .filter(tUnNaming -> tUnNaming.getClass().equals(TDAI.class))
             .map(TDAI.class::cast)
             .filter(tdai -> Objects.equals(tdai.getName(),sName))
             .map(tdai -> new DAIAdapter(this,tdai))
-            .findFirst()
-            .orElseThrow(
-                    () -> new ScdException(
-                            String.format("Unknown DAI (%s) in SDI (%s)",sName, currentElem.getName())
-                    )
-            );
+            .findFirst();
     }
 
     @Override
@@ -0,0 +1,235 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.io;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads and writes SCL files.
+ * <p>
+ * Building a JAXBContext and compiling the SCL XSD are far more expensive than (un)marshalling an SCD, so the
+ * JAXBContext is built once for the JVM and each XSD is compiled once, then shared by all the instances.
+ * Marshaller and Unmarshaller are not thread-safe: each call borrows an idle one from a pool shared by all the
+ * instances using the same XSD, or creates one when none is idle, and gives it back when done. The pools are
+ * bounded by the number of processors, extra ones are dropped. An instance can then be shared by all the threads of
+ * a service, and creating one per call costs no more than a map lookup.
+ */
+@Slf4j
+public class SclMarshaller {
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final Map<String, Pool> POOLS = new ConcurrentHashMap<>();
+    private static final Pool NO_XSD_POOL = new Pool(null);
+
+    private final Pool pool;
+
+    /**
+     * Marshaller without XSD validation
+     */
+    public SclMarshaller() {
+        this.pool = NO_XSD_POOL;
+    }
+
+    /**
+     * Marshaller validating the SCL against an XSD
+     * @param xsdPath XSD location, either a file path or a resource prefixed by "classpath:"
+     * @throws ScdException when the XSD can't be found or compiled
+     */
+    public SclMarshaller(@NonNull String xsdPath) throws ScdException {
+        this.pool = getPool(xsdPath);
+    }
+
+    public SCL unmarshal(@NonNull InputStream inputStream) throws ScdException {
+        Unmarshaller unmarshaller = null;
+        try {
+            unmarshaller = pool.borrowUnmarshaller();
+            return unmarshaller.unmarshal(new StreamSource(inputStream), SCL.class).getValue();
+        } catch (JAXBException e) {
+            throw new ScdException("Error unmarshalling SCL: " + getMessage(e), e);
+        } finally {
+            pool.giveBack(unmarshaller);
+        }
+    }
+
+    public SCL unmarshal(@NonNull Path path) throws ScdException {
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            return unmarshal(inputStream);
+        } catch (IOException e) {
+            throw new ScdException("Error reading SCL file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    public SCL unmarshal(@NonNull byte[] xml) throws ScdException {
+        return unmarshal(new ByteArrayInputStream(xml));
+    }
+
+    public void marshal(@NonNull SCL scl, @NonNull OutputStream outputStream) throws ScdException {
+        Marshaller marshaller = null;
+        try {
+            marshaller = pool.borrowMarshaller();
+            marshaller.marshal(scl, outputStream);
+        } catch (JAXBException e) {
+            throw new ScdException("Error marshalling SCL: " + getMessage(e), e);
+        } finally {
+            pool.giveBack(marshaller);
+        }
+    }
+
+    public void marshal(@NonNull SCL scl, @NonNull Path path) throws ScdException {
+        try (OutputStream outputStream = Files.newOutputStream(path)) {
+            marshal(scl, outputStream);
+        } catch (IOException e) {
+            throw new ScdException("Error writing SCL file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    public byte[] marshal(@NonNull SCL scl) throws ScdException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        marshal(scl, outputStream);
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * @return the SCL JAXBContext shared by the JVM
+     */
+    static JAXBContext getJaxbContext() {
+        return JaxbContextHolder.getJaxbContext();
+    }
+
+    private static Pool getPool(String xsdPath) throws ScdException {
+        Pool pool = POOLS.get(xsdPath);
+        if(pool == null) {
+            // compiled out of the map: two threads may both compile the XSD, only one is kept
+            Pool compiled = new Pool(compileSchema(xsdPath));
+            pool = POOLS.putIfAbsent(xsdPath, compiled);
+            pool = pool != null ? pool : compiled;
+        }
+        return pool;
+    }
+
+    private static Schema compileSchema(String xsdPath) throws ScdException {
+        URL xsdUrl;
+        try {
+            if(xsdPath.startsWith(CLASSPATH_PREFIX)) {
+                xsdUrl = SclMarshaller.class.getResource("/" + xsdPath.substring(CLASSPATH_PREFIX.length()));
+            } else {
+                Path path = Paths.get(xsdPath).toAbsolutePath();
+                xsdUrl = Files.exists(path) ? path.toUri().toURL() : null;
+            }
+        } catch (IOException e) {
+            throw new ScdException("Invalid XSD path " + xsdPath, e);
+        }
+        if(xsdUrl == null) {
+            throw new ScdException(xsdPath + ": No such XSD file");
+        }
+        try {
+            // the URL is kept as system id so that the XSD includes are resolved
+            return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema(xsdUrl);
+        } catch (SAXException e) {
+            log.error("Error compiling XSD {}", xsdPath, e);
+            throw new ScdException("Error compiling XSD " + xsdPath + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static String getMessage(JAXBException e) {
+        // validation errors are reported as linked exceptions
+        return e.getLinkedException() != null ? e.getLinkedException().getMessage() : e.getMessage();
+    }
+
+    /**
+     * Idle Marshallers and Unmarshallers validating against the same XSD
+     */
+    private static final class Pool {
+        private final Schema schema;
+        private final BlockingQueue<Marshaller> marshallers = new ArrayBlockingQueue<>(POOL_SIZE);
+        private final BlockingQueue<Unmarshaller> unmarshallers = new ArrayBlockingQueue<>(POOL_SIZE);
+
+        private Pool(Schema schema) {
+            this.schema = schema;
+        }
+
+        private Marshaller borrowMarshaller() throws JAXBException {
+            Marshaller marshaller = marshallers.poll();
+            if(marshaller == null) {
+                marshaller = getJaxbContext().createMarshaller();
+                marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+                marshaller.setSchema(schema);
+            }
+            return marshaller;
+        }
+
+        private Unmarshaller borrowUnmarshaller() throws JAXBException {
+            Unmarshaller unmarshaller = unmarshallers.poll();
+            if(unmarshaller == null) {
+                unmarshaller = getJaxbContext().createUnmarshaller();
+                unmarshaller.setSchema(schema);
+            }
+            return unmarshaller;
+        }
+
+        private void giveBack(Marshaller marshaller) {
+            if(marshaller != null) {
+                marshallers.offer(marshaller);
+            }
+        }
+
+        private void giveBack(Unmarshaller unmarshaller) {
+            if(unmarshaller != null) {
+                unmarshallers.offer(unmarshaller);
+            }
+        }
+    }
+
+    /**
+     * Builds the JAXBContext on first use
+     */
+    private static final class JaxbContextHolder {
+        private static final JAXBContext JAXB_CONTEXT = createJaxbContext();
+
+        private JaxbContextHolder() {
+            throw new IllegalStateException("JaxbContextHolder class");
+        }
+
+        private static JAXBContext getJaxbContext() {
+            return JAXB_CONTEXT;
+        }
+
+        private static JAXBContext createJaxbContext() {
+            try {
+                return JAXBContext.newInstance(SCL.class.getPackageName());
+            } catch (JAXBException e) {
+                log.error("Error creating the SCL JAXBContext", e);
+                throw new IllegalStateException("Error creating the SCL JAXBContext", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,242 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.io;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TAccessPoint;
+import org.lfenergy.compas.scl2007b4.model.TCommunication;
+import org.lfenergy.compas.scl2007b4.model.TDAType;
+import org.lfenergy.compas.scl2007b4.model.TDOType;
+import org.lfenergy.compas.scl2007b4.model.TDataTypeTemplates;
+import org.lfenergy.compas.scl2007b4.model.TEnumType;
+import org.lfenergy.compas.scl2007b4.model.THeader;
+import org.lfenergy.compas.scl2007b4.model.TIDNaming;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.scl2007b4.model.TLDevice;
+import org.lfenergy.compas.scl2007b4.model.TLN;
+import org.lfenergy.compas.scl2007b4.model.TLNodeType;
+import org.lfenergy.compas.scl2007b4.model.TSubstation;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateRegistry;
+
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Loads selected sections of an SCL without loading the whole file.
+ * <p>
+ * The file is read with StAX: the root SCL attributes are copied, the selected sections are unmarshalled one by
+ * one and all the others are skipped without building any object. Editing one IED of a large SCD then only needs
+ * the memory of the Header, of this IED and of the DataTypeTemplates types it uses (see "Tips for memory
+ * consumption's optimization" in the documentation).
+ * <p>
+ * Sections are unmarshalled without XSD validation: a fragment can't be validated on its own. The resulting SCL
+ * can be validated with {@link SclMarshaller}.
+ */
+@Slf4j
+public class SclSectionLoader {
+
+    private static final String SCL_ELEMENT = "SCL";
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    public SCL load(@NonNull Path path, @NonNull SclSelector selector) throws ScdException {
+        try (InputStream inputStream = new BufferedInputStream(Files.newInputStream(path))) {
+            return load(inputStream, selector);
+        } catch (IOException e) {
+            throw new ScdException("Error reading SCL file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    public SCL load(@NonNull InputStream inputStream, @NonNull SclSelector selector) throws ScdException {
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(inputStream);
+            Unmarshaller unmarshaller = SclMarshaller.getJaxbContext().createUnmarshaller();
+            return read(reader, unmarshaller, selector);
+        } catch (XMLStreamException | JAXBException e) {
+            throw new ScdException("Error loading SCL sections: " + e.getMessage(), e);
+        } finally {
+            close(reader);
+        }
+    }
+
+    private SCL read(XMLStreamReader reader, Unmarshaller unmarshaller, SclSelector selector)
+            throws XMLStreamException, JAXBException, ScdException {
+        if(reader.nextTag() != XMLStreamConstants.START_ELEMENT || !SCL_ELEMENT.equals(reader.getLocalName())) {
+            throw new ScdException("Invalid SCL: missing root element SCL");
+        }
+        SCL scl = new SCL();
+        scl.setVersion(reader.getAttributeValue(null, "version"));
+        scl.setRevision(reader.getAttributeValue(null, "revision"));
+        String release = reader.getAttributeValue(null, "release");
+        if(release != null) {
+            scl.setRelease(Short.parseShort(release));
+        }
+
+        Set<String> lnTypes = new HashSet<>();
+        reader.nextTag();
+        while(reader.getEventType() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "Header":
+                    scl.setHeader(unmarshaller.unmarshal(reader, THeader.class).getValue());
+                    break;
+                case "Substation":
+                    if(selector.isSubstation()) {
+                        scl.getSubstation().add(unmarshaller.unmarshal(reader, TSubstation.class).getValue());
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                case "Communication":
+                    if(selector.isCommunication()) {
+                        scl.setCommunication(unmarshaller.unmarshal(reader, TCommunication.class).getValue());
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                case "IED":
+                    if(selector.isIEDSelected(reader.getAttributeValue(null, "name"))) {
+                        TIED tied = unmarshaller.unmarshal(reader, TIED.class).getValue();
+                        scl.getIED().add(tied);
+                        collectLnTypes(tied, lnTypes);
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                case "DataTypeTemplates":
+                    if(selector.isAllDataTypeTemplates()) {
+                        scl.setDataTypeTemplates(
+                                unmarshaller.unmarshal(reader, TDataTypeTemplates.class).getValue());
+                    } else if(!lnTypes.isEmpty()) {
+                        scl.setDataTypeTemplates(readDataTypeTemplates(reader, unmarshaller, lnTypes));
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                default:
+                    skipElement(reader);
+            }
+            moveToTag(reader);
+        }
+        return scl;
+    }
+
+    /**
+     * Reads the LNodeTypes in lnTypes and the types they reference. The references between DOTypes and between
+     * DATypes may point backward, so the DOTypes, DATypes and EnumTypes are all read then pruned.
+     */
+    private TDataTypeTemplates readDataTypeTemplates(XMLStreamReader reader, Unmarshaller unmarshaller,
+                                                     Set<String> lnTypes) throws XMLStreamException, JAXBException {
+        TDataTypeTemplates dataTypeTemplates = new TDataTypeTemplates();
+        reader.nextTag();
+        while(reader.getEventType() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "LNodeType":
+                    if(lnTypes.contains(reader.getAttributeValue(null, "id"))) {
+                        dataTypeTemplates.getLNodeType().add(
+                                unmarshaller.unmarshal(reader, TLNodeType.class).getValue());
+                    } else {
+                        skipElement(reader);
+                    }
+                    break;
+                case "DOType":
+                    dataTypeTemplates.getDOType().add(unmarshaller.unmarshal(reader, TDOType.class).getValue());
+                    break;
+                case "DAType":
+                    dataTypeTemplates.getDAType().add(unmarshaller.unmarshal(reader, TDAType.class).getValue());
+                    break;
+                case "EnumType":
+                    dataTypeTemplates.getEnumType().add(unmarshaller.unmarshal(reader, TEnumType.class).getValue());
+                    break;
+                default:
+                    skipElement(reader);
+            }
+            moveToTag(reader);
+        }
+        // leave the DataTypeTemplates end tag, as unmarshal does
+        reader.next();
+
+        Set<TIDNaming> reachable = new DataTypeTemplateRegistry(dataTypeTemplates).findReachableTypes(lnTypes);
+        dataTypeTemplates.getDOType().removeIf(type -> !reachable.contains(type));
+        dataTypeTemplates.getDAType().removeIf(type -> !reachable.contains(type));
+        dataTypeTemplates.getEnumType().removeIf(type -> !reachable.contains(type));
+        return dataTypeTemplates;
+    }
+
+    private static void collectLnTypes(TIED tied, Set<String> lnTypes) {
+        for(TAccessPoint tAccessPoint : tied.getAccessPoint()) {
+            if(tAccessPoint.getServer() == null) {
+                continue;
+            }
+            for(TLDevice tlDevice : tAccessPoint.getServer().getLDevice()) {
+                if(tlDevice.getLN0() != null) {
+                    lnTypes.add(tlDevice.getLN0().getLnType());
+                }
+                for(TLN tln : tlDevice.getLN()) {
+                    lnTypes.add(tln.getLnType());
+                }
+            }
+        }
+    }
+
+    /**
+     * Skips the current element and its content, leaving the reader on the event following its end tag
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while(depth > 0) {
+            int event = reader.next();
+            if(event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if(event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        reader.next();
+    }
+
+    /**
+     * Moves from the event following an end tag to the next start or end tag. Unlike nextTag, the current event
+     * is considered, as it may already be the next sibling.
+     */
+    private static void moveToTag(XMLStreamReader reader) throws XMLStreamException {
+        int event = reader.getEventType();
+        while(event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT
+                && event != XMLStreamConstants.END_DOCUMENT) {
+            event = reader.next();
+        }
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if(reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            log.debug("Error closing SCL reader: {}", e.getMessage());
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        XMLInputFactory xmlInputFactory = XMLInputFactory.newFactory();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return xmlInputFactory;
+    }
+}
@@ -0,0 +1,76 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.io;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Sections of an SCL to load with {@link SclSectionLoader}.
+ * <p>
+ * The Header is always selected, as it is mandatory in a valid SCL. Selecting IEDs also selects the
+ * DataTypeTemplates types they use (LNodeTypes of their LNs and the types these LNodeTypes reference). The whole
+ * DataTypeTemplates section is needed when types are to be imported (addIED for example), so that the ids and
+ * contents of the types of the other IEDs are taken into account.
+ */
+@Getter
+public class SclSelector {
+    private boolean substation;
+    private boolean communication;
+    private boolean allDataTypeTemplates;
+    private final Set<String> iedNames = new HashSet<>();
+
+    private SclSelector() {
+    }
+
+    public static SclSelector headerOnly() {
+        return new SclSelector();
+    }
+
+    public static SclSelector substationOnly() {
+        return new SclSelector().withSubstation();
+    }
+
+    public static SclSelector communicationOnly() {
+        return new SclSelector().withCommunication();
+    }
+
+    public static SclSelector iedsOnly(@NonNull Collection<String> iedNames) {
+        return new SclSelector().withIEDs(iedNames);
+    }
+
+    public SclSelector withSubstation() {
+        this.substation = true;
+        return this;
+    }
+
+    public SclSelector withCommunication() {
+        this.communication = true;
+        return this;
+    }
+
+    public SclSelector withAllDataTypeTemplates() {
+        this.allDataTypeTemplates = true;
+        return this;
+    }
+
+    public SclSelector withIEDs(@NonNull Collection<String> iedNames) {
+        this.iedNames.addAll(iedNames);
+        return this;
+    }
+
+    public Set<String> getIedNames() {
+        return Collections.unmodifiableSet(iedNames);
+    }
+
+    public boolean isIEDSelected(String iedName) {
+        return iedNames.contains(iedName);
+    }
+}
@@ -0,0 +1,628 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.io;
+
+import lombok.NonNull;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TCommunication;
+import org.lfenergy.compas.scl2007b4.model.TDataTypeTemplates;
+import org.lfenergy.compas.scl2007b4.model.THeader;
+import org.lfenergy.compas.scl2007b4.model.TIDNaming;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.scl2007b4.model.TSubstation;
+import org.lfenergy.compas.sct.commons.CommonConstants;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+
+import javax.xml.bind.JAXBElement;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.namespace.QName;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.StandardCharsets;
+import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a partially edited SCL back into its original file.
+ * <p>
+ * The original SCL is streamed to the target and copied verbatim, except for the elements held by the edited
+ * SCL (typically loaded with {@link SclSectionLoader} then modified), which are marshalled in their place:
+ * <ul>
+ *     <li>Header and Communication, when present in the edited SCL</li>
+ *     <li>all the Substations, when the edited SCL holds at least one</li>
+ *     <li>IEDs, matched by name; unknown IEDs are added after the last IED</li>
+ *     <li>DataTypeTemplates types, matched by id; unknown types are added after the last type of their kind</li>
+ * </ul>
+ * Sections missing from the original are inserted at their place in the SCL sequence. Nothing is removed: an
+ * element absent from the edited SCL is kept as is.
+ * <p>
+ * The original is scanned as bytes at the markup level (tags, comments, CDATA and processing instructions), without
+ * decoding nor building any XML event for the copied content: the unchanged byte ranges are copied as is, so the
+ * cost of a save only depends on the size of the edited elements and on the raw copy of the rest of the file. The
+ * target keeps the encoding given by the XML declaration of the original (UTF-8 by default), in which the edited
+ * elements are marshalled. Only the encodings in which the ASCII characters are single bytes that can't be part of
+ * another character (UTF-8, ISO-8859-x, windows-125x, ...) can be scanned this way.
+ */
+public class SclSpliceWriter {
+
+    private static final String NAME_ATTRIBUTE = "name";
+    private static final String ID_ATTRIBUTE = "id";
+
+    // order of the SCL children, the elements of a same rank may be mixed
+    private static final List<String> SCL_SEQUENCE = List.of(
+            "Header", "Substation", "Communication", "IED", "DataTypeTemplates");
+    private static final List<String> DTT_SEQUENCE = List.of("LNodeType", "DOType", "DAType", "EnumType");
+    private static final int BEFORE_SEQUENCE = -1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    public void write(@NonNull Path original, @NonNull SCL edited, @NonNull Path target) throws ScdException {
+        try {
+            if(Files.exists(target) && Files.isSameFile(original, target)) {
+                throw new ScdException("The original SCL can't be overwritten while it is read: " + target);
+            }
+            try (InputStream inputStream = Files.newInputStream(original);
+                 OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(target), BUFFER_SIZE)) {
+                write(inputStream, edited, outputStream);
+            }
+        } catch (IOException e) {
+            throw new ScdException("Error writing SCL file " + target + ": " + e.getMessage(), e);
+        }
+    }
+
+    public void write(@NonNull InputStream original, @NonNull SCL edited, @NonNull OutputStream target)
+            throws ScdException {
+        try {
+            // tags are written one by one
+            OutputStream out = target instanceof BufferedOutputStream ? target :
+                    new BufferedOutputStream(target, BUFFER_SIZE);
+            Splice splice = new Splice(original, out, edited);
+            Charset charset = splice.readEncoding();
+            Marshaller marshaller = SclMarshaller.getJaxbContext().createMarshaller();
+            marshaller.setProperty(Marshaller.JAXB_FRAGMENT, Boolean.TRUE);
+            marshaller.setProperty(Marshaller.JAXB_FORMATTED_OUTPUT, Boolean.TRUE);
+            marshaller.setProperty(Marshaller.JAXB_ENCODING, charset.name());
+            splice.run(marshaller, charset);
+            out.flush();
+        } catch (JAXBException e) {
+            throw new ScdException("Error marshalling SCL element: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new ScdException("Error splicing SCL: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * State of one splicing.
+     * <p>
+     * The bytes read from the buffer since {@code copyFrom} are pending : they are written as one range when a tag
+     * starts or when the buffer is refilled, or dropped inside a replaced element. A tag is captured apart, as it is
+     * only written once its name and attributes told whether it is replaced.
+     */
+    private static final class Splice {
+        private final InputStream in;
+        private final OutputStream out;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int pos;
+        private int limit;
+        private int copyFrom;
+        private final ByteArrayOutputStream tagBytes = new ByteArrayOutputStream();
+        private boolean capturing;
+
+        private Marshaller marshaller;
+        private Charset charset;
+
+        private final THeader header;
+        private final List<TSubstation> substations;
+        private final TCommunication communication;
+        private final Map<String, TIED> pendingIEDs = new LinkedHashMap<>();
+        private final TDataTypeTemplates dataTypeTemplates;
+        private final List<Map<String, TIDNaming>> pendingTypes = new ArrayList<>();
+
+        private boolean headerWritten;
+        private boolean substationsWritten;
+        private boolean communicationWritten;
+        private boolean dataTypeTemplatesWritten;
+
+        private int depth;
+        private int suppressedDepth = -1;
+        private boolean inDataTypeTemplates;
+
+        private Splice(InputStream in, OutputStream out, SCL edited) {
+            this.in = in;
+            this.out = out;
+            this.header = edited.getHeader();
+            this.substations = edited.getSubstation();
+            this.communication = edited.getCommunication();
+            edited.getIED().forEach(tied -> pendingIEDs.put(tied.getName(), tied));
+            this.dataTypeTemplates = edited.getDataTypeTemplates();
+            if(dataTypeTemplates != null) {
+                pendingTypes.add(byId(dataTypeTemplates.getLNodeType()));
+                pendingTypes.add(byId(dataTypeTemplates.getDOType()));
+                pendingTypes.add(byId(dataTypeTemplates.getDAType()));
+                pendingTypes.add(byId(dataTypeTemplates.getEnumType()));
+            }
+        }
+
+        private static Map<String, TIDNaming> byId(List<? extends TIDNaming> types) {
+            Map<String, TIDNaming> map = new LinkedHashMap<>();
+            types.forEach(type -> map.put(type.getId(), type));
+            return map;
+        }
+
+        /**
+         * Reads the encoding of the original from its XML declaration, without consuming it
+         * @return the original encoding, UTF-8 when undeclared
+         * @throws ScdException if the encoding is unknown or can't be scanned as bytes
+         */
+        private Charset readEncoding() throws IOException, ScdException {
+            while(limit < buffer.length) {
+                int n = in.read(buffer, limit, buffer.length - limit);
+                if(n < 0) {
+                    break;
+                }
+                limit += n;
+            }
+            if(limit >= 2 && (buffer[0] == 0 || buffer[1] == 0 || (buffer[0] & 0xFF) >= 0xFE)) {
+                throw new ScdException("Unsupported SCL encoding: UTF-16 or UTF-32");
+            }
+            int start = limit >= 3 && (buffer[0] & 0xFF) == 0xEF && (buffer[1] & 0xFF) == 0xBB
+                    && (buffer[2] & 0xFF) == 0xBF ? 3 : 0;
+            String prolog = new String(buffer, start, limit - start, StandardCharsets.ISO_8859_1);
+            if(!prolog.startsWith("<?xml")) {
+                return StandardCharsets.UTF_8;
+            }
+            int end = prolog.indexOf("?>");
+            String encoding = end < 0 ? null : attribute(prolog.substring(0, end), "encoding");
+            if(encoding == null) {
+                return StandardCharsets.UTF_8;
+            }
+            Charset declared;
+            try {
+                declared = Charset.forName(encoding);
+            } catch (IllegalCharsetNameException | UnsupportedCharsetException e) {
+                throw new ScdException("Unsupported SCL encoding: " + encoding, e);
+            }
+            if(!isAsciiCompatible(declared)) {
+                throw new ScdException("Unsupported SCL encoding: " + encoding);
+            }
+            return declared;
+        }
+
+        private static boolean isAsciiCompatible(Charset charset) {
+            if(StandardCharsets.UTF_8.equals(charset)) {
+                return true;
+            }
+            if(!charset.canEncode() || charset.newEncoder().maxBytesPerChar() != 1) {
+                return false;
+            }
+            byte[] ascii = new byte[128];
+            for(int i = 0; i < ascii.length; i++) {
+                ascii[i] = (byte) i;
+            }
+            return new String(ascii, charset).equals(new String(ascii, StandardCharsets.US_ASCII));
+        }
+
+        private void run(Marshaller marshaller, Charset charset) throws IOException, JAXBException {
+            this.marshaller = marshaller;
+            this.charset = charset;
+            while(skipToMarkup()) {
+                // the pending bytes before '<' are written, the markup is captured apart
+                flushPending(pos - 1);
+                tagBytes.reset();
+                capturing = true;
+                int next = read();
+                if(next == '?') {
+                    releaseCapture();
+                    skipUntil('?', 1);
+                } else if(next == '!') {
+                    releaseCapture();
+                    skipDeclaration();
+                } else {
+                    readTag();
+                    String tag = endCapture();
+                    if(next == '/') {
+                        endTag(tag);
+                    } else {
+                        startTag(tag);
+                    }
+                }
+            }
+            flushPending(pos);
+        }
+
+        private void startTag(String tag) throws IOException, JAXBException {
+            depth++;
+            boolean emptyElement = tag.endsWith("/>");
+            if(isSuppressed()) {
+                closeIfEmpty(emptyElement);
+                return;
+            }
+            String name = localName(tag);
+            if(depth == 2) {
+                int rank = rankOf(SCL_SEQUENCE, name);
+                flushSclBefore(rank);
+                if(replaceSclChild(name, tag, emptyElement)) {
+                    return;
+                }
+            } else if(depth == 3 && inDataTypeTemplates) {
+                int rank = rankOf(DTT_SEQUENCE, name);
+                flushTypesBefore(rank);
+                TIDNaming type = rank < 0 || rank >= DTT_SEQUENCE.size() ? null :
+                        pendingTypes.get(rank).remove(attribute(tag, ID_ATTRIBUTE));
+                if(type != null) {
+                    marshal(name, type);
+                    suppress(emptyElement);
+                    return;
+                }
+            }
+            writeTag();
+            closeIfEmpty(emptyElement);
+        }
+
+        /**
+         * @return true if the SCL child has been replaced or completed
+         */
+        private boolean replaceSclChild(String name, String tag, boolean emptyElement)
+                throws IOException, JAXBException {
+            switch (name) {
+                case "Header":
+                    if(header != null) {
+                        marshal(name, header);
+                        headerWritten = true;
+                        suppress(emptyElement);
+                        return true;
+                    }
+                    return false;
+                case "Substation":
+                    if(!substations.isEmpty()) {
+                        writeSubstations();
+                        suppress(emptyElement);
+                        return true;
+                    }
+                    return false;
+                case "Communication":
+                    if(communication != null) {
+                        marshal(name, communication);
+                        communicationWritten = true;
+                        suppress(emptyElement);
+                        return true;
+                    }
+                    return false;
+                case "IED":
+                    TIED tied = pendingIEDs.remove(attribute(tag, NAME_ATTRIBUTE));
+                    if(tied != null) {
+                        marshal(name, tied);
+                        suppress(emptyElement);
+                        return true;
+                    }
+                    return false;
+                case "DataTypeTemplates":
+                    if(dataTypeTemplates == null) {
+                        return false;
+                    }
+                    dataTypeTemplatesWritten = true;
+                    inDataTypeTemplates = true;
+                    if(emptyElement) {
+                        // open it to add the types
+                        write(tag.substring(0, tag.length() - 2) + ">");
+                        flushTypesBefore(DTT_SEQUENCE.size());
+                        write("</" + qualifiedName(tag) + ">");
+                        inDataTypeTemplates = false;
+                        depth--;
+                        return true;
+                    }
+                    return false;
+                default:
+                    return false;
+            }
+        }
+
+        private void endTag(String tag) throws IOException, JAXBException {
+            if(isSuppressed()) {
+                if(depth == suppressedDepth) {
+                    suppressedDepth = -1;
+                }
+                depth--;
+                return;
+            }
+            if(depth == 1) {
+                flushSclBefore(SCL_SEQUENCE.size());
+            } else if(depth == 2 && inDataTypeTemplates) {
+                flushTypesBefore(DTT_SEQUENCE.size());
+                inDataTypeTemplates = false;
+            }
+            writeTag();
+            depth--;
+        }
+
+        /**
+         * Writes the edited elements which must come before an SCL child of the given rank and are not yet written
+         */
+        private void flushSclBefore(int rank) throws IOException, JAXBException {
+            if(rank > 0 && header != null && !headerWritten) {
+                marshal("Header", header);
+                headerWritten = true;
+            }
+            if(rank > 1 && !substations.isEmpty() && !substationsWritten) {
+                writeSubstations();
+            }
+            if(rank > 2 && communication != null && !communicationWritten) {
+                marshal("Communication", communication);
+                communicationWritten = true;
+            }
+            if(rank > 3 && !pendingIEDs.isEmpty()) {
+                for(TIED tied : pendingIEDs.values()) {
+                    marshal("IED", tied);
+                }
+                pendingIEDs.clear();
+            }
+            if(rank > 4 && dataTypeTemplates != null && !dataTypeTemplatesWritten) {
+                marshal("DataTypeTemplates", dataTypeTemplates);
+                dataTypeTemplatesWritten = true;
+            }
+        }
+
+        private void flushTypesBefore(int rank) throws IOException, JAXBException {
+            for(int i = 0; i < rank && i < pendingTypes.size(); i++) {
+                for(TIDNaming type : pendingTypes.get(i).values()) {
+                    marshal(DTT_SEQUENCE.get(i), type);
+                }
+                pendingTypes.get(i).clear();
+            }
+        }
+
+        private void writeSubstations() throws IOException, JAXBException {
+            if(!substationsWritten) {
+                for(TSubstation tSubstation : substations) {
+                    marshal("Substation", tSubstation);
+                }
+                substationsWritten = true;
+            }
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private void marshal(String name, Object element) throws JAXBException {
+            QName qName = new QName(CommonConstants.XML_DEFAULT_NS_URI, name);
+            marshaller.marshal(new JAXBElement(qName, element.getClass(), element), out);
+        }
+
+        private void suppress(boolean emptyElement) {
+            if(emptyElement) {
+                depth--;
+            } else {
+                suppressedDepth = depth;
+            }
+        }
+
+        private void closeIfEmpty(boolean emptyElement) {
+            if(emptyElement) {
+                depth--;
+            }
+        }
+
+        private boolean isSuppressed() {
+            return suppressedDepth >= 0;
+        }
+
+        /**
+         * Writes the pending bytes up to a buffer position, unless inside a replaced element
+         */
+        private void flushPending(int to) throws IOException {
+            if(to > copyFrom) {
+                if(capturing) {
+                    tagBytes.write(buffer, copyFrom, to - copyFrom);
+                } else if(!isSuppressed()) {
+                    out.write(buffer, copyFrom, to - copyFrom);
+                }
+            }
+            copyFrom = to;
+        }
+
+        private String endCapture() throws IOException {
+            flushPending(pos);
+            capturing = false;
+            return tagBytes.toString(charset.name());
+        }
+
+        /**
+         * Copies a captured markup start which isn't a tag, its remaining bytes being copied as pending bytes
+         */
+        private void releaseCapture() throws IOException {
+            flushPending(pos);
+            capturing = false;
+            if(!isSuppressed()) {
+                tagBytes.writeTo(out);
+            }
+        }
+
+        private void writeTag() throws IOException {
+            tagBytes.writeTo(out);
+        }
+
+        private void write(String s) throws IOException {
+            out.write(s.getBytes(charset));
+        }
+
+        /**
+         * Skips the text up to the next markup
+         * @return true if a '&lt;' has been read, false at the end of the original
+         */
+        private boolean skipToMarkup() throws IOException {
+            while(true) {
+                while(pos < limit) {
+                    if(buffer[pos++] == '<') {
+                        return true;
+                    }
+                }
+                if(!fill()) {
+                    return false;
+                }
+            }
+        }
+
+        /**
+         * Skips a comment, a CDATA section or a DOCTYPE, "&lt;!" being read
+         */
+        private void skipDeclaration() throws IOException {
+            int c = read();
+            if(c == '-') {
+                skipUntil('-', 2);
+            } else if(c == '[') {
+                skipUntil(']', 2);
+            } else {
+                // DOCTYPE, possibly with an internal subset
+                int brackets = 0;
+                while(c != '>' || brackets > 0) {
+                    if(c == '[') {
+                        brackets++;
+                    } else if(c == ']') {
+                        brackets--;
+                    }
+                    c = read();
+                }
+            }
+        }
+
+        /**
+         * Skips up to a terminator made of a repeated character followed by '&gt;' ("?&gt;", "--&gt;" or "]]&gt;")
+         * @param repeated repeated character
+         * @param count minimal count of repeated characters before '&gt;'
+         */
+        private void skipUntil(char repeated, int count) throws IOException {
+            int run = 0;
+            int c;
+            while((c = read()) != '>' || run < count) {
+                run = c == repeated ? run + 1 : 0;
+            }
+        }
+
+        /**
+         * Reads a start or end tag up to its closing '&gt;', which may not appear in attribute values
+         */
+        private void readTag() throws IOException {
+            int quote = 0;
+            int c;
+            do {
+                c = read();
+                if(quote == 0 && (c == '"' || c == '\'')) {
+                    quote = c;
+                } else if(c == quote) {
+                    quote = 0;
+                }
+            } while(c != '>' || quote != 0);
+        }
+
+        private int read() throws IOException {
+            if(pos == limit && !fill()) {
+                throw new IOException("Unexpected end of SCL");
+            }
+            return buffer[pos++] & 0xFF;
+        }
+
+        /**
+         * Refills the buffer once all its bytes are read, writing the pending ones first
+         * @return false at the end of the original
+         */
+        private boolean fill() throws IOException {
+            flushPending(pos);
+            int n;
+            do {
+                n = in.read(buffer, 0, buffer.length);
+            } while(n == 0);
+            if(n < 0) {
+                return false;
+            }
+            pos = 0;
+            copyFrom = 0;
+            limit = n;
+            return true;
+        }
+
+        private static String qualifiedName(String tag) {
+            int start = tag.startsWith("</") ? 2 : 1;
+            int end = start;
+            while(end < tag.length() && !Character.isWhitespace(tag.charAt(end))
+                    && tag.charAt(end) != '>' && tag.charAt(end) != '/') {
+                end++;
+            }
+            return tag.substring(start, end);
+        }
+
+        private static String localName(String tag) {
+            String qualifiedName = qualifiedName(tag);
+            return qualifiedName.substring(qualifiedName.indexOf(':') + 1);
+        }
+
+        private static int rankOf(List<String> sequence, String name) {
+            int rank = sequence.indexOf(name);
+            if(rank >= 0) {
+                return rank;
+            }
+            // Text and Private come first, the other elements (Line, Process, ...) come last
+            return "Text".equals(name) || "Private".equals(name) ? BEFORE_SEQUENCE : sequence.size();
+        }
+
+        /**
+         * Gives the value of an attribute of a start tag or XML declaration, walking through the attributes so
+         * that a name in another attribute's value is never taken for an attribute
+         * @param tag start tag or XML declaration
+         * @param attributeName exact attribute name
+         * @return the unescaped value, null if the tag has no such attribute
+         */
+        private static String attribute(String tag, String attributeName) {
+            int length = tag.length();
+            int i = tag.startsWith("<?") ? 2 : 1;
+            // skips the element name
+            while(i < length && !Character.isWhitespace(tag.charAt(i)) && tag.charAt(i) != '>') {
+                i++;
+            }
+            while(i < length) {
+                while(i < length && Character.isWhitespace(tag.charAt(i))) {
+                    i++;
+                }
+                int nameStart = i;
+                while(i < length && tag.charAt(i) != '=' && !Character.isWhitespace(tag.charAt(i))
+                        && tag.charAt(i) != '>' && tag.charAt(i) != '/') {
+                    i++;
+                }
+                String name = tag.substring(nameStart, i);
+                while(i < length && Character.isWhitespace(tag.charAt(i))) {
+                    i++;
+                }
+                if(name.isEmpty() || i >= length || tag.charAt(i) != '=') {
+                    return null;
+                }
+                i++;
+                while(i < length && Character.isWhitespace(tag.charAt(i))) {
+                    i++;
+                }
+                if(i >= length || (tag.charAt(i) != '"' && tag.charAt(i) != '\'')) {
+                    return null;
+                }
+                char quote = tag.charAt(i);
+                int valueEnd = tag.indexOf(quote, i + 1);
+                if(valueEnd < 0) {
+                    return null;
+                }
+                if(name.equals(attributeName)) {
+                    return tag.substring(i + 1, valueEnd).replace("&lt;", "<").replace("&gt;", ">")
+                            .replace("&quot;", "\"").replace("&apos;", "'").replace("&amp;", "&");
+                }
+                i = valueEnd + 1;
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.dto;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataPathTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "a", "a.b.c", "a..b", ".a", "a.b..", "a."})
+    void testSplit(String dottedName) {
+        assertArrayEquals(dottedName.split("\\."), DataPath.split(dottedName));
+    }
+
+    @Test
+    void testParse() {
+        DataPath path = DataPath.parse("da.bda1.bda2");
+        assertEquals(3, path.size());
+        assertEquals("da", path.getName());
+        assertEquals("bda2", path.getLast());
+        assertEquals("bda1", path.get(1));
+        assertEquals("da.bda1.bda2", path.toString());
+        assertEquals(Objects.hash("da", List.of("bda1", "bda2")), path.hashCode());
+
+        // interned : the same name gives the same path, extending shares the prefix
+        assertSame(path, DataPath.of("da").child("bda1").child("bda2"));
+        assertSame(path, DataPath.of("da", List.of("bda1", "bda2")));
+        assertSame(DataPath.parse("da.bda1"), path.remove(2));
+
+        DataPath withNull = DataPath.of(null).child(null);
+        assertEquals("null.null", withNull.toString());
+        assertEquals(withNull, DataPath.of(null).child(null));
+        assertNotEquals(withNull, DataPath.parse("null.null"));
+    }
+
+    @Test
+    void testUpdates() {
+        DataPath path = DataPath.parse("do.sdo1.sdo2");
+        assertEquals(DataPath.parse("do.sdo3.sdo2"), path.replace(1, "sdo3"));
+        assertEquals(DataPath.parse("do.sdo0.sdo1.sdo2"), path.insert(1, "sdo0"));
+        assertEquals(DataPath.parse("do.sdo2"), path.remove(1));
+        assertEquals(DataPath.parse("Do.sdo1.sdo2"), path.withName("Do"));
+        assertEquals(DataPath.parse("do.sdo"), path.withStructNames(List.of("sdo")));
+        assertEquals("do.sdo1.sdo2", path.toString());
+    }
+
+    @Test
+    void testDataTypeNameFacade() {
+        DaTypeName daTypeName = new DaTypeName("da.bda1");
+        List<String> structNames = daTypeName.getStructNames();
+        structNames.add("bda2");
+        assertEquals("da.bda1.bda2", daTypeName.toString());
+        structNames.set(0, "bda0");
+        assertEquals(List.of("bda0", "bda2"), daTypeName.getStructNames());
+        structNames.remove(0);
+        assertEquals(new ArrayList<>(List.of("bda2")), structNames);
+        structNames.clear();
+        assertEquals("da", daTypeName.toString());
+        assertTrue(daTypeName.getStructNames().isEmpty());
+
+        daTypeName.setStructNames(List.of("origin", "ctlVal"));
+        daTypeName.addStructName("bda");
+        daTypeName.setName("antRef");
+        assertEquals("antRef.origin.ctlVal.bda", daTypeName.toString());
+
+        DaTypeName copy = DaTypeName.from(daTypeName);
+        assertSame(daTypeName.getPath(), copy.getPath());
+        copy.addStructName("x");
+        assertEquals("antRef.origin.ctlVal.bda", daTypeName.toString());
+        assertEquals("x", copy.getLast());
+    }
+}
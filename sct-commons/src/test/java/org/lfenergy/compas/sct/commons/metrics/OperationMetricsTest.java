@@ -0,0 +1,47 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OperationMetricsTest {
+
+    @Test
+    void testRecord() {
+        OperationMetrics operationMetrics = new OperationMetrics("op");
+        operationMetrics.record(100L, 3L, false);
+        operationMetrics.record(1_000L, 0L, false);
+        operationMetrics.record(1_000_000L, 1L, true);
+
+        OperationSnapshot snapshot = operationMetrics.snapshot();
+        assertEquals("op", snapshot.getName());
+        assertEquals(3, snapshot.getCalls());
+        assertEquals(1, snapshot.getFailures());
+        assertEquals(4, snapshot.getElements());
+        assertEquals(1_001_100L, snapshot.getTotalNanos());
+        assertEquals(1_000_000L, snapshot.getMaxNanos());
+        assertEquals(1_001_100L / 3, snapshot.getMeanNanos());
+        // 1000 is in [512, 1024)
+        assertEquals(1024L, snapshot.getPercentileNanos(50));
+        assertEquals(1_000_000L, snapshot.getPercentileNanos(100));
+
+        operationMetrics.reset();
+        assertEquals(0, operationMetrics.snapshot().getCalls());
+        assertEquals(0, operationMetrics.snapshot().getPercentileNanos(50));
+    }
+
+    @Test
+    void testBucketOf() {
+        assertEquals(0, OperationMetrics.bucketOf(0L));
+        assertEquals(1, OperationMetrics.bucketOf(1L));
+        assertEquals(10, OperationMetrics.bucketOf(1023L));
+        assertEquals(11, OperationMetrics.bucketOf(1024L));
+        assertEquals(OperationMetrics.BUCKET_COUNT - 1, OperationMetrics.bucketOf(Long.MAX_VALUE));
+        assertEquals(1024L, OperationMetrics.bucketUpperBound(10));
+        assertEquals(Long.MAX_VALUE, OperationMetrics.bucketUpperBound(OperationMetrics.BUCKET_COUNT - 1));
+    }
+}
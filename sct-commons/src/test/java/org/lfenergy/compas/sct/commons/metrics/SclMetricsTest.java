@@ -0,0 +1,69 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.SclService;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SclMetricsTest {
+
+    @BeforeEach
+    void setUp() {
+        SclMetrics.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SclMetrics.setEnabled(true);
+    }
+
+    @Test
+    void testMeasure() throws Exception {
+        List<String> result = SclMetrics.measure(SclOperation.GET_DAI, () -> List.of("a", "b"), List::size);
+        assertEquals(2, result.size());
+        assertThrows(ScdException.class, () -> SclMetrics.measure(SclOperation.GET_DAI, () -> {
+            throw new ScdException("error");
+        }));
+
+        OperationSnapshot snapshot = SclMetrics.getSnapshot(SclOperation.GET_DAI);
+        assertEquals(SclOperation.GET_DAI.getMetricName(), snapshot.getName());
+        assertEquals(2, snapshot.getCalls());
+        assertEquals(1, snapshot.getFailures());
+        assertEquals(2, snapshot.getElements());
+        assertTrue(snapshot.getMaxNanos() >= snapshot.getMeanNanos());
+        assertTrue(snapshot.getPercentileNanos(99) <= snapshot.getMaxNanos());
+    }
+
+    @Test
+    void testMeasure_disabled() throws Exception {
+        SclMetrics.setEnabled(false);
+        SclMetrics.measure(SclOperation.UPDATE_DAI, () -> { });
+        assertEquals(0, SclMetrics.getSnapshot(SclOperation.UPDATE_DAI).getCalls());
+    }
+
+    @Test
+    void testExport() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SclService.getEnumTypeElements(scd, "RecCycModKind");
+
+        List<OperationSnapshot> exported = new ArrayList<>();
+        SclMetrics.export(exported::addAll);
+        assertEquals(1, exported.size());
+        assertEquals(SclOperation.GET_ENUM_TYPE_ELEMENTS.getMetricName(), exported.get(0).getName());
+        assertEquals(1, exported.get(0).getCalls());
+        assertTrue(exported.get(0).getElements() > 0);
+        assertDoesNotThrow(() -> SclMetrics.export(new LogMetricsSink()));
+    }
+}
@@ -0,0 +1,395 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.LN0;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TAccessPoint;
+import org.lfenergy.compas.scl2007b4.model.TDAI;
+import org.lfenergy.compas.scl2007b4.model.TDOI;
+import org.lfenergy.compas.scl2007b4.model.TDataSet;
+import org.lfenergy.compas.scl2007b4.model.TExtRef;
+import org.lfenergy.compas.scl2007b4.model.TFCDA;
+import org.lfenergy.compas.scl2007b4.model.TFCEnum;
+import org.lfenergy.compas.scl2007b4.model.TGSEControl;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.scl2007b4.model.TInputs;
+import org.lfenergy.compas.scl2007b4.model.TLDevice;
+import org.lfenergy.compas.scl2007b4.model.TLN;
+import org.lfenergy.compas.scl2007b4.model.TReportControl;
+import org.lfenergy.compas.scl2007b4.model.TSDI;
+import org.lfenergy.compas.scl2007b4.model.TServer;
+import org.lfenergy.compas.scl2007b4.model.TServiceType;
+import org.lfenergy.compas.sct.commons.dto.ExtRefBindingInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.ied.IEDAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.LDeviceAdapter;
+import org.lfenergy.compas.sct.commons.scl.ied.LNAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SclIndexTest {
+
+    @Test
+    void testFindIED() {
+        SCL scl = new SCL();
+        TIED tied = createIED("IED_NAME");
+        scl.getIED().add(tied);
+        SclIndex sclIndex = new SclIndex(scl);
+
+        assertSame(tied, sclIndex.findIED("IED_NAME").get());
+        assertTrue(sclIndex.findIED("UNKNOWN").isEmpty());
+
+        // direct modifications of the JAXB tree are caught up
+        TIED tied1 = createIED("IED_NAME1");
+        scl.getIED().add(tied1);
+        assertSame(tied1, sclIndex.findIED("IED_NAME1").get());
+
+        tied.setName("IED_NAME2");
+        assertTrue(sclIndex.findIED("IED_NAME").isEmpty());
+        assertSame(tied, sclIndex.findIED("IED_NAME2").get());
+
+        sclIndex.renameIED(tied, "IED_NAME2");
+        assertSame(tied, sclIndex.findIED("IED_NAME2").get());
+
+        // a miss is trusted while the IED count is unchanged, a stale hit rebuilds the level
+        tied1.setName("IED_NAME3");
+        assertTrue(sclIndex.findIED("IED_NAME3").isEmpty());
+        assertTrue(sclIndex.findIED("IED_NAME1").isEmpty());
+        assertSame(tied1, sclIndex.findIED("IED_NAME3").get());
+    }
+
+    @Test
+    void testFindLDeviceAndLN() {
+        SCL scl = new SCL();
+        TIED tied = createIED("IED_NAME");
+        scl.getIED().add(tied);
+        SclIndex sclIndex = new SclIndex(scl);
+
+        TLDevice tlDevice = sclIndex.findLDevice(tied, "LD_INST").orElseThrow();
+        assertTrue(sclIndex.findLDevice(tied, "UNKNOWN").isEmpty());
+
+        assertSame(tlDevice.getLN0(), sclIndex.findLN(tlDevice, "LLN0", "", "").get());
+        assertSame(tlDevice.getLN().get(0), sclIndex.findLN(tlDevice, "PIOC", "1", null).get());
+        assertSame(tlDevice.getLN().get(1), sclIndex.findLN(tlDevice, "PIOC", "1", "PRE").get());
+        assertTrue(sclIndex.findLN(tlDevice, "PIOC", "2", "").isEmpty());
+
+        TLN tln = createLN("PIOC", "2", "");
+        tlDevice.getLN().add(tln);
+        assertSame(tln, sclIndex.findLN(tlDevice, "PIOC", "2", "").get());
+    }
+
+    @Test
+    void testFindDOI() {
+        SCL scl = new SCL();
+        SclIndex sclIndex = new SclIndex(scl);
+        TLN tln = createLN("PIOC", "1", "");
+        TDOI tdoi = new TDOI();
+        tdoi.setName("Beh");
+        tln.getDOI().add(tdoi);
+
+        assertSame(tdoi, sclIndex.findDOI(tln, "Beh").get());
+        assertTrue(sclIndex.findDOI(tln, "Mod").isEmpty());
+
+        TDOI tdoi1 = new TDOI();
+        tdoi1.setName("Mod");
+        tln.getDOI().add(tdoi1);
+        sclIndex.registerDOI(tln, tdoi1);
+        assertSame(tdoi1, sclIndex.findDOI(tln, "Mod").get());
+    }
+
+    @Test
+    void testFindDAI() {
+        SclIndex sclIndex = new SclIndex(new SCL());
+        TLN tln = createLN("PIOC", "1", "");
+        TDOI tdoi = new TDOI();
+        tdoi.setName("Do");
+        tln.getDOI().add(tdoi);
+        TSDI sdo = createSDI("sdo1");
+        tdoi.getSDIOrDAI().add(sdo);
+        TSDI da = createSDI("da");
+        sdo.getSDIOrDAI().add(da);
+        TDAI bda = createDAI("bda");
+        da.getSDIOrDAI().add(bda);
+
+        assertSame(bda, sclIndex.findDAI(tln, List.of("Do", "sdo1", "da", "bda")).get());
+        assertTrue(sclIndex.findDAI(tln, List.of("Do", "sdo1", "da")).isEmpty());
+        assertTrue(sclIndex.findDAI(tln, List.of("Do", "sdo1", "bda")).isEmpty());
+        assertTrue(sclIndex.findDAI(tln, List.of("Do")).isEmpty());
+
+        // appended elements are seen, the first element of a name wins
+        TDAI stVal = createDAI("stVal");
+        tdoi.getSDIOrDAI().add(stVal);
+        tdoi.getSDIOrDAI().add(createDAI("stVal"));
+        assertSame(stVal, sclIndex.findDAI(tln, List.of("Do", "stVal")).get());
+
+        // renamed elements are not found under their old name
+        bda.setName("bda1");
+        assertTrue(sclIndex.findDAI(tln, List.of("Do", "sdo1", "da", "bda")).isEmpty());
+        assertSame(bda, sclIndex.findDAI(tln, List.of("Do", "sdo1", "da", "bda1")).get());
+    }
+
+    @Test
+    void testFindDataSetAndControlBlocks() {
+        SclIndex sclIndex = new SclIndex(new SCL());
+        LN0 ln0 = new LN0();
+        TDataSet tDataSet = new TDataSet();
+        tDataSet.setName("dataSet1");
+        ln0.getDataSet().add(tDataSet);
+        TReportControl rpt1 = createReportControl("rpt1", "dataSet1");
+        TReportControl rpt2 = createReportControl("rpt2", "dataSet2");
+        TReportControl rpt3 = createReportControl("rpt3", "dataSet1");
+        ln0.getReportControl().addAll(List.of(rpt1, rpt2, rpt3));
+        TGSEControl goose1 = new TGSEControl();
+        goose1.setName("goose1");
+        goose1.setDatSet("dataSet1");
+        ln0.getGSEControl().add(goose1);
+
+        assertSame(tDataSet, sclIndex.findDataSet(ln0, "dataSet1").get());
+        assertTrue(sclIndex.findDataSet(ln0, "dataSet2").isEmpty());
+        assertEquals(List.of(rpt1, rpt3), sclIndex.findControlBlocks(ln0, TServiceType.REPORT, "dataSet1"));
+        assertEquals(List.of(goose1), sclIndex.findControlBlocks(ln0, TServiceType.GOOSE, "dataSet1"));
+        assertTrue(sclIndex.findControlBlocks(ln0, TServiceType.SMV, "dataSet1").isEmpty());
+        assertTrue(sclIndex.findControlBlocks(createLN("PIOC", "1", ""), TServiceType.GOOSE, "dataSet1").isEmpty());
+
+        // registered and directly added elements are seen
+        TDataSet tDataSet2 = new TDataSet();
+        tDataSet2.setName("dataSet2");
+        ln0.getDataSet().add(tDataSet2);
+        sclIndex.registerDataSet(ln0, tDataSet2);
+        assertSame(tDataSet2, sclIndex.findDataSet(ln0, "dataSet2").get());
+        TReportControl rpt4 = createReportControl("rpt4", "dataSet2");
+        ln0.getReportControl().add(rpt4);
+        sclIndex.registerControlBlock(ln0, TServiceType.REPORT, rpt4);
+        assertEquals(List.of(rpt2, rpt4), sclIndex.findControlBlocks(ln0, TServiceType.REPORT, "dataSet2"));
+        TReportControl rpt5 = createReportControl("rpt5", "dataSet1");
+        ln0.getReportControl().add(rpt5);
+        assertEquals(List.of(rpt1, rpt3, rpt5), sclIndex.findControlBlocks(ln0, TServiceType.REPORT, "dataSet1"));
+
+        // control blocks moved to another DataSet are not found under the old one
+        rpt1.setDatSet("dataSet2");
+        assertEquals(List.of(rpt3, rpt5), sclIndex.findControlBlocks(ln0, TServiceType.REPORT, "dataSet1"));
+        assertEquals(List.of(rpt1, rpt2, rpt4), sclIndex.findControlBlocks(ln0, TServiceType.REPORT, "dataSet2"));
+
+        // a miss is trusted while the control block count is unchanged
+        rpt2.setDatSet("dataSet3");
+        assertTrue(sclIndex.findControlBlocks(ln0, TServiceType.REPORT, "dataSet3").isEmpty());
+        assertEquals(List.of(rpt1, rpt4), sclIndex.findControlBlocks(ln0, TServiceType.REPORT, "dataSet2"));
+        assertEquals(List.of(rpt2), sclIndex.findControlBlocks(ln0, TServiceType.REPORT, "dataSet3"));
+    }
+
+    @Test
+    void testFindDataSets() {
+        SclIndex sclIndex = new SclIndex(new SCL());
+        LN0 ln0 = new LN0();
+        String[] lnClasses = {null, "LLN0", "PIOC"};
+        String[] values = {null, "", "A", "B"};
+        int count = 0;
+        for(String lnClass : lnClasses) {
+            for(String value : values) {
+                for(String otherValue : values) {
+                    TFCDA tfcda = new TFCDA();
+                    tfcda.setLdInst(value);
+                    if(lnClass != null) {
+                        tfcda.getLnClass().add(lnClass);
+                    }
+                    tfcda.setLnInst(otherValue);
+                    tfcda.setPrefix(value);
+                    tfcda.setDoName(otherValue);
+                    tfcda.setDaName(value);
+                    tfcda.setFc(count % 2 == 0 ? TFCEnum.ST : null);
+                    TDataSet tDataSet = new TDataSet();
+                    tDataSet.setName("dataSet" + count++);
+                    tDataSet.getFCDA().add(tfcda);
+                    ln0.getDataSet().add(tDataSet);
+                }
+            }
+        }
+
+        // same answer as a filter on matchFCDA
+        List<ExtRefInfo> filters = new ArrayList<>();
+        for(String lnClass : lnClasses) {
+            for(String value : values) {
+                for(String otherValue : values) {
+                    filters.add(createExtRefInfo(lnClass, value, otherValue));
+                }
+            }
+        }
+        for(ExtRefInfo filter : filters) {
+            List<TDataSet> expected = ln0.getDataSet().stream()
+                    .filter(tDataSet -> tDataSet.getFCDA().stream().anyMatch(filter::matchFCDA))
+                    .collect(Collectors.toList());
+            assertEquals(expected, sclIndex.findDataSets(ln0, filter));
+        }
+        assertFalse(sclIndex.findDataSets(ln0, createExtRefInfo("PIOC", "A", "A")).isEmpty());
+
+        // appended FCDAs are seen
+        TDataSet lastDataSet = ln0.getDataSet().get(ln0.getDataSet().size() - 1);
+        ExtRefInfo filterC = createExtRefInfo("PIOC", "C", "A");
+        assertFalse(sclIndex.findDataSets(ln0, filterC).contains(lastDataSet));
+        TFCDA tfcda = new TFCDA();
+        tfcda.setLdInst("C");
+        lastDataSet.getFCDA().add(tfcda);
+        assertTrue(sclIndex.findDataSets(ln0, filterC).contains(lastDataSet));
+    }
+
+    @Test
+    void testFindExtRefs() {
+        SclIndex sclIndex = new SclIndex(new SCL());
+        LN0 ln0 = new LN0();
+        ExtRefSignalInfo signalInfo = createSignalInfo("Do1", "da1");
+        assertTrue(sclIndex.findExtRefs(ln0, signalInfo, true).isEmpty());
+
+        ln0.setInputs(new TInputs());
+        TExtRef extRef1 = ExtRefSignalInfo.initExtRef(signalInfo);
+        TExtRef extRef2 = ExtRefSignalInfo.initExtRef(createSignalInfo("Do1", "da2"));
+        TExtRef extRef3 = ExtRefSignalInfo.initExtRef(signalInfo);
+        ln0.getInputs().getExtRef().addAll(List.of(extRef1, extRef2, extRef3));
+
+        assertEquals(List.of(extRef1, extRef3), sclIndex.findExtRefs(ln0, signalInfo, true));
+        assertEquals(List.of(extRef1, extRef2, extRef3), sclIndex.findExtRefs(ln0, signalInfo, false));
+        assertTrue(sclIndex.findExtRefs(ln0, createSignalInfo("Do2", "da1"), true).isEmpty());
+        // a null desc stands for an empty one
+        signalInfo.setDesc(null);
+        assertEquals(List.of(extRef1, extRef3), sclIndex.findExtRefs(ln0, signalInfo, true));
+
+        // rebinding leaves the index valid, signals changed behind our back are caught up
+        extRef1.setIedName("IED_NAME");
+        extRef1.setServiceType(TServiceType.GOOSE);
+        assertEquals(List.of(extRef1, extRef3), sclIndex.findExtRefs(ln0, signalInfo, true));
+        extRef3.setPDA("da2");
+        assertEquals(List.of(extRef1), sclIndex.findExtRefs(ln0, signalInfo, true));
+        assertEquals(List.of(extRef2, extRef3),
+                sclIndex.findExtRefs(ln0, createSignalInfo("Do1", "da2"), true));
+    }
+
+    @Test
+    void testFreeze() {
+        SCL scl = new SCL();
+        TIED tied = createIED("IED_NAME");
+        scl.getIED().add(tied);
+        TLDevice tlDevice = tied.getAccessPoint().get(0).getServer().getLDevice().get(0);
+        TLN tln = tlDevice.getLN().get(0);
+        TDOI tdoi = new TDOI();
+        tdoi.setName("Do");
+        tln.getDOI().add(tdoi);
+        TDAI tdai = createDAI("stVal");
+        tdoi.getSDIOrDAI().add(tdai);
+        SclIndex sclIndex = new SclIndex(scl);
+        sclIndex.freeze();
+        assertTrue(sclIndex.isFrozen());
+
+        assertSame(tied, sclIndex.findIED("IED_NAME").get());
+        assertSame(tlDevice, sclIndex.findLDevice(tied, "LD_INST").get());
+        assertSame(tln, sclIndex.findLN(tlDevice, "PIOC", "1", "").get());
+        assertSame(tdoi, sclIndex.findDOI(tln, "Do").get());
+        assertSame(tdai, sclIndex.findDAI(tln, List.of("Do", "stVal")).get());
+        assertTrue(sclIndex.findDAI(tln, List.of("Do", "q")).isEmpty());
+
+        // the SCL is no longer tracked
+        scl.getIED().add(createIED("IED_NAME1"));
+        assertTrue(sclIndex.findIED("IED_NAME1").isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> sclIndex.registerIED(scl.getIED().get(1)));
+        assertThrows(UnsupportedOperationException.class, () -> sclIndex.renameIED(tied, "IED_NAME"));
+        assertThrows(UnsupportedOperationException.class, () -> sclIndex.registerDOI(tln, new TDOI()));
+        assertThrows(UnsupportedOperationException.class, () -> sclIndex.registerDataSet(tln, new TDataSet()));
+
+        // elements foreign to the frozen SCL are still looked up, without being indexed
+        TIED tied2 = createIED("IED_NAME2");
+        assertTrue(sclIndex.findLDevice(tied2, "LD_INST").isPresent());
+    }
+
+    @Test
+    void testAdaptersUseIndex() throws ScdException {
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hID", "hVersion", "hRevision");
+        TIED tied = createIED("IED_NAME");
+        sclRootAdapter.getCurrentElem().getIED().add(tied);
+
+        IEDAdapter iedAdapter = sclRootAdapter.getIEDAdapterByName("IED_NAME");
+        iedAdapter.setIEDName("IED_NAME1");
+        assertThrows(ScdException.class, () -> sclRootAdapter.getIEDAdapterByName("IED_NAME"));
+        iedAdapter = sclRootAdapter.getIEDAdapterByName("IED_NAME1");
+
+        LDeviceAdapter lDeviceAdapter = iedAdapter.getLDeviceAdapterByLdInst("LD_INST").orElseThrow();
+        LNAdapter lnAdapter = lDeviceAdapter.getLNAdapter("PIOC", "1", "PRE");
+        assertEquals("PRE", lnAdapter.getPrefix());
+        assertThrows(ScdException.class, () -> lDeviceAdapter.getLNAdapter("LLN0", "", ""));
+    }
+
+    private static TIED createIED(String iedName) {
+        TIED tied = new TIED();
+        tied.setName(iedName);
+        TAccessPoint tAccessPoint = new TAccessPoint();
+        tAccessPoint.setName("AP_NAME");
+        TServer tServer = new TServer();
+        TLDevice tlDevice = new TLDevice();
+        tlDevice.setInst("LD_INST");
+        tlDevice.setLN0(new LN0());
+        tlDevice.getLN().add(createLN("PIOC", "1", ""));
+        tlDevice.getLN().add(createLN("PIOC", "1", "PRE"));
+        tServer.getLDevice().add(tlDevice);
+        tAccessPoint.setServer(tServer);
+        tied.getAccessPoint().add(tAccessPoint);
+        return tied;
+    }
+
+    private static TLN createLN(String lnClass, String lnInst, String prefix) {
+        TLN tln = new TLN();
+        tln.getLnClass().add(lnClass);
+        tln.setInst(lnInst);
+        tln.setPrefix(prefix);
+        return tln;
+    }
+
+    private static TSDI createSDI(String name) {
+        TSDI tsdi = new TSDI();
+        tsdi.setName(name);
+        return tsdi;
+    }
+
+    private static TDAI createDAI(String name) {
+        TDAI tdai = new TDAI();
+        tdai.setName(name);
+        return tdai;
+    }
+
+    private static ExtRefSignalInfo createSignalInfo(String pDO, String pDA) {
+        ExtRefSignalInfo signalInfo = new ExtRefSignalInfo();
+        signalInfo.setPDO(pDO);
+        signalInfo.setPDA(pDA);
+        signalInfo.setIntAddr("INT_ADDR");
+        signalInfo.setPServT(TServiceType.GOOSE);
+        return signalInfo;
+    }
+
+    private static ExtRefInfo createExtRefInfo(String lnClass, String value, String otherValue) {
+        ExtRefBindingInfo bindingInfo = new ExtRefBindingInfo();
+        bindingInfo.setLdInst(value);
+        bindingInfo.setLnClass(lnClass);
+        bindingInfo.setLnInst(otherValue);
+        bindingInfo.setPrefix(value);
+        ExtRefSignalInfo signalInfo = new ExtRefSignalInfo();
+        signalInfo.setPDO(otherValue);
+        signalInfo.setPDA(value);
+        ExtRefInfo extRefInfo = new ExtRefInfo();
+        extRefInfo.setBindingInfo(bindingInfo);
+        extRefInfo.setSignalInfo(signalInfo);
+        return extRefInfo;
+    }
+
+    private static TReportControl createReportControl(String name, String datSet) {
+        TReportControl tReportControl = new TReportControl();
+        tReportControl.setName(name);
+        tReportControl.setDatSet(datSet);
+        return tReportControl;
+    }
+}
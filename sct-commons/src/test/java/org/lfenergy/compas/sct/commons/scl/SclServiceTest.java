@@ -16,10 +16,13 @@ import org.lfenergy.compas.sct.commons.scl.ied.LN0Adapter;
 import org.lfenergy.compas.sct.commons.testhelpers.MarshallerWrapper;
 import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -57,7 +60,48 @@ class SclServiceTest {
         assertNotNull(sclRootAdapter.getCurrentElem().getDataTypeTemplates());
 
         MarshallerWrapper marshallerWrapper = SclTestMarshaller.createWrapper();
-        System.out.println(marshallerWrapper.marshall(scd));
+        // importing the templates must not create empty count attributes in the SCD nor in the ICD
+        assertFalse(marshallerWrapper.marshall(scd).contains("count=\"\""));
+        assertFalse(marshallerWrapper.marshall(icd).contains("count=\"\""));
+    }
+
+    @Test
+    void testAddIEDs() throws Exception {
+        SCL scd = new SclRootAdapter("hId",SclRootAdapter.VERSION,SclRootAdapter.REVISION).getCurrentElem();
+        SCL seqScd = new SclRootAdapter("hId",SclRootAdapter.VERSION,SclRootAdapter.REVISION).getCurrentElem();
+        Map<String, SCL> icds = new HashMap<>();
+        // addIEDs merges in IED name order, so the one by one import follows that order
+        for(String iedName : List.of("IED_NAME1", "IED_NAME2", "IED_NAME3")) {
+            String file = "/scl-srv-import-ieds/ied_" + iedName.charAt(iedName.length() - 1) + "_test.xml";
+            icds.put(iedName, SclTestMarshaller.getSCLFromFile(file));
+            SclService.addIED(seqScd, iedName, SclTestMarshaller.getSCLFromFile(file));
+        }
+
+        List<IEDAdapter> iedAdapters = assertDoesNotThrow(() -> SclService.addIEDs(scd, icds));
+        assertEquals(List.of("IED_NAME1", "IED_NAME2", "IED_NAME3"),
+                iedAdapters.stream().map(IEDAdapter::getName).collect(Collectors.toList()));
+        assertEquals("IED_NAME1LD_INST11", iedAdapters.get(0).getLDeviceAdapterByLdInst("LD_INST11").get().getLdName());
+
+        // same SCD as one by one import : templates, their ids and the lnType of the LNs
+        MarshallerWrapper marshallerWrapper = SclTestMarshaller.createWrapper();
+        assertEquals(marshallerWrapper.marshall(seqScd), marshallerWrapper.marshall(scd));
+        Set<String> lNodeTypeIds = scd.getDataTypeTemplates().getLNodeType().stream()
+                .map(TLNodeType::getId)
+                .collect(Collectors.toSet());
+        for(IEDAdapter iedAdapter : iedAdapters) {
+            for(LDeviceAdapter lDeviceAdapter : iedAdapter.getLDeviceAdapters()) {
+                TLDevice tlDevice = lDeviceAdapter.getCurrentElem();
+                assertTrue(lNodeTypeIds.contains(tlDevice.getLN0().getLnType()));
+                tlDevice.getLN().forEach(tln -> assertTrue(lNodeTypeIds.contains(tln.getLnType())));
+            }
+        }
+
+        assertThrows(ScdException.class,
+                () -> SclService.addIEDs(scd, Map.of("IED_NAME1", SclTestMarshaller.getSCLFromFile(
+                        "/scl-srv-import-ieds/ied_1_test.xml"))));
+        SCL icd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        assertThrows(ScdException.class, () -> SclService.addIEDs(scd, Map.of("IED_NAME4", icd, "IED_NAME5", icd)));
+        assertEquals(3, scd.getIED().size());
     }
 
     @Test
@@ -254,6 +298,82 @@ class SclServiceTest {
     }
 
 
+    @Test
+    void testUpdateExtRefsSources() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-scd-extref-cb/scd_get_cbs_test.xml");
+        List<ExtRefInfo> extRefInfos = List.of(
+                createSourceExtRefInfo("LD_INST21", "INT_ADDR21", "goose1"),
+                createSourceExtRefInfo("LD_INST21", "INT_ADDR21", "unknown_cb"),
+                createSourceExtRefInfo("LD_INST21", "INT_ADDR21", "smv1"),
+                createSourceExtRefInfo("UNKNOWN_LD", "INT_ADDR21", "goose1"),
+                createSourceExtRefInfo("LD_INST21", "UNKNOWN_INT_ADDR", "goose1")
+        );
+
+        List<UpdateResult<ExtRefInfo>> results = SclService.updateExtRefsSources(scd, extRefInfos);
+
+        assertEquals(List.of(true, false, true, false, false),
+                results.stream().map(UpdateResult::isSuccess).collect(Collectors.toList()));
+        for(int i = 0; i < results.size(); i++) {
+            assertSame(extRefInfos.get(i), results.get(i).getItem());
+        }
+        assertTrue(results.get(1).getErrorMessage().contains("unknown_cb"));
+        assertTrue(results.get(3).getErrorMessage().contains("UNKNOWN_LD"));
+        assertTrue(results.get(4).getErrorMessage().contains("UNKNOWN_INT_ADDR"));
+
+        TExtRef extRef = new SclRootAdapter(scd).getIEDAdapterByName("IED_NAME2")
+                .getLDeviceAdapterByLdInst("LD_INST21").orElseThrow()
+                .getLN0Adapter().getExtRefs(null).get(0);
+        assertEquals("smv1", extRef.getSrcCBName());
+    }
+
+    @Test
+    void testUpdateExtRefsBinders() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-scd-extref-cb/scd_get_cbs_test.xml");
+        ExtRefInfo unknownExtRef = createSourceExtRefInfo("LD_INST21", "UNKNOWN_INT_ADDR", null);
+        ExtRefInfo noBinding = createSourceExtRefInfo("LD_INST21", "INT_ADDR21", null);
+        noBinding.setBindingInfo(null);
+        ExtRefInfo extRefInfo = createSourceExtRefInfo("LD_INST21", "INT_ADDR21", null);
+        extRefInfo.getBindingInfo().setLdInst("LD_INST11");
+
+        List<UpdateResult<ExtRefInfo>> results = SclService.updateExtRefsBinders(scd,
+                List.of(unknownExtRef, noBinding, extRefInfo));
+
+        assertEquals(List.of(false, false, true),
+                results.stream().map(UpdateResult::isSuccess).collect(Collectors.toList()));
+        TExtRef extRef = new SclRootAdapter(scd).getIEDAdapterByName("IED_NAME2")
+                .getLDeviceAdapterByLdInst("LD_INST21").orElseThrow()
+                .getLN0Adapter().getExtRefs(null).get(0);
+        assertEquals("LD_INST11", extRef.getLdInst());
+    }
+
+    private static ExtRefInfo createSourceExtRefInfo(String holderLdInst, String intAddr, String srcCBName) {
+        ExtRefInfo extRefInfo = new ExtRefInfo();
+        extRefInfo.setHolderIEDName("IED_NAME2");
+        extRefInfo.setHolderLDInst(holderLdInst);
+        extRefInfo.setHolderLnClass(TLLN0Enum.LLN_0.value());
+
+        ExtRefSignalInfo signalInfo = new ExtRefSignalInfo();
+        signalInfo.setIntAddr(intAddr);
+        signalInfo.setPDO("Do21.sdo21");
+        signalInfo.setPDA("da21.bda211.bda212.bda213");
+        extRefInfo.setSignalInfo(signalInfo);
+
+        ExtRefBindingInfo bindingInfo = new ExtRefBindingInfo();
+        bindingInfo.setIedName("IED_NAME1");
+        bindingInfo.setLdInst("LD_INST12");
+        bindingInfo.setLnClass(TLLN0Enum.LLN_0.value());
+        extRefInfo.setBindingInfo(bindingInfo);
+
+        if(srcCBName != null) {
+            ExtRefSourceInfo sourceInfo = new ExtRefSourceInfo();
+            sourceInfo.setSrcLDInst(bindingInfo.getLdInst());
+            sourceInfo.setSrcLNClass(bindingInfo.getLnClass());
+            sourceInfo.setSrcCBName(srcCBName);
+            extRefInfo.setSourceInfo(sourceInfo);
+        }
+        return extRefInfo;
+    }
+
     private ExtRefSignalInfo createSignalInfo(String pDO, String pDA, String intAddr){
 
         final String DESC = "DESC";
@@ -341,6 +461,73 @@ class SclServiceTest {
 
     }
 
+    @Test
+    void testFindDanglingObjRefs() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/scd_with_dai_test.xml");
+        assertTrue(SclService.findDanglingObjRefs(scd).isEmpty());
+
+        TVal tVal = new TVal();
+        tVal.setValue("IED_NAMELDSUIED/LLN0.Unknown");
+        TDAI tdai = new TDAI();
+        tdai.setName("setSrcRef");
+        tdai.getVal().add(tVal);
+        TDOI tdoi = new TDOI();
+        tdoi.setName("InRef1");
+        tdoi.getSDIOrDAI().add(tdai);
+        scd.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().get(0).getLN0().getDOI().add(tdoi);
+
+        List<DanglingObjRef> danglingObjRefs = SclService.findDanglingObjRefs(scd);
+        assertEquals(1, danglingObjRefs.size());
+        assertEquals("IED_NAMELDSUIED/LLN0.Unknown", danglingObjRefs.get(0).getObjRef());
+        assertThrows(ScdException.class,
+                () -> new SclRootAdapter(scd).checkObjRef(danglingObjRefs.get(0).getObjRef()));
+    }
+
+    @Test
+    void testUpdateDAIs() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/scd_with_dai_test.xml");
+        List<DAIUpdate> daiUpdates = List.of(
+                new DAIUpdate("IED_NAME", "LDSUIED", createSetValRDtt("LN1", "200")),
+                new DAIUpdate("IED_NAME", "LDSUIED", createSetValRDtt("LN1", "2000")),
+                new DAIUpdate("IED_NAME", "LDSUIED", createSetValRDtt("LN1", "7")),
+                new DAIUpdate("IED_NAME", "UNKNOWN_LD", createSetValRDtt("LN1", "300")),
+                new DAIUpdate("IED_NAME", "LDSUIED", createSetValRDtt("UNKNOWN_TYPE", "300")),
+                new DAIUpdate("IED_NAME", "LDSUIED", createSetValRDtt("LN1", "300"))
+        );
+
+        List<UpdateResult<DAIUpdate>> results = SclService.updateDAIs(scd, daiUpdates);
+
+        assertEquals(6, results.size());
+        assertEquals(List.of(true, false, false, false, false, true),
+                results.stream().map(UpdateResult::isSuccess).collect(Collectors.toList()));
+        for(int i = 0; i < results.size(); i++) {
+            assertSame(daiUpdates.get(i), results.get(i).getItem());
+        }
+        assertTrue(results.get(3).getErrorMessage().contains("UNKNOWN_LD"));
+        assertTrue(results.get(4).getErrorMessage().contains("UNKNOWN_TYPE"));
+
+        Set<ResumedDataTemplate> dais = SclService.getDAI(scd, "IED_NAME", "LDSUIED",
+                createSetValRDtt("LN1", null), true);
+        assertTrue(dais.stream().anyMatch(rDtt -> "300".equals(rDtt.getDaName().getDaiValues().get(0L))));
+    }
+
+    private static ResumedDataTemplate createSetValRDtt(String lnType, String value) {
+        ResumedDataTemplate rDtt = new ResumedDataTemplate();
+        rDtt.setLnType(lnType);
+        rDtt.setLnClass("PIOC");
+        rDtt.setLnInst("1");
+        DoTypeName doTypeName = new DoTypeName("OpnDurTmms");
+        doTypeName.setCdc(TPredefinedCDCEnum.ING);
+        rDtt.setDoName(doTypeName);
+        rDtt.setDaName(new DaTypeName("setVal"));
+        if(value != null) {
+            TVal tVal = new TVal();
+            tVal.setValue(value);
+            rDtt.setDaiValues(List.of(tVal));
+        }
+        return rDtt;
+    }
+
     @Test
     void testGetEnumTypeElements() throws Exception {
         SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
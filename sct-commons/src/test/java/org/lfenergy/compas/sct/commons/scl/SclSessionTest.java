@@ -0,0 +1,186 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TDataSet;
+import org.lfenergy.compas.scl2007b4.model.TFCDA;
+import org.lfenergy.compas.scl2007b4.model.TFCEnum;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.scl2007b4.model.TLogSettings;
+import org.lfenergy.compas.scl2007b4.model.TPredefinedBasicTypeEnum;
+import org.lfenergy.compas.scl2007b4.model.TServiceSettingsEnum;
+import org.lfenergy.compas.scl2007b4.model.TServices;
+import org.lfenergy.compas.scl2007b4.model.TVal;
+import org.lfenergy.compas.sct.commons.dto.DaTypeName;
+import org.lfenergy.compas.sct.commons.dto.DataSetInfo;
+import org.lfenergy.compas.sct.commons.dto.DoTypeName;
+import org.lfenergy.compas.sct.commons.dto.ExtRefBindingInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSourceInfo;
+import org.lfenergy.compas.sct.commons.dto.ResumedDataTemplate;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SclSessionTest {
+
+    @Test
+    void testConcurrentEdits() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-scd-extref-cb/scd_get_cbs_test.xml");
+        SclSession sclSession = new SclSession(scd);
+        int extRefCount = sclSession.getExtRefInfo("IED_NAME1", "LD_INST12").size();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Object>> operations = new ArrayList<>();
+            for(int i = 0; i < 16; i++) {
+                String srcCBName = i % 2 == 0 ? "goose1" : "smv1";
+                // cross-IED operations, locking IED_NAME1 and IED_NAME2
+                operations.add(() -> sclSession.updateExtRefSource(createExtRefInfo(srcCBName)));
+                operations.add(() -> sclSession.getExtRefSourceInfo(createExtRefInfo(null)));
+                // single IED operations
+                operations.add(() -> sclSession.getExtRefInfo("IED_NAME1", "LD_INST12"));
+                operations.add(() -> sclSession.getExtRefInfo("IED_NAME2", "LD_INST21"));
+            }
+            for(Future<Object> result : executorService.invokeAll(operations, 30, TimeUnit.SECONDS)) {
+                assertNotNull(result.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertEquals(extRefCount, sclSession.getExtRefInfo("IED_NAME1", "LD_INST12").size());
+        ExtRefInfo extRefInfo = sclSession.updateExtRefSource(createExtRefInfo("goose1"));
+        assertEquals("goose1", extRefInfo.getSourceInfo().getSrcCBName());
+        assertThrows(ScdException.class, () -> sclSession.updateExtRefSource(createExtRefInfo("rpt1")));
+        assertThrows(ScdException.class, () -> sclSession.getExtRefInfo("UNKNOWN_IED", "LD_INST12"));
+        assertThrows(ScdException.class, () -> sclSession.getExtRefInfo(null, "LD_INST12"));
+    }
+
+    // the bType of the DAI is often left unset by the caller and taken from the DataTypeTemplates
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void testConcurrentObjRefUpdates(boolean withBType) throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/scd_with_dai_test.xml");
+        TIED tied = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/scd_with_dai_test.xml").getIED().get(0);
+        tied.setName("IED_NAME2");
+        TServices tServices = new TServices();
+        tServices.setLogSettings(new TLogSettings());
+        tServices.getLogSettings().setDatSet(TServiceSettingsEnum.CONF);
+        tied.setServices(tServices);
+        scd.getIED().add(tied);
+        SclSession sclSession = new SclSession(scd);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Object>> operations = new ArrayList<>();
+            for(int i = 0; i < 16; i++) {
+                String dataSetName = "dataSet" + i;
+                // the OBJ_REF check reads the DataSets of IED_NAME2 while they are created
+                operations.add(() -> {
+                    sclSession.updateDAI("IED_NAME", "LDSUIED", createObjRefRDtt("IED_NAME2LDTM/LLN0.InRef1", withBType));
+                    return "IED_NAME";
+                });
+                operations.add(() -> {
+                    sclSession.createDataSet("IED_NAME2", createDataSetInfo(dataSetName));
+                    return dataSetName;
+                });
+            }
+            for(Future<Object> result : executorService.invokeAll(operations, 30, TimeUnit.SECONDS)) {
+                assertNotNull(result.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        assertEquals(16, tied.getAccessPoint().get(0).getServer().getLDevice().get(1).getLN0().getDataSet().size());
+        assertThrows(ScdException.class, () -> sclSession.updateDAI("IED_NAME", "LDSUIED",
+                createObjRefRDtt("IED_NAME3LDTM/LLN0.InRef1", withBType)));
+    }
+
+    @Test
+    void testAddIED() throws Exception {
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION);
+        SclSession sclSession = new SclSession(sclRootAdapter.getCurrentElem());
+        assertThrows(ScdException.class, () -> sclSession.getExtRefInfo("IED_NAME1", "LD_INST12"));
+
+        sclSession.addIED("IED_NAME1", SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml"));
+
+        assertFalse(sclSession.getExtRefInfo("IED_NAME1", "LD_INST12").isEmpty());
+    }
+
+    private static ResumedDataTemplate createObjRefRDtt(String objRef, boolean withBType) {
+        ResumedDataTemplate rDtt = new ResumedDataTemplate();
+        rDtt.setLnType("LN2");
+        rDtt.setLnClass(TLLN0Enum.LLN_0.value());
+        rDtt.setDoName(new DoTypeName("InRef1"));
+        rDtt.setDaName(new DaTypeName("setSrcRef"));
+        rDtt.getDaName().setFc(TFCEnum.SP);
+        rDtt.getDaName().setValImport(true);
+        if(withBType) {
+            rDtt.setBType(TPredefinedBasicTypeEnum.OBJ_REF.value());
+        }
+        TVal tVal = new TVal();
+        tVal.setValue(objRef);
+        rDtt.setDaiValues(List.of(tVal));
+        return rDtt;
+    }
+
+    private static DataSetInfo createDataSetInfo(String name) {
+        TDataSet tDataSet = new TDataSet();
+        tDataSet.setName(name);
+        TFCDA tfcda = new TFCDA();
+        tfcda.setFc(TFCEnum.ST);
+        tDataSet.getFCDA().add(tfcda);
+        DataSetInfo dataSetInfo = DataSetInfo.from(tDataSet);
+        dataSetInfo.setHolderIEDName("IED_NAME2");
+        dataSetInfo.setHolderLDInst("LDTM");
+        dataSetInfo.setHolderLnClass(TLLN0Enum.LLN_0.value());
+        return dataSetInfo;
+    }
+
+    private static ExtRefInfo createExtRefInfo(String srcCBName) {
+        ExtRefInfo extRefInfo = new ExtRefInfo();
+        extRefInfo.setHolderIEDName("IED_NAME2");
+        extRefInfo.setHolderLDInst("LD_INST21");
+        extRefInfo.setHolderLnClass(TLLN0Enum.LLN_0.value());
+
+        ExtRefSignalInfo signalInfo = new ExtRefSignalInfo();
+        signalInfo.setIntAddr("INT_ADDR21");
+        signalInfo.setPDO("Do21.sdo21");
+        signalInfo.setPDA("da21.bda211.bda212.bda213");
+        extRefInfo.setSignalInfo(signalInfo);
+
+        ExtRefBindingInfo bindingInfo = new ExtRefBindingInfo();
+        bindingInfo.setIedName("IED_NAME1");
+        bindingInfo.setLdInst("LD_INST12");
+        bindingInfo.setLnClass(TLLN0Enum.LLN_0.value());
+        extRefInfo.setBindingInfo(bindingInfo);
+
+        if(srcCBName != null) {
+            ExtRefSourceInfo sourceInfo = new ExtRefSourceInfo();
+            sourceInfo.setSrcLDInst(bindingInfo.getLdInst());
+            sourceInfo.setSrcLNClass(bindingInfo.getLnClass());
+            sourceInfo.setSrcCBName(srcCBName);
+            extRefInfo.setSourceInfo(sourceInfo);
+        }
+        return extRefInfo;
+    }
+}
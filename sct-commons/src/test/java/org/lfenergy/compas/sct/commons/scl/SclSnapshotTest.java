@@ -0,0 +1,109 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.scl2007b4.model.TServiceType;
+import org.lfenergy.compas.sct.commons.dto.ConnectedApDTO;
+import org.lfenergy.compas.sct.commons.dto.ExtRefBindingInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo;
+import org.lfenergy.compas.sct.commons.dto.ResumedDataTemplate;
+import org.lfenergy.compas.sct.commons.dto.SubNetworkDTO;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SclSnapshotTest {
+
+    @Test
+    void testQueries() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml");
+        SclSnapshot sclSnapshot = SclSnapshot.of(scd);
+
+        assertEquals(SclService.getDAI(scd, "IED_NAME1", "LD_INST12", new ResumedDataTemplate(), true).size(),
+                sclSnapshot.getDAI("IED_NAME1", "LD_INST12", new ResumedDataTemplate(), true).size());
+        assertThrows(ScdException.class,
+                () -> sclSnapshot.getDAI("IED_NAME1", "UNKNOWNLD", new ResumedDataTemplate(), true));
+        assertEquals(SclService.getEnumTypeElements(scd, "RecCycModKind"),
+                sclSnapshot.getEnumTypeElements("RecCycModKind"));
+        assertThrows(ScdException.class, () -> sclSnapshot.getEnumTypeElements("unknwnID"));
+        assertThrows(ScdException.class, sclSnapshot::getSubnetwork);
+
+        // the snapshot is a copy
+        assertNotSame(scd, sclSnapshot.copyScl());
+        scd.getIED().clear();
+        assertEquals(1, sclSnapshot.copyScl().getIED().size());
+        assertFalse(sclSnapshot.getExtRefInfo("IED_NAME1", "LD_INST12").isEmpty());
+    }
+
+    @Test
+    void testGetSubnetwork() throws Exception {
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION);
+        SCL scd = sclRootAdapter.getCurrentElem();
+        SclService.addIED(scd, "IED_NAME1", SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml"));
+        SubNetworkDTO subNetworkDTO = new SubNetworkDTO();
+        subNetworkDTO.setName("sName1");
+        subNetworkDTO.setType("IP");
+        ConnectedApDTO connectedApDTO = new ConnectedApDTO();
+        connectedApDTO.setApName("AP_NAME");
+        connectedApDTO.setIedName("IED_NAME1");
+        subNetworkDTO.addConnectedAP(connectedApDTO);
+        SclService.addSubnetworks(scd, Set.of(subNetworkDTO));
+
+        List<SubNetworkDTO> subNetworkDTOS = SclSnapshot.of(scd).getSubnetwork();
+        assertEquals(1, subNetworkDTOS.size());
+        assertEquals("sName1", subNetworkDTOS.get(0).getName());
+    }
+
+    @Test
+    void testConcurrentQueries() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-scd-extref-cb/scd_get_binders_test.xml");
+        ExtRefSignalInfo signalInfo = createSignalInfo();
+        List<ExtRefBindingInfo> expectedBinders = SclService.getExtRefBinders(
+                scd, "IED_NAME1", "LD_INST11", TLLN0Enum.LLN_0.value(), "", "", signalInfo);
+        int expectedExtRefCount = SclService.getExtRefInfo(scd, "IED_NAME1", "LD_INST11").size();
+        SclSnapshot sclSnapshot = SclSnapshot.of(scd);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<List<ExtRefBindingInfo>>> binderQueries = new ArrayList<>();
+            for(int i = 0; i < 32; i++) {
+                binderQueries.add(() -> {
+                    assertEquals(expectedExtRefCount, sclSnapshot.getExtRefInfo("IED_NAME1", "LD_INST11").size());
+                    assertThrows(ScdException.class, () -> sclSnapshot.getExtRefInfo("IED_NAME1", "UNKNOWN_LD"));
+                    return sclSnapshot.getExtRefBinders(
+                            "IED_NAME1", "LD_INST11", TLLN0Enum.LLN_0.value(), "", "", signalInfo);
+                });
+            }
+            for(Future<List<ExtRefBindingInfo>> binders : executorService.invokeAll(binderQueries)) {
+                assertEquals(expectedBinders, binders.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    private static ExtRefSignalInfo createSignalInfo() {
+        ExtRefSignalInfo signalInfo = new ExtRefSignalInfo();
+        signalInfo.setDesc("DESC");
+        signalInfo.setPDO("Do11.sdo11");
+        signalInfo.setPDA("da11.bda111.bda112.bda113");
+        signalInfo.setPLN(TLLN0Enum.LLN_0.value());
+        signalInfo.setPServT(TServiceType.REPORT);
+        signalInfo.setIntAddr("INT_ADDR11");
+        return signalInfo;
+    }
+}
@@ -352,6 +352,25 @@ class DataTypeTemplateAdapterTest {
 
     }
 
+    @Test
+    void testFindBinderResumedDTT() throws Exception {
+        DataTypeTemplateAdapter dttAdapter = AbstractDTTLevel.initDttAdapterFromFile(AbstractDTTLevel.SCD_DTT_DIFF_CONTENT_SAME_ID);
+
+        ExtRefSignalInfo signalInfo = DTO.createExtRefSignalInfo();
+        signalInfo.setPDO("Op.origin");
+        signalInfo.setPDA("antRef");
+
+        assertEquals(dttAdapter.getBinderResumedDTT("LN1",signalInfo),
+                dttAdapter.findBinderResumedDTT("LN1",signalInfo).orElseThrow());
+
+        assertTrue(dttAdapter.findBinderResumedDTT("UNKNOWN_LN",signalInfo).isEmpty());
+        assertThrows(ScdException.class, () -> dttAdapter.getBinderResumedDTT("UNKNOWN_LN",signalInfo));
+
+        signalInfo.setPDO("UnknownDo.origin");
+        assertTrue(dttAdapter.findBinderResumedDTT("LN1",signalInfo).isEmpty());
+        assertThrows(ScdException.class, () -> dttAdapter.getBinderResumedDTT("LN1",signalInfo));
+    }
+
     /*@Test
     void testCheckSdoAndDaLink() throws Exception {
         DataTypeTemplateAdapter dttAdapter = AbstractDTTLevel.initDttAdapterFromFile(AbstractDTTLevel.SCD_DTT_DIFF_CONTENT_SAME_ID);
@@ -0,0 +1,133 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.dtt;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TDAType;
+import org.lfenergy.compas.scl2007b4.model.TDOType;
+import org.lfenergy.compas.scl2007b4.model.TDataTypeTemplates;
+import org.lfenergy.compas.scl2007b4.model.TEnumType;
+import org.lfenergy.compas.scl2007b4.model.TLNodeType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DataTypeTemplateRegistryTest {
+
+    @Test
+    void testFindById() throws Exception {
+        SCL scd = AbstractDTTLevel.getSCLFromFile(AbstractDTTLevel.SCD_DTT);
+        TDataTypeTemplates dtt = scd.getDataTypeTemplates();
+        DataTypeTemplateRegistry registry = new DataTypeTemplateRegistry(dtt);
+
+        assertTrue(registry.findLNodeType("LN1").isPresent());
+        assertTrue(registry.findDOType("DO4").isPresent());
+        assertTrue(registry.findDAType("DA2").isPresent());
+        assertTrue(registry.findEnumType("RecCycModKind").isPresent());
+        assertTrue(registry.findDOType("UNKNOWN").isEmpty());
+
+        // direct additions are caught up
+        TEnumType tEnumType = new TEnumType();
+        tEnumType.setId("ENUM");
+        dtt.getEnumType().add(tEnumType);
+        assertSame(tEnumType, registry.findEnumType("ENUM").get());
+
+        tEnumType.setId("ENUM1");
+        registry.rename(tEnumType, "ENUM");
+        assertTrue(registry.findEnumType("ENUM").isEmpty());
+        assertSame(tEnumType, registry.findEnumType("ENUM1").get());
+
+        TLNodeType tlNodeType = new TLNodeType();
+        tlNodeType.setId("LN2");
+        dtt.getLNodeType().add(tlNodeType);
+        registry.register(tlNodeType);
+        assertSame(tlNodeType, registry.findLNodeType("LN2").get());
+    }
+
+    @Test
+    void testReferences() throws Exception {
+        SCL scd = AbstractDTTLevel.getSCLFromFile(AbstractDTTLevel.SCD_DTT);
+        DataTypeTemplateRegistry registry = new DataTypeTemplateRegistry(scd.getDataTypeTemplates());
+
+        assertEquals(1, registry.findReferencingTypes(
+                DataTypeTemplateRegistry.RefKind.ENUM_TYPE, "RecCycModKind", TDAType.class).size());
+        assertEquals(1, registry.findReferencingTypes(
+                DataTypeTemplateRegistry.RefKind.ENUM_TYPE, "PhaseAngleReferenceKind", TDOType.class).size());
+        assertEquals(1, registry.findReferencingTypes(
+                DataTypeTemplateRegistry.RefKind.DA_TYPE, "DA2", TDAType.class).size());
+        assertEquals(1, registry.findReferencingTypes(
+                DataTypeTemplateRegistry.RefKind.DO_TYPE, "DO4", TDOType.class).size());
+        assertEquals(1, registry.findReferencingTypes(
+                DataTypeTemplateRegistry.RefKind.DO_TYPE, "DO1", TLNodeType.class).size());
+
+        // old and new ids may overlap
+        registry.updateReferences(DataTypeTemplateRegistry.RefKind.DO_TYPE, Map.of("DO1", "DO3", "DO3", "DO1"));
+        List<TLNodeType> lNodeTypes = registry.findReferencingTypes(
+                DataTypeTemplateRegistry.RefKind.DO_TYPE, "DO3", TLNodeType.class);
+        assertEquals(1, lNodeTypes.size());
+        assertEquals("DO3", lNodeTypes.get(0).getDO().get(0).getType());
+        assertEquals("DO1", lNodeTypes.get(0).getDO().get(2).getType());
+    }
+
+    @Test
+    void testFingerprint() throws Exception {
+        DataTypeTemplateRegistry registry = new DataTypeTemplateRegistry(
+                AbstractDTTLevel.getSCLFromFile(AbstractDTTLevel.SCD_DTT).getDataTypeTemplates());
+        DataTypeTemplateRegistry otherRegistry = new DataTypeTemplateRegistry(
+                AbstractDTTLevel.getSCLFromFile(AbstractDTTLevel.SCD_DTT).getDataTypeTemplates());
+        DataTypeTemplateRegistry diffRegistry = new DataTypeTemplateRegistry(
+                AbstractDTTLevel.getSCLFromFile(AbstractDTTLevel.SCD_DTT_DIFF_CONTENT_SAME_ID).getDataTypeTemplates());
+
+        TLNodeType tlNodeType = registry.findLNodeType("LN1").orElseThrow();
+        TLNodeType otherLNodeType = otherRegistry.findLNodeType("LN1").orElseThrow();
+        assertEquals(registry.getFingerprint(tlNodeType), otherRegistry.getFingerprint(otherLNodeType));
+        assertNotEquals(registry.getFingerprint(tlNodeType),
+                diffRegistry.getFingerprint(diffRegistry.findLNodeType("LN1").orElseThrow()));
+        assertNotEquals(registry.getFingerprint(registry.findDOType("DO1").orElseThrow()),
+                registry.getFingerprint(registry.findDOType("DO4").orElseThrow()));
+
+        // ids are not part of the fingerprint, the content of referenced types is
+        TDAType tdaType = otherRegistry.findDAType("DA2").orElseThrow();
+        tdaType.setId("DA22");
+        otherRegistry.rename(tdaType, "DA2");
+        otherRegistry.updateReferences(DataTypeTemplateRegistry.RefKind.DA_TYPE, Map.of("DA2", "DA22"));
+        otherRegistry.invalidateFingerprints();
+        assertEquals(registry.getFingerprint(tlNodeType), otherRegistry.getFingerprint(otherLNodeType));
+
+        otherRegistry.findEnumType("RecCycModKind").orElseThrow().getEnumVal().get(0).setValue("Other");
+        otherRegistry.invalidateFingerprints();
+        assertNotEquals(registry.getFingerprint(tlNodeType), otherRegistry.getFingerprint(otherLNodeType));
+
+        TDOType tdoType = registry.findDOType("DO3").orElseThrow();
+        assertSame(tdoType, registry.findByFingerprint(registry.getFingerprint(tdoType), TDOType.class).get());
+        assertTrue(registry.findByFingerprint(registry.getFingerprint(tdoType), TDAType.class).isEmpty());
+    }
+
+    @Test
+    void testImportCollapsesSameContent() throws Exception {
+        DataTypeTemplateAdapter rcvDttAdapter = AbstractDTTLevel.initDttAdapterFromFile(AbstractDTTLevel.SCD_DTT);
+        DataTypeTemplateAdapter prvDttAdapter = AbstractDTTLevel.initDttAdapterFromFile(AbstractDTTLevel.SCD_DTT);
+        int nbDAType = rcvDttAdapter.getDATypeAdapters().size();
+        int nbLNodeType = rcvDttAdapter.getLNodeTypeAdapters().size();
+
+        // same types under other ids
+        TDAType tdaType = prvDttAdapter.getRegistry().findDAType("DA2").orElseThrow();
+        tdaType.setId("ICD_DA2");
+        prvDttAdapter.getRegistry().rename(tdaType, "DA2");
+        prvDttAdapter.getRegistry().updateReferences(DataTypeTemplateRegistry.RefKind.DA_TYPE, Map.of("DA2", "ICD_DA2"));
+        TLNodeType tlNodeType = prvDttAdapter.getRegistry().findLNodeType("LN1").orElseThrow();
+        tlNodeType.setId("ICD_LN1");
+        prvDttAdapter.getRegistry().rename(tlNodeType, "LN1");
+
+        Map<String, String> pairOldNewId = rcvDttAdapter.importDTT("IEDName", prvDttAdapter);
+        assertEquals(nbDAType, rcvDttAdapter.getDATypeAdapters().size());
+        assertEquals(nbLNodeType, rcvDttAdapter.getLNodeTypeAdapters().size());
+        assertEquals(Map.of("ICD_LN1", "LN1"), pairOldNewId);
+        assertTrue(rcvDttAdapter.getDATypeAdapterById("ICD_DA2").isEmpty());
+    }
+}
@@ -5,8 +5,11 @@
 package org.lfenergy.compas.sct.commons.scl.dtt;
 
 import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.TDA;
 import org.lfenergy.compas.scl2007b4.model.TDO;
+import org.lfenergy.compas.scl2007b4.model.TDOType;
 import org.lfenergy.compas.scl2007b4.model.TLNodeType;
+import org.lfenergy.compas.scl2007b4.model.TPredefinedBasicTypeEnum;
 import org.lfenergy.compas.scl2007b4.model.TPrivate;
 import org.lfenergy.compas.sct.commons.dto.DTO;
 import org.lfenergy.compas.sct.commons.dto.DaTypeName;
@@ -143,6 +146,46 @@ class LNodeTypeAdapterTest extends AbstractDTTLevel<DataTypeTemplateAdapter,TLNo
         assertTrue(lNodeTypeAdapter.getResumedDTTs(filter).isEmpty());
     }
 
+    @Test
+    void testGetResumedDTTsMemoized() throws Exception {
+        DataTypeTemplateAdapter dttAdapter = AbstractDTTLevel.initDttAdapterFromFile(AbstractDTTLevel.SCD_DTT);
+        LNodeTypeAdapter lNodeTypeAdapter = assertDoesNotThrow(() ->dttAdapter.getLNodeTypeAdapterById("LN1").get());
+        ResumedDataTemplate filter = new ResumedDataTemplate();
+        filter.setLnClass("PIOC");
+        filter.setLnInst("1");
+        var rDtts = lNodeTypeAdapter.getResumedDTTs(filter);
+        assertFalse(rDtts.isEmpty());
+        assertEquals("1", rDtts.get(0).getLnInst());
+        rDtts.get(0).getDaName().setName("modified");
+
+        // same expansion for another LN, LN fields stamped on fresh copies
+        filter.setLnInst("2");
+        filter.setPrefix("PRE");
+        var rDtts1 = lNodeTypeAdapter.getResumedDTTs(filter);
+        assertEquals(rDtts.size(), rDtts1.size());
+        assertEquals("2", rDtts1.get(0).getLnInst());
+        assertEquals("PRE", rDtts1.get(0).getPrefix());
+        assertEquals("LN1", rDtts1.get(0).getLnType());
+        assertNotEquals("modified", rDtts1.get(0).getDaName().getName());
+
+        // read-only callers get the data attributes of the memoized leaves
+        var dataAttributes = lNodeTypeAdapter.getDataAttributes(filter);
+        assertEquals(rDtts1.size(), dataAttributes.size());
+        for(int i = 0; i < rDtts1.size(); i++) {
+            assertEquals(rDtts1.get(i).getDataAttributes(), dataAttributes.get(i));
+        }
+        assertThrows(UnsupportedOperationException.class, () -> dataAttributes.add("DA"));
+
+        // DTT mutation drops the memoized expansions
+        TDOType tdoType = dttAdapter.getRegistry().findDOType("DO1").orElseThrow();
+        TDA tda = new TDA();
+        tda.setName("newDa");
+        tda.setBType(TPredefinedBasicTypeEnum.BOOLEAN);
+        tdoType.getSDOOrDA().add(tda);
+        dttAdapter.getRegistry().invalidateResumedDTTs();
+        assertEquals(rDtts.size() + 1, lNodeTypeAdapter.getResumedDTTs(filter).size());
+    }
+
     @Test
     void testCheck() throws Exception {
         DataTypeTemplateAdapter dttAdapter = AbstractDTTLevel.initDttAdapterFromFile(AbstractDTTLevel.SCD_DTT);
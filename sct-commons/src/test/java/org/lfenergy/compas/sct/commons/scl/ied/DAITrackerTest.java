@@ -158,6 +158,36 @@ class DAITrackerTest {
         assertThrows(ScdException.class, daiTracker::validateBoundedDAI);
     }
 
+    @Test
+    void testGetBounds() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/scd_with_dai_test.xml");
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        LDeviceAdapter lDeviceAdapter = sclRootAdapter.getIEDAdapterByName("IED_NAME")
+                .getLDeviceAdapterByLdInst("LDSUIED").orElseThrow();
+        AbstractLNAdapter<?> lnAdapter = AbstractLNAdapter.builder()
+                .withLDeviceAdapter(lDeviceAdapter)
+                .withLnClass("PIOC")
+                .withLnInst("1")
+                .build();
+
+        DoTypeName doTypeName = new DoTypeName("OpnDurTmms");
+        doTypeName.setCdc(TPredefinedCDCEnum.ING);
+        DaTypeName daTypeName = new DaTypeName("setVal");
+        DAITracker daiTracker = new DAITracker(lnAdapter,doTypeName,daTypeName);
+
+        DAITracker.Bounds bounds = assertDoesNotThrow(daiTracker::getBounds);
+        assertEquals(0.0, bounds.getMin());
+        assertEquals(1000.0, bounds.getMax());
+        assertEquals(5.0, bounds.getStep());
+
+        daTypeName.addDaiValue(0L,"200");
+        assertDoesNotThrow(() -> daiTracker.validateBoundedDAI(bounds));
+        daTypeName.addDaiValue(0L,"2000");
+        assertThrows(ScdException.class, () -> daiTracker.validateBoundedDAI(bounds));
+        daTypeName.addDaiValue(0L,"7");
+        assertThrows(ScdException.class, () -> daiTracker.validateBoundedDAI(bounds));
+    }
+
     @Test
     void testGetDaiNumericValue() {
         DaTypeName daTypeName = new DaTypeName("setMag.f");
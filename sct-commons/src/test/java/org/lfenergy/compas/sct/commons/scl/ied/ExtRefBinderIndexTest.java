@@ -0,0 +1,90 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.ied;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TLN;
+import org.lfenergy.compas.sct.commons.dto.ExtRefBindingInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtRefBinderIndexTest {
+
+    @Test
+    void testGetExtRefBinders() throws Exception {
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION);
+        sclRootAdapter.addIED(SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml"), "IED_NAME1");
+        sclRootAdapter.addIED(SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_2_test.xml"), "IED_NAME2");
+
+        ExtRefSignalInfo signalInfo = new ExtRefSignalInfo();
+        signalInfo.setPDO("Do11.sdo11");
+        signalInfo.setPDA("da11.bda111.bda112.bda113");
+        signalInfo.setIntAddr("INT_ADDR11");
+
+        // same binders, in the same order, as a scan of all the LNs
+        List<ExtRefBindingInfo> expected = new ArrayList<>();
+        for(IEDAdapter iedAdapter : sclRootAdapter.getIEDAdapters()) {
+            expected.addAll(iedAdapter.getExtRefBinders(signalInfo));
+        }
+        ExtRefBinderIndex extRefBinderIndex = sclRootAdapter.getExtRefBinderIndex();
+        List<ExtRefBindingInfo> binders = extRefBinderIndex.getExtRefBinders(signalInfo);
+        assertFalse(binders.isEmpty());
+        assertEquals(expected, binders);
+
+        // binders are copies
+        binders.get(0).setIedName("MODIFIED");
+        assertEquals(expected, extRefBinderIndex.getExtRefBinders(signalInfo));
+
+        signalInfo.setPDO("UnknownDo");
+        assertTrue(extRefBinderIndex.getExtRefBinders(signalInfo).isEmpty());
+
+        // a new IED is taken into account
+        signalInfo.setPDO("Do11.sdo11");
+        SCL icd3 = SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_3_test.xml");
+        sclRootAdapter.addIED(icd3, "IED_NAME3");
+        expected.addAll(sclRootAdapter.getIEDAdapterByName("IED_NAME3").getExtRefBinders(signalInfo));
+        assertEquals(expected, extRefBinderIndex.getExtRefBinders(signalInfo));
+    }
+
+    @Test
+    void testGetExtRefBindersAfterIEDRenamingAndLNAddition() throws Exception {
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION);
+        sclRootAdapter.addIED(SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml"), "IED_NAME1");
+        ExtRefSignalInfo signalInfo = new ExtRefSignalInfo();
+        signalInfo.setPDO("Do11.sdo11");
+        signalInfo.setPDA("da11.bda111.bda112.bda113");
+        signalInfo.setIntAddr("INT_ADDR11");
+        ExtRefBinderIndex extRefBinderIndex = sclRootAdapter.getExtRefBinderIndex();
+        List<ExtRefBindingInfo> binders = extRefBinderIndex.getExtRefBinders(signalInfo);
+        assertFalse(binders.isEmpty());
+        assertEquals("IED_NAME1", binders.get(0).getIedName());
+
+        IEDAdapter iedAdapter = sclRootAdapter.getIEDAdapterByName("IED_NAME1");
+        iedAdapter.setIEDName("IED_NAME4");
+
+        binders = extRefBinderIndex.getExtRefBinders(signalInfo);
+        assertEquals(iedAdapter.getExtRefBinders(signalInfo), binders);
+        assertEquals("IED_NAME4", binders.get(0).getIedName());
+
+        // a new LN of a binding lnType is taken into account
+        TLN tln = new TLN();
+        tln.getLnClass().add("ANCR");
+        tln.setInst("2");
+        tln.setLnType(binders.get(0).getLnType());
+        iedAdapter.getLDeviceAdapterByLdInst(binders.get(0).getLdInst()).orElseThrow()
+                .getCurrentElem().getLN().add(tln);
+
+        List<ExtRefBindingInfo> newBinders = extRefBinderIndex.getExtRefBinders(signalInfo);
+        assertEquals(binders.size() + 1, newBinders.size());
+        assertEquals(iedAdapter.getExtRefBinders(signalInfo), newBinders);
+    }
+}
@@ -0,0 +1,91 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.ied;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TExtRef;
+import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.sct.commons.dto.ExtRefBindingInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSignalInfo;
+import org.lfenergy.compas.sct.commons.dto.ExtRefSourceInfo;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtRefUpdaterTest {
+
+    @Test
+    void testUpdateExtRefSource() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-scd-extref-cb/scd_get_cbs_test.xml");
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        ExtRefUpdater extRefUpdater = new ExtRefUpdater(sclRootAdapter);
+        TExtRef expected = sclRootAdapter.getIEDAdapterByName("IED_NAME2")
+                .getLDeviceAdapterByLdInst("LD_INST21").orElseThrow()
+                .getLN0Adapter().getExtRefs(null).get(0);
+
+        TExtRef extRef = extRefUpdater.updateExtRefSource(createExtRefInfo("LD_INST21", "goose1"));
+        assertSame(expected, extRef);
+        assertEquals("goose1", extRef.getSrcCBName());
+        assertSame(expected, extRefUpdater.updateExtRefSource(createExtRefInfo("LD_INST21", "smv1")));
+        assertEquals("smv1", extRef.getSrcCBName());
+
+        assertThrows(ScdException.class,
+                () -> extRefUpdater.updateExtRefSource(createExtRefInfo("LD_INST21", "rpt1")));
+        // an unknown LN fails on each use of the cached lookup
+        assertThrows(ScdException.class,
+                () -> extRefUpdater.updateExtRefSource(createExtRefInfo("UNKNOWN_LD", "goose1")));
+        assertThrows(ScdException.class,
+                () -> extRefUpdater.updateExtRefSource(createExtRefInfo("UNKNOWN_LD", "goose1")));
+        assertEquals("smv1", extRef.getSrcCBName());
+    }
+
+    @Test
+    void testUpdateExtRefBinders() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/scl-srv-scd-extref-cb/scd_get_cbs_test.xml");
+        ExtRefUpdater extRefUpdater = new ExtRefUpdater(new SclRootAdapter(scd));
+        ExtRefInfo extRefInfo = createExtRefInfo("LD_INST21", null);
+        extRefInfo.getSignalInfo().setDesc("UNKNOWN_DESC");
+        assertThrows(ScdException.class, () -> extRefUpdater.updateExtRefBinders(extRefInfo));
+
+        extRefInfo.getSignalInfo().setDesc("");
+        extRefInfo.getBindingInfo().setLdInst("LD_INST11");
+        assertDoesNotThrow(() -> extRefUpdater.updateExtRefBinders(extRefInfo));
+        extRefInfo.getSignalInfo().setDesc(null);
+        extRefInfo.getBindingInfo().setLdInst("LD_INST12");
+        assertDoesNotThrow(() -> extRefUpdater.updateExtRefBinders(extRefInfo));
+    }
+
+    private static ExtRefInfo createExtRefInfo(String holderLdInst, String srcCBName) {
+        ExtRefInfo extRefInfo = new ExtRefInfo();
+        extRefInfo.setHolderIEDName("IED_NAME2");
+        extRefInfo.setHolderLDInst(holderLdInst);
+        extRefInfo.setHolderLnClass(TLLN0Enum.LLN_0.value());
+
+        ExtRefSignalInfo signalInfo = new ExtRefSignalInfo();
+        signalInfo.setIntAddr("INT_ADDR21");
+        signalInfo.setPDO("Do21.sdo21");
+        signalInfo.setPDA("da21.bda211.bda212.bda213");
+        extRefInfo.setSignalInfo(signalInfo);
+
+        ExtRefBindingInfo bindingInfo = new ExtRefBindingInfo();
+        bindingInfo.setIedName("IED_NAME1");
+        bindingInfo.setLdInst("LD_INST12");
+        bindingInfo.setLnClass(TLLN0Enum.LLN_0.value());
+        extRefInfo.setBindingInfo(bindingInfo);
+
+        if(srcCBName != null) {
+            ExtRefSourceInfo sourceInfo = new ExtRefSourceInfo();
+            sourceInfo.setSrcLDInst(bindingInfo.getLdInst());
+            sourceInfo.setSrcLNClass(bindingInfo.getLnClass());
+            sourceInfo.setSrcCBName(srcCBName);
+            extRefInfo.setSourceInfo(sourceInfo);
+        }
+        return extRefInfo;
+    }
+}
@@ -49,6 +49,44 @@ class IEDAdapterTest {
         assertThrows(ScdException.class,
                 () -> sclRootAdapter.getIEDAdapterByName(DTO.HOLDER_IED_NAME + "1"));
 
+        assertThrows(IllegalArgumentException.class, () -> new IEDAdapter(sclRootAdapter, tied1));
+        assertEquals(1, sclRootAdapter.getIEDAdapters().size());
+    }
+
+    @Test
+    void testParentBuiltAdaptersSkipRelationCheck() {
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hID","hVersion","hRevision");
+        CountingTIED tied = new CountingTIED();
+        tied.setName(DTO.HOLDER_IED_NAME);
+        sclRootAdapter.getCurrentElem().getIED().add(tied);
+
+        // the IEDs listed by the parent aren't looked up again in its IED list
+        List<IEDAdapter> iedAdapters = sclRootAdapter.getIEDAdapters();
+        assertEquals(1, iedAdapters.size());
+        assertSame(tied, iedAdapters.get(0).getCurrentElem());
+        assertEquals(0, tied.equalsCalls);
+
+        // while an adapter built from any TIED checks it
+        assertDoesNotThrow(() -> new IEDAdapter(sclRootAdapter, tied));
+        assertTrue(tied.equalsCalls > 0);
+    }
+
+    /**
+     * TIED counting the lookups of the IED in a list
+     */
+    private static class CountingTIED extends TIED {
+        private int equalsCalls;
+
+        @Override
+        public boolean equals(Object o) {
+            equalsCalls++;
+            return super.equals(o);
+        }
+
+        @Override
+        public int hashCode() {
+            return super.hashCode();
+        }
     }
 
 
@@ -83,6 +121,7 @@ class IEDAdapterTest {
 
         LDeviceAdapter lDeviceAdapter = iAdapter.getLDeviceAdapters().get(0);
         assertEquals(DTO.HOLDER_IED_NAME + "_LNO1",lDeviceAdapter.getLN0Adapter().getLnType());
+        assertEquals(DTO.HOLDER_IED_NAME + lDeviceAdapter.getInst(), lDeviceAdapter.getLdName());
     }
 
     @Test
@@ -283,6 +283,21 @@ class LN0AdapterTest {
         assertFalse(ln0Adapter.findMatch(doTypeName2,daTypeName).isPresent());
     }
 
+    @Test
+    void testFindDAI() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile(SCD_IED_U_TEST);
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        LN0Adapter ln0Adapter = sclRootAdapter.getIEDAdapterByName("IED_NAME")
+                .getLDeviceAdapterByLdInst("LD_INS1").orElseThrow().getLN0Adapter();
+        DoTypeName doTypeName = new DoTypeName("Do.sdo1.d");
+        DaTypeName daTypeName = new DaTypeName("antRef.bda1.bda2.bda3");
+
+        TDAI tdai = ln0Adapter.findDAI(doTypeName,daTypeName).orElseThrow();
+        assertSame(ln0Adapter.findMatch(doTypeName,daTypeName).orElseThrow().getCurrentElem(), tdai);
+        assertTrue(ln0Adapter.findDAI(new DoTypeName("Do.sdo1"),daTypeName).isEmpty());
+        assertTrue(ln0Adapter.findDAI(doTypeName,new DaTypeName("antRef.bda1.bda2")).isEmpty());
+    }
+
     @Test
     void testHasControlBlockAndAddControlBlock() {
         LN0 tln = new LN0();
@@ -0,0 +1,74 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.ied;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TDAI;
+import org.lfenergy.compas.scl2007b4.model.TDOI;
+import org.lfenergy.compas.scl2007b4.model.TLDevice;
+import org.lfenergy.compas.scl2007b4.model.TVal;
+import org.lfenergy.compas.sct.commons.dto.DanglingObjRef;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjRefScannerTest {
+
+    @Test
+    void testFindDanglingObjRefs() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/scd_with_dai_test.xml");
+        addInRef(scd, "LDSUIED", "IED_NAMELDSUIED/LLN0.InRef1", "IED_NAMELDSUIED/LLN0.Unknown");
+        addInRef(scd, "LDTM", "IED_NAMELDSUIED");
+        addInRef(scd, "LDADD", "IED_NAMELDTM/LLN0.InRef1.setSrcRef", "UNKNOWN_IEDLDTM/LLN0.InRef1");
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+
+        List<DanglingObjRef> danglingObjRefs = new ObjRefScanner(sclRootAdapter).findDanglingObjRefs();
+
+        assertEquals(List.of("IED_NAMELDSUIED/LLN0.Unknown", "IED_NAMELDSUIED", "UNKNOWN_IEDLDTM/LLN0.InRef1"),
+                danglingObjRefs.stream().map(DanglingObjRef::getObjRef).collect(Collectors.toList()));
+        DanglingObjRef danglingObjRef = danglingObjRefs.get(0);
+        assertEquals("IED_NAME", danglingObjRef.getIedName());
+        assertEquals("LDSUIED", danglingObjRef.getLdInst());
+        assertEquals("LLN0", danglingObjRef.getRDtt().getLnClass());
+        assertEquals("InRef1.setSrcRef", danglingObjRef.getRDtt().getDataAttributes());
+        assertEquals("Invalid ObjRef: IED_NAMELDSUIED/LLN0.Unknown", danglingObjRef.getErrorMessage());
+        assertEquals("LDTM", danglingObjRefs.get(1).getLdInst());
+        assertTrue(danglingObjRefs.get(1).getErrorMessage().contains("Malformed ObjRef"));
+
+        // same answer as checkObjRef
+        assertDoesNotThrow(() -> sclRootAdapter.checkObjRef("IED_NAMELDTM/LLN0.InRef1.setSrcRef"));
+        for(DanglingObjRef dangling : danglingObjRefs) {
+            assertThrows(Exception.class, () -> sclRootAdapter.checkObjRef(dangling.getObjRef()));
+        }
+    }
+
+    @Test
+    void testFindDanglingObjRefsWithoutObjRef() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/scd_with_dai_test.xml");
+        assertTrue(new ObjRefScanner(new SclRootAdapter(scd)).findDanglingObjRefs().isEmpty());
+    }
+
+    private static void addInRef(SCL scd, String ldInst, String... values) {
+        TDAI tdai = new TDAI();
+        tdai.setName("setSrcRef");
+        for(String value : values) {
+            TVal tVal = new TVal();
+            tVal.setValue(value);
+            tdai.getVal().add(tVal);
+        }
+        TDOI tdoi = new TDOI();
+        tdoi.setName("InRef1");
+        tdoi.getSDIOrDAI().add(tdai);
+        TLDevice tlDevice = scd.getIED().get(0).getAccessPoint().get(0).getServer().getLDevice().stream()
+                .filter(tlDev -> ldInst.equals(tlDev.getInst()))
+                .findFirst().orElseThrow();
+        tlDevice.getLN0().getDOI().add(tdoi);
+    }
+}
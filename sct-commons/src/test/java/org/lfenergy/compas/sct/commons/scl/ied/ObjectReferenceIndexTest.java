@@ -0,0 +1,80 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.ied;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TDataSet;
+import org.lfenergy.compas.scl2007b4.model.TLN;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.ObjectReference;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObjectReferenceIndexTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "IED_NAMELD_INS3/LLN0.Do.da2", "IED_NAMELD_INS3/LLN0.D", "IED_NAMELD_INS3/LLN0.Do.da2.unknown",
+            "IED_NAMELD_INS3/LLN0.unknown", "IED_NAMELD_INS2/ANCR1.dataSet", "IED_NAMELD_INS2/ANCR2.dataSet",
+            "IED_NAMELD_INS1/ANCR1.dataSet", "IED_NAMELD_UNKNOWN/LLN0.Do", "UNKNOWN_IEDLD_INS3/LLN0.Do"
+    })
+    void testFindIED(String reference) throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/ied_unit_test.xml");
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        ObjectReference objRef = new ObjectReference(reference);
+
+        // same answer as a scan of the IEDs
+        IEDAdapter iedAdapter = sclRootAdapter.getIEDAdapterByName("IED_NAME");
+        assertEquals(iedAdapter.matches(objRef), new ObjectReferenceIndex(sclRootAdapter).findIED(objRef).isPresent());
+    }
+
+    @Test
+    void testCheckObjRef() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/ied_unit_test.xml");
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+
+        assertEquals("IED_NAME", sclRootAdapter.checkObjRef("IED_NAMELD_INS3/LLN0.Do.da2").getName());
+        assertEquals("IED_NAME", sclRootAdapter.checkObjRef("IED_NAMELD_INS2/ANCR1.dataSet").getName());
+        assertThrows(ScdException.class, () -> sclRootAdapter.checkObjRef("IED_NAMELD_INS2/ANCR1.dataSet1"));
+        assertThrows(IllegalArgumentException.class, () -> sclRootAdapter.checkObjRef("IED_NAMELD_INS2"));
+
+        // DataSets added after the first check are seen
+        LNAdapter lnAdapter = sclRootAdapter.getIEDAdapterByName("IED_NAME")
+                .getLDeviceAdapterByLdInst("LD_INS2").orElseThrow()
+                .getLNAdapter("ANCR", "1", null);
+        TDataSet tDataSet = new TDataSet();
+        tDataSet.setName("dataSet1");
+        lnAdapter.getCurrentElem().getDataSet().add(tDataSet);
+        assertDoesNotThrow(() -> sclRootAdapter.checkObjRef("IED_NAMELD_INS2/ANCR1.dataSet1"));
+
+        // LNs added after the first check are seen
+        TLN tln = new TLN();
+        tln.getLnClass().add("ANCR");
+        tln.setInst("9");
+        tln.setLnType(lnAdapter.getLnType());
+        TDataSet tDataSet1 = new TDataSet();
+        tDataSet1.setName("dataSet1");
+        tln.getDataSet().add(tDataSet1);
+        lnAdapter.getParentAdapter().getCurrentElem().getLN().add(tln);
+        assertDoesNotThrow(() -> sclRootAdapter.checkObjRef("IED_NAMELD_INS2/ANCR9.dataSet1"));
+    }
+
+    @Test
+    void testCheckObjRefAfterIEDRenaming() throws Exception {
+        SCL scd = SclTestMarshaller.getSCLFromFile("/ied-test-schema-conf/ied_unit_test.xml");
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        assertEquals("IED_NAME", sclRootAdapter.checkObjRef("IED_NAMELD_INS3/LLN0.Do.da2").getName());
+
+        sclRootAdapter.getIEDAdapterByName("IED_NAME").setIEDName("IED_NAME1");
+
+        assertEquals("IED_NAME1", sclRootAdapter.checkObjRef("IED_NAME1LD_INS3/LLN0.Do.da2").getName());
+        assertThrows(ScdException.class, () -> sclRootAdapter.checkObjRef("IED_NAMELD_INS3/LLN0.Do.da2"));
+    }
+}
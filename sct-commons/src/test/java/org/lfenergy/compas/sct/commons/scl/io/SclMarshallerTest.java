@@ -0,0 +1,91 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.io;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SclMarshallerTest {
+
+    private static final String XSD_PATH = "target/xsd/SCL2007B4/SCL.xsd";
+    private static final String ICD_FILE = "/scl-srv-import-ieds/ied_1_test.xml";
+
+    @Test
+    void testRoundTrip(@TempDir Path tempDir) throws Exception {
+        SclMarshaller sclMarshaller = new SclMarshaller(XSD_PATH);
+        byte[] rawXml = IOUtils.resourceToByteArray(ICD_FILE);
+
+        SCL scl = sclMarshaller.unmarshal(rawXml);
+        assertEquals("IED_NAME1", scl.getIED().get(0).getName());
+
+        byte[] marshalled = sclMarshaller.marshal(scl);
+        Path path = tempDir.resolve("ied.scd");
+        sclMarshaller.marshal(scl, path);
+        SCL fromPath = sclMarshaller.unmarshal(path);
+        assertArrayEquals(marshalled, sclMarshaller.marshal(fromPath));
+    }
+
+    @Test
+    void testValidation() throws Exception {
+        byte[] invalidXml = "<SCL xmlns=\"http://www.iec.ch/61850/2003/SCL\"><Unknown/></SCL>"
+                .getBytes(StandardCharsets.UTF_8);
+        assertThrows(ScdException.class, () -> new SclMarshaller(XSD_PATH).unmarshal(invalidXml));
+        assertThrows(ScdException.class, () -> new SclMarshaller("unknown/SCL.xsd"));
+        assertThrows(ScdException.class, () -> new SclMarshaller().unmarshal(Path.of("unknown.scd")));
+    }
+
+    @Test
+    void testConcurrentUse() throws Exception {
+        SclMarshaller sclMarshaller = new SclMarshaller(XSD_PATH);
+        byte[] rawXml = IOUtils.resourceToByteArray(ICD_FILE);
+        byte[] expected = sclMarshaller.marshal(sclMarshaller.unmarshal(rawXml));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<byte[]>> tasks = new ArrayList<>();
+            for(int i = 0; i < 16; i++) {
+                tasks.add(() -> sclMarshaller.marshal(sclMarshaller.unmarshal(rawXml)));
+            }
+            for(Future<byte[]> future : executorService.invokeAll(tasks)) {
+                assertArrayEquals(expected, future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    void testConcurrentUseOfPerCallInstances() throws Exception {
+        byte[] rawXml = IOUtils.resourceToByteArray(ICD_FILE);
+        byte[] expected = new SclMarshaller(XSD_PATH).marshal(new SclMarshaller().unmarshal(rawXml));
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<byte[]>> tasks = new ArrayList<>();
+            for(int i = 0; i < 16; i++) {
+                tasks.add(() -> new SclMarshaller(XSD_PATH).marshal(new SclMarshaller().unmarshal(rawXml)));
+            }
+            for(Future<byte[]> future : executorService.invokeAll(tasks)) {
+                assertArrayEquals(expected, future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TLNodeType;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.dtt.DataTypeTemplateRegistry;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SclSectionLoaderTest {
+
+    @Test
+    void testLoadIEDs(@TempDir Path tempDir) throws Exception {
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION);
+        sclRootAdapter.addIED(SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml"), "IED_NAME1");
+        sclRootAdapter.addIED(SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_2_test.xml"), "IED_NAME2");
+        Path path = tempDir.resolve("scd.xml");
+        new SclMarshaller().marshal(sclRootAdapter.getCurrentElem(), path);
+
+        SCL scl = new SclSectionLoader().load(path, SclSelector.iedsOnly(List.of("IED_NAME2")));
+        assertEquals("hId", scl.getHeader().getId());
+        assertEquals(SclRootAdapter.RELEASE, (short) scl.getRelease());
+        assertEquals(1, scl.getIED().size());
+        assertEquals("IED_NAME2", scl.getIED().get(0).getName());
+        assertTrue(scl.getSubstation().isEmpty());
+        assertNull(scl.getCommunication());
+
+        // only the types used by the IED, and all of them
+        SclRootAdapter partialRootAdapter = new SclRootAdapter(scl);
+        Set<String> lnTypes = partialRootAdapter.getIEDAdapterByName("IED_NAME2").getLDeviceAdapters().stream()
+                .flatMap(lDeviceAdapter -> {
+                    List<String> types = lDeviceAdapter.getLNAdapters().stream()
+                            .map(lnAdapter -> lnAdapter.getLnType()).collect(Collectors.toList());
+                    types.add(lDeviceAdapter.getLN0Adapter().getLnType());
+                    return types.stream();
+                })
+                .collect(Collectors.toSet());
+        assertEquals(lnTypes, scl.getDataTypeTemplates().getLNodeType().stream()
+                .map(TLNodeType::getId).collect(Collectors.toSet()));
+        DataTypeTemplateRegistry registry = new DataTypeTemplateRegistry(scl.getDataTypeTemplates());
+        int typesCount = scl.getDataTypeTemplates().getLNodeType().size() + scl.getDataTypeTemplates().getDOType().size()
+                + scl.getDataTypeTemplates().getDAType().size() + scl.getDataTypeTemplates().getEnumType().size();
+        assertEquals(typesCount, registry.findReachableTypes(lnTypes).size());
+        assertTrue(scl.getDataTypeTemplates().getDOType().size()
+                <= sclRootAdapter.getCurrentElem().getDataTypeTemplates().getDOType().size());
+    }
+
+    @Test
+    void testLoadHeaderOnly(@TempDir Path tempDir) throws Exception {
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION);
+        sclRootAdapter.addIED(SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml"), "IED_NAME1");
+        Path path = tempDir.resolve("scd.xml");
+        new SclMarshaller().marshal(sclRootAdapter.getCurrentElem(), path);
+
+        SCL scl = new SclSectionLoader().load(path, SclSelector.headerOnly());
+        assertEquals("hId", scl.getHeader().getId());
+        assertEquals(SclRootAdapter.VERSION, scl.getVersion());
+        assertTrue(scl.getIED().isEmpty());
+        assertNull(scl.getDataTypeTemplates());
+
+        scl = new SclSectionLoader().load(path, SclSelector.iedsOnly(List.of("UNKNOWN")).withSubstation());
+        assertTrue(scl.getIED().isEmpty());
+        assertNull(scl.getDataTypeTemplates());
+    }
+}
@@ -0,0 +1,96 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.scl.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.testhelpers.SclTestMarshaller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SclSpliceWriterTest {
+
+    @Test
+    void testWrite(@TempDir Path tempDir) throws Exception {
+        SclMarshaller sclMarshaller = new SclMarshaller();
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION);
+        sclRootAdapter.addIED(SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml"), "IED_NAME1");
+        sclRootAdapter.addIED(SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_2_test.xml"), "IED_NAME2");
+        Path original = tempDir.resolve("scd.xml");
+        sclMarshaller.marshal(sclRootAdapter.getCurrentElem(), original);
+        String ied2 = extractIED(Files.readString(original, StandardCharsets.UTF_8), "IED_NAME2");
+
+        // same edition on the whole SCD and on a partial load
+        SCL expected = sclMarshaller.unmarshal(original);
+        edit(expected);
+        SCL partial = new SclSectionLoader().load(original,
+                SclSelector.iedsOnly(List.of("IED_NAME1")).withAllDataTypeTemplates());
+        edit(partial);
+
+        Path target = tempDir.resolve("target.xml");
+        new SclSpliceWriter().write(original, partial, target);
+        SCL spliced = sclMarshaller.unmarshal(target);
+        assertArrayEquals(sclMarshaller.marshal(expected), sclMarshaller.marshal(spliced));
+        // untouched IEDs are copied verbatim
+        assertTrue(Files.readString(target, StandardCharsets.UTF_8).contains(ied2));
+
+        assertThrows(ScdException.class, () -> new SclSpliceWriter().write(original, partial, original));
+    }
+
+    @Test
+    void testWriteKeepsOriginalEncoding(@TempDir Path tempDir) throws Exception {
+        SclMarshaller sclMarshaller = new SclMarshaller();
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("hId", SclRootAdapter.VERSION, SclRootAdapter.REVISION);
+        sclRootAdapter.addIED(SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_1_test.xml"), "IED_NAME1");
+        sclRootAdapter.addIED(SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_2_test.xml"), "IED_NAME2");
+        String xml = new String(sclMarshaller.marshal(sclRootAdapter.getCurrentElem()), StandardCharsets.UTF_8);
+        // untouched IED with non ASCII characters and an IED name in the value of an attribute before its name
+        assertTrue(xml.contains("<IED name=\"IED_NAME2\""));
+        xml = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\n" + xml.replaceFirst("^<\\?xml[^>]*\\?>\\s*", "")
+                .replace("<IED name=\"IED_NAME2\"",
+                        "<IED desc=\"\u00e9quipement name='IED_NAME1'\" name=\"IED_NAME2\"");
+        Path original = tempDir.resolve("scd.xml");
+        Files.write(original, xml.getBytes(StandardCharsets.ISO_8859_1));
+
+        SCL partial = new SclSectionLoader().load(original, SclSelector.iedsOnly(List.of("IED_NAME1")));
+        new SclRootAdapter(partial).getIEDAdapterByName("IED_NAME1").getCurrentElem().setDesc("\u00e9dit\u00e9");
+        Path target = tempDir.resolve("target.xml");
+        new SclSpliceWriter().write(original, partial, target);
+
+        String written = Files.readString(target, StandardCharsets.ISO_8859_1);
+        assertTrue(written.startsWith("<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>"));
+        assertTrue(written.contains(extractIED(xml, "IED_NAME2")));
+        assertTrue(written.contains("desc=\"\u00e9dit\u00e9\""));
+        SCL spliced = sclMarshaller.unmarshal(target);
+        assertEquals("\u00e9dit\u00e9", spliced.getIED().get(0).getDesc());
+        assertEquals("\u00e9quipement name='IED_NAME1'", spliced.getIED().get(1).getDesc());
+
+        // the markup of UTF-16 files can't be scanned as bytes
+        byte[] utf16 = xml.replace("ISO-8859-1", "UTF-16").getBytes(StandardCharsets.UTF_16);
+        assertThrows(ScdException.class, () -> new SclSpliceWriter()
+                .write(new ByteArrayInputStream(utf16), partial, new ByteArrayOutputStream()));
+    }
+
+    private static void edit(SCL scl) throws Exception {
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scl);
+        sclRootAdapter.getIEDAdapterByName("IED_NAME1").getCurrentElem().setDesc("edited");
+        sclRootAdapter.addIED(SclTestMarshaller.getSCLFromFile("/scl-srv-import-ieds/ied_3_test.xml"), "IED_NAME3");
+    }
+
+    private static String extractIED(String xml, String iedName) {
+        int from = xml.lastIndexOf("<IED ", xml.indexOf(" name=\"" + iedName + "\""));
+        return xml.substring(from, xml.indexOf("</IED>", from) + "</IED>".length());
+    }
+}
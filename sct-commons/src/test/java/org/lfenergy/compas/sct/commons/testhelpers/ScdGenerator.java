@@ -0,0 +1,378 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.testhelpers;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.lfenergy.compas.scl2007b4.model.LN0;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TAccessPoint;
+import org.lfenergy.compas.scl2007b4.model.TAnyLN;
+import org.lfenergy.compas.scl2007b4.model.TBDA;
+import org.lfenergy.compas.scl2007b4.model.TDA;
+import org.lfenergy.compas.scl2007b4.model.TDAType;
+import org.lfenergy.compas.scl2007b4.model.TDO;
+import org.lfenergy.compas.scl2007b4.model.TDOType;
+import org.lfenergy.compas.scl2007b4.model.TDataSet;
+import org.lfenergy.compas.scl2007b4.model.TDataTypeTemplates;
+import org.lfenergy.compas.scl2007b4.model.TEnumType;
+import org.lfenergy.compas.scl2007b4.model.TEnumVal;
+import org.lfenergy.compas.scl2007b4.model.TExtRef;
+import org.lfenergy.compas.scl2007b4.model.TFCDA;
+import org.lfenergy.compas.scl2007b4.model.TFCEnum;
+import org.lfenergy.compas.scl2007b4.model.TGSEControl;
+import org.lfenergy.compas.scl2007b4.model.TIED;
+import org.lfenergy.compas.scl2007b4.model.TInputs;
+import org.lfenergy.compas.scl2007b4.model.TLDevice;
+import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.scl2007b4.model.TLN;
+import org.lfenergy.compas.scl2007b4.model.TLNodeType;
+import org.lfenergy.compas.scl2007b4.model.TPredefinedBasicTypeEnum;
+import org.lfenergy.compas.scl2007b4.model.TPredefinedCDCEnum;
+import org.lfenergy.compas.scl2007b4.model.TReportControl;
+import org.lfenergy.compas.scl2007b4.model.TSDO;
+import org.lfenergy.compas.scl2007b4.model.TSampledValueControl;
+import org.lfenergy.compas.scl2007b4.model.TServer;
+import org.lfenergy.compas.scl2007b4.model.TServiceType;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.io.SclMarshaller;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic generator of large SCDs, for scale tests and benchmarks.
+ * <p>
+ * The same settings always give the same SCD. Generated SCDs are valid against the SCL XSD and follow the shape
+ * of the test SCDs:
+ * <ul>
+ *     <li>each IED has one AccessPoint "AP_NAME" holding lDevicesPerIED LDevices "LD_INST1".."LD_INSTn"</li>
+ *     <li>each LDevice has an LN0 and lnsPerLDevice LNs, typed by lNodeTypeCount LNodeType families</li>
+ *     <li>a ratio sharedTypeRatio of the IEDs use the shared DataTypeTemplates types, the others use types of
+ *     their own (ids suffixed by the IED name, with a different EnumType content)</li>
+ *     <li>each LN has extRefsPerLN ExtRefs, a ratio boundExtRefRatio of them being bound to an LN of another
+ *     IED</li>
+ *     <li>each LN0 has dataSetsPerLDevice DataSets sharing the FCDAs of the LDevice LNs, each sent by
+ *     controlBlocksPerDataSet control blocks (GOOSE, SMV and Report in turn)</li>
+ *     <li>as in the test SCDs, bound ExtRefs on the control blocks point to the LN0 holding them</li>
+ * </ul>
+ * Every LNodeType has the DOs "Do1" (SDO "sdo1", DA "da1" with BDAs "bda1.bda2" and "bda1.bda3") and "Do2", so
+ * that signals "Do1"/"da1.bda1.bda3" and "Do1.sdo1"/"stVal" exist in every LN.
+ */
+@Getter
+@Builder
+public class ScdGenerator {
+
+    public static final String AP_NAME = "AP_NAME";
+    public static final String IED_NAME_PREFIX = "IED_";
+    public static final String LD_INST_PREFIX = "LD_INST";
+    public static final String DO_NAME = "Do1";
+    public static final String DA_NAME = "da1.bda1.bda3";
+    public static final String SDO_NAME = "Do1.sdo1";
+    public static final String SDO_DA_NAME = "stVal";
+
+    private static final String[] LN_CLASSES = {"PIOC", "PTOC", "MMXU", "GGIO", "XCBR", "CSWI", "PTRC", "TCTR"};
+    private static final TServiceType[] SERVICE_TYPES = {TServiceType.GOOSE, TServiceType.SMV, TServiceType.REPORT};
+
+    @Builder.Default
+    private final long seed = 1L;
+    @Builder.Default
+    private final int iedCount = 10;
+    @Builder.Default
+    private final int lDevicesPerIED = 2;
+    @Builder.Default
+    private final int lnsPerLDevice = 4;
+    @Builder.Default
+    private final int lNodeTypeCount = 4;
+    @Builder.Default
+    private final double sharedTypeRatio = 1.0;
+    @Builder.Default
+    private final int extRefsPerLN = 2;
+    @Builder.Default
+    private final double boundExtRefRatio = 0.5;
+    @Builder.Default
+    private final int dataSetsPerLDevice = 1;
+    @Builder.Default
+    private final int controlBlocksPerDataSet = 1;
+
+    public static String iedName(int index) {
+        return String.format("%s%04d", IED_NAME_PREFIX, index);
+    }
+
+    public static String ldInst(int index) {
+        return LD_INST_PREFIX + (index + 1);
+    }
+
+    public static String lnClass(int lnIndex, int lNodeTypeCount) {
+        return LN_CLASSES[(lnIndex % lNodeTypeCount) % LN_CLASSES.length];
+    }
+
+    public static String lnInst(int lnIndex) {
+        return String.valueOf(lnIndex + 1);
+    }
+
+    /**
+     * @return a new SCD built from the generator settings
+     */
+    public SCL generate() throws ScdException {
+        if(iedCount < 0 || lDevicesPerIED < 1 || lnsPerLDevice < 0 || lNodeTypeCount < 1 || extRefsPerLN < 0
+                || dataSetsPerLDevice < 0 || controlBlocksPerDataSet < 0) {
+            throw new ScdException("Invalid SCD generator settings");
+        }
+        Random random = new Random(seed);
+        SclRootAdapter sclRootAdapter = new SclRootAdapter("SCD_GENERATOR", SclRootAdapter.VERSION,
+                SclRootAdapter.REVISION);
+        SCL scd = sclRootAdapter.getCurrentElem();
+        TDataTypeTemplates dataTypeTemplates = new TDataTypeTemplates();
+        Set<String> typeSuffixes = new HashSet<>();
+        for(int i = 0; i < iedCount; i++) {
+            String typeSuffix = random.nextDouble() < sharedTypeRatio ? "" : "_" + iedName(i);
+            if(typeSuffixes.add(typeSuffix)) {
+                addTypes(dataTypeTemplates, typeSuffix);
+            }
+            scd.getIED().add(createIED(i, typeSuffix, random));
+        }
+        scd.setDataTypeTemplates(dataTypeTemplates);
+        return scd;
+    }
+
+    /**
+     * Generates the SCD and writes it in a file
+     * @param path file to write
+     * @return the generated SCD
+     */
+    public SCL generate(Path path) throws ScdException {
+        SCL scd = generate();
+        new SclMarshaller().marshal(scd, path);
+        return scd;
+    }
+
+    private TIED createIED(int iedIndex, String typeSuffix, Random random) {
+        TServer tServer = new TServer();
+        tServer.setAuthentication(new TServer.Authentication());
+        for(int l = 0; l < lDevicesPerIED; l++) {
+            tServer.getLDevice().add(createLDevice(iedIndex, l, typeSuffix, random));
+        }
+        TAccessPoint tAccessPoint = new TAccessPoint();
+        tAccessPoint.setName(AP_NAME);
+        tAccessPoint.setServer(tServer);
+        TIED tied = new TIED();
+        tied.setName(iedName(iedIndex));
+        tied.getAccessPoint().add(tAccessPoint);
+        return tied;
+    }
+
+    private TLDevice createLDevice(int iedIndex, int ldIndex, String typeSuffix, Random random) {
+        TLDevice tlDevice = new TLDevice();
+        tlDevice.setInst(ldInst(ldIndex));
+        LN0 ln0 = new LN0();
+        ln0.getLnClass().add(TLLN0Enum.LLN_0.value());
+        ln0.setInst("");
+        ln0.setLnType(TLLN0Enum.LLN_0.value() + typeSuffix);
+        for(int d = 0; d < dataSetsPerLDevice; d++) {
+            addDataSet(ln0, iedIndex, ldIndex, d);
+        }
+        tlDevice.setLN0(ln0);
+        for(int n = 0; n < lnsPerLDevice; n++) {
+            TLN tln = new TLN();
+            tln.getLnClass().add(lnClass(n, lNodeTypeCount));
+            tln.setInst(lnInst(n));
+            tln.setLnType("LN" + (n % lNodeTypeCount) + typeSuffix);
+            addExtRefs(tln, iedIndex, random);
+            tlDevice.getLN().add(tln);
+        }
+        return tlDevice;
+    }
+
+    /**
+     * Every DataSet holds the FCDA "Do1"/"da1.bda1.bda3" of the LN0, DataSet d also holds the FCDAs of the LNs n
+     * where n % dataSetsPerLDevice == d
+     */
+    private void addDataSet(LN0 ln0, int iedIndex, int ldIndex, int dataSetIndex) {
+        String dataSetName = "DS" + (dataSetIndex + 1);
+        TDataSet tDataSet = new TDataSet();
+        tDataSet.setName(dataSetName);
+        tDataSet.getFCDA().add(createFCDA(ldIndex, TLLN0Enum.LLN_0.value(), null, DO_NAME, DA_NAME));
+        for(int n = dataSetIndex; n < lnsPerLDevice; n += dataSetsPerLDevice) {
+            tDataSet.getFCDA().add(createFCDA(ldIndex, lnClass(n, lNodeTypeCount), lnInst(n), DO_NAME, DA_NAME));
+            tDataSet.getFCDA().add(createFCDA(ldIndex, lnClass(n, lNodeTypeCount), lnInst(n),
+                    SDO_NAME, SDO_DA_NAME));
+        }
+        ln0.getDataSet().add(tDataSet);
+
+        for(int c = 0; c < controlBlocksPerDataSet; c++) {
+            String cbName = "CB" + (dataSetIndex + 1) + "_" + (c + 1);
+            String id = iedName(iedIndex) + ldInst(ldIndex) + "/" + cbName;
+            switch (SERVICE_TYPES[c % SERVICE_TYPES.length]) {
+                case GOOSE:
+                    TGSEControl tgseControl = new TGSEControl();
+                    tgseControl.setName(cbName);
+                    tgseControl.setAppID(id);
+                    tgseControl.setDatSet(dataSetName);
+                    tgseControl.setConfRev(1L);
+                    ln0.getGSEControl().add(tgseControl);
+                    break;
+                case SMV:
+                    TSampledValueControl sampledValueControl = new TSampledValueControl();
+                    sampledValueControl.setName(cbName);
+                    sampledValueControl.setSmvID(id);
+                    sampledValueControl.setDatSet(dataSetName);
+                    sampledValueControl.setConfRev(1L);
+                    sampledValueControl.setSmpRate(80L);
+                    sampledValueControl.setNofASDU(1L);
+                    sampledValueControl.setSmvOpts(new TSampledValueControl.SmvOpts());
+                    ln0.getSampledValueControl().add(sampledValueControl);
+                    break;
+                default:
+                    TReportControl reportControl = new TReportControl();
+                    reportControl.setName(cbName);
+                    reportControl.setRptID(id);
+                    reportControl.setDatSet(dataSetName);
+                    reportControl.setConfRev(1L);
+                    reportControl.setOptFields(new TReportControl.OptFields());
+                    ln0.getReportControl().add(reportControl);
+            }
+        }
+    }
+
+    private static TFCDA createFCDA(int ldIndex, String lnClass, String lnInst, String doName, String daName) {
+        TFCDA tfcda = new TFCDA();
+        tfcda.setLdInst(ldInst(ldIndex));
+        tfcda.getLnClass().add(lnClass);
+        tfcda.setLnInst(lnInst);
+        tfcda.setDoName(doName);
+        tfcda.setDaName(daName);
+        tfcda.setFc(TFCEnum.ST);
+        return tfcda;
+    }
+
+    /**
+     * ExtRefs on "Do1"/"da1.bda1.bda3" are bound to the LN0 of the source LDevice, which holds the control blocks,
+     * ExtRefs on "Do1.sdo1"/"stVal" are bound to an LN of the source LDevice
+     */
+    private void addExtRefs(TAnyLN tAnyLN, int iedIndex, Random random) {
+        if(extRefsPerLN == 0) {
+            return;
+        }
+        TInputs tInputs = new TInputs();
+        for(int e = 0; e < extRefsPerLN; e++) {
+            boolean onSdo = e % 2 == 1;
+            TExtRef tExtRef = new TExtRef();
+            tExtRef.setDesc("DESC" + (e + 1));
+            tExtRef.setIntAddr("INT_ADDR" + (e + 1));
+            tExtRef.setPDO(onSdo ? SDO_NAME : DO_NAME);
+            tExtRef.setPDA(onSdo ? SDO_DA_NAME : DA_NAME);
+            tExtRef.setPServT(SERVICE_TYPES[e % SERVICE_TYPES.length]);
+            // the random draws don't depend on the binding, so that boundExtRefRatio doesn't shift the sources
+            int srcIedIndex = iedCount > 1 ? (iedIndex + 1 + random.nextInt(iedCount - 1)) % iedCount : iedIndex;
+            int srcLdIndex = random.nextInt(lDevicesPerIED);
+            int srcLnIndex = lnsPerLDevice > 0 ? random.nextInt(lnsPerLDevice) : 0;
+            if(random.nextDouble() < boundExtRefRatio && (!onSdo || lnsPerLDevice > 0)) {
+                String srcLnClass = onSdo ? lnClass(srcLnIndex, lNodeTypeCount) : TLLN0Enum.LLN_0.value();
+                tExtRef.getPLN().add(srcLnClass);
+                tExtRef.setIedName(iedName(srcIedIndex));
+                tExtRef.setLdInst(ldInst(srcLdIndex));
+                tExtRef.getLnClass().add(srcLnClass);
+                if(onSdo) {
+                    tExtRef.setLnInst(lnInst(srcLnIndex));
+                }
+                tExtRef.setDoName(tExtRef.getPDO());
+                tExtRef.setDaName(tExtRef.getPDA());
+            }
+            tInputs.getExtRef().add(tExtRef);
+        }
+        tAnyLN.setInputs(tInputs);
+    }
+
+    /**
+     * Adds the LNodeTypes "LLN0" and "LN0".."LNn" and the types they reference, with ids suffixed by typeSuffix
+     */
+    private void addTypes(TDataTypeTemplates dataTypeTemplates, String typeSuffix) {
+        List<TLNodeType> lNodeTypes = new ArrayList<>();
+        lNodeTypes.add(createLNodeType(TLLN0Enum.LLN_0.value() + typeSuffix, TLLN0Enum.LLN_0.value(), typeSuffix));
+        for(int t = 0; t < lNodeTypeCount; t++) {
+            lNodeTypes.add(createLNodeType("LN" + t + typeSuffix, lnClass(t, lNodeTypeCount), typeSuffix));
+        }
+        dataTypeTemplates.getLNodeType().addAll(lNodeTypes);
+
+        TDOType sdoType = new TDOType();
+        sdoType.setId("DO_SUB" + typeSuffix);
+        sdoType.setCdc(TPredefinedCDCEnum.ING);
+        sdoType.getSDOOrDA().add(createDA(SDO_DA_NAME, TPredefinedBasicTypeEnum.ENUM, "ENUM" + typeSuffix));
+        TDOType doType = new TDOType();
+        doType.setId("DO" + typeSuffix);
+        doType.setCdc(TPredefinedCDCEnum.WYE);
+        TSDO tsdo = new TSDO();
+        tsdo.setName("sdo1");
+        tsdo.setType(sdoType.getId());
+        doType.getSDOOrDA().add(tsdo);
+        doType.getSDOOrDA().add(createDA("da1", TPredefinedBasicTypeEnum.STRUCT, "DA1" + typeSuffix));
+        dataTypeTemplates.getDOType().add(doType);
+        dataTypeTemplates.getDOType().add(sdoType);
+
+        TDAType daType1 = new TDAType();
+        daType1.setId("DA1" + typeSuffix);
+        daType1.getBDA().add(createBDA("bda1", TPredefinedBasicTypeEnum.STRUCT, "DA2" + typeSuffix));
+        TDAType daType2 = new TDAType();
+        daType2.setId("DA2" + typeSuffix);
+        daType2.getBDA().add(createBDA("bda2", TPredefinedBasicTypeEnum.ENUM, "ENUM" + typeSuffix));
+        daType2.getBDA().add(createBDA("bda3", TPredefinedBasicTypeEnum.FLOAT_32, null));
+        dataTypeTemplates.getDAType().add(daType1);
+        dataTypeTemplates.getDAType().add(daType2);
+
+        TEnumType tEnumType = new TEnumType();
+        tEnumType.setId("ENUM" + typeSuffix);
+        tEnumType.getEnumVal().add(createEnumVal(1, "on"));
+        tEnumType.getEnumVal().add(createEnumVal(2, "off"));
+        if(!typeSuffix.isEmpty()) {
+            tEnumType.getEnumVal().add(createEnumVal(3, typeSuffix.substring(1)));
+        }
+        dataTypeTemplates.getEnumType().add(tEnumType);
+    }
+
+    private static TLNodeType createLNodeType(String id, String lnClass, String typeSuffix) {
+        TLNodeType tlNodeType = new TLNodeType();
+        tlNodeType.setId(id);
+        tlNodeType.getLnClass().add(lnClass);
+        TDO do1 = new TDO();
+        do1.setName(DO_NAME);
+        do1.setType("DO" + typeSuffix);
+        TDO do2 = new TDO();
+        do2.setName("Do2");
+        do2.setType("DO_SUB" + typeSuffix);
+        tlNodeType.getDO().add(do1);
+        tlNodeType.getDO().add(do2);
+        return tlNodeType;
+    }
+
+    private static TDA createDA(String name, TPredefinedBasicTypeEnum bType, String type) {
+        TDA tda = new TDA();
+        tda.setName(name);
+        tda.setFc(TFCEnum.ST);
+        tda.setBType(bType);
+        tda.setType(type);
+        return tda;
+    }
+
+    private static TBDA createBDA(String name, TPredefinedBasicTypeEnum bType, String type) {
+        TBDA tbda = new TBDA();
+        tbda.setName(name);
+        tbda.setBType(bType);
+        tbda.setType(type);
+        return tbda;
+    }
+
+    private static TEnumVal createEnumVal(int ord, String value) {
+        TEnumVal tEnumVal = new TEnumVal();
+        tEnumVal.setOrd(ord);
+        tEnumVal.setValue(value);
+        return tEnumVal;
+    }
+}
@@ -0,0 +1,79 @@
+// SPDX-FileCopyrightText: 2021 RTE FRANCE
+//
+// SPDX-License-Identifier: Apache-2.0
+
+package org.lfenergy.compas.sct.commons.testhelpers;
+
+import org.junit.jupiter.api.Test;
+import org.lfenergy.compas.scl2007b4.model.SCL;
+import org.lfenergy.compas.scl2007b4.model.TExtRef;
+import org.lfenergy.compas.scl2007b4.model.TLLN0Enum;
+import org.lfenergy.compas.sct.commons.dto.ExtRefInfo;
+import org.lfenergy.compas.sct.commons.exception.ScdException;
+import org.lfenergy.compas.sct.commons.scl.SclRootAdapter;
+import org.lfenergy.compas.sct.commons.scl.SclService;
+import org.lfenergy.compas.sct.commons.scl.ied.LDeviceAdapter;
+import org.lfenergy.compas.sct.commons.scl.io.SclMarshaller;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScdGeneratorTest {
+
+    private static final String XSD_PATH = "target/xsd/SCL2007B4/SCL.xsd";
+
+    @Test
+    void testGenerate() throws Exception {
+        ScdGenerator scdGenerator = ScdGenerator.builder()
+                .iedCount(5)
+                .lDevicesPerIED(2)
+                .lnsPerLDevice(3)
+                .lNodeTypeCount(2)
+                .sharedTypeRatio(0.5)
+                .extRefsPerLN(4)
+                .boundExtRefRatio(1.0)
+                .dataSetsPerLDevice(2)
+                .controlBlocksPerDataSet(3)
+                .seed(42L)
+                .build();
+        SCL scd = scdGenerator.generate();
+
+        SclMarshaller sclMarshaller = new SclMarshaller(XSD_PATH);
+        byte[] xml = sclMarshaller.marshal(scd);
+        assertDoesNotThrow(() -> sclMarshaller.unmarshal(xml));
+        assertArrayEquals(xml, sclMarshaller.marshal(scdGenerator.generate()));
+
+        assertEquals(5, scd.getIED().size());
+        SclRootAdapter sclRootAdapter = new SclRootAdapter(scd);
+        LDeviceAdapter lDeviceAdapter = sclRootAdapter.getIEDAdapterByName(ScdGenerator.iedName(0))
+                .getLDeviceAdapterByLdInst(ScdGenerator.ldInst(1)).orElseThrow();
+        assertEquals(3, lDeviceAdapter.getCurrentElem().getLN().size());
+        assertEquals(2, lDeviceAdapter.getLN0Adapter().getCurrentElem().getDataSet().size());
+        assertEquals(2, lDeviceAdapter.getLN0Adapter().getCurrentElem().getGSEControl().size());
+        assertEquals(2, lDeviceAdapter.getLN0Adapter().getCurrentElem().getSampledValueControl().size());
+        assertEquals(2, lDeviceAdapter.getLN0Adapter().getCurrentElem().getReportControl().size());
+
+        // bound ExtRefs point to existing sources
+        List<TExtRef> extRefs = lDeviceAdapter.getCurrentElem().getLN().get(0).getInputs().getExtRef();
+        assertEquals(4, extRefs.size());
+        ExtRefInfo extRefInfo = new ExtRefInfo(extRefs.get(0));
+        extRefInfo.setHolderIEDName(ScdGenerator.iedName(0));
+        extRefInfo.setHolderLDInst(ScdGenerator.ldInst(1));
+        extRefInfo.setHolderLnClass(ScdGenerator.lnClass(0, 2));
+        extRefInfo.setHolderLnInst(ScdGenerator.lnInst(0));
+        assertNotEquals(ScdGenerator.iedName(0), extRefs.get(0).getIedName());
+        assertFalse(SclService.getExtRefSourceInfo(scd, extRefInfo).isEmpty());
+    }
+
+    @Test
+    void testGenerate_defaults() throws Exception {
+        SCL scd = ScdGenerator.builder().sharedTypeRatio(0).iedCount(3).build().generate();
+        // one set of types per IED: LLN0 and the 4 LN types
+        assertEquals(3 * 5, scd.getDataTypeTemplates().getLNodeType().size());
+        assertEquals(TLLN0Enum.LLN_0.value() + "_" + ScdGenerator.iedName(0),
+                scd.getDataTypeTemplates().getLNodeType().get(0).getId());
+
+        assertThrows(ScdException.class, () -> ScdGenerator.builder().lDevicesPerIED(0).build().generate());
+    }
+}